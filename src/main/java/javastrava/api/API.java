@@ -6,14 +6,11 @@ import java.util.concurrent.CompletableFuture;
 
 import javastrava.api.async.StravaAPICallback;
 import javastrava.api.async.StravaAPIFuture;
-import javastrava.api.util.RetrofitClientResponseInterceptor;
-import javastrava.api.util.RetrofitErrorHandler;
-import javastrava.auth.impl.AuthorisationServiceImpl;
+import javastrava.api.util.TransportRegistry;
 import javastrava.auth.model.Token;
 import javastrava.auth.model.TokenResponse;
 import javastrava.auth.ref.AuthorisationScope;
 import javastrava.config.StravaConfig;
-import javastrava.json.impl.JsonUtilImpl;
 import javastrava.model.StravaActivity;
 import javastrava.model.StravaActivityUpdate;
 import javastrava.model.StravaActivityZone;
@@ -58,7 +55,6 @@ import javastrava.service.exception.UnauthorizedException;
 import retrofit.RestAdapter;
 import retrofit.RestAdapter.LogLevel;
 import retrofit.client.Response;
-import retrofit.converter.GsonConverter;
 import retrofit.http.DELETE;
 import retrofit.http.GET;
 import retrofit.http.Path;
@@ -87,9 +83,7 @@ public class API {
 	 */
 	public static AuthorisationAPI authorisationInstance() {
 		if (authorisationAPI == null) {
-			authorisationAPI = new RestAdapter.Builder().setClient(new RetrofitClientResponseInterceptor()).setConverter(new GsonConverter(new JsonUtilImpl().getGson()))
-					.setLogLevel(API.logLevel(AuthorisationServiceImpl.class)).setEndpoint(StravaConfig.AUTH_ENDPOINT).setErrorHandler(new RetrofitErrorHandler()).build()
-					.create(AuthorisationAPI.class);
+			authorisationAPI = TransportRegistry.instance().service(AuthorisationAPI.class);
 		}
 		return authorisationAPI;
 	}
@@ -116,7 +110,11 @@ public class API {
 
 	/**
 	 * <p>
-	 * Creates and returns a new API RestAdapter instance.
+	 * Returns an API service which authenticates its requests with the given token.
+	 * </p>
+	 *
+	 * <p>
+	 * The underlying RestAdapter, HTTP client and JSON converter are shared by all tokens, see {@link TransportRegistry}
 	 * </p>
 	 *
 	 * @param class1
@@ -128,20 +126,7 @@ public class API {
 	 * @return A REST service
 	 */
 	public static <T> T instance(final Class<T> class1, final Token token) {
-		return new RestAdapter.Builder()
-				// Client overrides handling of Strava-specific headers in the response, to deal with rate limiting
-				.setClient(new RetrofitClientResponseInterceptor())
-				// Converter is a GSON implementation with custom converters
-				.setConverter(new GsonConverter(new JsonUtilImpl().getGson()))
-				// Log level is determined per API service
-				.setLogLevel(API.logLevel(class1))
-				// Endpoint is the same for all services
-				.setEndpoint(StravaConfig.ENDPOINT)
-				// Request interceptor adds the access token into headers for each request
-				.setRequestInterceptor(request -> request.addHeader(StravaConfig.string("strava.authorization_header_name"), //$NON-NLS-1$
-						token.getTokenType() + " " + token.getToken())) //$NON-NLS-1$
-				// Error handler deals with Strava's implementations of 400, 401, 403, 404 errors etc.
-				.setErrorHandler(new RetrofitErrorHandler()).build().create(class1);
+		return TransportRegistry.instance().instance(class1, token);
 	}
 
 	/**
@@ -1,5 +1,6 @@
 package javastrava.api.async;
 
+import javastrava.api.util.TransportRegistry;
 import retrofit.Callback;
 import retrofit.RetrofitError;
 import retrofit.client.Response;
@@ -30,6 +31,14 @@ public class StravaAPICallback<T> implements Callback<T> {
 	@Override
 	public void failure(final RetrofitError error) {
 		this.future.completeExceptionally(error.getCause());
+		TransportRegistry.instance().getClient().forget(this.future.getCallId());
+	}
+
+	/**
+	 * @return The future which will be completed when the call to the API is complete
+	 */
+	public StravaAPIFuture<T> getFuture() {
+		return this.future;
 	}
 
 	/**
@@ -38,7 +47,7 @@ public class StravaAPICallback<T> implements Callback<T> {
 	@Override
 	public void success(final T t, final Response response) {
 		this.future.complete(t);
-
+		TransportRegistry.instance().getClient().forget(this.future.getCallId());
 	}
 
 }
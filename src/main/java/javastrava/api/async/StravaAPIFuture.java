@@ -2,55 +2,111 @@ package javastrava.api.async;
 
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javastrava.api.util.TransportRegistry;
+import javastrava.config.Messages;
+import javastrava.service.exception.StravaAPITimeoutException;
 import javastrava.service.exception.StravaUnknownAPIException;
 
 /**
  * <p>
- * Wrapper class for handling exceptions thrown by the API via a {@link CompletableFuture}
+ * Future for the result of an asynchronous call to the Strava API, which handles exceptions thrown by the API.
  * </p>
+ *
+ * <p>
+ * As a {@link CompletableFuture} (and so a {@link CompletionStage}), dependent calls can be chained onto it without blocking a thread while waiting for each result. Cancelling the future cancels
+ * the underlying HTTP call, whether it is still waiting to be sent or already in progress, and {@link #orTimeout(long, TimeUnit)} sets a deadline after which the call is abandoned.
+ * </p>
+ *
  * @author Dan Shannon
  * @param <T> Class of object which will be returned by the future
  *
  */
-public class StravaAPIFuture<T> {
+public class StravaAPIFuture<T> extends CompletableFuture<T> {
 	/**
-	 * Wrapped future
+	 * Timer used to enforce deadlines; a single daemon thread, which only ever completes futures
 	 */
-	private final CompletableFuture<T> future;
+	private static final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "javastrava-deadlines"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	/**
-	 * No argument constructor provides the wrapped future
+	 * Source of call identifiers
 	 */
-	public StravaAPIFuture() {
-		this.future = new CompletableFuture<T>();
-	}
+	private static final AtomicLong callIds = new AtomicLong();
+
+	/**
+	 * Total number of futures cancelled before they completed
+	 */
+	private static final AtomicLong cancelled = new AtomicLong();
 
 	/**
-	 * @param result The object to return via the future
+	 * Total number of futures which did not complete before their deadline
 	 */
-	public void complete(final T result) {
-		this.future.complete(result);
+	private static final AtomicLong timedOut = new AtomicLong();
 
+	/**
+	 * @return Total number of futures cancelled before they completed
+	 */
+	public static long getCancelledCount() {
+		return cancelled.get();
+	}
+
+	/**
+	 * @return Total number of futures which did not complete before their deadline
+	 */
+	public static long getTimeoutCount() {
+		return timedOut.get();
 	}
 
 	/**
-	 * @param cause Cause of the exceptional completion
+	 * Identifies the HTTP call which will complete this future
 	 */
-	public void completeExceptionally(final Throwable cause) {
-		this.future.completeExceptionally(cause);
+	private final String callId;
 
+	/**
+	 * No argument constructor
+	 */
+	public StravaAPIFuture() {
+		super();
+		this.callId = Long.toString(callIds.incrementAndGet());
+	}
+
+	/**
+	 * <p>
+	 * Cancels the future and the underlying HTTP call. A call which has not yet been sent will not be sent; a call in progress is abandoned, and its connection closed.
+	 * </p>
+	 *
+	 * @see java.util.concurrent.CompletableFuture#cancel(boolean)
+	 */
+	@Override
+	public boolean cancel(final boolean mayInterruptIfRunning) {
+		final boolean result = super.cancel(mayInterruptIfRunning);
+		if (result) {
+			cancelled.incrementAndGet();
+			TransportRegistry.instance().getClient().cancel(this.callId);
+		}
+		return result;
 	}
 
 	/**
 	 * Wrapper for the {@link CompletableFuture#get()} method handles exceptions and maps to javastrava exceptions
 	 * @return The object asked for
 	 */
+	@Override
 	public T get() {
 		T result = null;
 		try {
-			result = this.future.get();
+			result = super.get();
 		} catch (final ExecutionException e) {
 			throw (RuntimeException) e.getCause();
 		} catch (final CancellationException e) {
@@ -60,4 +116,36 @@ public class StravaAPIFuture<T> {
 		}
 		return result;
 	}
+
+	/**
+	 * @return Identifies the HTTP call which will complete this future
+	 */
+	public String getCallId() {
+		return this.callId;
+	}
+
+	/**
+	 * <p>
+	 * Sets a deadline for the call. If the future has not completed when the deadline passes, it completes exceptionally with a {@link StravaAPITimeoutException} and the underlying HTTP call is
+	 * cancelled.
+	 * </p>
+	 *
+	 * @param timeout How long to wait before giving up
+	 * @param unit Unit of the timeout
+	 * @return This future
+	 */
+	public StravaAPIFuture<T> orTimeout(final long timeout, final TimeUnit unit) {
+		if (isDone()) {
+			return this;
+		}
+		final long millis = unit.toMillis(timeout);
+		final ScheduledFuture<?> deadline = deadlines.schedule(() -> {
+			if (completeExceptionally(new StravaAPITimeoutException(Messages.string("StravaAPIFuture.timeout"), millis))) { //$NON-NLS-1$
+				timedOut.incrementAndGet();
+				TransportRegistry.instance().getClient().cancel(this.callId);
+			}
+		}, timeout, unit);
+		whenComplete((result, error) -> deadline.cancel(false));
+		return this;
+	}
 }
@@ -0,0 +1,134 @@
+package javastrava.api.util;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Executor which limits the number of tasks that can be queued or running in another executor at once.
+ * </p>
+ *
+ * <p>
+ * When the limit has been reached, {@link #execute(Runnable)} blocks the submitting thread until a task finishes, so that callers producing asynchronous work faster than it can be done are slowed
+ * down rather than building an unbounded queue. If no task finishes within the timeout, the task is rejected with a {@link RejectedExecutionException}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class BoundedExecutor implements Executor {
+	/**
+	 * The executor which runs the tasks
+	 */
+	private final Executor delegate;
+
+	/**
+	 * Maximum number of tasks queued or running at once
+	 */
+	private final int maxInFlight;
+
+	/**
+	 * Permits for tasks queued or running
+	 */
+	private final Semaphore permits;
+
+	/**
+	 * Maximum time in milliseconds that a submitting thread will be blocked waiting for a permit
+	 */
+	private final long submitTimeout;
+
+	/**
+	 * Total number of submissions which had to wait for a permit
+	 */
+	private final AtomicLong throttled = new AtomicLong();
+
+	/**
+	 * Total number of tasks rejected because no permit became available in time
+	 */
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * @param delegate
+	 *            The executor which runs the tasks
+	 * @param maxInFlight
+	 *            Maximum number of tasks queued or running at once
+	 * @param submitTimeout
+	 *            Maximum time in milliseconds that a submitting thread will be blocked waiting for a permit
+	 */
+	public BoundedExecutor(final Executor delegate, final int maxInFlight, final long submitTimeout) {
+		this.delegate = delegate;
+		this.maxInFlight = maxInFlight;
+		this.permits = new Semaphore(maxInFlight);
+		this.submitTimeout = submitTimeout;
+	}
+
+	/**
+	 * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+	 */
+	@Override
+	public void execute(final Runnable command) {
+		if (!this.permits.tryAcquire()) {
+			this.throttled.incrementAndGet();
+			try {
+				if (!this.permits.tryAcquire(this.submitTimeout, TimeUnit.MILLISECONDS)) {
+					this.rejected.incrementAndGet();
+					throw new RejectedExecutionException("Too many asynchronous requests in flight (" + this.maxInFlight + ")"); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.rejected.incrementAndGet();
+				throw new RejectedExecutionException(e);
+			}
+		}
+		try {
+			this.delegate.execute(() -> {
+				try {
+					command.run();
+				} finally {
+					this.permits.release();
+				}
+			});
+		} catch (final RuntimeException e) {
+			this.permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return The executor which runs the tasks
+	 */
+	public Executor getDelegate() {
+		return this.delegate;
+	}
+
+	/**
+	 * @return Number of tasks currently queued or running
+	 */
+	public int getInFlightCount() {
+		return this.maxInFlight - this.permits.availablePermits();
+	}
+
+	/**
+	 * @return Maximum number of tasks queued or running at once
+	 */
+	public int getMaxInFlight() {
+		return this.maxInFlight;
+	}
+
+	/**
+	 * @return Total number of tasks rejected because no permit became available in time
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * @return Total number of submissions which had to wait for a permit
+	 */
+	public long getThrottledCount() {
+		return this.throttled.get();
+	}
+}
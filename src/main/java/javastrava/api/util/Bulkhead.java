@@ -0,0 +1,85 @@
+package javastrava.api.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Limits the number of calls to one endpoint of the Strava API that can be in flight at once, so that a slow endpoint cannot tie up every thread and pooled connection in the process. A call which
+ * would exceed the limit fails immediately rather than queueing.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class Bulkhead {
+	/**
+	 * Maximum number of calls in flight at once (0 for no limit)
+	 */
+	private volatile int maxConcurrent;
+
+	/**
+	 * Number of calls currently in flight
+	 */
+	private int inFlight;
+
+	/**
+	 * Total number of calls rejected because the limit had been reached
+	 */
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * @param maxConcurrent
+	 *            Maximum number of calls in flight at once (0 for no limit)
+	 */
+	public Bulkhead(final int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	/**
+	 * @return Number of calls currently in flight
+	 */
+	public synchronized int getInFlightCount() {
+		return this.inFlight;
+	}
+
+	/**
+	 * @return Maximum number of calls in flight at once (0 for no limit)
+	 */
+	public int getMaxConcurrent() {
+		return this.maxConcurrent;
+	}
+
+	/**
+	 * @return Total number of calls rejected because the limit had been reached
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Releases the permit taken by a successful {@link #tryAcquire()}
+	 */
+	public synchronized void release() {
+		this.inFlight--;
+	}
+
+	/**
+	 * @param maxConcurrent
+	 *            Maximum number of calls in flight at once (0 for no limit)
+	 */
+	public void setMaxConcurrent(final int maxConcurrent) {
+		this.maxConcurrent = maxConcurrent;
+	}
+
+	/**
+	 * @return <code>true</code> if a permit was taken and the call may go ahead, <code>false</code> if the limit has been reached
+	 */
+	public synchronized boolean tryAcquire() {
+		if ((this.maxConcurrent > 0) && (this.inFlight >= this.maxConcurrent)) {
+			this.rejected.incrementAndGet();
+			return false;
+		}
+		this.inFlight++;
+		return true;
+	}
+}
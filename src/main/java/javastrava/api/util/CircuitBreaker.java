@@ -0,0 +1,258 @@
+package javastrava.api.util;
+
+/**
+ * <p>
+ * Circuit breaker for one endpoint of the Strava API.
+ * </p>
+ *
+ * <p>
+ * The breaker records the outcome of the most recent calls to the endpoint. When at least the minimum number of calls have been recorded and the proportion which failed reaches the threshold, the
+ * breaker opens and calls fail immediately without being sent. Once the breaker has been open for the configured time it becomes half-open, and lets a small number of probe calls through; if they
+ * all succeed it closes again, and if any of them fails it opens again.
+ * </p>
+ *
+ * <p>
+ * Only server errors (5xx) and network failures count as failures; client errors such as 404 show that the endpoint is working.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class CircuitBreaker {
+	/**
+	 * States of a circuit breaker
+	 */
+	public enum State {
+		/**
+		 * Calls are sent as normal
+		 */
+		CLOSED,
+		/**
+		 * Calls fail without being sent
+		 */
+		OPEN,
+		/**
+		 * A limited number of probe calls are being sent to find out if the endpoint has recovered
+		 */
+		HALF_OPEN
+	}
+
+	/**
+	 * Outcomes of the most recent calls, used as a ring buffer; <code>true</code> is a failure
+	 */
+	private final boolean[] outcomes;
+
+	/**
+	 * Number of outcomes currently recorded in the ring buffer
+	 */
+	private int recorded;
+
+	/**
+	 * Position in the ring buffer of the next outcome
+	 */
+	private int next;
+
+	/**
+	 * Number of failures currently recorded in the ring buffer
+	 */
+	private int failures;
+
+	/**
+	 * Minimum number of recorded calls before the breaker can open
+	 */
+	private final int minimumCalls;
+
+	/**
+	 * Percentage of recorded calls which must fail for the breaker to open
+	 */
+	private final int failureRatePercent;
+
+	/**
+	 * Time in milliseconds that the breaker stays open before letting probe calls through
+	 */
+	private final long openMillis;
+
+	/**
+	 * Number of probe calls which must succeed while half-open for the breaker to close
+	 */
+	private final int halfOpenProbes;
+
+	/**
+	 * Current state
+	 */
+	private State state = State.CLOSED;
+
+	/**
+	 * Time at which the breaker last opened, in milliseconds since the epoch
+	 */
+	private long openedAt;
+
+	/**
+	 * Number of probe calls let through since the breaker became half-open
+	 */
+	private int probesStarted;
+
+	/**
+	 * Number of probe calls which have succeeded since the breaker became half-open
+	 */
+	private int probesSucceeded;
+
+	/**
+	 * Total number of calls rejected because the breaker was open
+	 */
+	private long rejected;
+
+	/**
+	 * Number of times the breaker has opened
+	 */
+	private long opened;
+
+	/**
+	 * @param windowSize
+	 *            Number of recent calls to record
+	 * @param minimumCalls
+	 *            Minimum number of recorded calls before the breaker can open
+	 * @param failureRatePercent
+	 *            Percentage of recorded calls which must fail for the breaker to open
+	 * @param openMillis
+	 *            Time in milliseconds that the breaker stays open before letting probe calls through
+	 * @param halfOpenProbes
+	 *            Number of probe calls which must succeed while half-open for the breaker to close
+	 */
+	public CircuitBreaker(final int windowSize, final int minimumCalls, final int failureRatePercent, final long openMillis, final int halfOpenProbes) {
+		this.outcomes = new boolean[windowSize];
+		this.minimumCalls = minimumCalls;
+		this.failureRatePercent = failureRatePercent;
+		this.openMillis = openMillis;
+		this.halfOpenProbes = halfOpenProbes;
+	}
+
+	/**
+	 * <p>
+	 * Asks whether a call may be sent now. If it may, the outcome must be reported with {@link #onSuccess()} or {@link #onFailure()}, or with {@link #onAbandoned()} if the call is not sent after
+	 * all.
+	 * </p>
+	 *
+	 * @return <code>true</code> if the call may be sent, <code>false</code> if it should fail immediately
+	 */
+	public synchronized boolean allow() {
+		if ((this.state == State.OPEN) && ((System.currentTimeMillis() - this.openedAt) >= this.openMillis)) {
+			this.state = State.HALF_OPEN;
+			this.probesStarted = 0;
+			this.probesSucceeded = 0;
+		}
+		if (this.state == State.CLOSED) {
+			return true;
+		}
+		if ((this.state == State.HALF_OPEN) && (this.probesStarted < this.halfOpenProbes)) {
+			this.probesStarted++;
+			return true;
+		}
+		this.rejected++;
+		return false;
+	}
+
+	/**
+	 * @return Percentage of the recorded calls which failed
+	 */
+	public synchronized float getFailureRate() {
+		return (this.recorded == 0 ? 0 : (100f * this.failures) / this.recorded);
+	}
+
+	/**
+	 * @return Number of times the breaker has opened
+	 */
+	public synchronized long getOpenedCount() {
+		return this.opened;
+	}
+
+	/**
+	 * @return Total number of calls rejected because the breaker was open
+	 */
+	public synchronized long getRejectedCount() {
+		return this.rejected;
+	}
+
+	/**
+	 * @return The current state
+	 */
+	public synchronized State getState() {
+		return this.state;
+	}
+
+	/**
+	 * Reports that a call allowed by {@link #allow()} was not sent after all
+	 */
+	public synchronized void onAbandoned() {
+		if ((this.state == State.HALF_OPEN) && (this.probesStarted > 0)) {
+			this.probesStarted--;
+		}
+	}
+
+	/**
+	 * Reports that a call allowed by {@link #allow()} failed
+	 */
+	public synchronized void onFailure() {
+		if (this.state == State.HALF_OPEN) {
+			open();
+			return;
+		}
+		record(true);
+		if ((this.state == State.CLOSED) && (this.recorded >= this.minimumCalls) && ((this.failures * 100) >= (this.failureRatePercent * this.recorded))) {
+			open();
+		}
+	}
+
+	/**
+	 * Reports that a call allowed by {@link #allow()} succeeded
+	 */
+	public synchronized void onSuccess() {
+		if (this.state == State.HALF_OPEN) {
+			this.probesSucceeded++;
+			if (this.probesSucceeded >= this.halfOpenProbes) {
+				this.state = State.CLOSED;
+				reset();
+			}
+			return;
+		}
+		record(false);
+	}
+
+	/**
+	 * Opens the breaker
+	 */
+	private void open() {
+		this.state = State.OPEN;
+		this.openedAt = System.currentTimeMillis();
+		this.opened++;
+		reset();
+	}
+
+	/**
+	 * @param failure
+	 *            <code>true</code> if the call failed
+	 */
+	private void record(final boolean failure) {
+		if (this.recorded == this.outcomes.length) {
+			if (this.outcomes[this.next]) {
+				this.failures--;
+			}
+		} else {
+			this.recorded++;
+		}
+		this.outcomes[this.next] = failure;
+		if (failure) {
+			this.failures++;
+		}
+		this.next = (this.next + 1) % this.outcomes.length;
+	}
+
+	/**
+	 * Forgets all recorded outcomes
+	 */
+	private void reset() {
+		this.recorded = 0;
+		this.next = 0;
+		this.failures = 0;
+	}
+}
@@ -0,0 +1,87 @@
+package javastrava.api.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * Holds the {@link CircuitBreaker} and {@link Bulkhead} for each endpoint of the Strava API. An endpoint is identified by the API interface and method used to call it, e.g.
+ * <code>ActivityAPI.getActivity</code>; the synchronous and asynchronous variants of a method share an endpoint.
+ * </p>
+ *
+ * <p>
+ * Breakers and bulkheads are created on first use with the settings in javastrava-config.properties (strava.circuit.* and strava.bulkhead.*). The maps returned by {@link #getCircuitBreakers()} and
+ * {@link #getBulkheads()} are live views, so that breaker state and bulkhead usage can be exported as metrics.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class EndpointGuards {
+	/**
+	 * The singleton instance
+	 */
+	private static EndpointGuards instance = new EndpointGuards();
+
+	/**
+	 * @return The singleton instance
+	 */
+	public static EndpointGuards instance() {
+		return instance;
+	}
+
+	/**
+	 * Circuit breakers, by endpoint
+	 */
+	private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<String, CircuitBreaker>();
+
+	/**
+	 * Bulkheads, by endpoint
+	 */
+	private final ConcurrentHashMap<String, Bulkhead> bulkheads = new ConcurrentHashMap<String, Bulkhead>();
+
+	/**
+	 * <p>
+	 * Private constructor allows only for instantiation as a singleton via {@link #instance()}
+	 * </p>
+	 */
+	private EndpointGuards() {
+		super();
+	}
+
+	/**
+	 * @param endpoint
+	 *            The endpoint
+	 * @return The bulkhead for the endpoint, created if this is the first time it has been asked for
+	 */
+	public Bulkhead bulkhead(final String endpoint) {
+		return this.bulkheads.computeIfAbsent(endpoint, key -> new Bulkhead(StravaConfig.BULKHEAD_MAX_CONCURRENT));
+	}
+
+	/**
+	 * @param endpoint
+	 *            The endpoint
+	 * @return The circuit breaker for the endpoint, created if this is the first time it has been asked for
+	 */
+	public CircuitBreaker circuitBreaker(final String endpoint) {
+		return this.circuitBreakers.computeIfAbsent(endpoint, key -> new CircuitBreaker(StravaConfig.CIRCUIT_WINDOW_SIZE, StravaConfig.CIRCUIT_MINIMUM_CALLS,
+				StravaConfig.CIRCUIT_FAILURE_RATE_PERCENT, StravaConfig.CIRCUIT_OPEN_MILLISECONDS, StravaConfig.CIRCUIT_HALF_OPEN_PROBES));
+	}
+
+	/**
+	 * @return Read-only view of the bulkheads created so far, by endpoint
+	 */
+	public Map<String, Bulkhead> getBulkheads() {
+		return Collections.unmodifiableMap(this.bulkheads);
+	}
+
+	/**
+	 * @return Read-only view of the circuit breakers created so far, by endpoint
+	 */
+	public Map<String, CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableMap(this.circuitBreakers);
+	}
+}
@@ -0,0 +1,678 @@
+package javastrava.api.util;
+
+import java.io.InterruptedIOException;
+import java.util.StringTokenizer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.config.Messages;
+import javastrava.config.StravaConfig;
+import javastrava.service.exception.StravaAPIRateLimitException;
+
+/**
+ * <p>
+ * Admission control for requests to the Strava API.
+ * </p>
+ *
+ * <p>
+ * Strava limits each application to a number of requests per 15 minute window (starting on the hour, quarter past, half past and quarter to) and a number of requests per day (starting at
+ * midnight UTC). The scheduler keeps a token bucket for each window, which is refilled when the window rolls over and is re-seeded from the X-RateLimit-Usage and X-RateLimit-Limit headers on every
+ * response. A request which would exceed either limit is held in the process until the window rolls over, rather than being sent to Strava and rejected.
+ * </p>
+ *
+ * <p>
+ * If the wait would be longer than the configured maximum (strava.rate_limit_max_wait_ms), then a {@link StravaAPIRateLimitException} is thrown immediately without sending the request.
+ * </p>
+ *
+ * <p>
+ * Each request belongs to a {@link RequestLane}. Lower priority lanes may only use part of each window and may be limited in the number of requests they have in flight, so that the rest is held in
+ * reserve for interactive traffic; they also give way whenever a higher priority lane has requests waiting for capacity that the lanes share. Requests held back only by their own lane's limit on
+ * concurrent requests do not hold up lower priority lanes.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class RateLimitScheduler {
+	/**
+	 * <p>
+	 * A token bucket covering one of Strava's fixed rate limit windows
+	 * </p>
+	 */
+	static class Window {
+		/**
+		 * Length of the window in milliseconds
+		 */
+		private final long length;
+
+		/**
+		 * Maximum number of requests allowed in the window
+		 */
+		private int limit;
+
+		/**
+		 * Number of requests used in the current window
+		 */
+		private int used;
+
+		/**
+		 * Start time of the current window, in milliseconds since the epoch
+		 */
+		private long start;
+
+		/**
+		 * @param length
+		 *            Length of the window in milliseconds
+		 * @param limit
+		 *            Maximum number of requests allowed in the window
+		 */
+		Window(final long length, final int limit) {
+			this.length = length;
+			this.limit = limit;
+		}
+
+		/**
+		 * @return Number of requests that can still be made in the current window
+		 */
+		int available() {
+			return this.limit - this.used;
+		}
+
+		/**
+		 * @return The time at which the current window ends, in milliseconds since the epoch
+		 */
+		long end() {
+			return this.start + this.length;
+		}
+
+		/**
+		 * Refill the bucket if the window has rolled over
+		 *
+		 * @param now
+		 *            Current time in milliseconds since the epoch
+		 */
+		void roll(final long now) {
+			final long currentStart = now - (now % this.length);
+			if (currentStart != this.start) {
+				this.start = currentStart;
+				this.used = 0;
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Limits and statistics for one {@link RequestLane}
+	 * </p>
+	 */
+	static class LaneState {
+		/**
+		 * Percentage of each rate limit window that requests in this lane may use
+		 */
+		private int rateLimitPercent;
+
+		/**
+		 * Maximum number of requests in this lane that may be in flight at once (0 for no limit)
+		 */
+		private int maxConcurrent;
+
+		/**
+		 * Number of requests in this lane currently in flight
+		 */
+		private int inFlight;
+
+		/**
+		 * Number of requests in this lane currently waiting for capacity
+		 */
+		private int waiting;
+
+		/**
+		 * Number of the waiting requests which are not held back by this lane's limit on concurrent requests, and so are waiting for capacity shared with other lanes
+		 */
+		private int contending;
+
+		/**
+		 * Signalled when a request waiting in this lane may be able to go ahead
+		 */
+		private final Condition condition;
+
+		/**
+		 * Total number of requests admitted in this lane
+		 */
+		private long admitted;
+
+		/**
+		 * Total time in milliseconds that admitted requests in this lane spent waiting
+		 */
+		private long totalWait;
+
+		/**
+		 * Longest time in milliseconds that an admitted request in this lane spent waiting
+		 */
+		private long maxWait;
+
+		/**
+		 * @param rateLimitPercent
+		 *            Percentage of each rate limit window that requests in this lane may use
+		 * @param maxConcurrent
+		 *            Maximum number of requests in this lane that may be in flight at once (0 for no limit)
+		 * @param condition
+		 *            Signalled when a request waiting in this lane may be able to go ahead
+		 */
+		LaneState(final int rateLimitPercent, final int maxConcurrent, final Condition condition) {
+			this.rateLimitPercent = rateLimitPercent;
+			this.maxConcurrent = maxConcurrent;
+			this.condition = condition;
+		}
+
+		/**
+		 * @param window
+		 *            A rate limit window
+		 * @return <code>true</code> if this lane's share of the window has not been used up
+		 */
+		boolean hasCapacity(final Window window) {
+			return window.used < ((window.limit * (long) this.rateLimitPercent) / 100);
+		}
+	}
+
+	/**
+	 * Length of Strava's short rate limit window
+	 */
+	private static final long FIFTEEN_MINUTES = TimeUnit.MINUTES.toMillis(15);
+
+	/**
+	 * Length of Strava's daily rate limit window
+	 */
+	private static final long ONE_DAY = TimeUnit.DAYS.toMillis(1);
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * The singleton instance of the scheduler; rate limits apply to the application as a whole, so all tokens share it
+	 */
+	private static RateLimitScheduler instance = new RateLimitScheduler(StravaConfig.integer("strava.rate_limit").intValue(), //$NON-NLS-1$
+			StravaConfig.integer("strava.rate_limit_daily").intValue(), StravaConfig.RATE_LIMIT_MAX_WAIT_MILLISECONDS); //$NON-NLS-1$
+
+	/**
+	 * @return The singleton instance of the scheduler
+	 */
+	public static RateLimitScheduler instance() {
+		return instance;
+	}
+
+	/**
+	 * Parse a pair of comma-separated integers as given in Strava's rate limit headers
+	 *
+	 * @param value
+	 *            Header value
+	 * @return The two values, or <code>null</code> if the header can't be parsed
+	 */
+	private static int[] parse(final String value) {
+		try {
+			final StringTokenizer tokenizer = new StringTokenizer(value, ","); //$NON-NLS-1$
+			return new int[] { Integer.parseInt(tokenizer.nextToken().trim()), Integer.parseInt(tokenizer.nextToken().trim()) };
+		} catch (final RuntimeException e) {
+			log.warn(value, e);
+			return null;
+		}
+	}
+
+	/**
+	 * The 15 minute window
+	 */
+	private final Window current;
+
+	/**
+	 * The daily window
+	 */
+	private final Window daily;
+
+	/**
+	 * Maximum time in milliseconds that a request will be held waiting for capacity
+	 */
+	private final long maxWait;
+
+	/**
+	 * Lock guarding both windows; fair so that waiting requests are released in order
+	 */
+	private final ReentrantLock lock = new ReentrantLock(true);
+
+	/**
+	 * Limits and statistics for each lane, indexed by {@link RequestLane#ordinal()}
+	 */
+	private final LaneState[] lanes;
+
+	/**
+	 * Total number of requests which have been held waiting for capacity
+	 */
+	private final AtomicLong delayed = new AtomicLong();
+
+	/**
+	 * Total number of requests which have been rejected because the wait would be too long
+	 */
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * @param rateLimit
+	 *            Initial request limit per 15 minutes
+	 * @param rateLimitDaily
+	 *            Initial request limit per day
+	 * @param maxWait
+	 *            Maximum time in milliseconds that a request will be held waiting for capacity
+	 */
+	public RateLimitScheduler(final int rateLimit, final int rateLimitDaily, final long maxWait) {
+		this.current = new Window(FIFTEEN_MINUTES, rateLimit);
+		this.daily = new Window(ONE_DAY, rateLimitDaily);
+		this.maxWait = maxWait;
+		this.lanes = new LaneState[RequestLane.values().length];
+		for (final RequestLane lane : RequestLane.values()) {
+			final String prefix = "strava.lane." + lane.name().toLowerCase(); //$NON-NLS-1$
+			this.lanes[lane.ordinal()] = new LaneState(StravaConfig.integer(prefix + ".rate_limit_percent").intValue(), //$NON-NLS-1$
+					StravaConfig.integer(prefix + ".max_concurrent").intValue(), this.lock.newCondition()); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Waits until a request in the given lane can be sent without exceeding the lane's share of either rate limit or its limit on concurrent requests, and then takes a permit from both windows.
+	 * </p>
+	 *
+	 * <p>
+	 * Requests in a lane also wait while any higher priority lane has requests waiting for shared capacity. Every successful call must be matched by a call to {@link #release(RequestLane)} once the response has been
+	 * received.
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane that the request belongs to
+	 * @throws InterruptedIOException
+	 *             If the thread is interrupted while waiting
+	 * @throws StravaAPIRateLimitException
+	 *             If the wait for capacity would be longer than the configured maximum
+	 */
+	public void acquire(final RequestLane lane) throws InterruptedIOException {
+		final LaneState state = this.lanes[lane.ordinal()];
+		this.lock.lock();
+		try {
+			final long start = System.currentTimeMillis();
+			boolean counted = false;
+			boolean contending = false;
+			state.waiting++;
+			try {
+				while (true) {
+					final long now = System.currentTimeMillis();
+					this.current.roll(now);
+					this.daily.roll(now);
+					final boolean currentOK = state.hasCapacity(this.current);
+					final boolean dailyOK = state.hasCapacity(this.daily);
+					final boolean concurrencyOK = (state.maxConcurrent <= 0) || (state.inFlight < state.maxConcurrent);
+					contending = setContending(lane, contending, concurrencyOK);
+					if (currentOK && dailyOK && concurrencyOK && !higherLaneWaiting(lane)) {
+						this.current.used++;
+						this.daily.used++;
+						state.inFlight++;
+						state.admitted++;
+						final long waited = now - start;
+						state.totalWait += waited;
+						state.maxWait = Math.max(state.maxWait, waited);
+						return;
+					}
+
+					// If the lane's share of a window is used up, wait until the window rolls over; otherwise wait to be signalled that a request has completed
+					long wait = this.maxWait - (now - start);
+					if (!currentOK || !dailyOK) {
+						final long until = Math.max(currentOK ? 0 : this.current.end(), dailyOK ? 0 : this.daily.end());
+						if ((until - start) > this.maxWait) {
+							this.rejected.incrementAndGet();
+							throw new StravaAPIRateLimitException(Messages.string("RetrofitErrorHandler.rateLimitExceeded"), null, null); //$NON-NLS-1$
+						}
+						wait = until - now;
+					}
+					if (!counted) {
+						this.delayed.incrementAndGet();
+						counted = true;
+					}
+					if (wait <= 0) {
+						this.rejected.incrementAndGet();
+						throw new StravaAPIRateLimitException(Messages.string("RetrofitErrorHandler.rateLimitExceeded"), null, null); //$NON-NLS-1$
+					}
+					try {
+						state.condition.await(wait, TimeUnit.MILLISECONDS);
+					} catch (final InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new InterruptedIOException(e.getMessage());
+					}
+				}
+			} finally {
+				state.waiting--;
+				setContending(lane, contending, false);
+				// Pass the signal on to the next request waiting in the lane, which may now be able to go ahead too
+				if (state.waiting > 0) {
+					state.condition.signal();
+				}
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return Average time in milliseconds that admitted requests in the lane have spent waiting for capacity
+	 */
+	public double getAverageWait(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			final LaneState state = this.lanes[lane.ordinal()];
+			return (state.admitted == 0 ? 0 : (double) state.totalWait / state.admitted);
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return Total number of requests admitted in the lane
+	 */
+	public long getAdmittedCount(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			return this.lanes[lane.ordinal()].admitted;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return Number of requests in the lane currently in flight
+	 */
+	public int getInFlightCount(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			return this.lanes[lane.ordinal()].inFlight;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return Longest time in milliseconds that an admitted request in the lane has spent waiting for capacity
+	 */
+	public long getMaxWait(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			return this.lanes[lane.ordinal()].maxWait;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return Number of requests in the lane currently waiting for capacity
+	 */
+	public int getQueueDepth(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			return this.lanes[lane.ordinal()].waiting;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @param lane
+	 *            A lane
+	 * @return <code>true</code> if any lane of higher priority than the given one has requests waiting for shared capacity
+	 */
+	private boolean higherLaneWaiting(final RequestLane lane) {
+		for (int i = 0; i < lane.ordinal(); i++) {
+			if (this.lanes[i].contending > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * Releases the concurrency permit taken by {@link #acquire(RequestLane)} once the response has been received
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane that the request belongs to
+	 */
+	public void release(final RequestLane lane) {
+		this.lock.lock();
+		try {
+			final LaneState state = this.lanes[lane.ordinal()];
+			state.inFlight--;
+			if (state.waiting > 0) {
+				state.condition.signal();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Records whether a waiting request is contending for capacity shared with other lanes. When the last contending request in a lane stops contending, one request waiting in each lower
+	 * priority lane is signalled, as they may now be able to go ahead.
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane that the request belongs to
+	 * @param was
+	 *            <code>true</code> if the request was contending
+	 * @param is
+	 *            <code>true</code> if the request is now contending
+	 * @return <code>is</code>
+	 */
+	private boolean setContending(final RequestLane lane, final boolean was, final boolean is) {
+		if (was == is) {
+			return is;
+		}
+		final LaneState state = this.lanes[lane.ordinal()];
+		if (is) {
+			state.contending++;
+		} else {
+			state.contending--;
+			if (state.contending == 0) {
+				for (int i = lane.ordinal() + 1; i < this.lanes.length; i++) {
+					if (this.lanes[i].waiting > 0) {
+						this.lanes[i].condition.signal();
+					}
+				}
+			}
+		}
+		return is;
+	}
+
+	/**
+	 * <p>
+	 * Changes the share of the rate limit and the number of concurrent requests available to a lane
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane
+	 * @param rateLimitPercent
+	 *            Percentage of each rate limit window that requests in the lane may use
+	 * @param maxConcurrent
+	 *            Maximum number of requests in the lane that may be in flight at once (0 for no limit)
+	 */
+	public void setLaneLimits(final RequestLane lane, final int rateLimitPercent, final int maxConcurrent) {
+		this.lock.lock();
+		try {
+			final LaneState state = this.lanes[lane.ordinal()];
+			state.rateLimitPercent = rateLimitPercent;
+			state.maxConcurrent = maxConcurrent;
+			signalAllLanes();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Wakes every waiting request, in every lane, after the limits have changed
+	 * </p>
+	 */
+	private void signalAllLanes() {
+		for (final LaneState state : this.lanes) {
+			state.condition.signalAll();
+		}
+	}
+
+	/**
+	 * @return Number of requests that can still be made in the current 15 minute window
+	 */
+	public int getAvailable() {
+		this.lock.lock();
+		try {
+			this.current.roll(System.currentTimeMillis());
+			return Math.max(0, this.current.available());
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Number of requests that can still be made today
+	 */
+	public int getAvailableDaily() {
+		this.lock.lock();
+		try {
+			this.daily.roll(System.currentTimeMillis());
+			return Math.max(0, this.daily.available());
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Total number of requests which have been held waiting for capacity
+	 */
+	public long getDelayedCount() {
+		return this.delayed.get();
+	}
+
+	/**
+	 * @return Request limit per 15 minutes
+	 */
+	public int getRateLimit() {
+		return this.current.limit;
+	}
+
+	/**
+	 * @return Request limit per day
+	 */
+	public int getRateLimitDaily() {
+		return this.daily.limit;
+	}
+
+	/**
+	 * @return Total number of requests which have been rejected because the wait for capacity would be too long
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * @return Number of requests used in the current 15 minute window
+	 */
+	public int getRequestRate() {
+		this.lock.lock();
+		try {
+			this.current.roll(System.currentTimeMillis());
+			return this.current.used;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * @return Number of requests used today
+	 */
+	public int getRequestRateDaily() {
+		this.lock.lock();
+		try {
+			this.daily.roll(System.currentTimeMillis());
+			return this.daily.used;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Re-seeds the buckets from the value of the X-RateLimit-Limit header returned by Strava
+	 * </p>
+	 *
+	 * @param header
+	 *            Header value, in the form "15-minute-limit,daily-limit"
+	 */
+	public void updateLimit(final String header) {
+		final int[] values = parse(header);
+		if (values == null) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			this.current.limit = values[0];
+			this.daily.limit = values[1];
+			signalAllLanes();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Re-seeds the buckets from the value of the X-RateLimit-Usage header returned by Strava
+	 * </p>
+	 *
+	 * <p>
+	 * Strava's count never reduces the local count within a window, as the local count also includes requests which are still in flight
+	 * </p>
+	 *
+	 * @param header
+	 *            Header value, in the form "15-minute-usage,daily-usage"
+	 * @param requestTime
+	 *            Time at which the request was sent, in milliseconds since the epoch. Usage reported for a request sent in an earlier window is not applied to the current one.
+	 */
+	public void updateUsage(final String header, final long requestTime) {
+		final int[] values = parse(header);
+		if (values == null) {
+			return;
+		}
+		this.lock.lock();
+		try {
+			final long now = System.currentTimeMillis();
+			this.current.roll(now);
+			this.daily.roll(now);
+			if (requestTime >= this.current.start) {
+				this.current.used = Math.max(this.current.used, values[0]);
+			}
+			if (requestTime >= this.daily.start) {
+				this.daily.used = Math.max(this.daily.used, values[1]);
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package javastrava.api.util;
+
+import java.util.function.Supplier;
+
+import javastrava.auth.model.Token;
+
+/**
+ * <p>
+ * Priority classes for requests to the Strava API.
+ * </p>
+ *
+ * <p>
+ * Each lane may only use a configured share of the rate limit (see strava.lane.*.rate_limit_percent) and a configured number of concurrent connections (see strava.lane.*.max_concurrent), so that
+ * the remaining capacity is held in reserve for the higher priority lanes.
+ * </p>
+ *
+ * <p>
+ * The lane for a request is taken from the innermost enclosing {@link #call(RequestLane, Supplier)} or {@link #run(RequestLane, Runnable)} on the calling thread; if there is none, the default lane of
+ * the {@link Token} is used (see {@link Token#setLane(RequestLane)}), and if that is not set then {@link #NORMAL}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public enum RequestLane {
+	/**
+	 * User-facing requests; may use the whole rate limit
+	 */
+	INTERACTIVE,
+	/**
+	 * Default lane
+	 */
+	NORMAL,
+	/**
+	 * Backfill and other background requests; the first to be held back as the rate limit is approached
+	 */
+	BULK;
+
+	/**
+	 * Lane of the innermost enclosing scope on this thread
+	 */
+	private static final ThreadLocal<RequestLane> CURRENT = new ThreadLocal<RequestLane>();
+
+	/**
+	 * <p>
+	 * Runs the supplier with all API requests made on this thread tagged with the given lane
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane to use
+	 * @param supplier
+	 *            The code to run
+	 * @param <T>
+	 *            The type returned by the supplier
+	 * @return The value returned by the supplier
+	 */
+	public static <T> T call(final RequestLane lane, final Supplier<T> supplier) {
+		final RequestLane previous = CURRENT.get();
+		if (lane == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(lane);
+		}
+		try {
+			return supplier.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * @return The lane of the innermost enclosing scope on this thread, or <code>null</code> if there is none
+	 */
+	public static RequestLane current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * <p>
+	 * Works out the lane to use for a request made with the given token
+	 * </p>
+	 *
+	 * @param token
+	 *            The token making the request (may be <code>null</code>)
+	 * @return The lane
+	 */
+	public static RequestLane resolve(final Token token) {
+		final RequestLane lane = CURRENT.get();
+		if (lane != null) {
+			return lane;
+		}
+		if ((token != null) && (token.getLane() != null)) {
+			return token.getLane();
+		}
+		return NORMAL;
+	}
+
+	/**
+	 * <p>
+	 * Runs the code with all API requests made on this thread tagged with the given lane
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane to use
+	 * @param runnable
+	 *            The code to run
+	 */
+	public static void run(final RequestLane lane, final Runnable runnable) {
+		call(lane, () -> {
+			runnable.run();
+			return null;
+		});
+	}
+}
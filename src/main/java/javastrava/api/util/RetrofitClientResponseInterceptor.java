@@ -1,68 +1,553 @@
 package javastrava.api.util;
 
 import java.io.IOException;
-import java.util.StringTokenizer;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.squareup.okhttp.Call;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.ResponseBody;
 
+import javastrava.config.Messages;
 import javastrava.config.StravaConfig;
 import javastrava.service.Strava;
+import javastrava.service.exception.StravaAPIEndpointUnavailableException;
+import okio.BufferedSink;
 import retrofit.client.Header;
 import retrofit.client.OkClient;
 import retrofit.client.Request;
 import retrofit.client.Response;
+import retrofit.mime.TypedInput;
+import retrofit.mime.TypedOutput;
 
 /**
  * <p>
- * Overrides the OkHttp client in order to intercept the rate limit data returned by the API in headers
+ * Overrides the OkHttp client in order to hold requests until there is rate limit capacity to send them, to fail fast on endpoints which are failing or overloaded, to retry requests which fail with
+ * a transient error, to cancel asynchronous requests whose future has been cancelled, and to intercept the rate limit data returned by the API in headers
  * </p>
  * 
  * @author Dan Shannon
  *
  */
 public class RetrofitClientResponseInterceptor extends OkClient {
+	/**
+	 * <p>
+	 * State of an asynchronous call which may be cancelled
+	 * </p>
+	 */
+	private static final class CancellableCall {
+		/**
+		 * Whether the call has been cancelled
+		 */
+		volatile boolean cancelled;
+
+		/**
+		 * The HTTP call currently in progress, if any
+		 */
+		volatile Call httpCall;
+
+		/**
+		 * Cancels the call, and the HTTP call in progress if there is one
+		 */
+		void cancel() {
+			this.cancelled = true;
+			final Call call = this.httpCall;
+			if (call != null) {
+				call.cancel();
+			}
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Prefix of the internal headers used to pass details of the call from the calling thread to the client; these headers are never sent to Strava
+	 */
+	static final String INTERNAL_HEADER_PREFIX = "X-Javastrava-"; //$NON-NLS-1$
+
+	/**
+	 * Internal header carrying the {@link RequestLane} of the call
+	 */
+	static final String LANE_HEADER = INTERNAL_HEADER_PREFIX + "Lane"; //$NON-NLS-1$
+
+	/**
+	 * Internal header carrying the endpoint (API interface and method) of the call
+	 */
+	static final String ENDPOINT_HEADER = INTERNAL_HEADER_PREFIX + "Endpoint"; //$NON-NLS-1$
+
+	/**
+	 * Internal header carrying the identifier of an asynchronous call
+	 */
+	static final String CALL_HEADER = INTERNAL_HEADER_PREFIX + "Call"; //$NON-NLS-1$
+
+	/**
+	 * The HTTP client used to send requests
+	 */
+	private final OkHttpClient httpClient;
+
+	/**
+	 * Admission control for requests, based on Strava's rate limits
+	 */
+	private final RateLimitScheduler scheduler;
+
+	/**
+	 * Policy for retrying requests which fail with a transient error
+	 */
+	private final RetryPolicy retryPolicy;
+
+	/**
+	 * Circuit breakers and bulkheads for each endpoint
+	 */
+	private final EndpointGuards guards = EndpointGuards.instance();
+
+	/**
+	 * Stored responses to GET requests, for revalidation
+	 */
+	private final RevalidationCache revalidationCache = RevalidationCache.instance();
+
+	/**
+	 * Asynchronous calls which have been made and not yet completed, by call identifier
+	 */
+	private final ConcurrentHashMap<String, CancellableCall> calls = new ConcurrentHashMap<String, CancellableCall>();
 
 	/**
 	 * No-args constructor
 	 */
 	public RetrofitClientResponseInterceptor() {
-		super();
+		this(defaultHttpClient());
 	}
+
 	/**
 	 * @param client The client to use
 	 */
 	public RetrofitClientResponseInterceptor(final OkHttpClient client) {
+		this(client, RateLimitScheduler.instance());
+	}
+
+	/**
+	 * @param client The client to use
+	 * @param scheduler Admission control for requests
+	 */
+	public RetrofitClientResponseInterceptor(final OkHttpClient client, final RateLimitScheduler scheduler) {
+		this(client, scheduler, new RetryPolicy());
+	}
+
+	/**
+	 * @param client The client to use
+	 * @param scheduler Admission control for requests
+	 * @param retryPolicy Policy for retrying requests which fail with a transient error
+	 */
+	public RetrofitClientResponseInterceptor(final OkHttpClient client, final RateLimitScheduler scheduler, final RetryPolicy retryPolicy) {
 		super(client);
+		this.httpClient = client;
+		this.scheduler = scheduler;
+		this.retryPolicy = retryPolicy;
+	}
+
+	/**
+	 * @return The policy for retrying requests which fail with a transient error
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return this.retryPolicy;
+	}
+
+	/**
+	 * @return The rate limit scheduler used to admit requests
+	 */
+	public RateLimitScheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/**
+	 * @return An HTTP client with the same timeouts as Retrofit's default
+	 */
+	private static OkHttpClient defaultHttpClient() {
+		final OkHttpClient client = new OkHttpClient();
+		client.setConnectTimeout(15, TimeUnit.SECONDS);
+		client.setReadTimeout(20, TimeUnit.SECONDS);
+		return client;
 	}
 
 	/**
 	 * <p>
-	 * Gets and stores the values of the rate limit information headers returned by Strava with each response
+	 * Converts a Retrofit request into an OkHttp request
+	 * </p>
+	 *
+	 * @param request The Retrofit request
+	 * @return The OkHttp request
+	 */
+	private static com.squareup.okhttp.Request createRequest(final Request request) {
+		final com.squareup.okhttp.Request.Builder builder = new com.squareup.okhttp.Request.Builder().url(request.getUrl()).method(request.getMethod(), createRequestBody(request.getBody()));
+		for (final Header header : request.getHeaders()) {
+			builder.addHeader(header.getName(), (header.getValue() == null ? "" : header.getValue())); //$NON-NLS-1$
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @param body The body of a Retrofit request
+	 * @return The body of the equivalent OkHttp request
+	 */
+	private static RequestBody createRequestBody(final TypedOutput body) {
+		if (body == null) {
+			return null;
+		}
+		final MediaType mediaType = MediaType.parse(body.mimeType());
+		return new RequestBody() {
+			@Override
+			public long contentLength() {
+				return body.length();
+			}
+
+			@Override
+			public MediaType contentType() {
+				return mediaType;
+			}
+
+			@Override
+			public void writeTo(final BufferedSink sink) throws IOException {
+				body.writeTo(sink.outputStream());
+			}
+		};
+	}
+
+	/**
+	 * @param body The body of an OkHttp response
+	 * @return The body of the equivalent Retrofit response, or <code>null</code> if it is empty
+	 * @throws IOException If the length of the body cannot be determined
+	 */
+	private static TypedInput createResponseBody(final ResponseBody body) throws IOException {
+		if (body.contentLength() == 0) {
+			return null;
+		}
+		return new TypedInput() {
+			@Override
+			public InputStream in() throws IOException {
+				return body.byteStream();
+			}
+
+			@Override
+			public long length() {
+				try {
+					return body.contentLength();
+				} catch (final IOException e) {
+					return -1;
+				}
+			}
+
+			@Override
+			public String mimeType() {
+				final MediaType mediaType = body.contentType();
+				return (mediaType == null ? null : mediaType.toString());
+			}
+		};
+	}
+
+	/**
+	 * <p>
+	 * Converts an OkHttp response into a Retrofit response
+	 * </p>
+	 *
+	 * @param response The OkHttp response
+	 * @return The Retrofit response
+	 * @throws IOException If the body of the response cannot be read
+	 */
+	private static Response parseResponse(final com.squareup.okhttp.Response response) throws IOException {
+		final Headers okHeaders = response.headers();
+		final List<Header> headers = new ArrayList<Header>(okHeaders.size());
+		for (int i = 0; i < okHeaders.size(); i++) {
+			headers.add(new Header(okHeaders.name(i), okHeaders.value(i)));
+		}
+		return new Response(response.request().urlString(), response.code(), response.message(), headers, createResponseBody(response.body()));
+	}
+
+	/**
+	 * <p>
+	 * Cancels an asynchronous call. If the call has not yet been sent it will not be sent; if it is in progress it is abandoned, and it is not retried.
+	 * </p>
+	 *
+	 * @param callId Identifier of the call
+	 */
+	public void cancel(final String callId) {
+		final CancellableCall call = this.calls.get(callId);
+		if (call != null) {
+			call.cancel();
+		}
+	}
+
+	/**
+	 * @param call The asynchronous call, or <code>null</code> if the call is synchronous
+	 * @throws InterruptedIOException If the call has been cancelled
+	 */
+	private static void checkCancelled(final CancellableCall call) throws InterruptedIOException {
+		if (isCancelled(call)) {
+			throw new InterruptedIOException(Messages.string("RetrofitClientResponseInterceptor.cancelled")); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Stops tracking an asynchronous call, once it is complete
+	 * </p>
+	 *
+	 * @param callId Identifier of the call
+	 */
+	public void forget(final String callId) {
+		this.calls.remove(callId);
+	}
+
+	/**
+	 * @return Number of asynchronous calls which have been made and not yet completed
+	 */
+	public int getActiveCallCount() {
+		return this.calls.size();
+	}
+
+	/**
+	 * @param call The asynchronous call, or <code>null</code> if the call is synchronous
+	 * @return <code>true</code> if the call has been cancelled
+	 */
+	private static boolean isCancelled(final CancellableCall call) {
+		return (call != null) && call.cancelled;
+	}
+
+	/**
+	 * <p>
+	 * Starts tracking an asynchronous call, so that it can be cancelled by {@link #cancel(String)}; {@link #forget(String)} must be called when it completes
+	 * </p>
+	 *
+	 * @param callId Identifier of the call
+	 */
+	public void register(final String callId) {
+		this.calls.put(callId, new CancellableCall());
+	}
+
+	/**
+	 * <p>
+	 * Discards the body of a response which is not going to be returned to the caller, so that the connection can be reused
+	 * </p>
+	 *
+	 * @param response The response
+	 */
+	private static void discard(final Response response) {
+		if (response.getBody() != null) {
+			try {
+				response.getBody().in().close();
+			} catch (final IOException e) {
+				// Ignore; the connection just won't be reused
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Sends the request, revalidating any stored response to it and retrying it according to the {@link RetryPolicy} if it fails with a transient error. Each attempt waits for rate limit capacity
+	 * in the request's lane, and the rate limit information headers returned by Strava with each response are stored.
 	 * </p>
 	 * 
 	 * @see retrofit.client.OkClient#execute(retrofit.client.Request)
 	 */
 	@Override
 	public Response execute(final Request request) throws IOException {
-		Response response = super.execute(request);
-
-		for (Header header : response.getHeaders()) {
-			if (header.getName().equals(StravaConfig.string("strava.rate-limit-usage-header-name"))) { //$NON-NLS-1$
-				String values = header.getValue();
-				StringTokenizer tokenizer = new StringTokenizer(values, ","); //$NON-NLS-1$
-				Strava.REQUEST_RATE_CURRENT = Integer.valueOf(tokenizer.nextToken()).intValue();
-				Strava.REQUEST_RATE_DAILY = Integer.valueOf(tokenizer.nextToken()).intValue();
+		// Strip out the internal headers
+		RequestLane lane = RequestLane.NORMAL;
+		String endpoint = null;
+		CancellableCall call = null;
+		final List<Header> headers = new ArrayList<Header>();
+		for (final Header header : request.getHeaders()) {
+			if (LANE_HEADER.equals(header.getName())) {
+				lane = RequestLane.valueOf(header.getValue());
+			} else if (ENDPOINT_HEADER.equals(header.getName())) {
+				endpoint = header.getValue();
+			} else if (CALL_HEADER.equals(header.getName())) {
+				call = this.calls.get(header.getValue());
+			} else if (!header.getName().startsWith(INTERNAL_HEADER_PREFIX)) {
+				headers.add(header);
+			}
+		}
+		final Request stravaRequest = new Request(request.getMethod(), request.getUrl(), headers, request.getBody());
+
+		// Revalidate the stored response, if there is one
+		final RevalidationCache.StoredResponse cached = this.revalidationCache.lookup(stravaRequest);
+		final Request conditionalRequest = this.revalidationCache.conditional(stravaRequest, cached);
+		return this.revalidationCache.complete(conditionalRequest, cached, sendWithRetry(conditionalRequest, lane, endpoint, call));
+	}
+
+	/**
+	 * <p>
+	 * Sends the request, retrying it according to the {@link RetryPolicy} if it fails with a transient error
+	 * </p>
+	 *
+	 * @param stravaRequest The request
+	 * @param lane The lane that the request belongs to
+	 * @param endpoint The endpoint (API interface and method) being called, or <code>null</code> if not known
+	 * @param call The asynchronous call the request belongs to, or <code>null</code> if the call is synchronous
+	 * @return The response
+	 * @throws IOException If the request fails or is cancelled
+	 */
+	private Response sendWithRetry(final Request stravaRequest, final RequestLane lane, final String endpoint, final CancellableCall call) throws IOException {
+		final long startTime = System.currentTimeMillis();
+		int attempt = 1;
+		while (true) {
+			long delay;
+			try {
+				final Response response = send(stravaRequest, lane, endpoint, call);
+				delay = this.retryPolicy.delay(stravaRequest.getMethod(), response, attempt, startTime);
+				if (delay < 0) {
+					return response;
+				}
+				discard(response);
+				log.info("Retrying " + stravaRequest.getMethod() + " " + stravaRequest.getUrl() + " after status " + response.getStatus() + " in " + delay + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			} catch (final IOException e) {
+				if (isCancelled(call)) {
+					throw e;
+				}
+				delay = this.retryPolicy.delay(stravaRequest.getMethod(), e, attempt, startTime);
+				if (delay < 0) {
+					throw e;
+				}
+				log.info("Retrying " + stravaRequest.getMethod() + " " + stravaRequest.getUrl() + " after " + e + " in " + delay + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			}
+			this.retryPolicy.sleep(delay);
+			attempt++;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Sends the request once, subject to the endpoint's circuit breaker and bulkhead and to rate limit capacity in the request's lane, then gets and stores the values of the rate limit information
+	 * headers returned by Strava with the response
+	 * </p>
+	 *
+	 * <p>
+	 * The bulkhead is only held while the request is on the wire, not while it waits for rate limit capacity, so requests held back by rate limiting cannot fill it.
+	 * </p>
+	 *
+	 * @param request The request
+	 * @param lane The lane that the request belongs to
+	 * @param endpoint The endpoint (API interface and method) being called, or <code>null</code> if not known
+	 * @param call The asynchronous call the request belongs to, or <code>null</code> if the call is synchronous
+	 * @return The response
+	 * @throws IOException If the request fails or is cancelled
+	 * @throws StravaAPIEndpointUnavailableException If the endpoint's circuit breaker is open or its bulkhead is full
+	 */
+	private Response send(final Request request, final RequestLane lane, final String endpoint, final CancellableCall call) throws IOException {
+		checkCancelled(call);
+		if (endpoint == null) {
+			return send(request, lane, call, null, null);
+		}
+		final CircuitBreaker breaker = this.guards.circuitBreaker(endpoint);
+		if (!breaker.allow()) {
+			throw new StravaAPIEndpointUnavailableException(Messages.string("RetrofitClientResponseInterceptor.circuitOpen"), endpoint, null); //$NON-NLS-1$
+		}
+		boolean sent = false;
+		try {
+			final Response response = send(request, lane, call, endpoint, this.guards.bulkhead(endpoint));
+			sent = true;
+			// Only server errors count against the endpoint; client errors and rate limiting show that it is working
+			if (response.getStatus() >= 500) {
+				breaker.onFailure();
+			} else {
+				breaker.onSuccess();
+			}
+			return response;
+		} catch (final IOException e) {
+			// A cancelled call says nothing about the endpoint
+			if (!isCancelled(call)) {
+				sent = true;
+				breaker.onFailure();
+			}
+			throw e;
+		} finally {
+			if (!sent) {
+				breaker.onAbandoned();
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Waits for rate limit capacity in the request's lane and then, holding a place in the endpoint's bulkhead, sends the request once; then gets and stores the values of the rate limit information
+	 * headers returned by Strava with the response
+	 * </p>
+	 *
+	 * @param request The request
+	 * @param lane The lane that the request belongs to
+	 * @param call The asynchronous call the request belongs to, or <code>null</code> if the call is synchronous
+	 * @param endpoint The endpoint (API interface and method) being called, or <code>null</code> if not known
+	 * @param bulkhead The endpoint's bulkhead, or <code>null</code> if the endpoint is not known
+	 * @return The response
+	 * @throws IOException If the request fails or is cancelled
+	 * @throws StravaAPIEndpointUnavailableException If the endpoint's bulkhead is full
+	 */
+	private Response send(final Request request, final RequestLane lane, final CancellableCall call, final String endpoint, final Bulkhead bulkhead) throws IOException {
+		this.scheduler.acquire(lane);
+		final long requestTime = System.currentTimeMillis();
+		final Response response;
+		try {
+			if ((bulkhead != null) && !bulkhead.tryAcquire()) {
+				throw new StravaAPIEndpointUnavailableException(Messages.string("RetrofitClientResponseInterceptor.bulkheadFull"), endpoint, null); //$NON-NLS-1$
+			}
+			try {
+				response = transmit(request, call);
+			} finally {
+				if (bulkhead != null) {
+					bulkhead.release();
+				}
+			}
+		} finally {
+			this.scheduler.release(lane);
+		}
+
+		for (final Header header : response.getHeaders()) {
+			if (StravaConfig.string("strava.rate-limit-usage-header-name").equals(header.getName())) { //$NON-NLS-1$
+				this.scheduler.updateUsage(header.getValue(), requestTime);
 				Strava.requestRateCurrentPercentage();
 			}
-			if (header.getName().equals(StravaConfig.string("strava.rate-limit-limit-header-name"))) { //$NON-NLS-1$
-				String values = header.getValue();
-				StringTokenizer tokenizer = new StringTokenizer(values, ","); //$NON-NLS-1$
-				Strava.RATE_LIMIT_CURRENT = Integer.valueOf(tokenizer.nextToken()).intValue();
-				Strava.RATE_LIMIT_DAILY = Integer.valueOf(tokenizer.nextToken()).intValue();
+			if (StravaConfig.string("strava.rate-limit-limit-header-name").equals(header.getName())) { //$NON-NLS-1$
+				this.scheduler.updateLimit(header.getValue());
 				Strava.requestRateDailyPercentage();
 			}
 		}
 
 		return response;
 	}
+
+	/**
+	 * <p>
+	 * Sends the request over HTTP. If it belongs to an asynchronous call, the HTTP call is made visible to {@link #cancel(String)} while it is in progress.
+	 * </p>
+	 *
+	 * @param request The request
+	 * @param call The asynchronous call the request belongs to, or <code>null</code> if the call is synchronous
+	 * @return The response
+	 * @throws IOException If the request fails or is cancelled
+	 */
+	private Response transmit(final Request request, final CancellableCall call) throws IOException {
+		final Call httpCall = this.httpClient.newCall(createRequest(request));
+		if (call == null) {
+			return parseResponse(httpCall.execute());
+		}
+		call.httpCall = httpCall;
+		try {
+			// Checked after publishing the HTTP call, so that a cancellation at any point either stops it being sent or cancels it
+			checkCancelled(call);
+			return parseResponse(httpCall.execute());
+		} finally {
+			call.httpCall = null;
+		}
+	}
 }
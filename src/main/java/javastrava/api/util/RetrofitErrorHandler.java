@@ -14,6 +14,7 @@ import javastrava.model.StravaResponse;
 import javastrava.service.exception.BadRequestException;
 import javastrava.service.exception.InvalidTokenException;
 import javastrava.service.exception.NotFoundException;
+import javastrava.service.exception.StravaAPIException;
 import javastrava.service.exception.StravaAPINetworkException;
 import javastrava.service.exception.StravaAPIRateLimitException;
 import javastrava.service.exception.StravaInternalServerErrorException;
@@ -71,7 +72,22 @@ public class RetrofitErrorHandler implements ErrorHandler {
 	/**
 	 * JSON utilities for serialisation and deserialisation
 	 */
-	JsonUtil json = new JsonUtilImpl();
+	JsonUtil json;
+
+	/**
+	 * No-args constructor
+	 */
+	public RetrofitErrorHandler() {
+		this(new JsonUtilImpl());
+	}
+
+	/**
+	 * @param json
+	 *            JSON utilities to use to deserialise error responses
+	 */
+	public RetrofitErrorHandler(final JsonUtil json) {
+		this.json = json;
+	}
 
 	/**
 	 * @see retrofit.ErrorHandler#handleError(retrofit.RetrofitError)
@@ -88,6 +104,11 @@ public class RetrofitErrorHandler implements ErrorHandler {
 			return new StravaAPINetworkException(null, response, cause);
 		}
 
+		// Requests refused before they were sent (e.g. by rate limit admission control) are already javastrava exceptions
+		if ((cause.getKind() == Kind.UNEXPECTED) && (cause.getCause() instanceof StravaAPIException)) {
+			return cause.getCause();
+		}
+
 		if (r == null) {
 			return new StravaUnknownAPIException(status, response, cause);
 		}
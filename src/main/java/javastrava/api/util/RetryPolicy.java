@@ -0,0 +1,272 @@
+package javastrava.api.util;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.config.StravaConfig;
+import retrofit.client.Header;
+import retrofit.client.Response;
+
+/**
+ * <p>
+ * Decides whether, and after how long, a request which failed with a transient error should be sent again.
+ * </p>
+ *
+ * <p>
+ * Requests which get a 429, 500, 502, 503 or 504 response, or which fail with a network error, are retried with capped exponential backoff and full jitter. If Strava sends a Retry-After header then
+ * the retry waits at least that long. Each request has a budget of attempts (strava.retry.max_attempts) and of total elapsed time (strava.retry.budget_ms); once either is used up the last error is
+ * returned to the caller as before.
+ * </p>
+ *
+ * <p>
+ * Only idempotent requests (GET, HEAD, PUT, DELETE, OPTIONS) are retried after a server or network error, because a POST may already have been processed. A POST is retried only after a 429, which
+ * Strava returns without processing the request.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class RetryPolicy {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Name of the HTTP header in which the server says how long to wait before retrying
+	 */
+	private static final String RETRY_AFTER_HEADER = "Retry-After"; //$NON-NLS-1$
+
+	/**
+	 * HTTP status returned when the rate limit has been exceeded
+	 */
+	private static final int TOO_MANY_REQUESTS = 429;
+
+	/**
+	 * Maximum number of attempts, including the first
+	 */
+	private final int maxAttempts;
+
+	/**
+	 * Base delay in milliseconds for exponential backoff
+	 */
+	private final long baseDelay;
+
+	/**
+	 * Maximum backoff delay in milliseconds
+	 */
+	private final long maxDelay;
+
+	/**
+	 * Maximum total time in milliseconds that a request may spend being retried
+	 */
+	private final long budget;
+
+	/**
+	 * Total number of retries made
+	 */
+	private final AtomicLong retries = new AtomicLong();
+
+	/**
+	 * Total number of requests which failed with a retryable error after their retry budget was used up
+	 */
+	private final AtomicLong exhausted = new AtomicLong();
+
+	/**
+	 * Creates a retry policy using the settings in javastrava-config.properties
+	 */
+	public RetryPolicy() {
+		this(StravaConfig.RETRY_MAX_ATTEMPTS, StravaConfig.RETRY_BASE_DELAY_MILLISECONDS, StravaConfig.RETRY_MAX_DELAY_MILLISECONDS, StravaConfig.RETRY_BUDGET_MILLISECONDS);
+	}
+
+	/**
+	 * @param maxAttempts
+	 *            Maximum number of attempts, including the first (1 to switch retry off)
+	 * @param baseDelay
+	 *            Base delay in milliseconds for exponential backoff
+	 * @param maxDelay
+	 *            Maximum backoff delay in milliseconds
+	 * @param budget
+	 *            Maximum total time in milliseconds that a request may spend being retried
+	 */
+	public RetryPolicy(final int maxAttempts, final long baseDelay, final long maxDelay, final long budget) {
+		this.maxAttempts = maxAttempts;
+		this.baseDelay = baseDelay;
+		this.maxDelay = maxDelay;
+		this.budget = budget;
+	}
+
+	/**
+	 * @param attempt
+	 *            The number of the attempt which failed (the first attempt is 1)
+	 * @return A random delay between 0 and the capped exponential backoff for the attempt
+	 */
+	long backoff(final int attempt) {
+		final long ceiling = this.baseDelay << Math.min(attempt - 1, 30);
+		final long cap = ((ceiling <= 0) || (ceiling > this.maxDelay)) ? this.maxDelay : ceiling;
+		return ThreadLocalRandom.current().nextLong(cap + 1);
+	}
+
+	/**
+	 * <p>
+	 * Works out whether to retry a request which failed with a network error
+	 * </p>
+	 *
+	 * @param method
+	 *            HTTP method of the request
+	 * @param error
+	 *            The error
+	 * @param attempt
+	 *            The number of the attempt which failed (the first attempt is 1)
+	 * @param startTime
+	 *            Time the first attempt was made, in milliseconds since the epoch
+	 * @return The time to wait in milliseconds before retrying, or -1 if the request should not be retried
+	 */
+	public long delay(final String method, final IOException error, final int attempt, final long startTime) {
+		// An interrupt means the caller has given up; a timeout is just a slow network
+		if ((error instanceof InterruptedIOException) && !(error instanceof SocketTimeoutException)) {
+			return -1;
+		}
+		if (!isIdempotent(method)) {
+			return -1;
+		}
+		return budgeted(backoff(attempt), attempt, startTime);
+	}
+
+	/**
+	 * <p>
+	 * Works out whether to retry a request which got an error response
+	 * </p>
+	 *
+	 * @param method
+	 *            HTTP method of the request
+	 * @param response
+	 *            The response
+	 * @param attempt
+	 *            The number of the attempt which failed (the first attempt is 1)
+	 * @param startTime
+	 *            Time the first attempt was made, in milliseconds since the epoch
+	 * @return The time to wait in milliseconds before retrying, or -1 if the request should not be retried
+	 */
+	public long delay(final String method, final Response response, final int attempt, final long startTime) {
+		final int status = response.getStatus();
+		if (!isRetryableStatus(status)) {
+			return -1;
+		}
+		if ((status != TOO_MANY_REQUESTS) && !isIdempotent(method)) {
+			return -1;
+		}
+		return budgeted(Math.max(backoff(attempt), retryAfter(response)), attempt, startTime);
+	}
+
+	/**
+	 * @param delay
+	 *            The proposed delay in milliseconds
+	 * @param attempt
+	 *            The number of the attempt which failed
+	 * @param startTime
+	 *            Time the first attempt was made, in milliseconds since the epoch
+	 * @return The delay, or -1 if retrying after it would take the request over its budget
+	 */
+	private long budgeted(final long delay, final int attempt, final long startTime) {
+		if ((attempt >= this.maxAttempts) || (((System.currentTimeMillis() + delay) - startTime) > this.budget)) {
+			if (this.maxAttempts > 1) {
+				this.exhausted.incrementAndGet();
+			}
+			return -1;
+		}
+		this.retries.incrementAndGet();
+		return delay;
+	}
+
+	/**
+	 * @return Total number of requests which failed with a retryable error after their retry budget was used up
+	 */
+	public long getExhaustedCount() {
+		return this.exhausted.get();
+	}
+
+	/**
+	 * @return Maximum number of attempts, including the first
+	 */
+	public int getMaxAttempts() {
+		return this.maxAttempts;
+	}
+
+	/**
+	 * @return Total number of retries made
+	 */
+	public long getRetryCount() {
+		return this.retries.get();
+	}
+
+	/**
+	 * @param method
+	 *            An HTTP method
+	 * @return <code>true</code> if sending the request twice has the same effect as sending it once
+	 */
+	public boolean isIdempotent(final String method) {
+		return "GET".equals(method) || "HEAD".equals(method) || "PUT".equals(method) || "DELETE".equals(method) || "OPTIONS".equals(method); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	}
+
+	/**
+	 * @param status
+	 *            An HTTP status code
+	 * @return <code>true</code> if the status indicates a transient failure which may succeed if retried
+	 */
+	public boolean isRetryableStatus(final int status) {
+		return (status == TOO_MANY_REQUESTS) || (status == 500) || (status == 502) || (status == 503) || (status == 504);
+	}
+
+	/**
+	 * @param response
+	 *            A response
+	 * @return The delay in milliseconds requested by the response's Retry-After header, or 0 if there is none
+	 */
+	long retryAfter(final Response response) {
+		for (final Header header : response.getHeaders()) {
+			if (RETRY_AFTER_HEADER.equalsIgnoreCase(header.getName()) && (header.getValue() != null)) {
+				final String value = header.getValue().trim();
+				try {
+					return Math.max(0, Long.parseLong(value) * 1000);
+				} catch (final NumberFormatException e) {
+					// Not a number of seconds, so should be an HTTP date
+				}
+				try {
+					return Math.max(0, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() - System.currentTimeMillis());
+				} catch (final DateTimeParseException e) {
+					log.warn("Ignoring unparseable " + RETRY_AFTER_HEADER + " header " + value); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * <p>
+	 * Waits before the next attempt
+	 * </p>
+	 *
+	 * @param delay
+	 *            Time to wait in milliseconds
+	 * @throws InterruptedIOException
+	 *             If the thread is interrupted while waiting
+	 */
+	public void sleep(final long delay) throws InterruptedIOException {
+		try {
+			Thread.sleep(delay);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,334 @@
+package javastrava.api.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javastrava.config.StravaConfig;
+import retrofit.client.Header;
+import retrofit.client.Request;
+import retrofit.client.Response;
+import retrofit.mime.TypedByteArray;
+import retrofit.mime.TypedInput;
+
+/**
+ * <p>
+ * HTTP revalidation cache for GET requests to the Strava API.
+ * </p>
+ *
+ * <p>
+ * When a response carries an ETag or Last-Modified validator, its body is kept, keyed by URL and access token. The next GET of the same URL with the same token is sent with If-None-Match /
+ * If-Modified-Since, and if Strava answers 304 Not Modified the stored body is returned in place of the empty response, so a 304 saves the download. The body is parsed again for each caller,
+ * so that every caller gets its own objects, which it is free to change.
+ * </p>
+ *
+ * <p>
+ * Any other request to a URL (e.g. a PUT or DELETE) discards what is stored for that URL and token. The cache is bounded by number of entries (strava.revalidation.max_entries) and bodies larger
+ * than strava.revalidation.max_body_bytes are not stored.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class RevalidationCache {
+	/**
+	 * <p>
+	 * A stored response
+	 * </p>
+	 */
+	public static final class StoredResponse {
+		/**
+		 * URL of the request, without the query string
+		 */
+		final String path;
+
+		/**
+		 * Access token the request was made with
+		 */
+		final String token;
+
+		/**
+		 * Value of the ETag header, or <code>null</code>
+		 */
+		final String etag;
+
+		/**
+		 * Value of the Last-Modified header, or <code>null</code>
+		 */
+		final String lastModified;
+
+		/**
+		 * MIME type of the body
+		 */
+		final String mimeType;
+
+		/**
+		 * The body
+		 */
+		final byte[] body;
+
+		/**
+		 * @param path
+		 *            URL of the request, without the query string
+		 * @param token
+		 *            Access token the request was made with
+		 * @param etag
+		 *            Value of the ETag header
+		 * @param lastModified
+		 *            Value of the Last-Modified header
+		 * @param mimeType
+		 *            MIME type of the body
+		 * @param body
+		 *            The body
+		 */
+		StoredResponse(final String path, final String token, final String etag, final String lastModified, final String mimeType, final byte[] body) {
+			this.path = path;
+			this.token = token;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.mimeType = mimeType;
+			this.body = body;
+		}
+	}
+
+	/**
+	 * HTTP status for a response which has not changed
+	 */
+	private static final int NOT_MODIFIED = 304;
+
+	/**
+	 * The singleton instance
+	 */
+	private static RevalidationCache instance = new RevalidationCache(StravaConfig.REVALIDATION_MAX_ENTRIES, StravaConfig.REVALIDATION_MAX_BODY_BYTES);
+
+	/**
+	 * @return The singleton instance
+	 */
+	public static RevalidationCache instance() {
+		return instance;
+	}
+
+	/**
+	 * @param headers
+	 *            A list of headers
+	 * @param name
+	 *            Name of the header to find
+	 * @return Value of the first header with the name (ignoring case), or <code>null</code> if there isn't one
+	 */
+	private static String header(final List<Header> headers, final String name) {
+		for (final Header header : headers) {
+			if (name.equalsIgnoreCase(header.getName())) {
+				return header.getValue();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param url
+	 *            A URL
+	 * @return The URL without its query string
+	 */
+	private static String path(final String url) {
+		final int query = url.indexOf('?');
+		return (query < 0 ? url : url.substring(0, query));
+	}
+
+	/**
+	 * Maximum number of entries to store
+	 */
+	private final int maxEntries;
+
+	/**
+	 * Maximum size in bytes of a body to store
+	 */
+	private final int maxBodyBytes;
+
+	/**
+	 * Stored responses by token and URL, least recently used first
+	 */
+	private final LinkedHashMap<String, StoredResponse> entries;
+
+	/**
+	 * Number of 304 responses answered from the cache
+	 */
+	private final AtomicLong notModified = new AtomicLong();
+
+	/**
+	 * Total size of the bodies which did not have to be downloaded
+	 */
+	private final AtomicLong bytesSaved = new AtomicLong();
+
+	/**
+	 * @param maxEntries
+	 *            Maximum number of entries to store (0 to switch the cache off)
+	 * @param maxBodyBytes
+	 *            Maximum size in bytes of a body to store
+	 */
+	public RevalidationCache(final int maxEntries, final int maxBodyBytes) {
+		this.maxEntries = maxEntries;
+		this.maxBodyBytes = maxBodyBytes;
+		this.entries = new LinkedHashMap<String, StoredResponse>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<String, StoredResponse> eldest) {
+				return size() > RevalidationCache.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * <p>
+	 * Processes the response to a request, storing it if it can be revalidated later, or replacing it with the stored response if it is a 304 Not Modified
+	 * </p>
+	 *
+	 * @param request
+	 *            The request, as returned by {@link #conditional(Request, StoredResponse)}
+	 * @param entry
+	 *            The entry returned by {@link #lookup(Request)}
+	 * @param response
+	 *            The response received from Strava
+	 * @return The response to pass to Retrofit
+	 * @throws IOException
+	 *             If the body of the response can't be read
+	 */
+	public Response complete(final Request request, final StoredResponse entry, final Response response) throws IOException {
+		if ((this.maxEntries <= 0) || !"GET".equals(request.getMethod())) { //$NON-NLS-1$
+			return response;
+		}
+		if ((response.getStatus() == NOT_MODIFIED) && (entry != null)) {
+			this.notModified.incrementAndGet();
+			this.bytesSaved.addAndGet(entry.body.length);
+			return new Response(response.getUrl(), 200, "OK", response.getHeaders(), new TypedByteArray(entry.mimeType, entry.body)); //$NON-NLS-1$
+		}
+		final String etag = header(response.getHeaders(), "ETag"); //$NON-NLS-1$
+		final String lastModified = header(response.getHeaders(), "Last-Modified"); //$NON-NLS-1$
+		if ((response.getStatus() != 200) || ((etag == null) && (lastModified == null)) || (response.getBody() == null)) {
+			return response;
+		}
+		final TypedInput body = response.getBody();
+		if ((body.length() < 0) || (body.length() > this.maxBodyBytes)) {
+			return response;
+		}
+		final String token = header(request.getHeaders(), StravaConfig.string("strava.authorization_header_name")); //$NON-NLS-1$
+		final StoredResponse stored = new StoredResponse(path(request.getUrl()), token, etag, lastModified, body.mimeType(), read(body));
+		synchronized (this.entries) {
+			this.entries.put(key(token, request.getUrl()), stored);
+		}
+		return new Response(response.getUrl(), response.getStatus(), response.getReason(), response.getHeaders(), new TypedByteArray(stored.mimeType, stored.body));
+	}
+
+	/**
+	 * <p>
+	 * Adds the validators of the stored response to the request
+	 * </p>
+	 *
+	 * @param request
+	 *            The request
+	 * @param entry
+	 *            The entry returned by {@link #lookup(Request)}, or <code>null</code>
+	 * @return The request to send
+	 */
+	public Request conditional(final Request request, final StoredResponse entry) {
+		if (entry == null) {
+			return request;
+		}
+		final List<Header> headers = new ArrayList<Header>(request.getHeaders());
+		if ((entry.etag != null) && (header(headers, "If-None-Match") == null)) { //$NON-NLS-1$
+			headers.add(new Header("If-None-Match", entry.etag)); //$NON-NLS-1$
+		}
+		if ((entry.lastModified != null) && (header(headers, "If-Modified-Since") == null)) { //$NON-NLS-1$
+			headers.add(new Header("If-Modified-Since", entry.lastModified)); //$NON-NLS-1$
+		}
+		return new Request(request.getMethod(), request.getUrl(), headers, request.getBody());
+	}
+
+	/**
+	 * @return Total size in bytes of the bodies which did not have to be downloaded because Strava answered 304 Not Modified
+	 */
+	public long getBytesSaved() {
+		return this.bytesSaved.get();
+	}
+
+	/**
+	 * @return Number of 304 Not Modified responses answered from the cache
+	 */
+	public long getNotModifiedCount() {
+		return this.notModified.get();
+	}
+
+	/**
+	 * @return Number of responses currently stored
+	 */
+	public int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * @param token
+	 *            Value of the authorisation header
+	 * @param url
+	 *            URL of the request
+	 * @return Key of the entry for the URL and token
+	 */
+	private static String key(final String token, final String url) {
+		return token + " " + url; //$NON-NLS-1$
+	}
+
+	/**
+	 * <p>
+	 * Finds the stored response to a GET request. For any other request, discards whatever is stored for the same URL and token, since it may be about to change.
+	 * </p>
+	 *
+	 * @param request
+	 *            The request
+	 * @return The stored response, or <code>null</code> if there isn't one
+	 */
+	public StoredResponse lookup(final Request request) {
+		if (this.maxEntries <= 0) {
+			return null;
+		}
+		final String token = header(request.getHeaders(), StravaConfig.string("strava.authorization_header_name")); //$NON-NLS-1$
+		synchronized (this.entries) {
+			if ("GET".equals(request.getMethod())) { //$NON-NLS-1$
+				return this.entries.get(key(token, request.getUrl()));
+			}
+			final String path = path(request.getUrl());
+			for (final Iterator<StoredResponse> iterator = this.entries.values().iterator(); iterator.hasNext();) {
+				final StoredResponse entry = iterator.next();
+				if (entry.path.equals(path) && ((token == null) ? (entry.token == null) : token.equals(entry.token))) {
+					iterator.remove();
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * @param body
+	 *            A response body
+	 * @return The content of the body
+	 * @throws IOException
+	 *             If the body can't be read
+	 */
+	private static byte[] read(final TypedInput body) throws IOException {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.max(body.length(), 32));
+		try (InputStream in = body.in()) {
+			final byte[] buffer = new byte[4096];
+			int count;
+			while ((count = in.read(buffer)) != -1) {
+				out.write(buffer, 0, count);
+			}
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,369 @@
+package javastrava.api.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.OkHttpClient;
+
+import javastrava.api.API;
+import javastrava.api.AuthorisationAPI;
+import javastrava.api.async.StravaAPICallback;
+import javastrava.auth.model.Token;
+import javastrava.config.StravaConfig;
+import javastrava.json.impl.JsonUtilImpl;
+import retrofit.RequestInterceptor;
+import retrofit.RestAdapter;
+import retrofit.converter.GsonConverter;
+
+/**
+ * <p>
+ * Process-wide registry of the HTTP transport used by all {@link API} instances.
+ * </p>
+ *
+ * <p>
+ * Holds a single {@link OkHttpClient} (and so a single connection pool and dispatcher), a single {@link Gson} instance, a single {@link RetrofitErrorHandler} and one token-agnostic Retrofit proxy
+ * per API interface. The access token is injected into each request as it is made, so the cost of a new token is just a handful of lightweight proxies rather than a full set of RestAdapters.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class TransportRegistry {
+	/**
+	 * <p>
+	 * Invocation handler which binds calls on a shared Retrofit proxy to a particular access token
+	 * </p>
+	 */
+	private static class TokenBoundInvocationHandler implements InvocationHandler {
+		/**
+		 * The shared, token-agnostic Retrofit proxy
+		 */
+		private final Object delegate;
+
+		/**
+		 * The access token to be used for all calls made through this handler, or <code>null</code> if calls are not authenticated
+		 */
+		private final Token token;
+
+		/**
+		 * @param delegate
+		 *            The shared Retrofit proxy
+		 * @param token
+		 *            The access token to be used for all calls made through this handler
+		 */
+		TokenBoundInvocationHandler(final Object delegate, final Token token) {
+			this.delegate = delegate;
+			this.token = token;
+		}
+
+		/**
+		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+		 */
+		@Override
+		public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(this, args);
+			}
+
+			// Retrofit applies the request interceptor on the calling thread (for both synchronous and asynchronous calls), so the token and endpoint only need to be visible for the duration of the call
+			final Token previous = CURRENT_TOKEN.get();
+			final String previousEndpoint = CURRENT_ENDPOINT.get();
+			final String previousCall = CURRENT_CALL.get();
+			if (this.token == null) {
+				CURRENT_TOKEN.remove();
+			} else {
+				CURRENT_TOKEN.set(this.token);
+			}
+			CURRENT_ENDPOINT.set(method.getDeclaringClass().getSimpleName() + "." + method.getName()); //$NON-NLS-1$
+
+			// Asynchronous calls are registered with the client so that they can be cancelled through their future
+			String callId = null;
+			StravaAPICallback<?> callback = null;
+			if ((args != null) && (args.length > 0) && (args[args.length - 1] instanceof StravaAPICallback)) {
+				callback = (StravaAPICallback<?>) args[args.length - 1];
+				callId = callback.getFuture().getCallId();
+				TransportRegistry.instance().getClient().register(callId);
+				CURRENT_CALL.set(callId);
+			} else {
+				CURRENT_CALL.remove();
+			}
+			try {
+				return method.invoke(this.delegate, args);
+			} catch (final InvocationTargetException e) {
+				if (callId != null) {
+					TransportRegistry.instance().getClient().forget(callId);
+				}
+				if ((callback != null) && (e.getCause() instanceof RejectedExecutionException)) {
+					// The executor is saturated; asynchronous callers find out through the future, as they would for any other failure
+					callback.getFuture().completeExceptionally(e.getCause());
+					return null;
+				}
+				throw e.getCause();
+			} finally {
+				if (previous == null) {
+					CURRENT_TOKEN.remove();
+				} else {
+					CURRENT_TOKEN.set(previous);
+				}
+				if (previousEndpoint == null) {
+					CURRENT_ENDPOINT.remove();
+				} else {
+					CURRENT_ENDPOINT.set(previousEndpoint);
+				}
+				if (previousCall == null) {
+					CURRENT_CALL.remove();
+				} else {
+					CURRENT_CALL.set(previousCall);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The singleton instance of the registry
+	 */
+	private static TransportRegistry instance = new TransportRegistry();
+
+	/**
+	 * The access token in use by the API call currently being made on this thread
+	 */
+	static final ThreadLocal<Token> CURRENT_TOKEN = new ThreadLocal<Token>();
+
+	/**
+	 * The endpoint (API interface and method) of the API call currently being made on this thread
+	 */
+	static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<String>();
+
+	/**
+	 * The identifier of the asynchronous API call currently being made on this thread, or <code>null</code> if the call is synchronous
+	 */
+	static final ThreadLocal<String> CURRENT_CALL = new ThreadLocal<String>();
+
+	/**
+	 * @return The singleton instance of the registry
+	 */
+	public static TransportRegistry instance() {
+		return instance;
+	}
+
+	/**
+	 * The HTTP client shared by all API instances
+	 */
+	private final OkHttpClient httpClient;
+
+	/**
+	 * Retrofit client wrapping the shared HTTP client
+	 */
+	private final RetrofitClientResponseInterceptor client;
+
+	/**
+	 * JSON utilities (and hence the Gson instance) shared by all API instances
+	 */
+	private final JsonUtilImpl json;
+
+	/**
+	 * Retrofit converter based on the shared Gson instance
+	 */
+	private final GsonConverter converter;
+
+	/**
+	 * Error handler shared by all API instances
+	 */
+	private final RetrofitErrorHandler errorHandler;
+
+	/**
+	 * Executor used to run asynchronous calls, both by Retrofit and by the service layer
+	 */
+	private volatile BoundedExecutor asyncExecutor;
+
+	/**
+	 * Request interceptor which adds the access token, lane, endpoint and identifier of the current call into the request headers
+	 */
+	private final RequestInterceptor tokenInterceptor;
+
+	/**
+	 * Shared, token-agnostic Retrofit proxies, one per API interface
+	 */
+	private final ConcurrentHashMap<Class<?>, Object> delegates;
+
+	/**
+	 * Unauthenticated views of the shared Retrofit proxies, one per API interface
+	 */
+	private final ConcurrentHashMap<Class<?>, Object> services;
+
+	/**
+	 * <p>
+	 * Private constructor allows only for instantiation as a singleton via {@link #instance()}
+	 * </p>
+	 */
+	private TransportRegistry() {
+		this.httpClient = new OkHttpClient();
+		this.httpClient.setConnectTimeout(StravaConfig.HTTP_CONNECT_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+		this.httpClient.setReadTimeout(StravaConfig.HTTP_READ_TIMEOUT_MILLISECONDS, TimeUnit.MILLISECONDS);
+		this.httpClient.setConnectionPool(new ConnectionPool(StravaConfig.HTTP_MAX_IDLE_CONNECTIONS, StravaConfig.HTTP_KEEP_ALIVE_MILLISECONDS));
+		this.httpClient.setDispatcher(new Dispatcher());
+		this.client = new RetrofitClientResponseInterceptor(this.httpClient);
+		this.json = new JsonUtilImpl();
+		this.converter = new GsonConverter(this.json.getGson());
+		this.errorHandler = new RetrofitErrorHandler(this.json);
+		this.asyncExecutor = new BoundedExecutor(defaultAsyncExecutor(), StravaConfig.ASYNC_MAX_IN_FLIGHT, StravaConfig.ASYNC_SUBMIT_TIMEOUT_MILLISECONDS);
+		this.tokenInterceptor = request -> {
+			final Token token = CURRENT_TOKEN.get();
+			if (token != null) {
+				request.addHeader(StravaConfig.string("strava.authorization_header_name"), //$NON-NLS-1$
+						token.getTokenType() + " " + token.getToken()); //$NON-NLS-1$
+			}
+			// Internal headers, removed again by the client before the request is sent
+			request.addHeader(RetrofitClientResponseInterceptor.LANE_HEADER, RequestLane.resolve(token).name());
+			final String endpoint = CURRENT_ENDPOINT.get();
+			if (endpoint != null) {
+				request.addHeader(RetrofitClientResponseInterceptor.ENDPOINT_HEADER, endpoint);
+			}
+			final String callId = CURRENT_CALL.get();
+			if (callId != null) {
+				request.addHeader(RetrofitClientResponseInterceptor.CALL_HEADER, callId);
+			}
+		};
+		this.delegates = new ConcurrentHashMap<Class<?>, Object>();
+		this.services = new ConcurrentHashMap<Class<?>, Object>();
+	}
+
+	/**
+	 * @return A pool of daemon threads, sized by strava.async.max_threads, whose threads stop when idle
+	 */
+	private static ExecutorService defaultAsyncExecutor() {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(StravaConfig.ASYNC_MAX_THREADS, StravaConfig.ASYNC_MAX_THREADS, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+				daemonThreadFactory("javastrava-async-")); //$NON-NLS-1$
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * @param prefix
+	 *            Prefix for the names of threads created by the factory
+	 * @return A thread factory which creates daemon threads, so that an idle pool does not prevent the JVM from exiting
+	 */
+	private static ThreadFactory daemonThreadFactory(final String prefix) {
+		final AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * <p>
+	 * Builds the shared Retrofit proxy for the given API interface
+	 * </p>
+	 *
+	 * @param class1
+	 *            The API interface
+	 * @return The Retrofit proxy
+	 */
+	private Object build(final Class<?> class1) {
+		final String endpoint = (class1 == AuthorisationAPI.class ? StravaConfig.AUTH_ENDPOINT : StravaConfig.ENDPOINT);
+		return new RestAdapter.Builder()
+				// Client overrides handling of Strava-specific headers in the response, to deal with rate limiting
+				.setClient(this.client)
+				// Converter is a GSON implementation with custom converters
+				.setConverter(this.converter)
+				// Asynchronous calls all share one executor (which may be replaced later); callbacks are run on the thread that made the call
+				.setExecutors(task -> this.asyncExecutor.execute(task), Runnable::run)
+				// Log level is determined per API service
+				.setLogLevel(API.logLevel(class1))
+				.setEndpoint(endpoint)
+				// Request interceptor adds the access token of the current call into headers for each request
+				.setRequestInterceptor(this.tokenInterceptor)
+				// Error handler deals with Strava's implementations of 400, 401, 403, 404 errors etc.
+				.setErrorHandler(this.errorHandler).build().create(class1);
+	}
+
+	/**
+	 * @return The Retrofit client shared by all API instances
+	 */
+	public RetrofitClientResponseInterceptor getClient() {
+		return this.client;
+	}
+
+	/**
+	 * @return The executor used to run asynchronous calls, both by Retrofit and by the service layer
+	 */
+	public BoundedExecutor getAsyncExecutor() {
+		return this.asyncExecutor;
+	}
+
+	/**
+	 * @return The HTTP client shared by all API instances
+	 */
+	public OkHttpClient getHttpClient() {
+		return this.httpClient;
+	}
+
+	/**
+	 * @return The JSON utilities shared by all API instances
+	 */
+	public JsonUtilImpl getJson() {
+		return this.json;
+	}
+
+	/**
+	 * <p>
+	 * Returns a lightweight view of the shared Retrofit proxy for the given API interface, which authenticates every request with the given token
+	 * </p>
+	 *
+	 * @param class1
+	 *            The API interface
+	 * @param token
+	 *            The access token to be used to authenticate requests, or <code>null</code> if requests are not to be authenticated
+	 * @param <T>
+	 *            Class of API interface to be returned (one of the *API.java interfaces)
+	 * @return The token-bound API service
+	 */
+	public <T> T instance(final Class<T> class1, final Token token) {
+		final Object delegate = this.delegates.computeIfAbsent(class1, this::build);
+		return class1.cast(Proxy.newProxyInstance(class1.getClassLoader(), new Class<?>[] { class1 }, new TokenBoundInvocationHandler(delegate, token)));
+	}
+
+	/**
+	 * <p>
+	 * Replaces the executor used to run asynchronous calls, for example with one which runs each task on its own virtual thread. The number of tasks in flight is still limited by
+	 * strava.async.max_in_flight. Tasks already submitted to the previous executor are unaffected; the caller remains responsible for shutting down the executor it supplies.
+	 * </p>
+	 *
+	 * @param executor
+	 *            The executor to use
+	 */
+	public void setAsyncExecutor(final Executor executor) {
+		this.asyncExecutor = new BoundedExecutor(executor, StravaConfig.ASYNC_MAX_IN_FLIGHT, StravaConfig.ASYNC_SUBMIT_TIMEOUT_MILLISECONDS);
+	}
+
+	/**
+	 * <p>
+	 * Returns a shared view of the Retrofit proxy for the given API interface whose requests carry no access token
+	 * </p>
+	 *
+	 * @param class1
+	 *            The API interface
+	 * @param <T>
+	 *            Class of API interface to be returned (one of the *API.java interfaces)
+	 * @return The shared API service
+	 */
+	public <T> T service(final Class<T> class1) {
+		return class1.cast(this.services.computeIfAbsent(class1, key -> instance(key, null)));
+	}
+}
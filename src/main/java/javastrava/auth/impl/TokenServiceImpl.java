@@ -29,16 +29,8 @@ public class TokenServiceImpl extends StravaServiceImpl implements TokenService
 	 *             If the token used to create the service is invalid
 	 */
 	public static TokenService instance(final Token token) throws UnauthorizedException {
-		TokenService restService = token.getService(TokenService.class);
-		if (restService == null) {
-			restService = new TokenServiceImpl(token);
-
-			// Store the service for later retrieval so that there's only one
-			// service per token
-			token.addService(TokenService.class, restService);
-
-		}
-		return restService;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(TokenService.class, TokenServiceImpl::new);
 	}
 
 	/**
@@ -3,7 +3,11 @@ package javastrava.auth.model;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
+import javastrava.api.util.RequestLane;
 import javastrava.auth.AuthorisationService;
 import javastrava.auth.TokenService;
 import javastrava.auth.impl.TokenServiceImpl;
@@ -70,6 +74,33 @@ import javastrava.service.impl.WebhookServiceImpl;
  *
  */
 public class Token implements StravaEntity {
+	/**
+	 * Factories used to create each of the service implementations on first use
+	 */
+	private static final Map<Class<? extends StravaService>, Function<Token, ? extends StravaService>> SERVICE_FACTORIES = serviceFactories();
+
+	/**
+	 * @return Factories for each of the service implementations that a token can provide
+	 */
+	private static Map<Class<? extends StravaService>, Function<Token, ? extends StravaService>> serviceFactories() {
+		final Map<Class<? extends StravaService>, Function<Token, ? extends StravaService>> factories = new HashMap<Class<? extends StravaService>, Function<Token, ? extends StravaService>>();
+		factories.put(ActivityService.class, ActivityServiceImpl::instance);
+		factories.put(AthleteService.class, AthleteServiceImpl::instance);
+		factories.put(ChallengeService.class, ChallengeServiceImpl::instance);
+		factories.put(ClubService.class, ClubServiceImpl::instance);
+		factories.put(ClubGroupEventService.class, ClubGroupEventServiceImpl::instance);
+		factories.put(GearService.class, GearServiceImpl::instance);
+		factories.put(RouteService.class, RouteServiceImpl::instance);
+		factories.put(RunningRaceService.class, RunningRaceServiceImpl::instance);
+		factories.put(SegmentEffortService.class, SegmentEffortServiceImpl::instance);
+		factories.put(SegmentService.class, SegmentServiceImpl::instance);
+		factories.put(StreamService.class, StreamServiceImpl::instance);
+		factories.put(TokenService.class, TokenServiceImpl::instance);
+		factories.put(UploadService.class, UploadServiceImpl::instance);
+		factories.put(WebhookService.class, WebhookServiceImpl::instance);
+		return factories;
+	}
+
 	/**
 	 * The {@link StravaAthlete athlete} to whom this token is assigned
 	 */
@@ -80,15 +111,20 @@ public class Token implements StravaEntity {
 	 */
 	private String token;
 
+	/**
+	 * Default {@link RequestLane lane} for requests made with this token; if <code>null</code> then requests go in the {@link RequestLane#NORMAL normal} lane
+	 */
+	private RequestLane lane;
+
 	/**
 	 * List of {@link AuthorisationScope authorisation scopes} granted for this token
 	 */
 	private List<AuthorisationScope> scopes;
 
 	/**
-	 * List of service implementations associated with this token
+	 * Service implementations associated with this token. Services are created on first use, see {@link #getService(Class)}
 	 */
-	private HashMap<Class<? extends StravaService>, StravaService> services;
+	private Map<Class<? extends StravaService>, StravaService> services = new ConcurrentHashMap<Class<? extends StravaService>, StravaService>();
 
 	/**
 	 * Token type used in the authorisation header of requests to the Strava API - usually set to "Bearer"
@@ -100,9 +136,6 @@ public class Token implements StravaEntity {
 	 */
 	public Token() {
 		super();
-
-		// Get pre-packed instances of all the services
-		addServiceInstances();
 	}
 
 	/**
@@ -120,27 +153,6 @@ public class Token implements StravaEntity {
 		this.token = tokenResponse.getAccessToken();
 		this.tokenType = tokenResponse.getTokenType();
 		this.scopes = Arrays.asList(scopes);
-
-		// Get pre-packed instances of all the services
-		addServiceInstances();
-	}
-
-	private void addServiceInstances() {
-		this.services = new HashMap<Class<? extends StravaService>, StravaService>();
-		this.addService(ActivityService.class, ActivityServiceImpl.instance(this));
-		this.addService(AthleteService.class, AthleteServiceImpl.instance(this));
-		this.addService(ChallengeService.class, ChallengeServiceImpl.instance(this));
-		this.addService(ClubService.class, ClubServiceImpl.instance(this));
-		this.addService(ClubGroupEventService.class, ClubGroupEventServiceImpl.instance(this));
-		this.addService(GearService.class, GearServiceImpl.instance(this));
-		this.addService(RouteService.class, RouteServiceImpl.instance(this));
-		this.addService(RunningRaceService.class, RunningRaceServiceImpl.instance(this));
-		this.addService(SegmentEffortService.class, SegmentEffortServiceImpl.instance(this));
-		this.addService(SegmentService.class, SegmentServiceImpl.instance(this));
-		this.addService(StreamService.class, StreamServiceImpl.instance(this));
-		this.addService(TokenService.class, TokenServiceImpl.instance(this));
-		this.addService(UploadService.class, UploadServiceImpl.instance(this));
-		this.addService(WebhookService.class, WebhookServiceImpl.instance(this));
 	}
 
 	/**
@@ -186,13 +198,6 @@ public class Token implements StravaEntity {
 		} else if (!this.scopes.equals(other.scopes)) {
 			return false;
 		}
-		if (this.services == null) {
-			if (other.services != null) {
-				return false;
-			}
-		} else if (!this.services.equals(other.services)) {
-			return false;
-		}
 		if (this.token == null) {
 			if (other.token != null) {
 				return false;
@@ -217,6 +222,13 @@ public class Token implements StravaEntity {
 		return this.athlete;
 	}
 
+	/**
+	 * @return the default lane for requests made with this token, or <code>null</code> if none has been set
+	 */
+	public RequestLane getLane() {
+		return this.lane;
+	}
+
 	@Override
 	public StravaResourceState getResourceState() {
 		return StravaResourceState.DETAILED;
@@ -231,25 +243,63 @@ public class Token implements StravaEntity {
 
 	/**
 	 * <p>
-	 * Gets the service implementation of the required class from the token
+	 * Gets the service implementation of the required class from the token, creating it if this is the first time it has been asked for
 	 * </p>
 	 *
 	 * @param <T>
 	 *            The class being returned
 	 * @param class1
 	 *            The class to return
-	 * @return The implementation of the service required
+	 * @return The implementation of the service required, or <code>null</code> if the token doesn't know how to provide it
 	 */
-	@SuppressWarnings("unchecked")
 	public <T extends StravaService> T getService(final Class<T> class1) {
-		return (T) this.services.get(class1);
+		final StravaService service = this.services.get(class1);
+		if (service != null) {
+			return class1.cast(service);
+		}
+		final Function<Token, ? extends StravaService> factory = SERVICE_FACTORIES.get(class1);
+		if (factory == null) {
+			return null;
+		}
+		return class1.cast(factory.apply(this));
 	}
 
 	/**
-	 * @return the services
+	 * <p>
+	 * Gets the service implementation of the required class from the token, using the factory to create it if it's not already there.
+	 * </p>
+	 *
+	 * <p>
+	 * Safe for concurrent use; however many threads ask for the service at once, only one instance is ever created per token
+	 * </p>
+	 *
+	 * @param <T>
+	 *            The class being returned
+	 * @param class1
+	 *            The class to return
+	 * @param factory
+	 *            Creates the service implementation if the token doesn't already have one
+	 * @return The implementation of the service required
+	 */
+	public <T extends StravaService> T getService(final Class<T> class1, final Function<Token, ? extends T> factory) {
+		StravaService service = this.services.get(class1);
+		if (service == null) {
+			synchronized (this) {
+				service = this.services.get(class1);
+				if (service == null) {
+					service = factory.apply(this);
+					this.services.put(class1, service);
+				}
+			}
+		}
+		return class1.cast(service);
+	}
+
+	/**
+	 * @return a copy of the services which have been created so far for this token
 	 */
 	public HashMap<Class<? extends StravaService>, StravaService> getServices() {
-		return this.services;
+		return new HashMap<Class<? extends StravaService>, StravaService>(this.services);
 	}
 
 	/**
@@ -275,7 +325,6 @@ public class Token implements StravaEntity {
 		int result = 1;
 		result = (prime * result) + ((this.athlete == null) ? 0 : this.athlete.hashCode());
 		result = (prime * result) + ((this.scopes == null) ? 0 : this.scopes.hashCode());
-		result = (prime * result) + ((this.services == null) ? 0 : this.services.hashCode());
 		result = (prime * result) + ((this.token == null) ? 0 : this.token.hashCode());
 		result = (prime * result) + ((this.tokenType == null) ? 0 : this.tokenType.hashCode());
 		return result;
@@ -330,6 +379,14 @@ public class Token implements StravaEntity {
 		this.athlete = athlete;
 	}
 
+	/**
+	 * @param lane
+	 *            the default lane for requests made with this token
+	 */
+	public void setLane(final RequestLane lane) {
+		this.lane = lane;
+	}
+
 	/**
 	 * @param scopes
 	 *            the scopes to set
@@ -343,7 +400,7 @@ public class Token implements StravaEntity {
 	 *            the services to set
 	 */
 	public void setServices(final HashMap<Class<? extends StravaService>, StravaService> services) {
-		this.services = services;
+		this.services = new ConcurrentHashMap<Class<? extends StravaService>, StravaService>(services);
 	}
 
 	/**
@@ -1,6 +1,11 @@
 package javastrava.cache;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * <p>
@@ -21,15 +26,96 @@ import java.util.List;
 public interface StravaCache<T extends StravaCacheableEntity<U>, U> {
 	/**
 	 * <p>
-	 * Retrieves the object from the cache.
+	 * Writes all the objects in the cache to a stream, as a compact snapshot which can be read back by {@link #importFrom(InputStream)}. Snapshots are written a chunk at a time, so need not fit in
+	 * memory.
+	 * </p>
+	 *
+	 * @param output
+	 *            Stream to write to; it is not closed
+	 * @return Number of objects written
+	 * @throws IOException
+	 *             If the stream cannot be written
+	 */
+	public long exportTo(OutputStream output) throws IOException;
+
+	/**
+	 * <p>
+	 * Retrieves the detailed representation of the object from the cache.
 	 * </p>
 	 *
 	 * @param key
 	 *            The key
-	 * @return the object, or <code>null</code> if not in cache
+	 * @return the object, or <code>null</code> if its detailed representation is not in cache
 	 */
 	public T get(U key);
 
+	/**
+	 * <p>
+	 * Retrieves all the objects which belong to the given parent (for example, the laps of an activity), if they were all stored together with {@link #putAllByParent(Object, List)} and none of
+	 * them has been removed from the cache since. Only available if the cache was created with a way of getting the parent id of an object.
+	 * </p>
+	 *
+	 * @param parentId
+	 *            Id of the parent
+	 * @return The objects belonging to the parent, or <code>null</code> if the cache may not hold all of them
+	 * @throws UnsupportedOperationException
+	 *             If the cache does not index objects by parent
+	 */
+	public List<T> getByParent(Object parentId);
+
+	/**
+	 * <p>
+	 * Retrieves the placeholder recently stored with {@link #putPrivate(StravaCacheableEntity)}, showing that the object is not visible to the token
+	 * </p>
+	 *
+	 * @param key
+	 *            The key
+	 * @return The placeholder, or <code>null</code> if there is none in the cache
+	 */
+	public T getPrivate(U key);
+
+	/**
+	 * <p>
+	 * Retrieves the object from the cache, whether its summary or its detailed representation is cached; for callers which only need the fields in the summary.
+	 * </p>
+	 *
+	 * @param key
+	 *            The key
+	 * @return the object, or <code>null</code> if not in cache
+	 */
+	public T getSummary(U key);
+
+	/**
+	 * @return Statistics of the cache: requests answered and not answered, loads from Strava, evictions, and the number and estimated size of the objects in it (which means reading a sample of
+	 *         them)
+	 */
+	public StravaCacheStats getStats();
+
+	/**
+	 * <p>
+	 * Reads a snapshot written by {@link #exportTo(OutputStream)} and stores the objects in it, as if they had just been fetched from Strava, for example to warm up the cache before a batch run.
+	 * Chunks of the snapshot are read on several threads at once, and only a few are held in memory at a time, so a snapshot of any size can be read.
+	 * </p>
+	 *
+	 * @param input
+	 *            Stream to read from; it is not closed
+	 * @return Number of objects read
+	 * @throws IOException
+	 *             If the stream cannot be read, or is not a snapshot of this class of object
+	 */
+	public long importFrom(InputStream input) throws IOException;
+
+	/**
+	 * <p>
+	 * Checks whether the object was recently found not to exist, with {@link #putNotFound(Object)}
+	 * </p>
+	 *
+	 * @param key
+	 *            The key
+	 * @return <code>true</code> if the object is known not to exist
+	 */
+	public boolean isNotFound(U key);
+
 	/**
 	 * <p>
 	 * Returns a list of the objects in the cache
@@ -41,7 +127,19 @@ public interface StravaCache<T extends StravaCacheableEntity<U>, U> {
 
 	/**
 	 * <p>
-	 * Stores the given object in the cache
+	 * Fetches an object from Strava because it was not in the cache, timing the fetch for the cache's statistics. The object is not
+	 * stored; the caller decides whether to {@link #put(StravaCacheableEntity)} it.
+	 * </p>
+	 *
+	 * @param loader
+	 *            Fetches the object
+	 * @return The object returned by the loader
+	 */
+	public T load(Supplier<T> loader);
+
+	/**
+	 * <p>
+	 * Stores the given object in the cache, if it is a summary or detailed representation. A summary does not replace a detailed representation which is already cached.
 	 * </p>
 	 *
 	 * @param object
@@ -59,6 +157,41 @@ public interface StravaCache<T extends StravaCacheableEntity<U>, U> {
 	 */
 	public void putAll(List<T> list);
 
+	/**
+	 * <p>
+	 * Puts all the objects belonging to the given parent in the cache, and records that they are the complete list, so that {@link #getByParent(Object)} can return them
+	 * </p>
+	 *
+	 * @param parentId
+	 *            Id of the parent
+	 * @param list
+	 *            All the objects belonging to the parent
+	 * @throws UnsupportedOperationException
+	 *             If the cache does not index objects by parent
+	 */
+	public void putAllByParent(Object parentId, List<T> list);
+
+	/**
+	 * <p>
+	 * Records that the object does not exist, so that the next attempt to get it need not ask Strava again. The record only lasts a short time, and is removed when the object is stored or removed.
+	 * </p>
+	 *
+	 * @param key
+	 *            The key of the object which was not found
+	 */
+	public void putNotFound(U key);
+
+	/**
+	 * <p>
+	 * Records that the object is not visible to the token, so that the next attempt to get it need not ask Strava again. The record only lasts a short time, and is removed when the object is stored
+	 * or removed.
+	 * </p>
+	 *
+	 * @param placeholder
+	 *            The placeholder to be returned instead of the object, with resource state {@link javastrava.model.reference.StravaResourceState#PRIVATE}
+	 */
+	public void putPrivate(T placeholder);
+
 	/**
 	 * <p>
 	 * Removes the object identified by the key from the cache
@@ -69,6 +202,18 @@ public interface StravaCache<T extends StravaCacheableEntity<U>, U> {
 	 */
 	public void remove(U key);
 
+	/**
+	 * <p>
+	 * Removes all the objects belonging to the given parent from the cache
+	 * </p>
+	 *
+	 * @param parentId
+	 *            Id of the parent
+	 * @throws UnsupportedOperationException
+	 *             If the cache does not index objects by parent
+	 */
+	public void removeByParent(Object parentId);
+
 	/**
 	 * <p>
 	 * Removes all elements from the cache that are associated with the token
@@ -76,6 +221,18 @@ public interface StravaCache<T extends StravaCacheableEntity<U>, U> {
 	 */
 	public void removeAll();
 
+	/**
+	 * <p>
+	 * Sets the way to fetch an object from Strava again, so that objects can be refreshed in the background once they are older than strava.cache.fresh_seconds. The refresher should apply the
+	 * same privacy rules as the service does when it fetches the object, and may return a placeholder with resource state {@link javastrava.model.reference.StravaResourceState#PRIVATE} or
+	 * <code>null</code> if the object is no longer visible or no longer exists.
+	 * </p>
+	 *
+	 * @param refresher
+	 *            Fetches an object by id; <code>null</code> to stop refreshing objects
+	 */
+	public void setRefresher(Function<U, T> refresher);
+
 	/**
 	 * <p>
 	 * Returns the number of objects in the cache
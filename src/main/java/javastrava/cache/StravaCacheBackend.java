@@ -0,0 +1,94 @@
+package javastrava.cache;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Storage used by {@link StravaCache} implementations. A backend holds entries for many caches at once; each cache (one class of entity, for one access token) has its own partition, identified by
+ * name, and entries within a partition are identified by the entity's id.
+ * </p>
+ *
+ * <p>
+ * Implementations must be safe for use by many threads at once. The backend in use is chosen by strava.cache.backend in javastrava-config.properties.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public interface StravaCacheBackend {
+	/**
+	 * <p>
+	 * Registers a listener to be told about entries which are evicted by the backend itself, because they have expired or to make room for others. Listeners may be called on a background thread, and
+	 * are not told about entries removed by {@link #remove(String, Object)} or {@link #removeAll(String)}.
+	 * </p>
+	 *
+	 * @param listener
+	 *            The listener
+	 */
+	public void addEvictionListener(StravaCacheEvictionListener listener);
+
+	/**
+	 * <p>
+	 * Retrieves an entry
+	 * </p>
+	 *
+	 * @param partition
+	 *            The partition
+	 * @param key
+	 *            The entity's id
+	 * @return The entity, or <code>null</code> if it is not stored or has expired
+	 */
+	public Object get(String partition, Object key);
+
+	/**
+	 * <p>
+	 * Stores an entry, replacing any existing entry with the same key
+	 * </p>
+	 *
+	 * @param partition
+	 *            The partition
+	 * @param key
+	 *            The entity's id
+	 * @param value
+	 *            The entity
+	 * @param timeToLive
+	 *            Time (in milliseconds) after which the entry expires
+	 */
+	public void put(String partition, Object key, Object value, long timeToLive);
+
+	/**
+	 * <p>
+	 * Removes an entry
+	 * </p>
+	 *
+	 * @param partition
+	 *            The partition
+	 * @param key
+	 *            The entity's id
+	 */
+	public void remove(String partition, Object key);
+
+	/**
+	 * <p>
+	 * Removes all the entries in a partition
+	 * </p>
+	 *
+	 * @param partition
+	 *            The partition
+	 */
+	public void removeAll(String partition);
+
+	/**
+	 * @param partition
+	 *            The partition
+	 * @return Number of entries stored in the partition
+	 */
+	public int size(String partition);
+
+	/**
+	 * @param partition
+	 *            The partition
+	 * @return The entities stored in the partition which have not expired
+	 */
+	public List<Object> values(String partition);
+}
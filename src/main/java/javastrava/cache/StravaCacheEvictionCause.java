@@ -0,0 +1,20 @@
+package javastrava.cache;
+
+/**
+ * <p>
+ * Reasons for a {@link StravaCacheBackend} to evict an entry
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public enum StravaCacheEvictionCause {
+	/**
+	 * The entry's time to live has passed
+	 */
+	EXPIRED,
+	/**
+	 * The backend is full, and the entry was less likely to be used again than the others
+	 */
+	SIZE
+}
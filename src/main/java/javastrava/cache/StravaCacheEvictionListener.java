@@ -0,0 +1,23 @@
+package javastrava.cache;
+
+/**
+ * <p>
+ * Told about entries which a {@link StravaCacheBackend} evicts of its own accord
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public interface StravaCacheEvictionListener {
+	/**
+	 * @param partition
+	 *            The partition the entry was stored in
+	 * @param key
+	 *            The entity's id
+	 * @param value
+	 *            The entity
+	 * @param cause
+	 *            Why the entry was evicted
+	 */
+	public void evicted(String partition, Object key, Object value, StravaCacheEvictionCause cause);
+}
@@ -0,0 +1,266 @@
+package javastrava.cache;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * Statistics of a {@link StravaCache} (or of all the caches of one class of entity) at a point in time. Counts are totals since the cache was first created.
+ * </p>
+ *
+ * <p>
+ * A hit is a request answered from the cache, and a miss one which was not. A load is a fetch from Strava made because of a miss (or to refresh a stale entry); its time is recorded in
+ * {@link #getLoadLatencyHistogram()}, whose buckets are bounded above by {@link #LOAD_LATENCY_BUCKET_MILLIS}, with a last bucket for anything slower. Evictions are entries dropped by the backend
+ * itself; removals are entries removed because they changed or were deleted.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class StravaCacheStats {
+	/**
+	 * Upper bound (exclusive, in milliseconds) of each bucket of the load latency histogram, except the last, which has no upper bound
+	 */
+	public static final long[] LOAD_LATENCY_BUCKET_MILLIS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000 };
+
+	/**
+	 * Identifies the cache (class of entity, and the end of the token)
+	 */
+	private final String name;
+
+	/**
+	 * Number of requests answered from the cache
+	 */
+	private final long hitCount;
+
+	/**
+	 * Number of requests not answered from the cache
+	 */
+	private final long missCount;
+
+	/**
+	 * Number of loads which returned
+	 */
+	private final long loadSuccessCount;
+
+	/**
+	 * Number of loads which threw an exception
+	 */
+	private final long loadFailureCount;
+
+	/**
+	 * Total time (in nanoseconds) spent loading
+	 */
+	private final long totalLoadTime;
+
+	/**
+	 * Number of loads in each latency bucket
+	 */
+	private final long[] loadLatencyHistogram;
+
+	/**
+	 * Number of entries evicted by the backend, by cause
+	 */
+	private final Map<StravaCacheEvictionCause, Long> evictionCounts;
+
+	/**
+	 * Number of entries removed because they changed or were deleted
+	 */
+	private final long removalCount;
+
+	/**
+	 * Number of entries in the cache
+	 */
+	private final long size;
+
+	/**
+	 * Estimated size of the entries in bytes
+	 */
+	private final long weight;
+
+	/**
+	 * @param name
+	 *            Identifies the cache
+	 * @param hitCount
+	 *            Number of requests answered from the cache
+	 * @param missCount
+	 *            Number of requests not answered from the cache
+	 * @param loadSuccessCount
+	 *            Number of loads which returned
+	 * @param loadFailureCount
+	 *            Number of loads which threw an exception
+	 * @param totalLoadTime
+	 *            Total time (in nanoseconds) spent loading
+	 * @param loadLatencyHistogram
+	 *            Number of loads in each latency bucket; one more bucket than there are {@link #LOAD_LATENCY_BUCKET_MILLIS}
+	 * @param evictionCounts
+	 *            Number of entries evicted by the backend, by cause
+	 * @param removalCount
+	 *            Number of entries removed because they changed or were deleted
+	 * @param size
+	 *            Number of entries in the cache
+	 * @param weight
+	 *            Estimated size of the entries in bytes
+	 */
+	public StravaCacheStats(final String name, final long hitCount, final long missCount, final long loadSuccessCount, final long loadFailureCount, final long totalLoadTime,
+			final long[] loadLatencyHistogram, final Map<StravaCacheEvictionCause, Long> evictionCounts, final long removalCount, final long size, final long weight) {
+		if (loadLatencyHistogram.length != (LOAD_LATENCY_BUCKET_MILLIS.length + 1)) {
+			throw new IllegalArgumentException("Load latency histogram should have " + (LOAD_LATENCY_BUCKET_MILLIS.length + 1) + " buckets"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		this.name = name;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime = totalLoadTime;
+		this.loadLatencyHistogram = loadLatencyHistogram.clone();
+		final Map<StravaCacheEvictionCause, Long> counts = new EnumMap<StravaCacheEvictionCause, Long>(StravaCacheEvictionCause.class);
+		for (final StravaCacheEvictionCause cause : StravaCacheEvictionCause.values()) {
+			final Long count = evictionCounts.get(cause);
+			counts.put(cause, (count == null ? Long.valueOf(0) : count));
+		}
+		this.evictionCounts = Collections.unmodifiableMap(counts);
+		this.removalCount = removalCount;
+		this.size = size;
+		this.weight = weight;
+	}
+
+	/**
+	 * @return Average time (in milliseconds) spent on each load, or 0 if there have been none
+	 */
+	public double getAverageLoadMillis() {
+		final long loads = this.loadSuccessCount + this.loadFailureCount;
+		return (loads == 0 ? 0 : (this.totalLoadTime / 1000000.0) / loads);
+	}
+
+	/**
+	 * @param cause
+	 *            A cause of eviction
+	 * @return Number of entries evicted by the backend for that cause
+	 */
+	public long getEvictionCount(final StravaCacheEvictionCause cause) {
+		return this.evictionCounts.get(cause).longValue();
+	}
+
+	/**
+	 * @return Number of entries evicted by the backend, by cause
+	 */
+	public Map<StravaCacheEvictionCause, Long> getEvictionCounts() {
+		return this.evictionCounts;
+	}
+
+	/**
+	 * @return Number of requests answered from the cache
+	 */
+	public long getHitCount() {
+		return this.hitCount;
+	}
+
+	/**
+	 * @return Proportion of requests answered from the cache, or 1 if there have been none
+	 */
+	public double getHitRate() {
+		final long requests = this.hitCount + this.missCount;
+		return (requests == 0 ? 1.0 : (double) this.hitCount / requests);
+	}
+
+	/**
+	 * @return Number of loads which threw an exception
+	 */
+	public long getLoadFailureCount() {
+		return this.loadFailureCount;
+	}
+
+	/**
+	 * @return Number of loads in each latency bucket (see {@link #LOAD_LATENCY_BUCKET_MILLIS})
+	 */
+	public long[] getLoadLatencyHistogram() {
+		return this.loadLatencyHistogram.clone();
+	}
+
+	/**
+	 * @return Number of loads which returned
+	 */
+	public long getLoadSuccessCount() {
+		return this.loadSuccessCount;
+	}
+
+	/**
+	 * @return Number of requests not answered from the cache
+	 */
+	public long getMissCount() {
+		return this.missCount;
+	}
+
+	/**
+	 * @return Identifies the cache (class of entity, and the end of the token)
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * @return Number of entries removed because they changed or were deleted
+	 */
+	public long getRemovalCount() {
+		return this.removalCount;
+	}
+
+	/**
+	 * @return Number of entries in the cache
+	 */
+	public long getSize() {
+		return this.size;
+	}
+
+	/**
+	 * @return Total time (in nanoseconds) spent loading
+	 */
+	public long getTotalLoadTime() {
+		return this.totalLoadTime;
+	}
+
+	/**
+	 * @return Estimated size of the entries in bytes
+	 */
+	public long getWeight() {
+		return this.weight;
+	}
+
+	/**
+	 * <p>
+	 * Adds the statistics of another cache to these, for example to total the caches of one class of entity for all tokens
+	 * </p>
+	 *
+	 * @param name
+	 *            Identifies the combined caches
+	 * @param other
+	 *            Statistics of the other cache
+	 * @return The combined statistics
+	 */
+	public StravaCacheStats plus(final String name, final StravaCacheStats other) {
+		final long[] histogram = new long[this.loadLatencyHistogram.length];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = this.loadLatencyHistogram[i] + other.loadLatencyHistogram[i];
+		}
+		final Map<StravaCacheEvictionCause, Long> evictions = new EnumMap<StravaCacheEvictionCause, Long>(StravaCacheEvictionCause.class);
+		for (final StravaCacheEvictionCause cause : StravaCacheEvictionCause.values()) {
+			evictions.put(cause, Long.valueOf(getEvictionCount(cause) + other.getEvictionCount(cause)));
+		}
+		return new StravaCacheStats(name, this.hitCount + other.hitCount, this.missCount + other.missCount, this.loadSuccessCount + other.loadSuccessCount,
+				this.loadFailureCount + other.loadFailureCount, this.totalLoadTime + other.totalLoadTime, histogram, evictions, this.removalCount + other.removalCount, this.size + other.size,
+				this.weight + other.weight);
+	}
+
+	/**
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "StravaCacheStats [name=" + this.name + ", hitCount=" + this.hitCount + ", missCount=" + this.missCount + ", loadSuccessCount=" + this.loadSuccessCount + ", loadFailureCount=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				+ this.loadFailureCount + ", totalLoadTime=" + this.totalLoadTime + ", loadLatencyHistogram=" + Arrays.toString(this.loadLatencyHistogram) + ", evictionCounts=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ this.evictionCounts + ", removalCount=" + this.removalCount + ", size=" + this.size + ", weight=" + this.weight + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+}
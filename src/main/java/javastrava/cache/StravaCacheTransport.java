@@ -0,0 +1,46 @@
+package javastrava.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * Carries messages between the nodes of a cluster which share a cache, so that an entity changed through one node is invalidated on all the others. Messages are opaque byte arrays of at most 60000
+ * bytes, each holding a batch of invalidations; the transport need not know what is in them.
+ * </p>
+ *
+ * <p>
+ * Delivery is best-effort. A lost message leaves an entity stale on some nodes until it expires, just as it would be without a cluster. Implementations must be safe for use by many threads at once.
+ * The transport in use is chosen by strava.cache.cluster.transport in javastrava-config.properties.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public interface StravaCacheTransport {
+	/**
+	 * <p>
+	 * Stops sending and receiving messages, and releases any resources held
+	 * </p>
+	 */
+	public void close();
+
+	/**
+	 * <p>
+	 * Sends a message to every other node in the cluster. A node which receives its own message ignores it.
+	 * </p>
+	 *
+	 * @param message
+	 *            The message
+	 */
+	public void send(byte[] message);
+
+	/**
+	 * <p>
+	 * Sets what to do with the messages received from other nodes. Called once, before any message is sent; the receiver may be called on any thread.
+	 * </p>
+	 *
+	 * @param receiver
+	 *            Called with each message received
+	 */
+	public void setReceiver(Consumer<byte[]> receiver);
+}
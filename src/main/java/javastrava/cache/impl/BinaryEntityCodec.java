@@ -0,0 +1,518 @@
+package javastrava.cache.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Compact binary encoding of entities, used by {@link OffHeapCacheBackend} to hold them outside the Java heap.
+ * </p>
+ *
+ * <p>
+ * Each value is written as a one byte tag followed by its contents: integers as variable-length (zig-zag) numbers, strings as UTF-8, enums as their ordinal, dates as epoch seconds and nanoseconds,
+ * lists element by element, and model objects as their fields in declaration order. Classes are written as small numbers, assigned the first time a class is encoded, so the encoding is only
+ * meaningful to the codec that wrote it and is never persisted. Field names are not written, which makes the encoding several times smaller than the JSON Strava sends.
+ * </p>
+ *
+ * <p>
+ * Model objects are encoded as trees, as they are by Gson; an object referred to twice is written twice. Only the types used by the model classes are supported; anything else (maps, arrays, other
+ * JDK classes, or a class with no no-argument constructor) causes {@link #encode(Object)} to throw {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class BinaryEntityCodec {
+	/**
+	 * <p>
+	 * How to build and fill in instances of a model class
+	 * </p>
+	 */
+	private static final class Layout {
+		/**
+		 * No-argument constructor
+		 */
+		final Constructor<?> constructor;
+
+		/**
+		 * Instance fields, in declaration order (superclass fields first)
+		 */
+		final Field[] fields;
+
+		/**
+		 * @param constructor
+		 *            No-argument constructor
+		 * @param fields
+		 *            Instance fields, in declaration order
+		 */
+		Layout(final Constructor<?> constructor, final Field[] fields) {
+			this.constructor = constructor;
+			this.fields = fields;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Growable buffer the encoding is written to
+	 * </p>
+	 */
+	private static final class Output {
+		/**
+		 * Bytes written so far
+		 */
+		byte[] bytes = new byte[256];
+
+		/**
+		 * Number of bytes written
+		 */
+		int length;
+
+		/**
+		 * @param count
+		 *            Number of bytes about to be written
+		 */
+		void ensure(final int count) {
+			if ((this.length + count) > this.bytes.length) {
+				this.bytes = Arrays.copyOf(this.bytes, Math.max(this.bytes.length * 2, this.length + count));
+			}
+		}
+
+		/**
+		 * @param value
+		 *            Byte to write
+		 */
+		void write(final int value) {
+			ensure(1);
+			this.bytes[this.length++] = (byte) value;
+		}
+
+		/**
+		 * @param value
+		 *            Bytes to write
+		 */
+		void write(final byte[] value) {
+			ensure(value.length);
+			System.arraycopy(value, 0, this.bytes, this.length, value.length);
+			this.length += value.length;
+		}
+
+		/**
+		 * @param value
+		 *            Four bytes to write, most significant first
+		 */
+		void writeInt(final int value) {
+			ensure(4);
+			this.bytes[this.length++] = (byte) (value >>> 24);
+			this.bytes[this.length++] = (byte) (value >>> 16);
+			this.bytes[this.length++] = (byte) (value >>> 8);
+			this.bytes[this.length++] = (byte) value;
+		}
+
+		/**
+		 * @param value
+		 *            Unsigned number to write in as few bytes as possible, seven bits at a time
+		 */
+		void writeVarLong(final long value) {
+			long remaining = value;
+			while ((remaining & ~0x7FL) != 0) {
+				write((int) ((remaining & 0x7F) | 0x80));
+				remaining >>>= 7;
+			}
+			write((int) remaining);
+		}
+
+		/**
+		 * @param value
+		 *            Signed number to write, zig-zag encoded so small negative numbers are short too
+		 */
+		void writeZigZag(final long value) {
+			writeVarLong((value << 1) ^ (value >> 63));
+		}
+	}
+
+	/**
+	 * Tag for <code>null</code>
+	 */
+	private static final byte NULL = 0;
+
+	/**
+	 * Tag for {@link Boolean#TRUE}
+	 */
+	private static final byte TRUE = 1;
+
+	/**
+	 * Tag for {@link Boolean#FALSE}
+	 */
+	private static final byte FALSE = 2;
+
+	/**
+	 * Tag for an {@link Integer}
+	 */
+	private static final byte INTEGER = 3;
+
+	/**
+	 * Tag for a {@link Long}
+	 */
+	private static final byte LONG = 4;
+
+	/**
+	 * Tag for a {@link Float}
+	 */
+	private static final byte FLOAT = 5;
+
+	/**
+	 * Tag for a {@link Double}
+	 */
+	private static final byte DOUBLE = 6;
+
+	/**
+	 * Tag for a {@link String}
+	 */
+	private static final byte STRING = 7;
+
+	/**
+	 * Tag for an enum constant
+	 */
+	private static final byte ENUM = 8;
+
+	/**
+	 * Tag for a {@link ZonedDateTime}
+	 */
+	private static final byte ZONED_DATE_TIME = 9;
+
+	/**
+	 * Tag for a {@link LocalDateTime}
+	 */
+	private static final byte LOCAL_DATE_TIME = 10;
+
+	/**
+	 * Tag for a {@link LocalDate}
+	 */
+	private static final byte LOCAL_DATE = 11;
+
+	/**
+	 * Tag for a {@link List}
+	 */
+	private static final byte LIST = 12;
+
+	/**
+	 * Tag for a model object
+	 */
+	private static final byte OBJECT = 13;
+
+	/**
+	 * Layouts of the model classes encoded so far
+	 */
+	private static final ClassValue<Layout> layouts = new ClassValue<Layout>() {
+		@Override
+		protected Layout computeValue(final Class<?> type) {
+			return layout(type);
+		}
+	};
+
+	/**
+	 * <p>
+	 * Works out how to build and fill in instances of a model class
+	 * </p>
+	 *
+	 * @param type
+	 *            The class
+	 * @return The layout, or <code>null</code> if the class has no no-argument constructor
+	 */
+	private static Layout layout(final Class<?> type) {
+		final Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+			constructor.setAccessible(true);
+		} catch (final NoSuchMethodException e) {
+			return null;
+		}
+		final List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+		for (Class<?> c = type; (c != null) && (c != Object.class); c = c.getSuperclass()) {
+			hierarchy.add(0, c);
+		}
+		final List<Field> fields = new ArrayList<Field>();
+		for (final Class<?> c : hierarchy) {
+			for (final Field field : c.getDeclaredFields()) {
+				if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+					field.setAccessible(true);
+					fields.add(field);
+				}
+			}
+		}
+		return new Layout(constructor, fields.toArray(new Field[fields.size()]));
+	}
+
+	/**
+	 * Number assigned to each class encoded so far
+	 */
+	private final ConcurrentHashMap<Class<?>, Integer> classIds = new ConcurrentHashMap<Class<?>, Integer>();
+
+	/**
+	 * Classes encoded so far, by number
+	 */
+	private volatile Class<?>[] classes = new Class<?>[0];
+
+	/**
+	 * @param id
+	 *            Number assigned to a class
+	 * @return The class
+	 */
+	private Class<?> classFor(final int id) {
+		final Class<?>[] known = this.classes;
+		if (id >= known.length) {
+			throw new IllegalStateException("Unknown class number " + id); //$NON-NLS-1$
+		}
+		return known[id];
+	}
+
+	/**
+	 * @param type
+	 *            A class
+	 * @return Number assigned to the class, assigning one if it has not been encoded before
+	 */
+	private int classId(final Class<?> type) {
+		final Integer id = this.classIds.get(type);
+		if (id != null) {
+			return id.intValue();
+		}
+		synchronized (this) {
+			return this.classIds.computeIfAbsent(type, key -> {
+				final Class<?>[] known = Arrays.copyOf(this.classes, this.classes.length + 1);
+				known[known.length - 1] = key;
+				this.classes = known;
+				return Integer.valueOf(known.length - 1);
+			}).intValue();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Decodes a value
+	 * </p>
+	 *
+	 * @param buffer
+	 *            Buffer positioned at the start of the encoding
+	 * @return The value
+	 * @throws IllegalStateException
+	 *             If the encoding is not valid
+	 */
+	Object decode(final ByteBuffer buffer) {
+		try {
+			return read(buffer);
+		} catch (final ReflectiveOperationException | RuntimeException e) {
+			throw new IllegalStateException("Cannot decode cached entity", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Encodes a value
+	 * </p>
+	 *
+	 * @param value
+	 *            The value
+	 * @return The encoding
+	 * @throws IllegalArgumentException
+	 *             If the value, or something it refers to, cannot be encoded
+	 */
+	byte[] encode(final Object value) {
+		final Output output = new Output();
+		try {
+			write(output, value);
+		} catch (final IllegalAccessException e) {
+			throw new IllegalArgumentException("Cannot encode " + value.getClass().getName(), e); //$NON-NLS-1$
+		}
+		return Arrays.copyOf(output.bytes, output.length);
+	}
+
+	/**
+	 * @param buffer
+	 *            Buffer positioned at the start of an encoded value
+	 * @return The value
+	 * @throws ReflectiveOperationException
+	 *             If a model object cannot be built
+	 */
+	private Object read(final ByteBuffer buffer) throws ReflectiveOperationException {
+		final byte tag = buffer.get();
+		switch (tag) {
+		case NULL:
+			return null;
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case INTEGER:
+			return Integer.valueOf((int) readZigZag(buffer));
+		case LONG:
+			return Long.valueOf(readZigZag(buffer));
+		case FLOAT:
+			return Float.valueOf(Float.intBitsToFloat(buffer.getInt()));
+		case DOUBLE:
+			return Double.valueOf(Double.longBitsToDouble(buffer.getLong()));
+		case STRING:
+			return readString(buffer);
+		case ENUM:
+			return classFor((int) readVarLong(buffer)).getEnumConstants()[(int) readVarLong(buffer)];
+		case ZONED_DATE_TIME:
+			final Instant instant = Instant.ofEpochSecond(readZigZag(buffer), readVarLong(buffer));
+			return ZonedDateTime.ofInstant(instant, ZoneId.of(readString(buffer)));
+		case LOCAL_DATE_TIME:
+			return LocalDateTime.ofEpochSecond(readZigZag(buffer), (int) readVarLong(buffer), ZoneOffset.UTC);
+		case LOCAL_DATE:
+			return LocalDate.ofEpochDay(readZigZag(buffer));
+		case LIST:
+			final int size = (int) readVarLong(buffer);
+			final List<Object> list = new ArrayList<Object>(size);
+			for (int i = 0; i < size; i++) {
+				list.add(read(buffer));
+			}
+			return list;
+		case OBJECT:
+			final Layout layout = layouts.get(classFor((int) readVarLong(buffer)));
+			final Object object = layout.constructor.newInstance();
+			for (final Field field : layout.fields) {
+				final Object fieldValue = read(buffer);
+				if ((fieldValue != null) || !field.getType().isPrimitive()) {
+					field.set(object, fieldValue);
+				}
+			}
+			return object;
+		default:
+			throw new IllegalStateException("Unknown tag " + tag); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param buffer
+	 *            Buffer positioned at a string
+	 * @return The string
+	 */
+	private static String readString(final ByteBuffer buffer) {
+		final byte[] bytes = new byte[(int) readVarLong(buffer)];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param buffer
+	 *            Buffer positioned at a number written by {@link Output#writeVarLong(long)}
+	 * @return The number
+	 */
+	private static long readVarLong(final ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			final byte next = buffer.get();
+			value |= (long) (next & 0x7F) << shift;
+			if ((next & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalStateException("Malformed number"); //$NON-NLS-1$
+	}
+
+	/**
+	 * @param buffer
+	 *            Buffer positioned at a number written by {@link Output#writeZigZag(long)}
+	 * @return The number
+	 */
+	private static long readZigZag(final ByteBuffer buffer) {
+		final long value = readVarLong(buffer);
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * @param output
+	 *            Where to write the value
+	 * @param value
+	 *            The value
+	 * @throws IllegalAccessException
+	 *             If a field of a model object cannot be read
+	 */
+	private void write(final Output output, final Object value) throws IllegalAccessException {
+		if (value == null) {
+			output.write(NULL);
+		} else if (value instanceof Boolean) {
+			output.write(((Boolean) value).booleanValue() ? TRUE : FALSE);
+		} else if (value instanceof Integer) {
+			output.write(INTEGER);
+			output.writeZigZag(((Integer) value).intValue());
+		} else if (value instanceof Long) {
+			output.write(LONG);
+			output.writeZigZag(((Long) value).longValue());
+		} else if (value instanceof Float) {
+			output.write(FLOAT);
+			output.writeInt(Float.floatToIntBits(((Float) value).floatValue()));
+		} else if (value instanceof Double) {
+			output.write(DOUBLE);
+			final long bits = Double.doubleToLongBits(((Double) value).doubleValue());
+			output.writeInt((int) (bits >>> 32));
+			output.writeInt((int) bits);
+		} else if (value instanceof String) {
+			output.write(STRING);
+			writeString(output, (String) value);
+		} else if (value instanceof Enum) {
+			output.write(ENUM);
+			output.writeVarLong(classId(((Enum<?>) value).getDeclaringClass()));
+			output.writeVarLong(((Enum<?>) value).ordinal());
+		} else if (value instanceof ZonedDateTime) {
+			final ZonedDateTime dateTime = (ZonedDateTime) value;
+			output.write(ZONED_DATE_TIME);
+			output.writeZigZag(dateTime.toEpochSecond());
+			output.writeVarLong(dateTime.getNano());
+			writeString(output, dateTime.getZone().getId());
+		} else if (value instanceof LocalDateTime) {
+			final LocalDateTime dateTime = (LocalDateTime) value;
+			output.write(LOCAL_DATE_TIME);
+			output.writeZigZag(dateTime.toEpochSecond(ZoneOffset.UTC));
+			output.writeVarLong(dateTime.getNano());
+		} else if (value instanceof LocalDate) {
+			output.write(LOCAL_DATE);
+			output.writeZigZag(((LocalDate) value).toEpochDay());
+		} else if (value instanceof List) {
+			final List<?> list = (List<?>) value;
+			output.write(LIST);
+			output.writeVarLong(list.size());
+			for (final Object element : list) {
+				write(output, element);
+			}
+		} else {
+			final Class<?> type = value.getClass();
+			final String name = type.getName();
+			final Layout layout = (name.startsWith("java.") || name.startsWith("javax.") || type.isArray() ? null : layouts.get(type)); //$NON-NLS-1$ //$NON-NLS-2$
+			if (layout == null) {
+				throw new IllegalArgumentException("Cannot encode " + name); //$NON-NLS-1$
+			}
+			output.write(OBJECT);
+			output.writeVarLong(classId(type));
+			for (final Field field : layout.fields) {
+				write(output, field.get(value));
+			}
+		}
+	}
+
+	/**
+	 * @param output
+	 *            Where to write the string
+	 * @param value
+	 *            The string
+	 */
+	private static void writeString(final Output output, final String value) {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		output.writeVarLong(bytes.length);
+		output.write(bytes);
+	}
+}
@@ -0,0 +1,148 @@
+package javastrava.cache.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.api.util.RequestLane;
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * Refreshes stale cache entries in the background, so that the caller which found them stale does not have to wait.
+ * </p>
+ *
+ * <p>
+ * Refreshes run on a small pool of daemon threads in the {@link RequestLane#BULK} lane, so they are the first requests to be held back as the rate limit is approached. Only one refresh of an
+ * entry runs at once, and if the queue of refreshes is full further ones are dropped; the entry is then simply served stale until it is next asked for, or until it expires.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class CacheRefresher {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * The only instance
+	 */
+	private static CacheRefresher instance = new CacheRefresher();
+
+	/**
+	 * @return The only instance
+	 */
+	static CacheRefresher instance() {
+		return instance;
+	}
+
+	/**
+	 * Runs the refreshes
+	 */
+	private final ThreadPoolExecutor executor;
+
+	/**
+	 * Partition and key of each entry being refreshed
+	 */
+	private final Set<List<Object>> inProgress = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Total number of refreshes which completed
+	 */
+	private final AtomicLong refreshed = new AtomicLong();
+
+	/**
+	 * Total number of refreshes which failed
+	 */
+	private final AtomicLong failed = new AtomicLong();
+
+	/**
+	 * Total number of refreshes dropped because the queue was full
+	 */
+	private final AtomicLong dropped = new AtomicLong();
+
+	/**
+	 * Creates the pool of threads
+	 */
+	private CacheRefresher() {
+		final AtomicInteger count = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(StravaConfig.CACHE_REFRESH_THREADS, StravaConfig.CACHE_REFRESH_THREADS, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(StravaConfig.CACHE_REFRESH_QUEUE), runnable -> {
+					final Thread thread = new Thread(runnable, "javastrava-cache-refresh-" + count.incrementAndGet()); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				});
+		this.executor.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * @return Total number of refreshes dropped because the queue was full
+	 */
+	long getDroppedCount() {
+		return this.dropped.get();
+	}
+
+	/**
+	 * @return Total number of refreshes which failed
+	 */
+	long getFailedCount() {
+		return this.failed.get();
+	}
+
+	/**
+	 * @return Total number of refreshes which completed
+	 */
+	long getRefreshedCount() {
+		return this.refreshed.get();
+	}
+
+	/**
+	 * <p>
+	 * Queues a refresh of an entry, unless one is already queued or running
+	 * </p>
+	 *
+	 * @param partition
+	 *            Partition of the entry
+	 * @param key
+	 *            Key of the entry
+	 * @param refresh
+	 *            Fetches the entry again and stores it
+	 * @param onFailure
+	 *            Run if the refresh throws an exception
+	 */
+	void refresh(final String partition, final Object key, final Runnable refresh, final Runnable onFailure) {
+		final List<Object> id = Arrays.asList(partition, key);
+		if (!this.inProgress.add(id)) {
+			return;
+		}
+		try {
+			this.executor.execute(() -> {
+				try {
+					RequestLane.run(RequestLane.BULK, refresh);
+					this.refreshed.incrementAndGet();
+				} catch (final RuntimeException e) {
+					this.failed.incrementAndGet();
+					log.debug("Background refresh of " + partition.substring(0, partition.indexOf(':')) + " " + key + " failed: " + e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+					onFailure.run();
+				} finally {
+					this.inProgress.remove(id);
+				}
+			});
+		} catch (final RejectedExecutionException e) {
+			this.dropped.incrementAndGet();
+			this.inProgress.remove(id);
+		}
+	}
+}
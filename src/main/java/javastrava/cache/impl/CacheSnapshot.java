@@ -0,0 +1,276 @@
+package javastrava.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import javastrava.config.StravaConfig;
+import javastrava.json.impl.JsonUtilImpl;
+
+/**
+ * <p>
+ * Writes the contents of a cache to a stream, and reads them back, so that a cache can be warmed up from a previous run without asking Strava again.
+ * </p>
+ *
+ * <p>
+ * A snapshot is a header (a magic number, a version, the class of entity and the time the snapshot was taken) followed by chunks, each holding up to about a megabyte of entities as deflated JSON
+ * with a CRC32 checksum, and ends with an empty chunk. Snapshots are read a chunk at a time: one thread reads the chunks from the stream, and strava.cache.snapshot.threads threads inflate, parse
+ * and store them. At most two chunks per thread are held in memory at once, so a snapshot of any size can be read.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class CacheSnapshot {
+	/**
+	 * Identifies a snapshot
+	 */
+	private static final int MAGIC = 0x4A534353;
+
+	/**
+	 * Version of the snapshot format
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * Amount of JSON (in bytes, before deflating) after which a chunk is written
+	 */
+	private static final int CHUNK_BYTES = 1024 * 1024;
+
+	/**
+	 * Largest chunk accepted when reading, after deflating
+	 */
+	private static final int MAX_CHUNK_BYTES = 64 * 1024 * 1024;
+
+	/**
+	 * Used to write and read the entities
+	 */
+	private static final Gson gson = new JsonUtilImpl().getGson();
+
+	/**
+	 * <p>
+	 * Writes a snapshot
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the entities
+	 * @param entities
+	 *            The entities
+	 * @param output
+	 *            Stream to write to; it is not closed
+	 * @return Number of entities written
+	 * @throws IOException
+	 *             If the stream cannot be written
+	 */
+	static long write(final Class<?> class1, final Iterable<?> entities, final OutputStream output) throws IOException {
+		final DataOutputStream out = new DataOutputStream(output);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeUTF(class1.getName());
+		out.writeLong(System.currentTimeMillis());
+
+		long written = 0;
+		int count = 0;
+		final ByteArrayOutputStream json = new ByteArrayOutputStream(CHUNK_BYTES + (CHUNK_BYTES / 4));
+		final Writer writer = new OutputStreamWriter(json, StandardCharsets.UTF_8);
+		for (final Object entity : entities) {
+			gson.toJson(entity, writer);
+			writer.write('\n');
+			writer.flush();
+			count++;
+			if (json.size() >= CHUNK_BYTES) {
+				writeChunk(out, count, json);
+				written += count;
+				count = 0;
+			}
+		}
+		if (count > 0) {
+			writeChunk(out, count, json);
+			written += count;
+		}
+		out.writeInt(0);
+		out.flush();
+		return written;
+	}
+
+	/**
+	 * @param out
+	 *            Stream to write to
+	 * @param count
+	 *            Number of entities in the chunk
+	 * @param json
+	 *            The entities' JSON, which is cleared once written
+	 * @throws IOException
+	 *             If the stream cannot be written
+	 */
+	private static void writeChunk(final DataOutputStream out, final int count, final ByteArrayOutputStream json) throws IOException {
+		final ByteArrayOutputStream deflated = new ByteArrayOutputStream(json.size() / 4);
+		try (final DeflaterOutputStream deflater = new DeflaterOutputStream(deflated, new Deflater(Deflater.BEST_SPEED))) {
+			json.writeTo(deflater);
+		}
+		json.reset();
+		final byte[] bytes = deflated.toByteArray();
+		final CRC32 crc = new CRC32();
+		crc.update(bytes);
+		out.writeInt(count);
+		out.writeInt(bytes.length);
+		out.writeInt((int) crc.getValue());
+		out.write(bytes);
+	}
+
+	/**
+	 * <p>
+	 * Reads a snapshot, storing each entity as it is read
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of entity expected
+	 * @param input
+	 *            Stream to read from; it is not closed
+	 * @param store
+	 *            Stores an entity; called on several threads at once
+	 * @return Number of entities read
+	 * @throws IOException
+	 *             If the stream cannot be read, is not a snapshot of the expected class of entity, or is corrupt
+	 */
+	static <T> long read(final Class<T> class1, final InputStream input, final Consumer<T> store) throws IOException {
+		final DataInputStream in = new DataInputStream(input);
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a cache snapshot"); //$NON-NLS-1$
+		}
+		if (in.readByte() != VERSION) {
+			throw new IOException("Unknown cache snapshot version"); //$NON-NLS-1$
+		}
+		final String className = in.readUTF();
+		if (!className.equals(class1.getName())) {
+			throw new IOException("Cache snapshot holds " + className + ", not " + class1.getName()); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		in.readLong();
+
+		final int threads = Math.max(1, StravaConfig.CACHE_SNAPSHOT_THREADS);
+		final Semaphore inFlight = new Semaphore(threads * 2);
+		final AtomicLong read = new AtomicLong();
+		final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+		final AtomicInteger count = new AtomicInteger();
+		final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+			final Thread thread = new Thread(runnable, "javastrava-cache-snapshot-" + count.incrementAndGet()); //$NON-NLS-1$
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			while (failure.get() == null) {
+				final int entities = in.readInt();
+				if (entities == 0) {
+					break;
+				}
+				final int length = in.readInt();
+				final int checksum = in.readInt();
+				if ((entities < 0) || (length < 0) || (length > MAX_CHUNK_BYTES)) {
+					throw new IOException("Corrupt cache snapshot chunk"); //$NON-NLS-1$
+				}
+				inFlight.acquireUninterruptibly();
+				final byte[] bytes;
+				try {
+					bytes = new byte[length];
+					in.readFully(bytes);
+				} catch (final IOException | RuntimeException e) {
+					inFlight.release();
+					throw e;
+				}
+				executor.execute(() -> {
+					try {
+						read.addAndGet(readChunk(class1, bytes, entities, checksum, store));
+					} catch (final IOException | RuntimeException e) {
+						failure.compareAndSet(null, e);
+					} finally {
+						inFlight.release();
+					}
+				});
+			}
+		} finally {
+			executor.shutdown();
+			try {
+				executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		final Exception e = failure.get();
+		if (e instanceof IOException) {
+			throw (IOException) e;
+		} else if (e != null) {
+			throw new IOException("Cannot read cache snapshot", e); //$NON-NLS-1$
+		}
+		return read.get();
+	}
+
+	/**
+	 * @param class1
+	 *            Class of entity expected
+	 * @param bytes
+	 *            The deflated chunk
+	 * @param entities
+	 *            Number of entities in the chunk
+	 * @param checksum
+	 *            CRC32 of the deflated chunk
+	 * @param store
+	 *            Stores an entity
+	 * @return Number of entities read
+	 * @throws IOException
+	 *             If the chunk is corrupt
+	 */
+	private static <T> long readChunk(final Class<T> class1, final byte[] bytes, final int entities, final int checksum, final Consumer<T> store) throws IOException {
+		final CRC32 crc = new CRC32();
+		crc.update(bytes);
+		if ((int) crc.getValue() != checksum) {
+			throw new IOException("Checksum mismatch in cache snapshot"); //$NON-NLS-1$
+		}
+		long read = 0;
+		try (final JsonReader reader = new JsonReader(new InputStreamReader(new InflaterInputStream(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8))) {
+			// The entities follow one another, which is only allowed in lenient mode
+			reader.setLenient(true);
+			while (reader.peek() != JsonToken.END_DOCUMENT) {
+				final T entity = gson.fromJson(reader, class1);
+				store.accept(entity);
+				read++;
+			}
+		}
+		if (read != entities) {
+			throw new IOException("Cache snapshot chunk should hold " + entities + " entities, but holds " + read); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		return read;
+	}
+
+	/**
+	 * <p>
+	 * Private constructor, as there are only static methods
+	 * </p>
+	 */
+	private CacheSnapshot() {
+		super();
+	}
+}
@@ -0,0 +1,381 @@
+package javastrava.cache.impl;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheStats;
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * Counts what happens to one partition of a {@link StravaCacheBackend}, i.e. one class of entity for one token (or for all tokens, in the shared partition).
+ * </p>
+ *
+ * <p>
+ * Counters are {@link LongAdder}s, which spread concurrent updates over several cells, so counting does not make the threads reading the cache contend with each other. There is one counter per
+ * partition, shared by all the {@link StravaCacheImpl} instances which use it; evictions are counted by a listener registered once per backend. When the first counter for a class of entity is
+ * created, the totals for that class are registered with JMX (if strava.cache.stats.jmx is <code>true</code>) as javastrava:type=StravaCache,name=&lt;class name&gt;. When a partition is
+ * dropped its counter is forgotten, and its counts are added to a single counter per class, so that counters do not build up for tokens which are no longer in use.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class CacheStatsCounter {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Largest number of entries weighed when estimating the weight of a partition; the rest are assumed to weigh the same on average
+	 */
+	private static final int WEIGH_SAMPLE = 256;
+
+	/**
+	 * Counters, by backend and then by partition
+	 */
+	private static final ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<String, CacheStatsCounter>> counters = new ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<String, CacheStatsCounter>>();
+
+	/**
+	 * Counters, by class of entity
+	 */
+	private static final ConcurrentHashMap<Class<?>, Set<CacheStatsCounter>> byClass = new ConcurrentHashMap<Class<?>, Set<CacheStatsCounter>>();
+
+	/**
+	 * Counts from the dropped counters, by class of entity, so that the totals for a class do not go down when a partition is dropped
+	 */
+	private static final ConcurrentHashMap<Class<?>, CacheStatsCounter> removed = new ConcurrentHashMap<Class<?>, CacheStatsCounter>();
+
+	/**
+	 * <p>
+	 * Returns the counter for a partition, creating it if it does not exist yet
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition
+	 * @param class1
+	 *            Class of entity stored in the partition
+	 * @param name
+	 *            Identifies the partition in statistics
+	 * @return The counter
+	 */
+	static CacheStatsCounter forPartition(final StravaCacheBackend backend, final String partition, final Class<?> class1, final String name) {
+		final ConcurrentHashMap<String, CacheStatsCounter> partitions = counters.computeIfAbsent(backend, key -> {
+			final ConcurrentHashMap<String, CacheStatsCounter> map = new ConcurrentHashMap<String, CacheStatsCounter>();
+			key.addEvictionListener((evictedPartition, evictedKey, value, cause) -> {
+				final CacheStatsCounter counter = map.get(evictedPartition);
+				if (counter != null) {
+					counter.evictions.get(cause).increment();
+				}
+			});
+			return map;
+		});
+		return partitions.computeIfAbsent(partition, key -> {
+			final CacheStatsCounter counter = new CacheStatsCounter(backend, partition, name);
+			byClass.computeIfAbsent(class1, type -> {
+				registerMBean(type);
+				return ConcurrentHashMap.newKeySet();
+			}).add(counter);
+			return counter;
+		});
+	}
+
+	/**
+	 * <p>
+	 * Stops counting what happens to a partition, for example when all its entries have been removed because the token it belongs to is no longer in use. Its counts are kept in the totals for
+	 * the class, and the counter is marked as dropped so that the caches which were using it can ask for a new one if they are used again.
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition
+	 * @param class1
+	 *            Class of entity stored in the partition
+	 */
+	static void drop(final StravaCacheBackend backend, final String partition, final Class<?> class1) {
+		final ConcurrentHashMap<String, CacheStatsCounter> partitions = counters.get(backend);
+		final CacheStatsCounter counter = (partitions == null ? null : partitions.remove(partition));
+		if (counter == null) {
+			return;
+		}
+		counter.dropped = true;
+		final CacheStatsCounter total = removed.computeIfAbsent(class1, type -> {
+			final CacheStatsCounter counts = new CacheStatsCounter(null, null, type.getSimpleName() + " [removed]"); //$NON-NLS-1$
+			byClass.computeIfAbsent(type, key -> ConcurrentHashMap.newKeySet()).add(counts);
+			return counts;
+		});
+		total.add(counter);
+		final Set<CacheStatsCounter> classCounters = byClass.get(class1);
+		if (classCounters != null) {
+			classCounters.remove(counter);
+		}
+	}
+
+	/**
+	 * @return Statistics of every partition, without their weight
+	 */
+	static List<StravaCacheStats> all() {
+		final List<StravaCacheStats> stats = new ArrayList<StravaCacheStats>();
+		for (final Set<CacheStatsCounter> classCounters : byClass.values()) {
+			for (final CacheStatsCounter counter : classCounters) {
+				stats.add(counter.snapshot(false));
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * @param class1
+	 *            Class of entity
+	 */
+	private static void registerMBean(final Class<?> class1) {
+		if (!StravaConfig.CACHE_STATS_JMX) {
+			return;
+		}
+		try {
+			final ObjectName name = new ObjectName("javastrava:type=StravaCache,name=" + class1.getSimpleName()); //$NON-NLS-1$
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new CacheStatsMXBeanImpl(class1), name);
+			}
+		} catch (final JMException | RuntimeException e) {
+			log.warn("Cannot register cache statistics for " + class1.getSimpleName() + " with JMX: " + e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * @param class1
+	 *            Class of entity
+	 * @param withWeight
+	 *            <code>true</code> to estimate the weight of the entries, which means reading them
+	 * @return Statistics of all the partitions holding the class of entity
+	 */
+	static StravaCacheStats total(final Class<?> class1, final boolean withWeight) {
+		StravaCacheStats total = new CacheStatsCounter(null, null, class1.getSimpleName()).snapshot(false);
+		final Set<CacheStatsCounter> classCounters = byClass.get(class1);
+		if (classCounters != null) {
+			for (final CacheStatsCounter counter : classCounters) {
+				total = total.plus(class1.getSimpleName(), counter.snapshot(withWeight));
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Backend the partition is in
+	 */
+	private final StravaCacheBackend backend;
+
+	/**
+	 * The partition
+	 */
+	private final String partition;
+
+	/**
+	 * Identifies the partition in statistics
+	 */
+	private final String name;
+
+	/**
+	 * Requests answered from the cache
+	 */
+	private final LongAdder hits = new LongAdder();
+
+	/**
+	 * Requests not answered from the cache
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Loads which returned
+	 */
+	private final LongAdder loadSuccesses = new LongAdder();
+
+	/**
+	 * Loads which threw an exception
+	 */
+	private final LongAdder loadFailures = new LongAdder();
+
+	/**
+	 * Time (in nanoseconds) spent loading
+	 */
+	private final LongAdder loadTime = new LongAdder();
+
+	/**
+	 * Loads in each latency bucket
+	 */
+	private final LongAdder[] loadLatencies = new LongAdder[StravaCacheStats.LOAD_LATENCY_BUCKET_MILLIS.length + 1];
+
+	/**
+	 * Entries evicted by the backend, by cause
+	 */
+	private final Map<StravaCacheEvictionCause, LongAdder> evictions = new EnumMap<StravaCacheEvictionCause, LongAdder>(StravaCacheEvictionCause.class);
+
+	/**
+	 * Entries removed because they changed or were deleted
+	 */
+	private final LongAdder removals = new LongAdder();
+
+	/**
+	 * Is <code>true</code> once the counter has been dropped, and is no longer counted in the statistics
+	 */
+	private volatile boolean dropped;
+
+	/**
+	 * @param backend
+	 *            Backend the partition is in
+	 * @param partition
+	 *            The partition
+	 * @param name
+	 *            Identifies the partition in statistics
+	 */
+	private CacheStatsCounter(final StravaCacheBackend backend, final String partition, final String name) {
+		this.backend = backend;
+		this.partition = partition;
+		this.name = name;
+		for (int i = 0; i < this.loadLatencies.length; i++) {
+			this.loadLatencies[i] = new LongAdder();
+		}
+		for (final StravaCacheEvictionCause cause : StravaCacheEvictionCause.values()) {
+			this.evictions.put(cause, new LongAdder());
+		}
+	}
+
+	/**
+	 * <p>
+	 * Adds another counter's counts to this one
+	 * </p>
+	 *
+	 * @param counter
+	 *            The other counter
+	 */
+	private void add(final CacheStatsCounter counter) {
+		this.hits.add(counter.hits.sum());
+		this.misses.add(counter.misses.sum());
+		this.loadSuccesses.add(counter.loadSuccesses.sum());
+		this.loadFailures.add(counter.loadFailures.sum());
+		this.loadTime.add(counter.loadTime.sum());
+		for (int i = 0; i < this.loadLatencies.length; i++) {
+			this.loadLatencies[i].add(counter.loadLatencies[i].sum());
+		}
+		for (final Map.Entry<StravaCacheEvictionCause, LongAdder> entry : this.evictions.entrySet()) {
+			entry.getValue().add(counter.evictions.get(entry.getKey()).sum());
+		}
+		this.removals.add(counter.removals.sum());
+	}
+
+	/**
+	 * Counts a request answered from the cache
+	 */
+	void hit() {
+		this.hits.increment();
+	}
+
+	/**
+	 * <p>
+	 * Counts a load
+	 * </p>
+	 *
+	 * @param nanos
+	 *            Time taken (in nanoseconds)
+	 * @param success
+	 *            <code>false</code> if the load threw an exception
+	 */
+	void load(final long nanos, final boolean success) {
+		(success ? this.loadSuccesses : this.loadFailures).increment();
+		this.loadTime.add(nanos);
+		final long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+		int bucket = 0;
+		while ((bucket < StravaCacheStats.LOAD_LATENCY_BUCKET_MILLIS.length) && (millis >= StravaCacheStats.LOAD_LATENCY_BUCKET_MILLIS[bucket])) {
+			bucket++;
+		}
+		this.loadLatencies[bucket].increment();
+	}
+
+	/**
+	 * @return <code>true</code> if the counter has been dropped, and is no longer counted in the statistics
+	 */
+	boolean isDropped() {
+		return this.dropped;
+	}
+
+	/**
+	 * Counts a request not answered from the cache
+	 */
+	void miss() {
+		this.misses.increment();
+	}
+
+	/**
+	 * Counts an entry removed because it changed or was deleted
+	 */
+	void removal() {
+		this.removals.increment();
+	}
+
+	/**
+	 * @param withWeight
+	 *            <code>true</code> to estimate the weight of the entries, which means reading a sample of them
+	 * @return Statistics of the partition
+	 */
+	StravaCacheStats snapshot(final boolean withWeight) {
+		final long[] histogram = new long[this.loadLatencies.length];
+		for (int i = 0; i < histogram.length; i++) {
+			histogram[i] = this.loadLatencies[i].sum();
+		}
+		final Map<StravaCacheEvictionCause, Long> evictionCounts = new EnumMap<StravaCacheEvictionCause, Long>(StravaCacheEvictionCause.class);
+		for (final Map.Entry<StravaCacheEvictionCause, LongAdder> entry : this.evictions.entrySet()) {
+			evictionCounts.put(entry.getKey(), Long.valueOf(entry.getValue().sum()));
+		}
+		long size = 0;
+		long weight = 0;
+		if (this.backend != null) {
+			if (withWeight) {
+				final List<Object> values = this.backend.values(this.partition);
+				size = values.size();
+				weight = weigh(values);
+			} else {
+				size = this.backend.size(this.partition);
+			}
+		}
+		return new StravaCacheStats(this.name, this.hits.sum(), this.misses.sum(), this.loadSuccesses.sum(), this.loadFailures.sum(), this.loadTime.sum(), histogram, evictionCounts,
+				this.removals.sum(), size, weight);
+	}
+
+	/**
+	 * @param values
+	 *            Entries in the partition
+	 * @return Estimated weight of the entries, from a sample of them
+	 */
+	private static long weigh(final List<Object> values) {
+		if (values.isEmpty()) {
+			return 0;
+		}
+		final int step = Math.max(1, values.size() / WEIGH_SAMPLE);
+		long sampled = 0;
+		int count = 0;
+		for (int i = 0; i < values.size(); i += step) {
+			sampled += SizeEstimator.estimate(values.get(i));
+			count++;
+		}
+		return (sampled * values.size()) / count;
+	}
+}
@@ -0,0 +1,137 @@
+package javastrava.cache.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheStats;
+
+/**
+ * <p>
+ * Publishes the statistics of the caches of one class of entity through JMX. Each attribute is read from a fresh snapshot of the counters; only {@link #getWeight()} reads the cached entries.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class CacheStatsMXBeanImpl implements StravaCacheStatsMXBean {
+	/**
+	 * Class of entity
+	 */
+	private final Class<?> class1;
+
+	/**
+	 * @param class1
+	 *            Class of entity
+	 */
+	CacheStatsMXBeanImpl(final Class<?> class1) {
+		this.class1 = class1;
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getAverageLoadMillis()
+	 */
+	@Override
+	public double getAverageLoadMillis() {
+		return stats().getAverageLoadMillis();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getEvictionCounts()
+	 */
+	@Override
+	public Map<String, Long> getEvictionCounts() {
+		final Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (final Map.Entry<StravaCacheEvictionCause, Long> entry : stats().getEvictionCounts().entrySet()) {
+			counts.put(entry.getKey().name(), entry.getValue());
+		}
+		return counts;
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getHitCount()
+	 */
+	@Override
+	public long getHitCount() {
+		return stats().getHitCount();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getHitRate()
+	 */
+	@Override
+	public double getHitRate() {
+		return stats().getHitRate();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getLoadFailureCount()
+	 */
+	@Override
+	public long getLoadFailureCount() {
+		return stats().getLoadFailureCount();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getLoadLatencyBucketMillis()
+	 */
+	@Override
+	public long[] getLoadLatencyBucketMillis() {
+		return StravaCacheStats.LOAD_LATENCY_BUCKET_MILLIS.clone();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getLoadLatencyHistogram()
+	 */
+	@Override
+	public long[] getLoadLatencyHistogram() {
+		return stats().getLoadLatencyHistogram();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getLoadSuccessCount()
+	 */
+	@Override
+	public long getLoadSuccessCount() {
+		return stats().getLoadSuccessCount();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getMissCount()
+	 */
+	@Override
+	public long getMissCount() {
+		return stats().getMissCount();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getRemovalCount()
+	 */
+	@Override
+	public long getRemovalCount() {
+		return stats().getRemovalCount();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getSize()
+	 */
+	@Override
+	public long getSize() {
+		return stats().getSize();
+	}
+
+	/**
+	 * @see javastrava.cache.impl.StravaCacheStatsMXBean#getWeight()
+	 */
+	@Override
+	public long getWeight() {
+		return CacheStatsCounter.total(this.class1, true).getWeight();
+	}
+
+	/**
+	 * @return Statistics of the caches, without their weight
+	 */
+	private StravaCacheStats stats() {
+		return CacheStatsCounter.total(this.class1, false);
+	}
+}
@@ -0,0 +1,163 @@
+package javastrava.cache.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Approximate, fixed-size record of how often each cache entry has been used recently (a count-min sketch of 4-bit counters, as used by TinyLFU).
+ * </p>
+ *
+ * <p>
+ * Each entry is counted in four counters chosen by its hash; its estimated frequency is the smallest of them, which is never less than the true count but may be more if other entries share its
+ * counters. Counters saturate at 15, and once the number of increments reaches ten times the size of the table all the counters are halved, so that entries which were popular long ago gradually
+ * lose their advantage.
+ * </p>
+ *
+ * <p>
+ * Counters are incremented by compare-and-set, so that concurrent increments of counters in the same long are never lost and a saturated counter never carries into its neighbour. The counters
+ * are halved one long at a time, so an increment made while they are being halved may be halved or not; that just makes the estimate slightly different, which is acceptable for a sketch which
+ * is approximate anyway.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class FrequencySketch {
+	/**
+	 * Seeds for the four hash functions
+	 */
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+
+	/**
+	 * Mask to halve every 4-bit counter in a long at once
+	 */
+	private static final long RESET_MASK = 0x7777777777777777L;
+
+	/**
+	 * The counters, 16 to a long
+	 */
+	private final AtomicLongArray table;
+
+	/**
+	 * Mask to map a hash onto an index in the table
+	 */
+	private final int tableMask;
+
+	/**
+	 * Number of increments after which the counters are halved
+	 */
+	private final int sampleSize;
+
+	/**
+	 * Number of increments since the counters were last halved
+	 */
+	private final AtomicInteger additions = new AtomicInteger();
+
+	/**
+	 * @param maximumSize
+	 *            Maximum number of entries in the cache
+	 */
+	FrequencySketch(final int maximumSize) {
+		int size = 16;
+		while ((size < maximumSize) && (size < (1 << 30))) {
+			size <<= 1;
+		}
+		this.table = new AtomicLongArray(size);
+		this.tableMask = size - 1;
+		this.sampleSize = 10 * size;
+	}
+
+	/**
+	 * @param hash
+	 *            Hash of the entry
+	 * @return Estimated number of times the entry has been used recently, from 0 to 15
+	 */
+	int frequency(final int hash) {
+		final int spread = spread(hash);
+		final int start = (spread & 3) << 2;
+		int frequency = 15;
+		for (int i = 0; i < 4; i++) {
+			final int index = indexOf(spread, i);
+			final int count = (int) ((this.table.get(index) >>> ((start + i) << 2)) & 0xfL);
+			frequency = Math.min(frequency, count);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Records a use of the entry
+	 *
+	 * @param hash
+	 *            Hash of the entry
+	 */
+	void increment(final int hash) {
+		final int spread = spread(hash);
+		final int start = (spread & 3) << 2;
+		boolean added = false;
+		for (int i = 0; i < 4; i++) {
+			added |= incrementAt(indexOf(spread, i), start + i);
+		}
+		if (added && (this.additions.incrementAndGet() >= this.sampleSize)) {
+			reset();
+		}
+	}
+
+	/**
+	 * @param index
+	 *            Index of the long holding the counter
+	 * @param counter
+	 *            Which of the 16 counters in the long to increment
+	 * @return <code>true</code> if the counter was incremented, <code>false</code> if it was already saturated
+	 */
+	private boolean incrementAt(final int index, final int counter) {
+		final int offset = counter << 2;
+		final long mask = 0xfL << offset;
+		while (true) {
+			final long current = this.table.get(index);
+			if ((current & mask) == mask) {
+				return false;
+			}
+			if (this.table.compareAndSet(index, current, current + (1L << offset))) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * @param hash
+	 *            Spread hash of the entry
+	 * @param i
+	 *            Which of the four hash functions to use
+	 * @return Index in the table
+	 */
+	private int indexOf(final int hash, final int i) {
+		long result = (hash + SEEDS[i]) * SEEDS[i];
+		result += result >>> 32;
+		return ((int) result) & this.tableMask;
+	}
+
+	/**
+	 * Halves all the counters, unless another thread has just done so
+	 */
+	private void reset() {
+		final int count = this.additions.get();
+		if ((count < this.sampleSize) || !this.additions.compareAndSet(count, count >>> 1)) {
+			return;
+		}
+		for (int i = 0; i < this.table.length(); i++) {
+			this.table.getAndUpdate(i, counters -> (counters >>> 1) & RESET_MASK);
+		}
+	}
+
+	/**
+	 * @param hash
+	 *            Hash of the entry
+	 * @return The hash with its bits mixed, so that poor hash codes don't all land on the same counters
+	 */
+	private static int spread(final int hash) {
+		int x = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+}
@@ -0,0 +1,513 @@
+package javastrava.cache.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheEvictionListener;
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * In-memory {@link StravaCacheBackend}, bounded by the number of entries it holds across all partitions and, optionally, by their total estimated size in bytes (see {@link SizeEstimator}).
+ * </p>
+ *
+ * <p>
+ * Reads go straight to a {@link ConcurrentHashMap} per partition and take no locks; writes lock only their own partition's slot in the map of partitions, and only while storing the entry, so
+ * that a partition left empty can be dropped without losing a concurrent write. Every read (hit or miss) and write is recorded in a {@link FrequencySketch}. When the backend is full, the oldest
+ * entry is chosen as the victim for eviction, but a newly written entry is only admitted in its place if it has been used at least as often as the victim; otherwise the new entry is the one evicted
+ * and the victim goes to the back of the queue (TinyLFU admission). This keeps frequently read entities, such as the authenticated athlete, in the cache through a scan of entities which are read
+ * once. An entry which replaces one already stored under the same key is always admitted, so that a write never leaves the key with no entry, or with the old one.
+ * </p>
+ *
+ * <p>
+ * Eviction is done by whichever writing thread finds the backend over its bound, if no other thread is already doing it, so the bound may be exceeded briefly under heavy concurrent writes.
+ * Expired entries are evicted when they are read or reach the front of the queue. Eviction listeners are called on the common fork/join pool.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class InMemoryCacheBackend implements StravaCacheBackend {
+	/**
+	 * <p>
+	 * A stored entry
+	 * </p>
+	 */
+	private static final class Node {
+		/**
+		 * Updates {@link #retired}
+		 */
+		static final AtomicIntegerFieldUpdater<Node> RETIRED = AtomicIntegerFieldUpdater.newUpdater(Node.class, "retired"); //$NON-NLS-1$
+
+		/**
+		 * Partition the entry is stored in
+		 */
+		final String partition;
+
+		/**
+		 * The entity's id
+		 */
+		final Object key;
+
+		/**
+		 * The entity
+		 */
+		final Object value;
+
+		/**
+		 * Time at which the entry expires, in milliseconds since the epoch
+		 */
+		final long expiresAt;
+
+		/**
+		 * Hash of the partition and key, used by the frequency sketch
+		 */
+		final int hash;
+
+		/**
+		 * Estimated size of the entry in bytes, including the node itself and the key
+		 */
+		final long weight;
+
+		/**
+		 * 1 once the entry has been removed from the backend (it may still be in the eviction queue)
+		 */
+		volatile int retired;
+
+		/**
+		 * @param partition
+		 *            Partition the entry is stored in
+		 * @param key
+		 *            The entity's id
+		 * @param value
+		 *            The entity
+		 * @param expiresAt
+		 *            Time at which the entry expires, in milliseconds since the epoch
+		 */
+		Node(final String partition, final Object key, final Object value, final long expiresAt) {
+			this.partition = partition;
+			this.key = key;
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.hash = hash(partition, key);
+			this.weight = NODE_WEIGHT + SizeEstimator.estimate(key) + SizeEstimator.estimate(value);
+		}
+
+		/**
+		 * @param now
+		 *            Current time, in milliseconds since the epoch
+		 * @return <code>true</code> if the entry has expired
+		 */
+		boolean isExpired(final long now) {
+			return now >= this.expiresAt;
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Estimated size in bytes of a node and its entries in the partition map and eviction queue
+	 */
+	static final long NODE_WEIGHT = 112;
+
+	/**
+	 * @param partition
+	 *            The partition
+	 * @param key
+	 *            The entity's id
+	 * @return Hash of the partition and key, used by the frequency sketch
+	 */
+	static int hash(final String partition, final Object key) {
+		return (31 * partition.hashCode()) + key.hashCode();
+	}
+
+	/**
+	 * Entries, by partition and then by key
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<Object, Node>> partitions = new ConcurrentHashMap<String, ConcurrentHashMap<Object, Node>>();
+
+	/**
+	 * Entries in the order they were written, oldest first; entries which have been removed are skipped when they reach the front
+	 */
+	private final ConcurrentLinkedQueue<Node> queue = new ConcurrentLinkedQueue<Node>();
+
+	/**
+	 * Number of nodes in the queue, including those which have been removed
+	 */
+	private final AtomicInteger queued = new AtomicInteger();
+
+	/**
+	 * Number of entries in the backend
+	 */
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**
+	 * Maximum number of entries in the backend
+	 */
+	private final int maxEntries;
+
+	/**
+	 * Estimated size in bytes of the entries in the backend
+	 */
+	private final AtomicLong weight = new AtomicLong();
+
+	/**
+	 * Maximum estimated size in bytes of the entries in the backend, or 0 for no limit
+	 */
+	private final long maxWeight;
+
+	/**
+	 * Record of how often each entry has been used recently
+	 */
+	private final FrequencySketch sketch;
+
+	/**
+	 * Held by the thread doing eviction
+	 */
+	private final ReentrantLock evictionLock = new ReentrantLock();
+
+	/**
+	 * Listeners to be told about evicted entries
+	 */
+	private final List<StravaCacheEvictionListener> listeners = new CopyOnWriteArrayList<StravaCacheEvictionListener>();
+
+	/**
+	 * Executor on which eviction listeners are called
+	 */
+	private final Executor listenerExecutor = ForkJoinPool.commonPool();
+
+	/**
+	 * Creates a backend bounded by strava.cache.max_entries and strava.cache.max_mb
+	 */
+	public InMemoryCacheBackend() {
+		this(StravaConfig.CACHE_MAX_ENTRIES, StravaConfig.CACHE_MAX_MEGABYTES * 1024 * 1024);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            Maximum number of entries in the backend
+	 */
+	public InMemoryCacheBackend(final int maxEntries) {
+		this(maxEntries, 0);
+	}
+
+	/**
+	 * @param maxEntries
+	 *            Maximum number of entries in the backend
+	 * @param maxWeight
+	 *            Maximum estimated size in bytes of the entries in the backend, or 0 for no limit
+	 */
+	public InMemoryCacheBackend(final int maxEntries, final long maxWeight) {
+		this.maxEntries = maxEntries;
+		this.maxWeight = maxWeight;
+		this.sketch = new FrequencySketch(maxEntries);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#addEvictionListener(javastrava.cache.StravaCacheEvictionListener)
+	 */
+	@Override
+	public void addEvictionListener(final StravaCacheEvictionListener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * <p>
+	 * Evicts entries until the backend is back within its bound and purges removed entries from the eviction queue, unless another thread is already doing so
+	 * </p>
+	 *
+	 * @param candidate
+	 *            The entry just written, which is only admitted if it has been used at least as often as the entry it would replace, or <code>null</code> if it replaced an entry with the same key
+	 *            and so is always admitted
+	 */
+	private void evict(final Node candidate) {
+		if (!this.evictionLock.tryLock()) {
+			return;
+		}
+		try {
+			boolean admissionChecked = false;
+			while (isOverBound()) {
+				final Node victim = pollLive();
+				if (victim == null) {
+					break;
+				}
+				if (victim.isExpired(System.currentTimeMillis())) {
+					evicted(victim, StravaCacheEvictionCause.EXPIRED);
+					continue;
+				}
+				if (!admissionChecked && (candidate != null) && (victim != candidate) && (candidate.retired == 0)) {
+					admissionChecked = true;
+					if (this.sketch.frequency(candidate.hash) < this.sketch.frequency(victim.hash)) {
+						// The victim survives, and goes to the back of the queue; the candidate is evicted instead
+						offer(victim);
+						evicted(candidate, StravaCacheEvictionCause.SIZE);
+						continue;
+					}
+				}
+				evicted(victim, StravaCacheEvictionCause.SIZE);
+			}
+
+			// Purge removed entries from the queue if they have built up
+			if (queueNeedsPurge()) {
+				for (final Iterator<Node> iterator = this.queue.iterator(); iterator.hasNext();) {
+					if (iterator.next().retired != 0) {
+						iterator.remove();
+						this.queued.decrementAndGet();
+					}
+				}
+			}
+		} finally {
+			this.evictionLock.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes an entry which the backend is evicting of its own accord, and tells the listeners about it
+	 * </p>
+	 *
+	 * @param node
+	 *            The entry
+	 * @param cause
+	 *            Why the entry is being evicted
+	 */
+	private void evicted(final Node node, final StravaCacheEvictionCause cause) {
+		final ConcurrentHashMap<Object, Node> partition = this.partitions.get(node.partition);
+		if ((partition != null) && partition.remove(node.key, node)) {
+			prune(node.partition, partition);
+		}
+		if (!retire(node) || this.listeners.isEmpty()) {
+			return;
+		}
+		this.listenerExecutor.execute(() -> {
+			for (final StravaCacheEvictionListener listener : this.listeners) {
+				try {
+					listener.evicted(node.partition, node.key, node.value, cause);
+				} catch (final RuntimeException e) {
+					log.error("Cache eviction listener failed", e); //$NON-NLS-1$
+				}
+			}
+		});
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public Object get(final String partition, final Object key) {
+		this.sketch.increment(hash(partition, key));
+		final ConcurrentHashMap<Object, Node> entries = this.partitions.get(partition);
+		if (entries == null) {
+			return null;
+		}
+		final Node node = entries.get(key);
+		if (node == null) {
+			return null;
+		}
+		if (node.isExpired(System.currentTimeMillis())) {
+			evicted(node, StravaCacheEvictionCause.EXPIRED);
+			return null;
+		}
+		return node.value;
+	}
+
+	/**
+	 * @return Number of entries in the backend, across all partitions
+	 */
+	public int getEntryCount() {
+		return this.size.get();
+	}
+
+	/**
+	 * @return Maximum number of entries in the backend
+	 */
+	public int getMaxEntries() {
+		return this.maxEntries;
+	}
+
+	/**
+	 * @return Maximum estimated size in bytes of the entries in the backend, or 0 for no limit
+	 */
+	public long getMaxWeight() {
+		return this.maxWeight;
+	}
+
+	/**
+	 * @return Estimated size in bytes of the entries in the backend, across all partitions
+	 */
+	public long getWeight() {
+		return this.weight.get();
+	}
+
+	/**
+	 * @return <code>true</code> if the backend holds more entries, or more bytes, than it should
+	 */
+	private boolean isOverBound() {
+		return (this.size.get() > this.maxEntries) || ((this.maxWeight > 0) && (this.weight.get() > this.maxWeight));
+	}
+
+	/**
+	 * @param node
+	 *            Entry to add to the back of the eviction queue
+	 */
+	private void offer(final Node node) {
+		this.queue.offer(node);
+		this.queued.incrementAndGet();
+	}
+
+	/**
+	 * @return The oldest entry in the eviction queue which has not been removed, or <code>null</code> if there is none
+	 */
+	private Node pollLive() {
+		Node node;
+		while ((node = this.queue.poll()) != null) {
+			this.queued.decrementAndGet();
+			if (node.retired == 0) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#put(java.lang.String, java.lang.Object, java.lang.Object, long)
+	 */
+	@Override
+	public void put(final String partition, final Object key, final Object value, final long timeToLive) {
+		final long now = System.currentTimeMillis();
+		final long expiresAt = ((timeToLive <= 0) || (timeToLive >= (Long.MAX_VALUE - now)) ? Long.MAX_VALUE : now + timeToLive);
+		final Node node = new Node(partition, key, value, expiresAt);
+		this.sketch.increment(node.hash);
+		final Node[] previous = new Node[1];
+		// Stored while holding the partition's slot, so that prune() cannot drop the partition between it being found and the entry being stored in it
+		this.partitions.compute(partition, (name, entries) -> {
+			final ConcurrentHashMap<Object, Node> stored = (entries == null ? new ConcurrentHashMap<Object, Node>() : entries);
+			previous[0] = stored.put(key, node);
+			return stored;
+		});
+		this.size.incrementAndGet();
+		this.weight.addAndGet(node.weight);
+		if (previous[0] != null) {
+			retire(previous[0]);
+		}
+		offer(node);
+		if (isOverBound() || queueNeedsPurge()) {
+			evict(previous[0] == null ? node : null);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Drops a partition from the map of partitions if it is empty, so that partitions for tokens and classes no longer in use do not build up
+	 * </p>
+	 *
+	 * @param partition
+	 *            Name of the partition
+	 * @param entries
+	 *            The partition's entries
+	 */
+	private void prune(final String partition, final ConcurrentHashMap<Object, Node> entries) {
+		if (entries.isEmpty()) {
+			this.partitions.computeIfPresent(partition, (name, current) -> ((current == entries) && current.isEmpty() ? null : current));
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if enough removed entries have built up in the eviction queue that it should be purged of them
+	 */
+	private boolean queueNeedsPurge() {
+		return this.queued.get() > ((2 * this.size.get()) + 1024);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#remove(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void remove(final String partition, final Object key) {
+		final ConcurrentHashMap<Object, Node> entries = this.partitions.get(partition);
+		if (entries != null) {
+			final Node node = entries.remove(key);
+			if (node != null) {
+				retire(node);
+				prune(partition, entries);
+			}
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#removeAll(java.lang.String)
+	 */
+	@Override
+	public void removeAll(final String partition) {
+		final ConcurrentHashMap<Object, Node> entries = this.partitions.get(partition);
+		if (entries != null) {
+			for (final Map.Entry<Object, Node> entry : entries.entrySet()) {
+				if (entries.remove(entry.getKey(), entry.getValue())) {
+					retire(entry.getValue());
+				}
+			}
+			prune(partition, entries);
+		}
+	}
+
+	/**
+	 * @param node
+	 *            An entry which has been removed from its partition
+	 * @return <code>true</code> if this call retired the entry, <code>false</code> if it had already been retired
+	 */
+	private boolean retire(final Node node) {
+		if (Node.RETIRED.compareAndSet(node, 0, 1)) {
+			this.size.decrementAndGet();
+			this.weight.addAndGet(-node.weight);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#size(java.lang.String)
+	 */
+	@Override
+	public int size(final String partition) {
+		final ConcurrentHashMap<Object, Node> entries = this.partitions.get(partition);
+		return (entries == null ? 0 : entries.size());
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#values(java.lang.String)
+	 */
+	@Override
+	public List<Object> values(final String partition) {
+		final ConcurrentHashMap<Object, Node> entries = this.partitions.get(partition);
+		if (entries == null) {
+			return new ArrayList<Object>();
+		}
+		final long now = System.currentTimeMillis();
+		final List<Object> values = new ArrayList<Object>(entries.size());
+		for (final Node node : entries.values()) {
+			if (!node.isExpired(now)) {
+				values.add(node.value);
+			}
+		}
+		return values;
+	}
+}
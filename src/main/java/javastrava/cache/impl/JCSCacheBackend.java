@@ -0,0 +1,155 @@
+package javastrava.cache.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.commons.jcs.JCS;
+import org.apache.commons.jcs.access.GroupCacheAccess;
+import org.apache.commons.jcs.engine.behavior.ICacheElement;
+import org.apache.commons.jcs.engine.behavior.IElementAttributes;
+import org.apache.commons.jcs.engine.control.event.behavior.IElementEvent;
+import org.apache.commons.jcs.engine.control.event.behavior.IElementEventHandler;
+import org.apache.commons.jcs.engine.control.group.GroupAttrName;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheEvictionListener;
+
+/**
+ * <p>
+ * {@link StravaCacheBackend} which stores entries in the "default" region of Apache Commons JCS, with one JCS group per partition. The region is configured by cache.ccf on the classpath.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class JCSCacheBackend implements StravaCacheBackend {
+	/**
+	 * The JCS region
+	 */
+	private final GroupCacheAccess<Object, Object> cache;
+
+	/**
+	 * Listeners to be told about evicted entries
+	 */
+	private final List<StravaCacheEvictionListener> listeners = new CopyOnWriteArrayList<StravaCacheEvictionListener>();
+
+	/**
+	 * Passes JCS element events for expired and evicted entries on to the listeners
+	 */
+	private final IElementEventHandler eventHandler = new IElementEventHandler() {
+		@Override
+		public <T> void handleElementEvent(final IElementEvent<T> event) {
+			final StravaCacheEvictionCause cause;
+			switch (event.getElementEvent()) {
+			case EXCEEDED_MAXLIFE_BACKGROUND:
+			case EXCEEDED_MAXLIFE_ONREQUEST:
+			case EXCEEDED_IDLETIME_BACKGROUND:
+			case EXCEEDED_IDLETIME_ONREQUEST:
+				cause = StravaCacheEvictionCause.EXPIRED;
+				break;
+			case SPOOLED_DISK_NOT_AVAILABLE:
+			case SPOOLED_NOT_ALLOWED:
+				cause = StravaCacheEvictionCause.SIZE;
+				break;
+			default:
+				return;
+			}
+			if (!(event.getSource() instanceof ICacheElement)) {
+				return;
+			}
+			final ICacheElement<?, ?> element = (ICacheElement<?, ?>) event.getSource();
+			if (!(element.getKey() instanceof GroupAttrName)) {
+				return;
+			}
+			final GroupAttrName<?> key = (GroupAttrName<?>) element.getKey();
+			for (final StravaCacheEvictionListener listener : JCSCacheBackend.this.listeners) {
+				listener.evicted(key.groupId.groupName, key.attrName, element.getVal(), cause);
+			}
+		}
+	};
+
+	/**
+	 * Creates a backend using the JCS "default" region
+	 */
+	public JCSCacheBackend() {
+		this.cache = JCS.getGroupCacheInstance("default"); //$NON-NLS-1$
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#addEvictionListener(javastrava.cache.StravaCacheEvictionListener)
+	 */
+	@Override
+	public void addEvictionListener(final StravaCacheEvictionListener listener) {
+		this.listeners.add(listener);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public Object get(final String partition, final Object key) {
+		return this.cache.getFromGroup(key, partition);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#put(java.lang.String, java.lang.Object, java.lang.Object, long)
+	 */
+	@Override
+	public void put(final String partition, final Object key, final Object value, final long timeToLive) {
+		final IElementAttributes attributes = this.cache.getDefaultElementAttributes().clone();
+		if (timeToLive <= 0) {
+			attributes.setIsEternal(true);
+		} else {
+			// JCS expresses maximum life in seconds
+			attributes.setIsEternal(false);
+			attributes.setMaxLife(Math.max(1, (timeToLive + 999) / 1000));
+		}
+		if (!this.listeners.isEmpty()) {
+			attributes.addElementEventHandler(this.eventHandler);
+		}
+		this.cache.putInGroup(key, partition, value, attributes);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#remove(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void remove(final String partition, final Object key) {
+		this.cache.removeFromGroup(key, partition);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#removeAll(java.lang.String)
+	 */
+	@Override
+	public void removeAll(final String partition) {
+		this.cache.invalidateGroup(partition);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#size(java.lang.String)
+	 */
+	@Override
+	public int size(final String partition) {
+		return this.cache.getGroupKeys(partition).size();
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#values(java.lang.String)
+	 */
+	@Override
+	public List<Object> values(final String partition) {
+		final Set<Object> keys = this.cache.getGroupKeys(partition);
+		final List<Object> values = new ArrayList<Object>(keys.size());
+		for (final Object key : keys) {
+			final Object value = this.cache.getFromGroup(key, partition);
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+}
@@ -0,0 +1,84 @@
+package javastrava.cache.impl;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheTransport;
+
+/**
+ * <p>
+ * {@link StravaCacheTransport} which delivers messages to the other transports in the same group within this JVM, so that a cluster of nodes can be run (and tested) in one process. Messages are
+ * delivered on the sending thread.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class LoopbackCacheTransport implements StravaCacheTransport {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Members of each group, by name
+	 */
+	private static final ConcurrentHashMap<String, List<LoopbackCacheTransport>> groups = new ConcurrentHashMap<String, List<LoopbackCacheTransport>>();
+
+	/**
+	 * Members of this transport's group
+	 */
+	private final List<LoopbackCacheTransport> group;
+
+	/**
+	 * Called with each message received
+	 */
+	private volatile Consumer<byte[]> receiver;
+
+	/**
+	 * @param groupName
+	 *            Name of the group to join
+	 */
+	public LoopbackCacheTransport(final String groupName) {
+		this.group = groups.computeIfAbsent(groupName, name -> new CopyOnWriteArrayList<LoopbackCacheTransport>());
+		this.group.add(this);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#close()
+	 */
+	@Override
+	public void close() {
+		this.group.remove(this);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#send(byte[])
+	 */
+	@Override
+	public void send(final byte[] message) {
+		for (final LoopbackCacheTransport member : this.group) {
+			final Consumer<byte[]> memberReceiver = member.receiver;
+			if ((member != this) && (memberReceiver != null)) {
+				try {
+					memberReceiver.accept(message.clone());
+				} catch (final RuntimeException e) {
+					log.error("Cache cluster member failed to handle a message", e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#setReceiver(java.util.function.Consumer)
+	 */
+	@Override
+	public void setReceiver(final Consumer<byte[]> receiver) {
+		this.receiver = receiver;
+	}
+}
@@ -0,0 +1,584 @@
+package javastrava.cache.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheEvictionListener;
+import javastrava.cache.StravaCacheableEntity;
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * {@link StravaCacheBackend} which holds entities outside the Java heap, so that a cache of millions of entities does not lengthen garbage collection pauses.
+ * </p>
+ *
+ * <p>
+ * Entities are encoded with {@link BinaryEntityCodec} and written one after another into slabs of direct memory; only a small index entry per entity (its partition, key and location) stays on the
+ * heap, and entities are decoded again each time they are read, so callers always get their own copy. When every slab is full, the oldest slab is reclaimed and written over, evicting whatever is
+ * still stored in it; replacing or removing an entity leaves its old bytes in place until then. Values which are not entities (such as the markers {@link StravaCacheImpl} uses to remember entities
+ * which were not found), and entities which cannot be encoded, are held in an ordinary {@link InMemoryCacheBackend}.
+ * </p>
+ *
+ * <p>
+ * Reads take no locks unless they race with the reclaiming of the slab they are reading from. Writes are serialised while the encoded bytes are copied into a slab, but entities are encoded before
+ * that. Direct memory is limited by the JVM's -XX:MaxDirectMemorySize, which must be at least strava.cache.offheap.max_mb.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class OffHeapCacheBackend implements StravaCacheBackend {
+	/**
+	 * <p>
+	 * A block of direct memory which entities are written into, one after another
+	 * </p>
+	 */
+	private static final class Slab {
+		/**
+		 * The memory
+		 */
+		final ByteBuffer buffer;
+
+		/**
+		 * Held for writing while the slab is reclaimed, so that readers can tell whether the bytes they read were overwritten
+		 */
+		final StampedLock lock = new StampedLock();
+
+		/**
+		 * Number of times the slab has been reclaimed
+		 */
+		volatile int generation;
+
+		/**
+		 * Offset at which the next entity will be written
+		 */
+		int position;
+
+		/**
+		 * Entries written into the slab since it was last reclaimed
+		 */
+		final List<Entry> entries = new ArrayList<Entry>();
+
+		/**
+		 * @param capacity
+		 *            Size of the slab in bytes
+		 */
+		Slab(final int capacity) {
+			this.buffer = ByteBuffer.allocateDirect(capacity);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Location of a stored entity
+	 * </p>
+	 */
+	private static final class Entry {
+		/**
+		 * Partition the entity is stored in
+		 */
+		final String partition;
+
+		/**
+		 * Key of the entity
+		 */
+		final Object key;
+
+		/**
+		 * Slab the entity is written in
+		 */
+		final Slab slab;
+
+		/**
+		 * Generation of the slab when the entity was written
+		 */
+		final int generation;
+
+		/**
+		 * Offset of the entity in the slab
+		 */
+		final int offset;
+
+		/**
+		 * Length of the encoded entity
+		 */
+		final int length;
+
+		/**
+		 * Time (in milliseconds since the epoch) at which the entity expires
+		 */
+		final long expiresAt;
+
+		/**
+		 * @param partition
+		 *            Partition the entity is stored in
+		 * @param key
+		 *            Key of the entity
+		 * @param slab
+		 *            Slab the entity is written in
+		 * @param offset
+		 *            Offset of the entity in the slab
+		 * @param length
+		 *            Length of the encoded entity
+		 * @param expiresAt
+		 *            Time at which the entity expires
+		 */
+		Entry(final String partition, final Object key, final Slab slab, final int offset, final int length, final long expiresAt) {
+			this.partition = partition;
+			this.key = key;
+			this.slab = slab;
+			this.generation = slab.generation;
+			this.offset = offset;
+			this.length = length;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Encodes and decodes the entities
+	 */
+	private final BinaryEntityCodec codec = new BinaryEntityCodec();
+
+	/**
+	 * Slabs, allocated as they are first needed
+	 */
+	private final Slab[] slabs;
+
+	/**
+	 * Size of each slab in bytes
+	 */
+	private final int slabBytes;
+
+	/**
+	 * Index of the slab being written into, or -1 before the first write
+	 */
+	private int current = -1;
+
+	/**
+	 * Location of each entity stored off the heap, by partition and key
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<Object, Entry>> partitions = new ConcurrentHashMap<String, ConcurrentHashMap<Object, Entry>>();
+
+	/**
+	 * Holds values which are not stored off the heap
+	 */
+	private final InMemoryCacheBackend heap = new InMemoryCacheBackend();
+
+	/**
+	 * Number of entities stored off the heap
+	 */
+	private final AtomicLong entryCount = new AtomicLong();
+
+	/**
+	 * Number of bytes used by entities stored off the heap, excluding the space left by replaced and removed entities
+	 */
+	private final AtomicLong liveBytes = new AtomicLong();
+
+	/**
+	 * Number of entities evicted to make room for others
+	 */
+	private final AtomicLong evictions = new AtomicLong();
+
+	/**
+	 * Number of entities which could not be encoded, and so were held on the heap
+	 */
+	private final AtomicLong unencodable = new AtomicLong();
+
+	/**
+	 * Listeners to be told about entries which are evicted
+	 */
+	private final List<StravaCacheEvictionListener> listeners = new CopyOnWriteArrayList<StravaCacheEvictionListener>();
+
+	/**
+	 * Runs the eviction listeners
+	 */
+	private final Executor listenerExecutor = ForkJoinPool.commonPool();
+
+	/**
+	 * Creates a backend bounded by strava.cache.offheap.max_mb, in slabs of strava.cache.offheap.slab_mb
+	 */
+	public OffHeapCacheBackend() {
+		this(StravaConfig.CACHE_OFFHEAP_MAX_MEGABYTES * 1024 * 1024, StravaConfig.CACHE_OFFHEAP_SLAB_MEGABYTES * 1024 * 1024);
+	}
+
+	/**
+	 * @param maxBytes
+	 *            Maximum amount of direct memory to use
+	 * @param slabBytes
+	 *            Size of each block of direct memory; no entity larger than this is held off the heap
+	 */
+	public OffHeapCacheBackend(final long maxBytes, final int slabBytes) {
+		if (slabBytes <= 0) {
+			throw new IllegalArgumentException("Slab size must be positive"); //$NON-NLS-1$
+		}
+		this.slabBytes = slabBytes;
+		this.slabs = new Slab[(int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBytes / slabBytes))];
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#addEvictionListener(javastrava.cache.StravaCacheEvictionListener)
+	 */
+	@Override
+	public void addEvictionListener(final StravaCacheEvictionListener listener) {
+		this.listeners.add(listener);
+		this.heap.addEvictionListener(listener);
+	}
+
+	/**
+	 * <p>
+	 * Writes an encoded entity into the current slab, moving on to the next (and reclaiming it if need be) when the current one is full, and indexes it
+	 * </p>
+	 *
+	 * @param partition
+	 *            Partition the entity is stored in
+	 * @param key
+	 *            Key of the entity
+	 * @param bytes
+	 *            The encoded entity
+	 * @param expiresAt
+	 *            Time at which the entity expires
+	 */
+	private synchronized void append(final String partition, final Object key, final byte[] bytes, final long expiresAt) {
+		Slab slab = (this.current < 0 ? null : this.slabs[this.current]);
+		if ((slab == null) || ((slab.position + bytes.length) > this.slabBytes)) {
+			this.current = (this.current + 1) % this.slabs.length;
+			slab = this.slabs[this.current];
+			if (slab == null) {
+				slab = new Slab(this.slabBytes);
+				this.slabs[this.current] = slab;
+			} else {
+				reclaim(slab);
+			}
+		}
+		final ByteBuffer view = slab.buffer.duplicate();
+		view.position(slab.position);
+		view.put(bytes);
+		final Entry entry = new Entry(partition, key, slab, slab.position, bytes.length, expiresAt);
+		slab.position += bytes.length;
+		slab.entries.add(entry);
+
+		this.entryCount.incrementAndGet();
+		this.liveBytes.addAndGet(entry.length);
+		final Entry previous = this.partitions.computeIfAbsent(partition, name -> new ConcurrentHashMap<Object, Entry>()).put(key, entry);
+		if (previous != null) {
+			retired(previous);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes an entity which the backend is evicting of its own accord, and tells the listeners about it
+	 * </p>
+	 *
+	 * @param entry
+	 *            The entity's location
+	 * @param value
+	 *            The entity, or <code>null</code> if it has already been overwritten
+	 * @param cause
+	 *            Why the entity is being evicted
+	 */
+	private void evicted(final Entry entry, final Object value, final StravaCacheEvictionCause cause) {
+		if (!remove(entry) || (value == null) || this.listeners.isEmpty()) {
+			return;
+		}
+		this.listenerExecutor.execute(() -> {
+			for (final StravaCacheEvictionListener listener : this.listeners) {
+				try {
+					listener.evicted(entry.partition, entry.key, value, cause);
+				} catch (final RuntimeException e) {
+					log.error("Cache eviction listener failed", e); //$NON-NLS-1$
+				}
+			}
+		});
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public Object get(final String partition, final Object key) {
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(partition);
+		final Entry entry = (entries == null ? null : entries.get(key));
+		if (entry == null) {
+			return this.heap.get(partition, key);
+		}
+		final Object value = read(entry);
+		if (value == null) {
+			// Overwritten since it was looked up
+			remove(entry);
+			return null;
+		}
+		if (entry.expiresAt <= System.currentTimeMillis()) {
+			evicted(entry, value, StravaCacheEvictionCause.EXPIRED);
+			return null;
+		}
+		return value;
+	}
+
+	/**
+	 * @return Amount of direct memory allocated so far, in bytes
+	 */
+	public synchronized long getAllocatedBytes() {
+		long allocated = 0;
+		for (final Slab slab : this.slabs) {
+			if (slab != null) {
+				allocated += slab.buffer.capacity();
+			}
+		}
+		return allocated;
+	}
+
+	/**
+	 * @return Number of entities stored off the heap
+	 */
+	public long getEntryCount() {
+		return this.entryCount.get();
+	}
+
+	/**
+	 * @return Number of entities evicted to make room for others
+	 */
+	public long getEvictionCount() {
+		return this.evictions.get();
+	}
+
+	/**
+	 * @return Number of entries (mostly markers, rather than entities) held on the heap
+	 */
+	public int getHeapEntryCount() {
+		return this.heap.getEntryCount();
+	}
+
+	/**
+	 * @return Number of bytes of direct memory used by the entities stored off the heap
+	 */
+	public long getLiveBytes() {
+		return this.liveBytes.get();
+	}
+
+	/**
+	 * @return Number of entities which could not be encoded, and so were held on the heap
+	 */
+	public long getUnencodableCount() {
+		return this.unencodable.get();
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#put(java.lang.String, java.lang.Object, java.lang.Object, long)
+	 */
+	@Override
+	public void put(final String partition, final Object key, final Object value, final long timeToLive) {
+		byte[] bytes = null;
+		if (value instanceof StravaCacheableEntity) {
+			try {
+				bytes = this.codec.encode(value);
+			} catch (final IllegalArgumentException e) {
+				if (this.unencodable.getAndIncrement() == 0) {
+					log.warn("Holding " + value.getClass().getName() + " on the heap: " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+			}
+		}
+		if ((bytes == null) || (bytes.length > this.slabBytes)) {
+			removeOffHeap(partition, key);
+			this.heap.put(partition, key, value, timeToLive);
+			return;
+		}
+		final long now = System.currentTimeMillis();
+		final long expiresAt = ((timeToLive <= 0) || (timeToLive >= (Long.MAX_VALUE - now)) ? Long.MAX_VALUE : now + timeToLive);
+		append(partition, key, bytes, expiresAt);
+		this.heap.remove(partition, key);
+	}
+
+	/**
+	 * <p>
+	 * Reads an entity from its slab
+	 * </p>
+	 *
+	 * @param entry
+	 *            The entity's location
+	 * @return The entity, or <code>null</code> if its slab has been reclaimed since it was written
+	 */
+	private Object read(final Entry entry) {
+		final Slab slab = entry.slab;
+		final byte[] bytes = new byte[entry.length];
+		long stamp = slab.lock.tryOptimisticRead();
+		boolean current = copy(entry, bytes);
+		if (!slab.lock.validate(stamp)) {
+			stamp = slab.lock.readLock();
+			try {
+				current = copy(entry, bytes);
+			} finally {
+				slab.lock.unlockRead(stamp);
+			}
+		}
+		if (!current) {
+			return null;
+		}
+		try {
+			return this.codec.decode(ByteBuffer.wrap(bytes));
+		} catch (final IllegalStateException e) {
+			log.error("Cannot decode " + entry.partition.substring(0, Math.max(0, entry.partition.indexOf(':'))) + " " + entry.key, e); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		}
+	}
+
+	/**
+	 * @param entry
+	 *            The entity's location
+	 * @param bytes
+	 *            Array to copy the entity's bytes into
+	 * @return <code>true</code> if the bytes were copied, <code>false</code> if the slab has been reclaimed since the entity was written
+	 */
+	private static boolean copy(final Entry entry, final byte[] bytes) {
+		if (entry.slab.generation != entry.generation) {
+			return false;
+		}
+		final ByteBuffer view = entry.slab.buffer.duplicate();
+		view.position(entry.offset);
+		view.get(bytes);
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * Reclaims a slab so it can be written over, evicting the entities still stored in it. Called with the backend locked.
+	 * </p>
+	 *
+	 * @param slab
+	 *            The slab
+	 */
+	private void reclaim(final Slab slab) {
+		final long now = System.currentTimeMillis();
+		for (final Entry entry : slab.entries) {
+			final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(entry.partition);
+			if ((entries == null) || (entries.get(entry.key) != entry)) {
+				continue;
+			}
+			// Decode the entity for the listeners before it is overwritten
+			final Object value = (this.listeners.isEmpty() ? null : read(entry));
+			final boolean expired = entry.expiresAt <= now;
+			if (!expired) {
+				this.evictions.incrementAndGet();
+			}
+			evicted(entry, value, (expired ? StravaCacheEvictionCause.EXPIRED : StravaCacheEvictionCause.SIZE));
+		}
+		final long stamp = slab.lock.writeLock();
+		try {
+			slab.generation++;
+			slab.position = 0;
+			slab.entries.clear();
+		} finally {
+			slab.lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#remove(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void remove(final String partition, final Object key) {
+		removeOffHeap(partition, key);
+		this.heap.remove(partition, key);
+	}
+
+	/**
+	 * @param entry
+	 *            An entity's location
+	 * @return <code>true</code> if the entity was still stored there, and has now been removed
+	 */
+	private boolean remove(final Entry entry) {
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(entry.partition);
+		if ((entries != null) && entries.remove(entry.key, entry)) {
+			retired(entry);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#removeAll(java.lang.String)
+	 */
+	@Override
+	public void removeAll(final String partition) {
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(partition);
+		if (entries != null) {
+			for (final Map.Entry<Object, Entry> entry : entries.entrySet()) {
+				if (entries.remove(entry.getKey(), entry.getValue())) {
+					retired(entry.getValue());
+				}
+			}
+		}
+		this.heap.removeAll(partition);
+	}
+
+	/**
+	 * @param partition
+	 *            The partition
+	 * @param key
+	 *            Key of the entity
+	 */
+	private void removeOffHeap(final String partition, final Object key) {
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(partition);
+		final Entry entry = (entries == null ? null : entries.remove(key));
+		if (entry != null) {
+			retired(entry);
+		}
+	}
+
+	/**
+	 * @param entry
+	 *            Location of an entity which has just been removed from the index
+	 */
+	private void retired(final Entry entry) {
+		this.entryCount.decrementAndGet();
+		this.liveBytes.addAndGet(-entry.length);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#size(java.lang.String)
+	 */
+	@Override
+	public int size(final String partition) {
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(partition);
+		return (entries == null ? 0 : entries.size()) + this.heap.size(partition);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#values(java.lang.String)
+	 */
+	@Override
+	public List<Object> values(final String partition) {
+		final List<Object> values = this.heap.values(partition);
+		final ConcurrentHashMap<Object, Entry> entries = this.partitions.get(partition);
+		if (entries != null) {
+			final long now = System.currentTimeMillis();
+			for (final Entry entry : entries.values()) {
+				if (entry.expiresAt > now) {
+					final Object value = read(entry);
+					if (value != null) {
+						values.add(value);
+					}
+				}
+			}
+		}
+		return values;
+	}
+}
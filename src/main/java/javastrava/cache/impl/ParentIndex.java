@@ -0,0 +1,238 @@
+package javastrava.cache.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javastrava.cache.StravaCacheBackend;
+
+/**
+ * <p>
+ * Secondary index of the entries in one partition of a {@link StravaCacheBackend} by the id of their parent entity (for example, laps by the id of their activity).
+ * </p>
+ *
+ * <p>
+ * There is one index per partition, shared by all the {@link StravaCacheImpl} instances which use the partition, so that an entry put through one instance can be found by parent through another.
+ * Entries evicted by the backend are removed from the index by an eviction listener registered once per backend. The index may briefly refer to entries which have just been removed or which have
+ * moved to another parent, so callers must check each entry they find through it.
+ * </p>
+ *
+ * <p>
+ * A parent is marked as complete once all its entries have been stored together, and the mark is dropped as soon as any of its entries is removed from the index, so that a parent's entries are
+ * only ever served as a list when none of them is known to be missing. The marks are stored in the backend alongside the entries, with the same time to live, so that they expire and are evicted
+ * like any other entry (in particular, the mark for a parent with no entries at all does not outlive them).
+ * </p>
+ *
+ * <p>
+ * Indexes are dropped by {@link #drop(StravaCacheBackend, String)} when their partition is cleared, so that they do not build up for tokens which are no longer in use.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class ParentIndex {
+	/**
+	 * Indexes, by backend and then by partition
+	 */
+	private static final ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<String, ParentIndex>> indexes = new ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<String, ParentIndex>>();
+
+	/**
+	 * <p>
+	 * Forgets the index for a partition, which should already have been cleared
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition
+	 */
+	static void drop(final StravaCacheBackend backend, final String partition) {
+		final ConcurrentHashMap<String, ParentIndex> partitions = indexes.get(backend);
+		if (partitions != null) {
+			partitions.remove(partition);
+		}
+	}
+
+	/**
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition
+	 * @return The index for the partition, or <code>null</code> if there is none
+	 */
+	static ParentIndex find(final StravaCacheBackend backend, final String partition) {
+		final ConcurrentHashMap<String, ParentIndex> partitions = indexes.get(backend);
+		return (partitions == null ? null : partitions.get(partition));
+	}
+
+	/**
+	 * <p>
+	 * Returns the index for a partition, creating it if it does not exist yet
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition
+	 * @param parent
+	 *            Gets the id of an entry's parent (ignored if the index already exists)
+	 * @return The index
+	 */
+	static ParentIndex forPartition(final StravaCacheBackend backend, final String partition, final Function<Object, Object> parent) {
+		final ConcurrentHashMap<String, ParentIndex> partitions = indexes.computeIfAbsent(backend, key -> {
+			final ConcurrentHashMap<String, ParentIndex> map = new ConcurrentHashMap<String, ParentIndex>();
+			key.addEvictionListener((evictedPartition, evictedKey, value, cause) -> {
+				final ParentIndex index = map.get(evictedPartition);
+				if (index != null) {
+					index.remove(index.parentOf(value), evictedKey);
+				}
+			});
+			return map;
+		});
+		return partitions.computeIfAbsent(partition, key -> new ParentIndex(backend, partition, parent));
+	}
+
+	/**
+	 * The backend
+	 */
+	private final StravaCacheBackend backend;
+
+	/**
+	 * Partition of the backend holding the marks for parents all of whose entries are in the index
+	 */
+	private final String completePartition;
+
+	/**
+	 * Gets the id of an entry's parent
+	 */
+	private final Function<Object, Object> parent;
+
+	/**
+	 * Keys of the entries, by parent id
+	 */
+	private final ConcurrentHashMap<Object, Set<Object>> children = new ConcurrentHashMap<Object, Set<Object>>();
+
+
+	/**
+	 * @param backend
+	 *            The backend
+	 * @param partition
+	 *            The partition being indexed
+	 * @param parent
+	 *            Gets the id of an entry's parent
+	 */
+	private ParentIndex(final StravaCacheBackend backend, final String partition, final Function<Object, Object> parent) {
+		this.backend = backend;
+		this.completePartition = partition + "::complete"; //$NON-NLS-1$
+		this.parent = parent;
+	}
+
+	/**
+	 * @param parentId
+	 *            Id of the parent
+	 * @param key
+	 *            Key of the entry
+	 */
+	void add(final Object parentId, final Object key) {
+		if (parentId == null) {
+			return;
+		}
+		this.children.compute(parentId, (id, keys) -> {
+			final Set<Object> result = (keys == null ? ConcurrentHashMap.newKeySet() : keys);
+			result.add(key);
+			return result;
+		});
+	}
+
+	/**
+	 * @param parentId
+	 *            Id of the parent
+	 * @return Keys of the entries indexed under the parent
+	 */
+	List<Object> children(final Object parentId) {
+		final Set<Object> keys = this.children.get(parentId);
+		return (keys == null ? Collections.emptyList() : new ArrayList<Object>(keys));
+	}
+
+	/**
+	 * Removes all entries from the index
+	 */
+	void clear() {
+		this.backend.removeAll(this.completePartition);
+		this.children.clear();
+	}
+
+	/**
+	 * @param parentId
+	 *            Id of the parent
+	 * @return <code>true</code> if all the parent's entries are in the index
+	 */
+	boolean isComplete(final Object parentId) {
+		return (parentId != null) && (this.backend.get(this.completePartition, parentId) != null);
+	}
+
+	/**
+	 * <p>
+	 * Marks a parent as complete, unless one of its entries has already been removed from the index again
+	 * </p>
+	 *
+	 * @param parentId
+	 *            Id of the parent
+	 * @param keys
+	 *            Keys of all the parent's entries, which have just been stored
+	 * @param timeToLive
+	 *            Time (in milliseconds) after which the mark expires, which should be the same as for the entries
+	 */
+	void markComplete(final Object parentId, final Collection<Object> keys, final long timeToLive) {
+		if (parentId == null) {
+			return;
+		}
+		this.backend.put(this.completePartition, parentId, Boolean.TRUE, timeToLive);
+		// Marked first and checked afterwards, so that an entry removed in between is either seen as missing here or drops the mark itself
+		final Set<Object> indexed = this.children.get(parentId);
+		if (!keys.isEmpty() && ((indexed == null) || !indexed.containsAll(keys))) {
+			this.backend.remove(this.completePartition, parentId);
+		}
+	}
+
+	/**
+	 * @param value
+	 *            An entry, or <code>null</code>
+	 * @return Id of the entry's parent, or <code>null</code> if it has none
+	 */
+	Object parentOf(final Object value) {
+		return (value == null ? null : this.parent.apply(value));
+	}
+
+	/**
+	 * @param parentId
+	 *            Id of the parent
+	 * @param key
+	 *            Key of the entry
+	 */
+	void remove(final Object parentId, final Object key) {
+		if (parentId == null) {
+			return;
+		}
+		this.backend.remove(this.completePartition, parentId);
+		this.children.computeIfPresent(parentId, (id, keys) -> {
+			keys.remove(key);
+			return (keys.isEmpty() ? null : keys);
+		});
+	}
+
+	/**
+	 * @param parentId
+	 *            Id of the parent
+	 * @return Keys of the entries which were indexed under the parent
+	 */
+	List<Object> removeParent(final Object parentId) {
+		this.backend.remove(this.completePartition, parentId);
+		final Set<Object> keys = this.children.remove(parentId);
+		return (keys == null ? Collections.emptyList() : new ArrayList<Object>(keys));
+	}
+}
@@ -0,0 +1,941 @@
+package javastrava.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheEvictionCause;
+import javastrava.cache.StravaCacheEvictionListener;
+import javastrava.cache.StravaCacheableEntity;
+import javastrava.json.impl.JsonUtilImpl;
+import javastrava.model.reference.StravaResourceState;
+
+/**
+ * <p>
+ * {@link StravaCacheBackend} which keeps a copy of every entry on disk, so that the cache survives a restart of the JVM. Entries are held in memory by another backend, and written through to an
+ * append-only log on disk. Only entities are written to disk; the markers for entities which were not found, and the placeholders for private entities, are held in memory only.
+ * </p>
+ *
+ * <p>
+ * The log is a series of segment files in one directory. Each record carries a length and a CRC32 checksum, so that after a crash the log can be read back up to the last complete record and the
+ * remainder discarded. Entities are stored as deflated JSON, and partitions are identified on disk by a SHA-256 hash of their name so that access tokens are never written to disk. When the log
+ * exceeds its size budget the oldest segment is deleted, and with it any entries which have not been written since.
+ * </p>
+ *
+ * <p>
+ * On startup only the record headers are read, to rebuild the index of what is on disk; entities are deserialised when they are first asked for, and then held in memory. Changes to the memory
+ * backend, the log and the index for a key are made together while holding a lock striped by key, so that the records for a key are in the log in the order they were made, and an entity read from
+ * disk (which is done without the lock) is only put back into memory if it has not been replaced or removed while it was being read.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class PersistentCacheBackend implements StravaCacheBackend {
+	/**
+	 * <p>
+	 * An open segment of the log
+	 * </p>
+	 */
+	private static final class Segment {
+		/**
+		 * Number of the segment; segments are written in ascending order
+		 */
+		final long number;
+
+		/**
+		 * The segment file
+		 */
+		final File file;
+
+		/**
+		 * Open channel to the file
+		 */
+		final FileChannel channel;
+
+		/**
+		 * Size of the file in bytes
+		 */
+		volatile long size;
+
+		/**
+		 * @param number
+		 *            Number of the segment
+		 * @param file
+		 *            The segment file
+		 * @throws IOException
+		 *             If the file cannot be opened
+		 */
+		Segment(final long number, final File file) throws IOException {
+			this.number = number;
+			this.file = file;
+			this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.size = this.channel.size();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Location of an entry on disk
+	 * </p>
+	 */
+	private static final class DiskEntry {
+		/**
+		 * Segment containing the record
+		 */
+		final Segment segment;
+
+		/**
+		 * Offset of the record in the segment
+		 */
+		final long offset;
+
+		/**
+		 * Length of the record, including its header
+		 */
+		final int length;
+
+		/**
+		 * Time at which the entry expires, in milliseconds since the epoch
+		 */
+		final long expiresAt;
+
+		/**
+		 * @param segment
+		 *            Segment containing the record
+		 * @param offset
+		 *            Offset of the record in the segment
+		 * @param length
+		 *            Length of the record, including its header
+		 * @param expiresAt
+		 *            Time at which the entry expires, in milliseconds since the epoch
+		 */
+		DiskEntry(final Segment segment, final long offset, final int length, final long expiresAt) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * <p>
+	 * A record read from the log
+	 * </p>
+	 */
+	private static final class Record {
+		/**
+		 * {@link PersistentCacheBackend#PUT}, {@link PersistentCacheBackend#REMOVE} or {@link PersistentCacheBackend#CLEAR}
+		 */
+		byte type;
+
+		/**
+		 * Hash of the partition
+		 */
+		String partition;
+
+		/**
+		 * The entity's id
+		 */
+		Object key;
+
+		/**
+		 * Time at which the entry expires, in milliseconds since the epoch
+		 */
+		long expiresAt;
+
+		/**
+		 * Name of the entity's class
+		 */
+		String className;
+
+		/**
+		 * Deflated JSON of the entity
+		 */
+		byte[] payload;
+	}
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Record type of an entry being stored
+	 */
+	private static final byte PUT = 1;
+
+	/**
+	 * Record type of an entry being removed
+	 */
+	private static final byte REMOVE = 2;
+
+	/**
+	 * Record type of all the entries in a partition being removed
+	 */
+	private static final byte CLEAR = 3;
+
+	/**
+	 * Length of a record header: length of the body and its checksum
+	 */
+	private static final int HEADER_LENGTH = 8;
+
+	/**
+	 * Records longer than this are taken to be corrupt
+	 */
+	private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+	/**
+	 * Prefix of the names of segment files
+	 */
+	private static final String SEGMENT_PREFIX = "strava-cache-"; //$NON-NLS-1$
+
+	/**
+	 * Suffix of the names of segment files
+	 */
+	private static final String SEGMENT_SUFFIX = ".log"; //$NON-NLS-1$
+
+	/**
+	 * @param key
+	 *            An entity id
+	 * @return <code>true</code> if the id can be stored on disk
+	 */
+	private static boolean isPersistable(final Object key) {
+		return (key instanceof Long) || (key instanceof Integer) || (key instanceof String);
+	}
+
+	/**
+	 * Holds entries in memory
+	 */
+	private final StravaCacheBackend delegate;
+
+	/**
+	 * Directory holding the segment files
+	 */
+	private final File directory;
+
+	/**
+	 * Maximum total size of the segment files, in bytes
+	 */
+	private final long maxBytes;
+
+	/**
+	 * Size at which a new segment is started, in bytes
+	 */
+	private final long segmentBytes;
+
+	/**
+	 * Used to serialise and deserialise entities
+	 */
+	private final Gson gson = new JsonUtilImpl().getGson();
+
+	/**
+	 * Open segments, by number
+	 */
+	private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+
+	/**
+	 * Segment currently being written
+	 */
+	private Segment current;
+
+	/**
+	 * Location on disk of each entry, by partition hash and then by key
+	 */
+	private final ConcurrentHashMap<String, ConcurrentHashMap<Object, DiskEntry>> index = new ConcurrentHashMap<String, ConcurrentHashMap<Object, DiskEntry>>();
+
+	/**
+	 * <p>
+	 * Locks striped by key. The stripe for a key is held while changing the memory backend, appending to the log and updating the index for that key, so
+	 * that the order of the records for a key in the log is the order in which they were applied in memory
+	 * </p>
+	 */
+	private final ReentrantLock[] stripes = new ReentrantLock[64];
+
+	/**
+	 * Hashes of partition names
+	 */
+	private final ConcurrentHashMap<String, String> partitionHashes = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Number of entries found on disk at startup
+	 */
+	private final long recovered;
+
+	/**
+	 * Total number of entries read from disk into memory
+	 */
+	private final AtomicLong loads = new AtomicLong();
+
+	/**
+	 * Total number of records which could not be read or written
+	 */
+	private final AtomicLong errors = new AtomicLong();
+
+	/**
+	 * <p>
+	 * Opens the log in the given directory, creating the directory if it does not exist, and rebuilds the index of entries on disk
+	 * </p>
+	 *
+	 * @param delegate
+	 *            Holds entries in memory
+	 * @param directory
+	 *            Directory holding the segment files
+	 * @param maxBytes
+	 *            Maximum total size of the segment files, in bytes
+	 * @param segmentBytes
+	 *            Size at which a new segment is started, in bytes
+	 * @throws IOException
+	 *             If the directory cannot be created or the log cannot be read
+	 */
+	public PersistentCacheBackend(final StravaCacheBackend delegate, final File directory, final long maxBytes, final long segmentBytes) throws IOException {
+		this.delegate = delegate;
+		this.directory = directory;
+		this.maxBytes = maxBytes;
+		this.segmentBytes = segmentBytes;
+		for (int i = 0; i < this.stripes.length; i++) {
+			this.stripes[i] = new ReentrantLock();
+		}
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create cache directory " + directory); //$NON-NLS-1$
+		}
+		this.recovered = recover();
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#addEvictionListener(javastrava.cache.StravaCacheEvictionListener)
+	 */
+	@Override
+	public void addEvictionListener(final StravaCacheEvictionListener listener) {
+		// An entry evicted from memory to make room is still on disk, so only expiry is an eviction
+		this.delegate.addEvictionListener((partition, key, value, cause) -> {
+			if (cause == StravaCacheEvictionCause.EXPIRED) {
+				listener.evicted(partition, key, value, cause);
+			}
+		});
+	}
+
+	/**
+	 * <p>
+	 * Appends a record to the log
+	 * </p>
+	 *
+	 * @param body
+	 *            Body of the record
+	 * @param expiresAt
+	 *            Time at which the entry expires, in milliseconds since the epoch
+	 * @return Location of the record, or <code>null</code> if it could not be written
+	 */
+	private synchronized DiskEntry append(final byte[] body, final long expiresAt) {
+		try {
+			if ((this.current == null) || (this.current.size >= this.segmentBytes)) {
+				final long number = (this.segments.isEmpty() ? 1 : this.segments.lastKey().longValue() + 1);
+				this.current = new Segment(number, new File(this.directory, String.format("%s%016d%s", SEGMENT_PREFIX, Long.valueOf(number), SEGMENT_SUFFIX))); //$NON-NLS-1$
+				this.segments.put(Long.valueOf(number), this.current);
+			}
+			final CRC32 crc = new CRC32();
+			crc.update(body);
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			header.putInt(body.length).putInt((int) crc.getValue()).flip();
+			final ByteBuffer[] buffers = { header, ByteBuffer.wrap(body) };
+			final long offset = this.current.size;
+			long position = offset;
+			while (buffers[0].hasRemaining() || buffers[1].hasRemaining()) {
+				this.current.channel.position(position);
+				position += this.current.channel.write(buffers);
+			}
+			this.current.size = position;
+			final DiskEntry entry = new DiskEntry(this.current, offset, HEADER_LENGTH + body.length, expiresAt);
+			enforceBudget();
+			return entry;
+		} catch (final IOException e) {
+			this.errors.incrementAndGet();
+			log.error("Cannot write to cache log in " + this.directory, e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Flushes the log to disk and closes it; the backend must not be used afterwards
+	 * </p>
+	 */
+	public synchronized void close() {
+		for (final Segment segment : this.segments.values()) {
+			try {
+				segment.channel.force(true);
+				segment.channel.close();
+			} catch (final IOException e) {
+				log.error("Cannot close cache log " + segment.file, e); //$NON-NLS-1$
+			}
+		}
+		this.segments.clear();
+		this.current = null;
+	}
+
+	/**
+	 * @param record
+	 *            The record
+	 * @return The encoded body of the record
+	 * @throws IOException
+	 *             If the record cannot be encoded
+	 */
+	private static byte[] encode(final Record record) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(record.type);
+		out.write(hexToBytes(record.partition));
+		if (record.type != CLEAR) {
+			if (record.key instanceof Long) {
+				out.writeByte('L');
+				out.writeLong(((Long) record.key).longValue());
+			} else if (record.key instanceof Integer) {
+				out.writeByte('I');
+				out.writeInt(((Integer) record.key).intValue());
+			} else {
+				out.writeByte('S');
+				out.writeUTF((String) record.key);
+			}
+		}
+		if (record.type == PUT) {
+			out.writeLong(record.expiresAt);
+			out.writeUTF(record.className);
+			out.write(record.payload);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @param body
+	 *            Encoded body of a record
+	 * @param withPayload
+	 *            <code>false</code> to skip the entity itself
+	 * @return The decoded record
+	 * @throws IOException
+	 *             If the record is not valid
+	 */
+	private static Record decode(final byte[] body, final boolean withPayload) throws IOException {
+		final DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+		final Record record = new Record();
+		record.type = in.readByte();
+		final byte[] hash = new byte[32];
+		in.readFully(hash);
+		record.partition = bytesToHex(hash);
+		if (record.type != CLEAR) {
+			final byte keyType = in.readByte();
+			if (keyType == 'L') {
+				record.key = Long.valueOf(in.readLong());
+			} else if (keyType == 'I') {
+				record.key = Integer.valueOf(in.readInt());
+			} else if (keyType == 'S') {
+				record.key = in.readUTF();
+			} else {
+				throw new IOException("Unknown key type " + keyType); //$NON-NLS-1$
+			}
+		}
+		if (record.type == PUT) {
+			record.expiresAt = in.readLong();
+			record.className = in.readUTF();
+			if (withPayload) {
+				record.payload = new byte[in.available()];
+				in.readFully(record.payload);
+			}
+		} else if ((record.type != REMOVE) && (record.type != CLEAR)) {
+			throw new IOException("Unknown record type " + record.type); //$NON-NLS-1$
+		}
+		return record;
+	}
+
+	/**
+	 * <p>
+	 * Deletes the oldest segments until the log is within its size budget, always keeping the segment being written
+	 * </p>
+	 *
+	 * @throws IOException
+	 *             If a segment cannot be closed
+	 */
+	private void enforceBudget() throws IOException {
+		long total = 0;
+		for (final Segment segment : this.segments.values()) {
+			total += segment.size;
+		}
+		while ((total > this.maxBytes) && (this.segments.size() > 1)) {
+			final Segment oldest = this.segments.remove(this.segments.firstKey());
+			total -= oldest.size;
+			for (final ConcurrentHashMap<Object, DiskEntry> entries : this.index.values()) {
+				entries.values().removeIf(entry -> entry.segment == oldest);
+			}
+			oldest.channel.close();
+			if (!oldest.file.delete()) {
+				log.warn("Cannot delete cache log " + oldest.file); //$NON-NLS-1$
+			}
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#get(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public Object get(final String partition, final Object key) {
+		final Object value = this.delegate.get(partition, key);
+		if ((value != null) || !isPersistable(key)) {
+			return value;
+		}
+
+		// Not in memory, so look on disk
+		final String hash = hash(partition);
+		final ConcurrentHashMap<Object, DiskEntry> entries = this.index.get(hash);
+		final DiskEntry entry = (entries == null ? null : entries.get(key));
+		if (entry == null) {
+			return null;
+		}
+		final long timeToLive = entry.expiresAt - System.currentTimeMillis();
+		if (timeToLive <= 0) {
+			entries.remove(key, entry);
+			return null;
+		}
+		final Object loaded = read(entry);
+		if (loaded == null) {
+			entries.remove(key, entry);
+			return null;
+		}
+		final ReentrantLock stripe = stripe(key);
+		stripe.lock();
+		try {
+			// The entry may have been replaced or removed while it was being read, in which case it must not be put back into memory
+			if ((this.index.get(hash) != entries) || (entries.get(key) != entry)) {
+				return this.delegate.get(partition, key);
+			}
+			this.delegate.put(partition, key, loaded, timeToLive);
+		} finally {
+			stripe.unlock();
+		}
+		this.loads.incrementAndGet();
+		return loaded;
+	}
+
+	/**
+	 * @return Total size of the log on disk, in bytes
+	 */
+	public synchronized long getDiskBytes() {
+		long total = 0;
+		for (final Segment segment : this.segments.values()) {
+			total += segment.size;
+		}
+		return total;
+	}
+
+	/**
+	 * @return Number of entries on disk
+	 */
+	public int getDiskEntryCount() {
+		int count = 0;
+		for (final ConcurrentHashMap<Object, DiskEntry> entries : this.index.values()) {
+			count += entries.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return Total number of records which could not be read or written
+	 */
+	public long getErrorCount() {
+		return this.errors.get();
+	}
+
+	/**
+	 * @return Total number of entries read from disk into memory
+	 */
+	public long getLoadCount() {
+		return this.loads.get();
+	}
+
+	/**
+	 * @return Number of entries found on disk at startup
+	 */
+	public long getRecoveredCount() {
+		return this.recovered;
+	}
+
+	/**
+	 * @param partition
+	 *            Name of a partition
+	 * @return SHA-256 hash of the name, in hex
+	 */
+	private String hash(final String partition) {
+		return this.partitionHashes.computeIfAbsent(partition, name -> {
+			try {
+				return bytesToHex(MessageDigest.getInstance("SHA-256").digest(name.getBytes(StandardCharsets.UTF_8))); //$NON-NLS-1$
+			} catch (final NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#put(java.lang.String, java.lang.Object, java.lang.Object, long)
+	 */
+	@Override
+	public void put(final String partition, final Object key, final Object value, final long timeToLive) {
+		// Only entities are persisted, not the markers for entities which were not found or the placeholders for private entities
+		if (!isPersistable(key) || !(value instanceof StravaCacheableEntity) || (((StravaCacheableEntity<?>) value).getResourceState() == StravaResourceState.PRIVATE)) {
+			this.delegate.put(partition, key, value, timeToLive);
+			return;
+		}
+		final Record record = new Record();
+		record.type = PUT;
+		record.partition = hash(partition);
+		record.key = key;
+		final long now = System.currentTimeMillis();
+		record.expiresAt = ((timeToLive <= 0) || (timeToLive >= (Long.MAX_VALUE - now)) ? Long.MAX_VALUE : now + timeToLive);
+		record.className = value.getClass().getName();
+		byte[] body = null;
+		try {
+			final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+			try (final Writer writer = new OutputStreamWriter(new DeflaterOutputStream(payload, new Deflater(Deflater.BEST_SPEED)), StandardCharsets.UTF_8)) {
+				this.gson.toJson(value, writer);
+			}
+			record.payload = payload.toByteArray();
+			body = encode(record);
+		} catch (final IOException | RuntimeException e) {
+			this.errors.incrementAndGet();
+			log.error("Cannot write " + record.className + " " + key + " to cache log", e); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+
+		final ReentrantLock stripe = stripe(key);
+		stripe.lock();
+		try {
+			this.delegate.put(partition, key, value, timeToLive);
+			// Whatever is on disk is now out of date, so must not be read back into memory
+			removeFromIndex(record.partition, key);
+			final DiskEntry entry = (body == null ? null : append(body, record.expiresAt));
+			if (entry != null) {
+				this.index.computeIfAbsent(record.partition, name -> new ConcurrentHashMap<Object, DiskEntry>()).put(key, entry);
+			} else if (this.index.containsKey(record.partition)) {
+				// The older record for the key must not come back when the log is recovered
+				writeTombstone(tombstone(record.partition, key));
+			}
+		} finally {
+			stripe.unlock();
+		}
+	}
+
+	/**
+	 * <p>
+	 * Reads an entity from disk
+	 * </p>
+	 *
+	 * @param entry
+	 *            Location of the entity
+	 * @return The entity, or <code>null</code> if it cannot be read
+	 */
+	private Object read(final DiskEntry entry) {
+		try {
+			final ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+			while (buffer.hasRemaining()) {
+				if (entry.segment.channel.read(buffer, entry.offset + buffer.position()) < 0) {
+					throw new IOException("Unexpected end of cache log"); //$NON-NLS-1$
+				}
+			}
+			buffer.flip();
+			final int length = buffer.getInt();
+			final int checksum = buffer.getInt();
+			final byte[] body = new byte[length];
+			buffer.get(body);
+			final CRC32 crc = new CRC32();
+			crc.update(body);
+			if ((int) crc.getValue() != checksum) {
+				throw new IOException("Checksum mismatch in cache log"); //$NON-NLS-1$
+			}
+			final Record record = decode(body, true);
+			final Class<?> class1 = Class.forName(record.className);
+			if (!StravaCacheableEntity.class.isAssignableFrom(class1)) {
+				throw new IOException("Not a cacheable class: " + record.className); //$NON-NLS-1$
+			}
+			try (final InputStreamReader reader = new InputStreamReader(new InflaterInputStream(new ByteArrayInputStream(record.payload)), StandardCharsets.UTF_8)) {
+				return this.gson.fromJson(reader, class1);
+			}
+		} catch (final IOException | ClassNotFoundException | RuntimeException e) {
+			// Includes the segment having been deleted (and its channel closed) since the entry was looked up
+			this.errors.incrementAndGet();
+			log.warn("Cannot read entry from cache log " + entry.segment.file + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			return null;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Opens the existing segments and rebuilds the index from their records. Reading a segment stops at the first incomplete or corrupt record; if that is in the last segment (which was being
+	 * written when the JVM stopped) the segment is truncated there, so that new records follow on from the last good one.
+	 * </p>
+	 *
+	 * @return Number of entries found
+	 * @throws IOException
+	 *             If a segment cannot be read
+	 */
+	private synchronized long recover() throws IOException {
+		final File[] files = this.directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+		if (files == null) {
+			return 0;
+		}
+		Arrays.sort(files);
+		final long now = System.currentTimeMillis();
+		for (final File file : files) {
+			final long number;
+			try {
+				number = Long.parseLong(file.getName().substring(SEGMENT_PREFIX.length(), file.getName().length() - SEGMENT_SUFFIX.length()));
+			} catch (final NumberFormatException e) {
+				continue;
+			}
+			final Segment segment = new Segment(number, file);
+			this.segments.put(Long.valueOf(number), segment);
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+			long position = 0;
+			while (true) {
+				header.clear();
+				if ((segment.channel.read(header, position) < HEADER_LENGTH) || header.hasRemaining()) {
+					break;
+				}
+				header.flip();
+				final int length = header.getInt();
+				final int checksum = header.getInt();
+				if ((length <= 0) || (length > MAX_RECORD_LENGTH) || ((position + HEADER_LENGTH + length) > segment.size)) {
+					break;
+				}
+				final ByteBuffer body = ByteBuffer.allocate(length);
+				while (body.hasRemaining() && (segment.channel.read(body, position + HEADER_LENGTH + body.position()) > 0)) {
+					// Keep reading
+				}
+				final CRC32 crc = new CRC32();
+				crc.update(body.array());
+				if ((int) crc.getValue() != checksum) {
+					break;
+				}
+				final Record record;
+				try {
+					record = decode(body.array(), false);
+				} catch (final IOException e) {
+					break;
+				}
+				switch (record.type) {
+				case PUT:
+					if (record.expiresAt > now) {
+						this.index.computeIfAbsent(record.partition, name -> new ConcurrentHashMap<Object, DiskEntry>()).put(record.key,
+								new DiskEntry(segment, position, HEADER_LENGTH + length, record.expiresAt));
+					} else {
+						removeFromIndex(record.partition, record.key);
+					}
+					break;
+				case REMOVE:
+					removeFromIndex(record.partition, record.key);
+					break;
+				default:
+					this.index.remove(record.partition);
+				}
+				position += HEADER_LENGTH + length;
+			}
+			if (position < segment.size) {
+				log.warn("Discarding " + (segment.size - position) + " bytes of incomplete or corrupt records from cache log " + file); //$NON-NLS-1$ //$NON-NLS-2$
+				if (file == files[files.length - 1]) {
+					segment.channel.truncate(position);
+					segment.size = position;
+				}
+			}
+			this.current = segment;
+		}
+		long count = 0;
+		for (final ConcurrentHashMap<Object, DiskEntry> entries : this.index.values()) {
+			count += entries.size();
+		}
+		log.info("Found " + count + " cached entries in " + this.directory); //$NON-NLS-1$ //$NON-NLS-2$
+		return count;
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#remove(java.lang.String, java.lang.Object)
+	 */
+	@Override
+	public void remove(final String partition, final Object key) {
+		if (!isPersistable(key)) {
+			this.delegate.remove(partition, key);
+			return;
+		}
+		final String hash = hash(partition);
+		final ReentrantLock stripe = stripe(key);
+		stripe.lock();
+		try {
+			this.delegate.remove(partition, key);
+			removeFromIndex(hash, key);
+			// Written whenever the partition has been persisted, whether or not the key is in the index, so that no record for the key written
+			// before the removal can come back when the log is recovered
+			if (this.index.containsKey(hash)) {
+				writeTombstone(tombstone(hash, key));
+			}
+		} finally {
+			stripe.unlock();
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#removeAll(java.lang.String)
+	 */
+	@Override
+	public void removeAll(final String partition) {
+		final String hash = hash(partition);
+		// Every stripe is held so that no put to the partition can be appended to the log before the clear but indexed after it
+		for (final ReentrantLock stripe : this.stripes) {
+			stripe.lock();
+		}
+		try {
+			this.delegate.removeAll(partition);
+			if (this.index.remove(hash) != null) {
+				final Record record = new Record();
+				record.type = CLEAR;
+				record.partition = hash;
+				writeTombstone(record);
+			}
+		} finally {
+			for (final ReentrantLock stripe : this.stripes) {
+				stripe.unlock();
+			}
+		}
+	}
+
+	/**
+	 * @param partition
+	 *            Hash of the partition
+	 * @param key
+	 *            The entity's id
+	 * @return <code>true</code> if the entry was on disk
+	 */
+	private boolean removeFromIndex(final String partition, final Object key) {
+		final ConcurrentHashMap<Object, DiskEntry> entries = this.index.get(partition);
+		return (entries != null) && (entries.remove(key) != null);
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheBackend#size(java.lang.String)
+	 */
+	@Override
+	public int size(final String partition) {
+		final ConcurrentHashMap<Object, DiskEntry> entries = this.index.get(hash(partition));
+		return Math.max(this.delegate.size(partition), (entries == null ? 0 : entries.size()));
+	}
+
+	/**
+	 * <p>
+	 * Returns the entities in the partition, reading those which are only on disk into memory
+	 * </p>
+	 *
+	 * @see javastrava.cache.StravaCacheBackend#values(java.lang.String)
+	 */
+	@Override
+	public List<Object> values(final String partition) {
+		final ConcurrentHashMap<Object, DiskEntry> entries = this.index.get(hash(partition));
+		if (entries == null) {
+			return this.delegate.values(partition);
+		}
+		final List<Object> values = new ArrayList<Object>(entries.size());
+		for (final Map.Entry<Object, DiskEntry> entry : entries.entrySet()) {
+			final Object value = get(partition, entry.getKey());
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * @param key
+	 *            The entity's id
+	 * @return The lock for the stripe the key is in
+	 */
+	private ReentrantLock stripe(final Object key) {
+		return this.stripes[key.hashCode() & (this.stripes.length - 1)];
+	}
+
+	/**
+	 * @param partition
+	 *            Hash of the partition
+	 * @param key
+	 *            The entity's id
+	 * @return Record marking the removal of the key from the partition
+	 */
+	private static Record tombstone(final String partition, final Object key) {
+		final Record record = new Record();
+		record.type = REMOVE;
+		record.partition = partition;
+		record.key = key;
+		return record;
+	}
+
+	/**
+	 * @param record
+	 *            A REMOVE or CLEAR record
+	 */
+	private void writeTombstone(final Record record) {
+		try {
+			append(encode(record), 0);
+		} catch (final IOException e) {
+			this.errors.incrementAndGet();
+			log.error("Cannot write to cache log in " + this.directory, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param bytes
+	 *            Bytes
+	 * @return The bytes in hex
+	 */
+	private static String bytesToHex(final byte[] bytes) {
+		final StringBuilder hex = new StringBuilder(bytes.length * 2);
+		for (final byte b : bytes) {
+			hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * @param hex
+	 *            Bytes in hex
+	 * @return The bytes
+	 */
+	private static byte[] hexToBytes(final String hex) {
+		final byte[] bytes = new byte[hex.length() / 2];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, (2 * i) + 2), 16);
+		}
+		return bytes;
+	}
+}
@@ -0,0 +1,161 @@
+package javastrava.cache.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+
+import javastrava.auth.model.Token;
+import javastrava.json.impl.JsonUtilImpl;
+import javastrava.model.StravaClub;
+import javastrava.model.StravaRoute;
+import javastrava.model.StravaRunningRace;
+import javastrava.model.StravaSegment;
+import javastrava.util.PrivacyUtils;
+
+/**
+ * <p>
+ * Decides which entities are public, and so may be shared between all tokens rather than cached separately for each one.
+ * </p>
+ *
+ * <p>
+ * Segments, clubs, running races and routes look the same whichever token fetches them, apart from a few fields which describe the relationship with the authenticated athlete (whether they
+ * have starred a segment, whether they are a member of a club and so on). An entity is only shared if {@link PrivacyUtils} says it is public; the shared copy has the token-specific fields
+ * cleared, so that one token never sees another token's view of them.
+ * </p>
+ *
+ * <p>
+ * Athletes are never shared: what Strava shows of an athlete depends on the athlete's privacy settings and their relationship with the authenticated athlete, so there is no one set of fields which
+ * every token can see.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+class SharedCachePolicy {
+	/**
+	 * <p>
+	 * How to share entities of one class
+	 * </p>
+	 *
+	 * @param <T>
+	 *            Class of entity
+	 */
+	private static final class Rule<T> {
+		/**
+		 * Is <code>true</code> if the entity may be seen by any token
+		 */
+		final BiPredicate<T, Token> isPublic;
+
+		/**
+		 * Clears the fields which are specific to the token that fetched the entity
+		 */
+		final Consumer<T> clearTokenFields;
+
+		/**
+		 * @param isPublic
+		 *            Is <code>true</code> if the entity may be seen by any token
+		 * @param clearTokenFields
+		 *            Clears the fields which are specific to the token that fetched the entity
+		 */
+		Rule(final BiPredicate<T, Token> isPublic, final Consumer<T> clearTokenFields) {
+			this.isPublic = isPublic;
+			this.clearTokenFields = clearTokenFields;
+		}
+	}
+
+	/**
+	 * Rules, by class of entity
+	 */
+	private static final Map<Class<?>, Rule<?>> rules = new HashMap<Class<?>, Rule<?>>();
+
+	/**
+	 * Used to copy entities
+	 */
+	private static final Gson gson = new JsonUtilImpl().getGson();
+
+	static {
+		rule(StravaSegment.class, (segment, token) -> !PrivacyUtils.segmentIsPrivate(segment), SharedCachePolicy::clearSegmentTokenFields);
+		rule(StravaClub.class, (club, token) -> !PrivacyUtils.clubIsPrivate(club), club -> {
+			club.setMembership(null);
+			club.setAdmin(null);
+			club.setOwner(null);
+			club.setFollowingCount(null);
+		});
+		rule(StravaRunningRace.class, (race, token) -> true, race -> {
+			// Nothing specific to the token
+		});
+		rule(StravaRoute.class, (route, token) -> !PrivacyUtils.routeIsPrivate(route), route -> route.setStarred(null));
+	}
+
+	/**
+	 * <p>
+	 * Clears the fields of a segment which are specific to the token that fetched it, including the deprecated ones which Strava still returns
+	 * </p>
+	 *
+	 * @param segment
+	 *            The segment
+	 */
+	@SuppressWarnings("deprecation")
+	private static void clearSegmentTokenFields(final StravaSegment segment) {
+		segment.setStarred(null);
+		segment.setStarredDate(null);
+		segment.setAthletePrEffort(null);
+		segment.setPrTime(null);
+		segment.setAthleteSegmentStats(null);
+	}
+
+	/**
+	 * @param class1
+	 *            Class of entity
+	 * @return <code>true</code> if entities of the class may be shared between tokens
+	 */
+	static boolean isShared(final Class<?> class1) {
+		return rules.containsKey(class1);
+	}
+
+	/**
+	 * @param class1
+	 *            Class of entity
+	 * @param isPublic
+	 *            Is <code>true</code> if the entity may be seen by any token
+	 * @param clearTokenFields
+	 *            Clears the fields which are specific to the token that fetched the entity
+	 */
+	private static <T> void rule(final Class<T> class1, final BiPredicate<T, Token> isPublic, final Consumer<T> clearTokenFields) {
+		rules.put(class1, new Rule<T>(isPublic, clearTokenFields));
+	}
+
+	/**
+	 * <p>
+	 * Returns the form of an entity which may be shared between tokens
+	 * </p>
+	 *
+	 * @param entity
+	 *            The entity, as fetched with the token
+	 * @param token
+	 *            The token
+	 * @return The entity itself if it has no fields specific to the token; a copy with those fields cleared if it has; or <code>null</code> if it is not public
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> T shareable(final T entity, final Token token) {
+		final Rule<T> rule = (Rule<T>) rules.get(entity.getClass());
+		if ((rule == null) || !rule.isPublic.test(entity, token)) {
+			return null;
+		}
+		final T copy = (T) gson.fromJson(gson.toJsonTree(entity), entity.getClass());
+		rule.clearTokenFields.accept(copy);
+		return (copy.equals(entity) ? entity : copy);
+	}
+
+	/**
+	 * <p>
+	 * Private constructor, as there are only static methods
+	 * </p>
+	 */
+	private SharedCachePolicy() {
+		super();
+	}
+}
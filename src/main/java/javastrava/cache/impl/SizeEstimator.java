@@ -0,0 +1,264 @@
+package javastrava.cache.impl;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * <p>
+ * Estimates how many bytes of heap an entity retains, so that caches can be bounded by memory rather than by the number of entries. A {@link javastrava.model.StravaActivity} with all its efforts,
+ * laps and splits may retain a hundred times as much as a {@link javastrava.model.StravaClub}.
+ * </p>
+ *
+ * <p>
+ * The estimate assumes a 64-bit JVM with compressed object pointers (12 byte object headers, 4 byte references, objects aligned to 8 bytes). Model classes are measured by walking their fields,
+ * using a layout worked out once per class; strings, boxed values, dates, arrays, collections and maps are measured from their contents without reflection, and other JDK classes are counted as
+ * small fixed-size objects. Enums are shared, so count nothing. Each object reached is counted once, however many times it is referred to.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class SizeEstimator {
+	/**
+	 * <p>
+	 * Layout of a model class: its shallow size and the fields which refer to other objects
+	 * </p>
+	 */
+	private static final class Layout {
+		/**
+		 * Size of an instance, excluding the objects it refers to
+		 */
+		final long shallowSize;
+
+		/**
+		 * Fields which refer to other objects
+		 */
+		final Field[] references;
+
+		/**
+		 * @param shallowSize
+		 *            Size of an instance, excluding the objects it refers to
+		 * @param references
+		 *            Fields which refer to other objects
+		 */
+		Layout(final long shallowSize, final Field[] references) {
+			this.shallowSize = shallowSize;
+			this.references = references;
+		}
+	}
+
+	/**
+	 * Size of an object header
+	 */
+	private static final int HEADER = 12;
+
+	/**
+	 * Size of an array header, including its length
+	 */
+	private static final int ARRAY_HEADER = 16;
+
+	/**
+	 * Size of a reference
+	 */
+	private static final int REFERENCE = 4;
+
+	/**
+	 * Estimated size of one entry in a hash map or set, excluding its key and value
+	 */
+	private static final int MAP_ENTRY = 32;
+
+	/**
+	 * Estimated size of a java.time date or time, including the objects it is built from
+	 */
+	private static final int TEMPORAL = 72;
+
+	/**
+	 * Estimated size of any other JDK object whose contents are not walked
+	 */
+	private static final int OTHER = 16;
+
+	/**
+	 * Layouts of the model classes measured so far
+	 */
+	private static final ClassValue<Layout> layouts = new ClassValue<Layout>() {
+		@Override
+		protected Layout computeValue(final Class<?> type) {
+			return layout(type);
+		}
+	};
+
+	/**
+	 * <p>
+	 * Estimates the heap retained by an object
+	 * </p>
+	 *
+	 * @param object
+	 *            The object
+	 * @return Estimated number of bytes retained, including everything the object refers to
+	 */
+	public static long estimate(final Object object) {
+		if (object == null) {
+			return 0;
+		}
+		final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		final Deque<Object> pending = new ArrayDeque<Object>();
+		pending.push(object);
+		long total = 0;
+		while (!pending.isEmpty()) {
+			final Object next = pending.pop();
+			if (visited.add(next)) {
+				total += measure(next, pending);
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * @param size
+	 *            A size in bytes
+	 * @return The size rounded up to a multiple of 8
+	 */
+	private static long align(final long size) {
+		return (size + 7) & ~7L;
+	}
+
+	/**
+	 * <p>
+	 * Works out the layout of a model class
+	 * </p>
+	 *
+	 * @param type
+	 *            The class
+	 * @return The layout
+	 */
+	private static Layout layout(final Class<?> type) {
+		long size = HEADER;
+		final List<Field> references = new ArrayList<Field>();
+		for (Class<?> c = type; (c != null) && (c != Object.class); c = c.getSuperclass()) {
+			for (final Field field : c.getDeclaredFields()) {
+				if (Modifier.isStatic(field.getModifiers())) {
+					continue;
+				}
+				final Class<?> fieldType = field.getType();
+				if (!fieldType.isPrimitive()) {
+					size += REFERENCE;
+					if (!fieldType.isEnum()) {
+						field.setAccessible(true);
+						references.add(field);
+					}
+				} else if ((fieldType == long.class) || (fieldType == double.class)) {
+					size += 8;
+				} else if ((fieldType == int.class) || (fieldType == float.class)) {
+					size += 4;
+				} else if ((fieldType == short.class) || (fieldType == char.class)) {
+					size += 2;
+				} else {
+					size += 1;
+				}
+			}
+		}
+		return new Layout(align(size), references.toArray(new Field[references.size()]));
+	}
+
+	/**
+	 * <p>
+	 * Measures one object, and queues the objects it refers to
+	 * </p>
+	 *
+	 * @param object
+	 *            The object
+	 * @param pending
+	 *            Objects still to be measured
+	 * @return Size of the object itself
+	 */
+	private static long measure(final Object object, final Deque<Object> pending) {
+		final Class<?> type = object.getClass();
+		if (type.isEnum() || (object instanceof Enum) || (object instanceof Class)) {
+			return 0;
+		}
+		if (object instanceof String) {
+			// String object plus its char array
+			return 24 + align(ARRAY_HEADER + (2L * ((String) object).length()));
+		}
+		if ((object instanceof Number) || (object instanceof Boolean) || (object instanceof Character)) {
+			return ((object instanceof Long) || (object instanceof Double) ? 24 : 16);
+		}
+		if (object instanceof java.time.temporal.TemporalAccessor) {
+			return TEMPORAL;
+		}
+		if (type.isArray()) {
+			final int length = Array.getLength(object);
+			final Class<?> component = type.getComponentType();
+			if (component.isPrimitive()) {
+				final long element = ((component == long.class) || (component == double.class) ? 8
+						: ((component == int.class) || (component == float.class) ? 4 : ((component == short.class) || (component == char.class) ? 2 : 1)));
+				return align(ARRAY_HEADER + (element * length));
+			}
+			for (final Object element : (Object[]) object) {
+				if (element != null) {
+					pending.push(element);
+				}
+			}
+			return align(ARRAY_HEADER + ((long) REFERENCE * length));
+		}
+		if (object instanceof Collection) {
+			final Collection<?> collection = (Collection<?>) object;
+			for (final Object element : collection) {
+				if (element != null) {
+					pending.push(element);
+				}
+			}
+			// List backed by an array, or a hash set with an entry per element
+			final long perElement = (object instanceof List ? REFERENCE : MAP_ENTRY);
+			return 24 + align(ARRAY_HEADER + (perElement * collection.size()));
+		}
+		if (object instanceof Map) {
+			final Map<?, ?> map = (Map<?, ?>) object;
+			for (final Map.Entry<?, ?> entry : map.entrySet()) {
+				if (entry.getKey() != null) {
+					pending.push(entry.getKey());
+				}
+				if (entry.getValue() != null) {
+					pending.push(entry.getValue());
+				}
+			}
+			return 48 + align(ARRAY_HEADER + ((long) (REFERENCE + MAP_ENTRY) * map.size()));
+		}
+		if (type.getName().startsWith("java.") || type.getName().startsWith("javax.") || type.getName().startsWith("sun.")) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			return OTHER;
+		}
+
+		// A model class; walk its fields
+		final Layout layout = layouts.get(type);
+		for (final Field field : layout.references) {
+			try {
+				final Object value = field.get(object);
+				if (value != null) {
+					pending.push(value);
+				}
+			} catch (final IllegalAccessException e) {
+				// Can't happen, as the field has been made accessible; count just the reference
+			}
+		}
+		return layout.shallowSize;
+	}
+
+	/**
+	 * <p>
+	 * Private constructor, as there are only static methods
+	 * </p>
+	 */
+	private SizeEstimator() {
+		super();
+	}
+}
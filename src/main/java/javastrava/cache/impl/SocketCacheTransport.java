@@ -0,0 +1,157 @@
+package javastrava.cache.impl;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheTransport;
+
+/**
+ * <p>
+ * {@link StravaCacheTransport} which sends each message as a UDP datagram to every peer in a fixed list, and receives messages on a UDP port. Each message is small enough for one datagram.
+ * </p>
+ *
+ * <p>
+ * UDP does not guarantee delivery, which suits invalidation: a lost message only leaves an entity stale on some nodes until it expires. The port should not be reachable from outside the cluster, as
+ * messages are not authenticated.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class SocketCacheTransport implements StravaCacheTransport {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Largest datagram received
+	 */
+	private static final int MAX_DATAGRAM = 65507;
+
+	/**
+	 * <p>
+	 * Parses a list of peers
+	 * </p>
+	 *
+	 * @param peers
+	 *            Comma-separated list of host:port
+	 * @return The peers' addresses
+	 * @throws IllegalArgumentException
+	 *             If a peer is not in the form host:port
+	 */
+	static List<InetSocketAddress> parsePeers(final String peers) {
+		final List<InetSocketAddress> addresses = new ArrayList<InetSocketAddress>();
+		for (final String peer : peers.split(",")) { //$NON-NLS-1$
+			final String trimmed = peer.trim();
+			if (trimmed.isEmpty()) {
+				continue;
+			}
+			final int colon = trimmed.lastIndexOf(':');
+			if (colon <= 0) {
+				throw new IllegalArgumentException("Cache cluster peer " + trimmed + " is not host:port"); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			addresses.add(new InetSocketAddress(trimmed.substring(0, colon), Integer.parseInt(trimmed.substring(colon + 1))));
+		}
+		return addresses;
+	}
+
+	/**
+	 * Socket used to send and receive
+	 */
+	private final DatagramSocket socket;
+
+	/**
+	 * Peers to send to
+	 */
+	private final List<InetSocketAddress> peers;
+
+	/**
+	 * Called with each message received
+	 */
+	private volatile Consumer<byte[]> receiver;
+
+	/**
+	 * @param port
+	 *            Port to receive on
+	 * @param peers
+	 *            Peers to send to; this node may be in the list
+	 * @throws SocketException
+	 *             If the port cannot be opened
+	 */
+	public SocketCacheTransport(final int port, final List<InetSocketAddress> peers) throws SocketException {
+		this.socket = new DatagramSocket(port);
+		this.peers = new ArrayList<InetSocketAddress>(peers);
+		final Thread thread = new Thread(this::receive, "javastrava-cache-cluster-" + port); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#close()
+	 */
+	@Override
+	public void close() {
+		this.socket.close();
+	}
+
+	/**
+	 * <p>
+	 * Receives datagrams until the socket is closed
+	 * </p>
+	 */
+	private void receive() {
+		final byte[] buffer = new byte[MAX_DATAGRAM];
+		while (!this.socket.isClosed()) {
+			final DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+			try {
+				this.socket.receive(packet);
+			} catch (final IOException e) {
+				if (!this.socket.isClosed()) {
+					log.warn("Cannot receive cache cluster message: " + e); //$NON-NLS-1$
+				}
+				continue;
+			}
+			final Consumer<byte[]> handler = this.receiver;
+			if (handler != null) {
+				try {
+					handler.accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()));
+				} catch (final RuntimeException e) {
+					log.error("Cannot handle cache cluster message", e); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#send(byte[])
+	 */
+	@Override
+	public void send(final byte[] message) {
+		for (final InetSocketAddress peer : this.peers) {
+			try {
+				this.socket.send(new DatagramPacket(message, message.length, peer));
+			} catch (final IOException e) {
+				log.warn("Cannot send cache cluster message to " + peer + ": " + e); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+	}
+
+	/**
+	 * @see javastrava.cache.StravaCacheTransport#setReceiver(java.util.function.Consumer)
+	 */
+	@Override
+	public void setReceiver(final Consumer<byte[]> receiver) {
+		this.receiver = receiver;
+	}
+}
@@ -0,0 +1,129 @@
+package javastrava.cache.impl;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.config.StravaConfig;
+
+/**
+ * <p>
+ * Creates {@link StravaCacheBackend}s, and holds the default backend shared by all {@link StravaCacheImpl} instances
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class StravaCacheBackends {
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Name of the built-in in-memory backend
+	 */
+	public static final String MEMORY = "memory"; //$NON-NLS-1$
+
+	/**
+	 * Name of the Apache Commons JCS backend
+	 */
+	public static final String JCS = "jcs"; //$NON-NLS-1$
+
+	/**
+	 * Name of the built-in off-heap backend
+	 */
+	public static final String OFF_HEAP = "offheap"; //$NON-NLS-1$
+
+	/**
+	 * The default backend, created on first use
+	 */
+	private static volatile StravaCacheBackend defaultBackend;
+
+	/**
+	 * <p>
+	 * Creates a backend
+	 * </p>
+	 *
+	 * @param name
+	 *            {@link #MEMORY}, {@link #JCS}, {@link #OFF_HEAP}, or the fully qualified name of a class implementing {@link StravaCacheBackend} which has a public no-argument constructor
+	 * @return The backend
+	 * @throws IllegalArgumentException
+	 *             If the backend cannot be created
+	 */
+	public static StravaCacheBackend create(final String name) {
+		if (MEMORY.equals(name)) {
+			return new InMemoryCacheBackend();
+		}
+		if (JCS.equals(name)) {
+			return new JCSCacheBackend();
+		}
+		if (OFF_HEAP.equals(name)) {
+			return new OffHeapCacheBackend();
+		}
+		try {
+			return Class.forName(name).asSubclass(StravaCacheBackend.class).getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalArgumentException("Cannot create cache backend " + name, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return The default backend, as configured by strava.cache.backend, unless it has been replaced with {@link #setDefault(StravaCacheBackend)}
+	 */
+	public static StravaCacheBackend getDefault() {
+		StravaCacheBackend backend = defaultBackend;
+		if (backend == null) {
+			synchronized (StravaCacheBackends.class) {
+				backend = defaultBackend;
+				if (backend == null) {
+					backend = persistent(create(StravaConfig.CACHE_BACKEND));
+					defaultBackend = backend;
+				}
+			}
+		}
+		return backend;
+	}
+
+	/**
+	 * @param backend
+	 *            A backend
+	 * @return The backend persisted in strava.cache.disk.directory, or the backend itself if that is not set or the directory cannot be used
+	 */
+	private static StravaCacheBackend persistent(final StravaCacheBackend backend) {
+		if (StravaConfig.CACHE_DISK_DIRECTORY.isEmpty()) {
+			return backend;
+		}
+		try {
+			return new PersistentCacheBackend(backend, new File(StravaConfig.CACHE_DISK_DIRECTORY), StravaConfig.CACHE_DISK_MAX_MEGABYTES * 1024 * 1024,
+					StravaConfig.CACHE_DISK_SEGMENT_MEGABYTES * 1024 * 1024);
+		} catch (final IOException e) {
+			log.error("Cannot use " + StravaConfig.CACHE_DISK_DIRECTORY + " for the entity cache, so it will be held in memory only", e); //$NON-NLS-1$ //$NON-NLS-2$
+			return backend;
+		}
+	}
+
+	/**
+	 * <p>
+	 * Replaces the default backend. Only caches created afterwards use the new backend, so this should be done before any services are created.
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend to use
+	 */
+	public static void setDefault(final StravaCacheBackend backend) {
+		defaultBackend = backend;
+	}
+
+	/**
+	 * <p>
+	 * Private constructor, as there are only static methods
+	 * </p>
+	 */
+	private StravaCacheBackends() {
+		super();
+	}
+}
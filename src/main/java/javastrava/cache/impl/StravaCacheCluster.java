@@ -0,0 +1,608 @@
+package javastrava.cache.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheTransport;
+import javastrava.cache.StravaCacheableEntity;
+import javastrava.config.StravaConfig;
+import javastrava.json.impl.JsonUtilImpl;
+
+/**
+ * <p>
+ * Keeps the caches of several nodes (JVMs) consistent. Each node caches entities in its own backend as usual; when an entity is changed or deleted through one node, the node tells the others over
+ * a {@link StravaCacheTransport}, and they remove it from their caches for every token.
+ * </p>
+ *
+ * <p>
+ * Changes are not sent one at a time. They are held for up to strava.cache.cluster.batch_ms, or until strava.cache.cluster.batch_size have built up, and sent together; several changes to the same
+ * entity in that time are coalesced into the last of them. If strava.cache.cluster.replicate is <code>true</code>, public entities (see {@link SharedCachePolicy}) are also sent to the other nodes
+ * when they are cached in detail or have changed, so that only one node need fetch each of them from Strava; replicated entities are sent as JSON, and only ever stored in the partition shared by
+ * all tokens, where (as locally) a summary never replaces a detailed entity.
+ * </p>
+ *
+ * <p>
+ * The default backend joins the cluster configured by strava.cache.cluster.transport when the first cache is created; other backends can be joined with
+ * {@link #join(StravaCacheBackend, StravaCacheTransport)}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class StravaCacheCluster {
+	/**
+	 * <p>
+	 * A change to be sent to the other nodes
+	 * </p>
+	 */
+	private static final class Change {
+		/**
+		 * {@link #INVALIDATE}, {@link #INVALIDATE_PARENT} or {@link #REPLICATE}
+		 */
+		final byte type;
+
+		/**
+		 * Class of the entity
+		 */
+		final Class<?> class1;
+
+		/**
+		 * Id of the entity, or of its parent
+		 */
+		final Object key;
+
+		/**
+		 * JSON of the entity, if it is being replicated
+		 */
+		final byte[] value;
+
+		/**
+		 * @param type
+		 *            Type of change
+		 * @param class1
+		 *            Class of the entity
+		 * @param key
+		 *            Id of the entity, or of its parent
+		 * @param value
+		 *            JSON of the entity, if it is being replicated
+		 */
+		Change(final byte type, final Class<?> class1, final Object key, final byte[] value) {
+			this.type = type;
+			this.class1 = class1;
+			this.key = key;
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Logger
+	 */
+	private static final Logger log = LogManager.getLogger();
+
+	/**
+	 * Name of the in-process transport
+	 */
+	public static final String LOOPBACK = "loopback"; //$NON-NLS-1$
+
+	/**
+	 * Name of the UDP transport
+	 */
+	public static final String SOCKET = "socket"; //$NON-NLS-1$
+
+	/**
+	 * Largest message sent
+	 */
+	private static final int MAX_MESSAGE = 60000;
+
+	/**
+	 * Version of the message format
+	 */
+	private static final byte VERSION = 1;
+
+	/**
+	 * An entity has changed or gone
+	 */
+	private static final byte INVALIDATE = 1;
+
+	/**
+	 * All the entities with a parent (e.g. the comments on an activity) have gone
+	 */
+	private static final byte INVALIDATE_PARENT = 2;
+
+	/**
+	 * An entity has changed, and this is its new value
+	 */
+	private static final byte REPLICATE = 3;
+
+	/**
+	 * Clusters joined, by backend
+	 */
+	private static final ConcurrentHashMap<StravaCacheBackend, StravaCacheCluster> clusters = new ConcurrentHashMap<StravaCacheBackend, StravaCacheCluster>();
+
+	/**
+	 * Is <code>true</code> once the default backend has joined the configured cluster, or it has been found that there is none
+	 */
+	private static volatile boolean defaultJoined;
+
+	/**
+	 * Sends the batches of changes
+	 */
+	private static final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		final Thread thread = new Thread(runnable, "javastrava-cache-cluster-flush"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * <p>
+	 * Creates a transport
+	 * </p>
+	 *
+	 * @param name
+	 *            {@link #LOOPBACK}, {@link #SOCKET} (on strava.cache.cluster.port, to strava.cache.cluster.peers), or the fully qualified name of a class implementing {@link StravaCacheTransport}
+	 *            which has a public no-argument constructor
+	 * @return The transport
+	 * @throws IOException
+	 *             If the transport cannot be opened
+	 * @throws IllegalArgumentException
+	 *             If the transport cannot be created
+	 */
+	public static StravaCacheTransport createTransport(final String name) throws IOException {
+		if (LOOPBACK.equals(name)) {
+			return new LoopbackCacheTransport("javastrava"); //$NON-NLS-1$
+		}
+		if (SOCKET.equals(name)) {
+			return new SocketCacheTransport(StravaConfig.CACHE_CLUSTER_PORT, SocketCacheTransport.parsePeers(StravaConfig.CACHE_CLUSTER_PEERS));
+		}
+		try {
+			return Class.forName(name).asSubclass(StravaCacheTransport.class).getDeclaredConstructor().newInstance();
+		} catch (final ReflectiveOperationException | ClassCastException e) {
+			throw new IllegalArgumentException("Cannot create cache cluster transport " + name, e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param backend
+	 *            A backend
+	 * @return The cluster the backend has joined, or <code>null</code> if it is not clustered
+	 */
+	static StravaCacheCluster forBackend(final StravaCacheBackend backend) {
+		if (!defaultJoined) {
+			joinDefault();
+		}
+		return clusters.get(backend);
+	}
+
+	/**
+	 * <p>
+	 * Joins a backend to a cluster. Changes made through caches using the backend are sent over the transport, and changes received over it are applied to the backend.
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param transport
+	 *            The transport
+	 * @return The cluster
+	 * @throws IllegalStateException
+	 *             If the backend has already joined a cluster
+	 */
+	public static StravaCacheCluster join(final StravaCacheBackend backend, final StravaCacheTransport transport) {
+		final StravaCacheCluster cluster = new StravaCacheCluster(backend, transport);
+		if (clusters.putIfAbsent(backend, cluster) != null) {
+			throw new IllegalStateException("Cache backend has already joined a cluster"); //$NON-NLS-1$
+		}
+		transport.setReceiver(cluster::receive);
+		return cluster;
+	}
+
+	/**
+	 * <p>
+	 * Joins the default backend to the cluster configured by strava.cache.cluster.transport, if there is one
+	 * </p>
+	 */
+	private static synchronized void joinDefault() {
+		if (defaultJoined) {
+			return;
+		}
+		defaultJoined = true;
+		if (StravaConfig.CACHE_CLUSTER_TRANSPORT.isEmpty()) {
+			return;
+		}
+		try {
+			join(StravaCacheBackends.getDefault(), createTransport(StravaConfig.CACHE_CLUSTER_TRANSPORT));
+		} catch (final IOException | RuntimeException e) {
+			log.error("Cannot join cache cluster using " + StravaConfig.CACHE_CLUSTER_TRANSPORT + ", so the cache will not be kept consistent with other nodes", e); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Writes an entity's id
+	 * </p>
+	 *
+	 * @param out
+	 *            Where to write it
+	 * @param key
+	 *            The id
+	 * @throws IOException
+	 *             If it cannot be written
+	 */
+	private static void writeKey(final DataOutputStream out, final Object key) throws IOException {
+		if (key instanceof Long) {
+			out.writeByte('L');
+			out.writeLong(((Long) key).longValue());
+		} else if (key instanceof Integer) {
+			out.writeByte('I');
+			out.writeInt(((Integer) key).intValue());
+		} else {
+			out.writeByte('S');
+			out.writeUTF(key.toString());
+		}
+	}
+
+	/**
+	 * @param in
+	 *            Where to read an entity's id from
+	 * @return The id
+	 * @throws IOException
+	 *             If it is not valid
+	 */
+	private static Object readKey(final DataInputStream in) throws IOException {
+		final byte keyType = in.readByte();
+		if (keyType == 'L') {
+			return Long.valueOf(in.readLong());
+		} else if (keyType == 'I') {
+			return Integer.valueOf(in.readInt());
+		} else if (keyType == 'S') {
+			return in.readUTF();
+		}
+		throw new IOException("Unknown key type " + keyType); //$NON-NLS-1$
+	}
+
+	/**
+	 * Backend the changes are applied to
+	 */
+	private final StravaCacheBackend backend;
+
+	/**
+	 * Carries the changes to and from the other nodes
+	 */
+	private final StravaCacheTransport transport;
+
+	/**
+	 * Identifies this node, so that it ignores its own messages
+	 */
+	private final UUID node = UUID.randomUUID();
+
+	/**
+	 * Changes waiting to be sent, by entity (so that later changes to an entity replace earlier ones)
+	 */
+	private final LinkedHashMap<List<Object>, Change> pending = new LinkedHashMap<List<Object>, Change>();
+
+	/**
+	 * Pending send of the changes, or <code>null</code> if none is scheduled
+	 */
+	private ScheduledFuture<?> scheduled;
+
+	/**
+	 * Time (in milliseconds) that changes are held before being sent
+	 */
+	private final long batchMillis = StravaConfig.CACHE_CLUSTER_BATCH_MILLISECONDS;
+
+	/**
+	 * Number of changes which are sent straight away, without waiting for more
+	 */
+	private final int batchSize = StravaConfig.CACHE_CLUSTER_BATCH_SIZE;
+
+	/**
+	 * Is <code>true</code> if public entities are sent to the other nodes when they are cached
+	 */
+	private final boolean replicate = StravaConfig.CACHE_CLUSTER_REPLICATE;
+
+	/**
+	 * Used to send replicated entities
+	 */
+	private final Gson gson = new JsonUtilImpl().getGson();
+
+	/**
+	 * Total number of changes sent
+	 */
+	private final AtomicLong sent = new AtomicLong();
+
+	/**
+	 * Total number of messages sent
+	 */
+	private final AtomicLong messages = new AtomicLong();
+
+	/**
+	 * Total number of changes replaced by a later change to the same entity before being sent
+	 */
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * Total number of changes received from other nodes and applied
+	 */
+	private final AtomicLong received = new AtomicLong();
+
+	/**
+	 * Total number of messages received which could not be read
+	 */
+	private final AtomicLong rejected = new AtomicLong();
+
+	/**
+	 * @param backend
+	 *            Backend the changes are applied to
+	 * @param transport
+	 *            Carries the changes to and from the other nodes
+	 */
+	private StravaCacheCluster(final StravaCacheBackend backend, final StravaCacheTransport transport) {
+		this.backend = backend;
+		this.transport = transport;
+	}
+
+	/**
+	 * <p>
+	 * Queues a change to be sent
+	 * </p>
+	 *
+	 * @param change
+	 *            The change
+	 */
+	private synchronized void enqueue(final Change change) {
+		final List<Object> id = Arrays.asList(Boolean.valueOf(change.type == INVALIDATE_PARENT), change.class1, change.key);
+		if (this.pending.remove(id) != null) {
+			this.coalesced.incrementAndGet();
+		}
+		this.pending.put(id, change);
+		if (this.pending.size() >= this.batchSize) {
+			if (this.scheduled != null) {
+				this.scheduled.cancel(false);
+			}
+			this.scheduled = flusher.schedule(this::flush, 0, TimeUnit.MILLISECONDS);
+		} else if (this.scheduled == null) {
+			this.scheduled = flusher.schedule(this::flush, this.batchMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Sends the changes waiting to be sent, in as few messages as possible
+	 * </p>
+	 */
+	public void flush() {
+		final List<Change> changes;
+		synchronized (this) {
+			this.scheduled = null;
+			if (this.pending.isEmpty()) {
+				return;
+			}
+			changes = new ArrayList<Change>(this.pending.values());
+			this.pending.clear();
+		}
+		try {
+			final ByteArrayOutputStream header = new ByteArrayOutputStream();
+			final DataOutputStream headerOut = new DataOutputStream(header);
+			headerOut.writeByte(VERSION);
+			headerOut.writeLong(this.node.getMostSignificantBits());
+			headerOut.writeLong(this.node.getLeastSignificantBits());
+
+			ByteArrayOutputStream message = new ByteArrayOutputStream();
+			message.write(header.toByteArray());
+			for (final Change change : changes) {
+				byte[] encoded = encode(change);
+				if ((header.size() + encoded.length) > MAX_MESSAGE) {
+					// Too big to replicate, so just invalidate
+					encoded = encode(new Change(INVALIDATE, change.class1, change.key, null));
+				}
+				if ((message.size() + encoded.length) > MAX_MESSAGE) {
+					send(message.toByteArray());
+					message = new ByteArrayOutputStream();
+					message.write(header.toByteArray());
+				}
+				message.write(encoded);
+				this.sent.incrementAndGet();
+			}
+			send(message.toByteArray());
+		} catch (final IOException | RuntimeException e) {
+			log.error("Cannot send cache changes to the cluster", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @param change
+	 *            A change
+	 * @return The change, as written in a message
+	 * @throws IOException
+	 *             If it cannot be written
+	 */
+	private static byte[] encode(final Change change) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(change.type);
+		out.writeUTF(change.class1.getName());
+		writeKey(out, change.key);
+		if (change.type == REPLICATE) {
+			out.writeInt(change.value.length);
+			out.write(change.value);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @return Total number of changes replaced by a later change to the same entity before being sent
+	 */
+	public long getCoalescedCount() {
+		return this.coalesced.get();
+	}
+
+	/**
+	 * @return Total number of messages sent
+	 */
+	public long getMessageCount() {
+		return this.messages.get();
+	}
+
+	/**
+	 * @return Total number of changes received from other nodes and applied
+	 */
+	public long getReceivedCount() {
+		return this.received.get();
+	}
+
+	/**
+	 * @return Total number of messages received which could not be read
+	 */
+	public long getRejectedCount() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * @return Total number of changes sent
+	 */
+	public long getSentCount() {
+		return this.sent.get();
+	}
+
+	/**
+	 * <p>
+	 * Tells the other nodes that an entity has changed or gone
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the entity
+	 * @param id
+	 *            Id of the entity
+	 */
+	void invalidated(final Class<?> class1, final Object id) {
+		enqueue(new Change(INVALIDATE, class1, id, null));
+	}
+
+	/**
+	 * <p>
+	 * Tells the other nodes that all the entities with a parent have gone
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the entities
+	 * @param parentId
+	 *            Id of the parent
+	 */
+	void invalidatedByParent(final Class<?> class1, final Object parentId) {
+		enqueue(new Change(INVALIDATE_PARENT, class1, parentId, null));
+	}
+
+	/**
+	 * <p>
+	 * Sends any changes still waiting, and leaves the cluster
+	 * </p>
+	 */
+	public void leave() {
+		flush();
+		clusters.remove(this.backend, this);
+		this.transport.close();
+	}
+
+	/**
+	 * <p>
+	 * Applies the changes in a message from another node
+	 * </p>
+	 *
+	 * @param message
+	 *            The message
+	 */
+	private void receive(final byte[] message) {
+		try {
+			final DataInputStream in = new DataInputStream(new ByteArrayInputStream(message));
+			if (in.readByte() != VERSION) {
+				throw new IOException("Unknown message version"); //$NON-NLS-1$
+			}
+			final UUID sender = new UUID(in.readLong(), in.readLong());
+			if (sender.equals(this.node)) {
+				// Our own message
+				return;
+			}
+			while (in.available() > 0) {
+				final byte type = in.readByte();
+				final String className = in.readUTF();
+				final Object key = readKey(in);
+				byte[] value = null;
+				if (type == REPLICATE) {
+					// The length comes from the network, so is checked against what is actually there before anything is allocated
+					final int length = in.readInt();
+					if ((length < 0) || (length > in.available())) {
+						throw new IOException("Bad entity length " + length); //$NON-NLS-1$
+					}
+					value = new byte[length];
+					in.readFully(value);
+				} else if ((type != INVALIDATE) && (type != INVALIDATE_PARENT)) {
+					throw new IOException("Unknown change type " + type); //$NON-NLS-1$
+				}
+				final Class<?> class1 = Class.forName(className, false, StravaCacheCluster.class.getClassLoader());
+				if (!StravaCacheableEntity.class.isAssignableFrom(class1)) {
+					throw new IOException("Not a cacheable class: " + className); //$NON-NLS-1$
+				}
+				if (type == INVALIDATE_PARENT) {
+					StravaCacheImpl.invalidateByParent(this.backend, class1, key);
+				} else if (type == REPLICATE) {
+					// Not invalidated first, so that a summary does not wipe out the detailed copies held for each token
+					StravaCacheImpl.replicate(this.backend, class1, (StravaCacheableEntity<?>) this.gson.fromJson(new String(value, StandardCharsets.UTF_8), class1));
+				} else {
+					StravaCacheImpl.invalidate(this.backend, class1, key);
+				}
+				this.received.incrementAndGet();
+			}
+		} catch (final IOException | ClassNotFoundException | RuntimeException e) {
+			this.rejected.incrementAndGet();
+			log.warn("Cannot apply cache changes from the cluster: " + e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * <p>
+	 * Sends a public entity to the other nodes, if replication is turned on
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the entity
+	 * @param id
+	 *            Id of the entity
+	 * @param value
+	 *            The entity, as it may be shared between tokens
+	 */
+	void replicated(final Class<?> class1, final Object id, final Object value) {
+		if (this.replicate) {
+			enqueue(new Change(REPLICATE, class1, id, this.gson.toJson(value).getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	/**
+	 * @param message
+	 *            A message to send
+	 */
+	private void send(final byte[] message) {
+		this.transport.send(message);
+		this.messages.incrementAndGet();
+	}
+}
@@ -1,18 +1,52 @@
 package javastrava.cache.impl;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-
-import org.apache.commons.jcs.JCS;
-import org.apache.commons.jcs.access.GroupCacheAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javastrava.auth.model.Token;
 import javastrava.cache.StravaCache;
+import javastrava.cache.StravaCacheBackend;
+import javastrava.cache.StravaCacheStats;
 import javastrava.cache.StravaCacheableEntity;
+import javastrava.config.StravaConfig;
 import javastrava.model.reference.StravaResourceState;
+import javastrava.service.exception.NotFoundException;
+import javastrava.service.exception.UnauthorizedException;
 
 /**
+ * <p>
+ * Cache of one class of entity for one access token, stored in a partition of a {@link StravaCacheBackend}
+ * </p>
+ *
+ * <p>
+ * Both summary and detailed representations are cached. {@link #get(Object)} only returns detailed ones, and {@link #getSummary(Object)} returns either; a summary replaces nothing but another
+ * summary, and is itself replaced when the detailed representation arrives.
+ * </p>
+ *
+ * <p>
+ * Public entities (see {@link SharedCachePolicy}) are stored instead in a partition shared by all tokens, so that each is only fetched and held once however many tokens ask for it. If an entity
+ * has fields specific to the token which fetched it, the full entity is also kept in this token's partition, and other tokens see the shared copy without those fields.
+ * </p>
+ *
+ * <p>
+ * Objects which Strava says do not exist, or are not visible to the token, are remembered for a short time in a separate partition, so that repeated requests for them need not go to Strava.
+ * </p>
+ *
+ * <p>
+ * If a refresher has been set with {@link #setRefresher(Function)}, objects are also refreshed ahead of their expiry. Once an object is older than its class's freshness period
+ * (strava.cache.fresh_seconds) it is still returned straight away, but is fetched again from Strava in the background by {@link CacheRefresher}. Whether an object is fresh is recorded by a marker
+ * in another partition which expires at the end of the freshness period.
+ * </p>
+ *
  * @author Dan Shannon
  *
  * @param <T>
@@ -21,21 +55,302 @@ import javastrava.model.reference.StravaResourceState;
  *            Class of object id
  */
 public class StravaCacheImpl<T extends StravaCacheableEntity<U>, U> implements StravaCache<T, U> {
+	/**
+	 * Stored in the negative partition for objects which do not exist
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	/**
+	 * Time (in milliseconds) that objects which do not exist, or are not visible, are remembered
+	 */
+	private static final long NEGATIVE_TIME_TO_LIVE = StravaConfig.CACHE_NEGATIVE_TTL_SECONDS * 1000L;
+
+	/**
+	 * Names of the partitions in use, by backend and then by class of object, so that an object can be invalidated for every token
+	 */
+	private static final ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<Class<?>, Set<String>>> partitions = new ConcurrentHashMap<StravaCacheBackend, ConcurrentHashMap<Class<?>, Set<String>>>();
+
+	/**
+	 * Locks held while checking what is cached and storing an object, chosen by class and id, so that a summary stored through one cache cannot replace a detailed object stored at the same time
+	 * through another cache of the same class
+	 */
+	private static final Object[] storeLocks = new Object[64];
+
+	static {
+		for (int i = 0; i < storeLocks.length; i++) {
+			storeLocks[i] = new Object();
+		}
+	}
+
+	/**
+	 * Total number of requests answered by the negative cache
+	 */
+	private static final AtomicLong negativeHits = new AtomicLong();
+
+	/**
+	 * Total number of objects stored in the negative cache
+	 */
+	private static final AtomicLong negativePuts = new AtomicLong();
+
+	/**
+	 * @return Statistics of every cache (one per class of object per token, plus one per class for the objects shared by all tokens, and one per class for the caches which have been emptied
+	 *         by {@link #removeAll()}), without the weight of their objects
+	 */
+	public static List<StravaCacheStats> getAllStats() {
+		return CacheStatsCounter.all();
+	}
+
+	/**
+	 * @param class1
+	 *            Class of object
+	 * @return Statistics of all the caches of the class of object, totalled for all tokens
+	 */
+	public static StravaCacheStats getStats(final Class<?> class1) {
+		return CacheStatsCounter.total(class1, true);
+	}
+
+	/**
+	 * @return Total number of stale objects refreshed in the background
+	 */
+	public static long getRefreshCount() {
+		return CacheRefresher.instance().getRefreshedCount();
+	}
+
+	/**
+	 * @return Total number of background refreshes which failed, or were dropped because too many were queued; the objects are served stale until they expire
+	 */
+	public static long getRefreshFailureCount() {
+		return CacheRefresher.instance().getFailedCount() + CacheRefresher.instance().getDroppedCount();
+	}
+
+	/**
+	 * @return Total number of requests answered by the negative cache, i.e. for objects recently found not to exist or not to be visible
+	 */
+	public static long getNegativeHitCount() {
+		return negativeHits.get();
+	}
+
+	/**
+	 * @return Total number of objects stored in the negative cache
+	 */
+	public static long getNegativePutCount() {
+		return negativePuts.get();
+	}
+
+	/**
+	 * <p>
+	 * Removes an object from the default backend for every token, including any record that it does not exist or is not visible, and from the other nodes' caches if the cache is clustered. Use this
+	 * when something outside this library reports that the object has changed, for example a webhook event saying that an activity has been created, updated or deleted.
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the object
+	 * @param id
+	 *            Id of the object
+	 */
+	public static void invalidate(final Class<?> class1, final Object id) {
+		final StravaCacheBackend backend = StravaCacheBackends.getDefault();
+		invalidate(backend, class1, id);
+		final StravaCacheCluster cluster = StravaCacheCluster.forBackend(backend);
+		if ((cluster != null) && (id != null)) {
+			cluster.invalidated(class1, id);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes an object from a backend for every token, including any record that it does not exist or is not visible
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param class1
+	 *            Class of the object
+	 * @param id
+	 *            Id of the object
+	 */
+	public static void invalidate(final StravaCacheBackend backend, final Class<?> class1, final Object id) {
+		if (id == null) {
+			return;
+		}
+		final ConcurrentHashMap<Class<?>, Set<String>> classes = partitions.get(backend);
+		final Set<String> names = (classes == null ? null : classes.get(class1));
+		if (names == null) {
+			return;
+		}
+		for (final String name : names) {
+			backend.remove(name, id);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes all the objects with a parent from the default backend for every token, and from the other nodes' caches if the cache is clustered. Use this when the parent has gone, for example
+	 * when an activity has been deleted.
+	 * </p>
+	 *
+	 * @param class1
+	 *            Class of the objects, which must be cached with an index by parent
+	 * @param parentId
+	 *            Id of the parent
+	 */
+	public static void invalidateByParent(final Class<?> class1, final Object parentId) {
+		final StravaCacheBackend backend = StravaCacheBackends.getDefault();
+		invalidateByParent(backend, class1, parentId);
+		final StravaCacheCluster cluster = StravaCacheCluster.forBackend(backend);
+		if ((cluster != null) && (parentId != null)) {
+			cluster.invalidatedByParent(class1, parentId);
+		}
+	}
+
+	/**
+	 * <p>
+	 * Removes all the objects with a parent from a backend, for every token
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param class1
+	 *            Class of the objects
+	 * @param parentId
+	 *            Id of the parent
+	 */
+	static void invalidateByParent(final StravaCacheBackend backend, final Class<?> class1, final Object parentId) {
+		final ConcurrentHashMap<Class<?>, Set<String>> classes = partitions.get(backend);
+		final Set<String> names = (classes == null ? null : classes.get(class1));
+		if ((names == null) || (parentId == null)) {
+			return;
+		}
+		for (final String name : names) {
+			final ParentIndex index = ParentIndex.find(backend, name);
+			if (index != null) {
+				for (final Object key : index.removeParent(parentId)) {
+					backend.remove(name, key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Stores an object replicated from another node of a cluster in the partition shared by all tokens, if objects of its class are shared
+	 * </p>
+	 *
+	 * @param backend
+	 *            The backend
+	 * @param class1
+	 *            Class of the object
+	 * @param object
+	 *            The object, with any fields specific to a token already cleared
+	 */
+	static void replicate(final StravaCacheBackend backend, final Class<?> class1, final StravaCacheableEntity<?> object) {
+		if (!StravaConfig.CACHE_SHARED || !SharedCachePolicy.isShared(class1) || (object == null) || (object.getId() == null)) {
+			return;
+		}
+		final String partition = sharedGroupName(class1);
+		final long timeToLive = seconds("strava.cache.ttl_seconds", class1, StravaConfig.CACHE_TTL_SECONDS) * 1000L; //$NON-NLS-1$
+		final long freshFor = seconds("strava.cache.fresh_seconds", class1, StravaConfig.CACHE_FRESH_SECONDS) * 1000L; //$NON-NLS-1$
+		synchronized (storeLock(class1, object.getId())) {
+			// A summary never replaces a detailed object
+			if (object.getResourceState() == StravaResourceState.SUMMARY) {
+				final Object cached = backend.get(partition, object.getId());
+				if ((cached instanceof StravaCacheableEntity) && (((StravaCacheableEntity<?>) cached).getResourceState() == StravaResourceState.DETAILED)) {
+					return;
+				}
+			}
+			backend.put(partition, object.getId(), object, timeToLive);
+			if ((freshFor > 0) && (freshFor < timeToLive)) {
+				backend.put(freshGroupName(partition), object.getId(), Boolean.TRUE, freshFor);
+			}
+		}
+	}
+
+	/**
+	 * @param class1
+	 *            Class of object
+	 * @param id
+	 *            Id of the object
+	 * @return Lock to hold while checking what is cached and storing the object
+	 */
+	private static Object storeLock(final Class<?> class1, final Object id) {
+		return storeLocks[((31 * class1.hashCode()) + id.hashCode()) & (storeLocks.length - 1)];
+	}
+
+	/**
+	 * @param class1
+	 *            Class of object
+	 * @return Name of the partition shared by all tokens in which public objects of the class are stored
+	 */
+	private static String sharedGroupName(final Class<?> class1) {
+		return class1.getName() + "::shared"; //$NON-NLS-1$
+	}
+
 	/**
 	 * Strava access token associated with this cache instance
 	 */
 	private final Token token;
 
 	/**
-	 * The cache implementation (which is global, so we need to be careful about how we store stuff in it or we'll revealn stuff to the wrong users)
+	 * The cache backend (which is global, so we need to be careful about how we store stuff in it or we'll reveal stuff to the wrong users)
 	 */
-	private final GroupCacheAccess<StravaCacheKey<U, T>, T> cache;
+	private final StravaCacheBackend backend;
 
 	/**
 	 * Class of object being stored in the cache
 	 */
 	private final Class<T> class1;
 
+	/**
+	 * Name of the partition of the backend in which this cache's objects are stored, based on the token and the class being stored
+	 */
+	private final String groupName;
+
+	/**
+	 * Name of the partition shared by all tokens in which public objects are stored, or <code>null</code> if objects of this class are never shared
+	 */
+	private final String sharedGroupName;
+
+	/**
+	 * Name of the partition in which objects which do not exist, or are not visible to the token, are remembered
+	 */
+	private final String negativeGroupName;
+
+	/**
+	 * Time (in milliseconds) that objects live in the cache
+	 */
+	private final long timeToLive;
+
+	/**
+	 * Time (in milliseconds) after which objects are refreshed in the background when they are next asked for
+	 */
+	private final long freshFor;
+
+	/**
+	 * Fetches an object from Strava again when it is stale, or <code>null</code> if stale objects are not refreshed
+	 */
+	private volatile Function<U, T> refresher;
+
+	/**
+	 * Gets the id of an object's parent, or <code>null</code> if objects are not indexed by parent. The index itself is looked up by partition each time it is used, since
+	 * {@link #removeAll()} drops it.
+	 */
+	private final Function<Object, Object> parent;
+
+	/**
+	 * Identifies this token's partition in statistics
+	 */
+	private final String statsName;
+
+	/**
+	 * Counts what happens to this token's partition; replaced if it is dropped by {@link #removeAll()} and the cache is used again
+	 */
+	private volatile CacheStatsCounter stats;
+
+	/**
+	 * Counts what happens to the shared partition, or <code>null</code> if objects of this class are never shared
+	 */
+	private final CacheStatsCounter sharedStats;
+
 	/**
 	 * @param class1
 	 *            The class of objects to be stored
@@ -43,19 +358,221 @@ public class StravaCacheImpl<T extends StravaCacheableEntity<U>, U> implements S
 	 *            The security token will be used to generate the key for the stored objects
 	 */
 	public StravaCacheImpl(final Class<T> class1, final Token token) {
+		this(class1, token, StravaCacheBackends.getDefault(), null);
+	}
+
+	/**
+	 * @param class1
+	 *            The class of objects to be stored
+	 * @param token
+	 *            The security token will be used to generate the key for the stored objects
+	 * @param parent
+	 *            Gets the id of an object's parent (e.g. the activity of a lap), so that objects can be found by {@link #getByParent(Object)}
+	 */
+	public StravaCacheImpl(final Class<T> class1, final Token token, final Function<T, ?> parent) {
+		this(class1, token, StravaCacheBackends.getDefault(), parent);
+	}
+
+	/**
+	 * @param class1
+	 *            The class of objects to be stored
+	 * @param token
+	 *            The security token will be used to generate the key for the stored objects
+	 * @param backend
+	 *            The backend in which to store the objects
+	 * @param parent
+	 *            Gets the id of an object's parent, so that objects can be found by {@link #getByParent(Object)}; <code>null</code> if objects are not to be indexed by parent
+	 */
+	public StravaCacheImpl(final Class<T> class1, final Token token, final StravaCacheBackend backend, final Function<T, ?> parent) {
 		this.token = token;
-		this.cache = JCS.getGroupCacheInstance("default"); //$NON-NLS-1$
+		this.backend = backend;
 		this.class1 = class1;
-		removeAll();
+		this.groupName = class1.getName() + "::" + token.getToken(); //$NON-NLS-1$
+		// Objects indexed by parent are never shared, so that the index only has to cover one partition
+		this.sharedGroupName = (StravaConfig.CACHE_SHARED && (parent == null) && SharedCachePolicy.isShared(class1) ? sharedGroupName(class1) : null);
+		this.negativeGroupName = this.groupName + "::negative"; //$NON-NLS-1$
+		this.timeToLive = seconds("strava.cache.ttl_seconds", class1, StravaConfig.CACHE_TTL_SECONDS) * 1000L; //$NON-NLS-1$
+		this.freshFor = seconds("strava.cache.fresh_seconds", class1, StravaConfig.CACHE_FRESH_SECONDS) * 1000L; //$NON-NLS-1$
+		this.parent = (parent == null ? null : value -> parent.apply(class1.cast(value)));
+		// Only the end of the token is used to identify the cache, so that statistics do not reveal it
+		final String tokenString = token.getToken();
+		final String tokenEnd = (tokenString == null ? "" : tokenString.substring(Math.max(0, tokenString.length() - 4))); //$NON-NLS-1$
+		this.statsName = class1.getSimpleName() + " [..." + tokenEnd + "]"; //$NON-NLS-1$ //$NON-NLS-2$
+		this.sharedStats = (this.sharedGroupName == null ? null : CacheStatsCounter.forPartition(backend, this.sharedGroupName, class1, class1.getSimpleName() + " [shared]")); //$NON-NLS-1$
+		if (this.sharedGroupName != null) {
+			partitionNames(backend, class1).add(this.sharedGroupName);
+		}
+		this.stats = register();
+
+		// Join the configured cluster, if there is one, so that changes from other nodes are applied from now on
+		StravaCacheCluster.forBackend(backend);
+	}
+
+	/**
+	 * @param backend
+	 *            The backend
+	 * @param class1
+	 *            Class of object
+	 * @return Names of the partitions in use for the class of object in the backend
+	 */
+	private static Set<String> partitionNames(final StravaCacheBackend backend, final Class<?> class1) {
+		return partitions.computeIfAbsent(backend, key -> new ConcurrentHashMap<Class<?>, Set<String>>()).computeIfAbsent(class1, key -> ConcurrentHashMap.newKeySet());
+	}
+
+	/**
+	 * <p>
+	 * Registers this token's partitions, so that objects in them can be invalidated for every token and what happens to them is counted
+	 * </p>
+	 *
+	 * @return The counter for this token's partition
+	 */
+	private CacheStatsCounter register() {
+		final Set<String> names = partitionNames(this.backend, this.class1);
+		names.add(this.groupName);
+		names.add(this.negativeGroupName);
+		final CacheStatsCounter counter = CacheStatsCounter.forPartition(this.backend, this.groupName, this.class1, this.statsName);
+		this.stats = counter;
+		return counter;
+	}
+
+	/**
+	 * @return The counter for this token's partition, having registered the partition again if it was dropped by {@link #removeAll()}
+	 */
+	private CacheStatsCounter stats() {
+		final CacheStatsCounter counter = this.stats;
+		return (counter.isDropped() ? register() : counter);
+	}
+
+	/**
+	 * @param property
+	 *            Name of a setting
+	 * @param class1
+	 *            Class of object being stored
+	 * @param defaultSeconds
+	 *            Value of the setting for all classes
+	 * @return Number of seconds; &lt;property&gt;.&lt;class name&gt; if it is set, otherwise the default
+	 */
+	private static int seconds(final String property, final Class<?> class1, final int defaultSeconds) {
+		final String key = property + "." + class1.getSimpleName(); //$NON-NLS-1$
+		return (StravaConfig.containsKey(key) ? StravaConfig.integer(key).intValue() : defaultSeconds);
+	}
+
+	@Override
+	public long exportTo(final OutputStream output) throws IOException {
+		return CacheSnapshot.write(this.class1, list(), output);
 	}
 
+	/**
+	 * <p>
+	 * Returns the object only if the detailed representation is cached
+	 * </p>
+	 *
+	 * @see javastrava.cache.StravaCache#get(java.lang.Object)
+	 */
 	@Override
 	public T get(final U id) {
+		final T detailed = lookup(id, true);
+		count(id, detailed);
+		return detailed;
+	}
+
+	/**
+	 * @param id
+	 *            Id of the object asked for
+	 * @param object
+	 *            The object returned, or <code>null</code> for a miss
+	 */
+	private void count(final U id, final T object) {
+		if (id == null) {
+			return;
+		}
+		if (object == null) {
+			stats().miss();
+		} else {
+			stats().hit();
+		}
+	}
+
+	@Override
+	public T getSummary(final U id) {
+		final T object = lookup(id, false);
+		count(id, object);
+		return object;
+	}
+
+	@Override
+	public StravaCacheStats getStats() {
+		final StravaCacheStats tokenStats = stats().snapshot(true);
+		return (this.sharedStats == null ? tokenStats : tokenStats.plus(tokenStats.getName(), this.sharedStats.snapshot(true)));
+	}
+
+	/**
+	 * @param id
+	 *            Id of an object
+	 * @param detailedOnly
+	 *            <code>true</code> if only the detailed representation will do
+	 * @return The object, refreshing it in the background if it is stale; <code>null</code> if it is not cached, or is only cached as a summary and <code>detailedOnly</code> is set
+	 */
+	private T lookup(final U id, final boolean detailedOnly) {
 		if (id == null) {
 			return null;
 		}
-		final StravaCacheKey<U, T> key = new StravaCacheKey<U, T>(id, this.token, this.class1);
-		return this.cache.getFromGroup(key, groupName());
+		String partition = this.groupName;
+		Object value = this.backend.get(partition, id);
+		if ((value == null) && (this.sharedGroupName != null)) {
+			partition = this.sharedGroupName;
+			value = this.backend.get(partition, id);
+		}
+		final T object = this.class1.cast(value);
+		// A summary which is not going to be returned is not worth refreshing
+		if ((object == null) || (detailedOnly && (object.getResourceState() != StravaResourceState.DETAILED))) {
+			return null;
+		}
+		if ((this.refresher != null) && (this.backend.get(freshGroupName(partition), id) == null)) {
+			refresh(partition, id);
+		}
+		return object;
+	}
+
+	/**
+	 * @param partition
+	 *            Name of a partition of objects
+	 * @return Name of the partition holding the markers for objects which are fresh
+	 */
+	private static String freshGroupName(final String partition) {
+		return partition + "::fresh"; //$NON-NLS-1$
+	}
+
+	@Override
+	public List<T> getByParent(final Object parentId) {
+		final ParentIndex index = findIndexByParent();
+		if ((index == null) || !index.isComplete(parentId)) {
+			return null;
+		}
+		final List<T> list = new ArrayList<T>();
+		for (final Object key : index.children(parentId)) {
+			final Object value = this.backend.get(this.groupName, key);
+			// The entry may have been removed, or moved to another parent, since it was indexed; either way the list is no longer complete
+			if ((value == null) || !parentId.equals(index.parentOf(value))) {
+				index.remove(parentId, key);
+				return null;
+			}
+			list.add(this.class1.cast(value));
+		}
+		return list;
+	}
+
+	@Override
+	public T getPrivate(final U id) {
+		if ((id == null) || (NEGATIVE_TIME_TO_LIVE <= 0)) {
+			return null;
+		}
+		final Object value = this.backend.get(this.negativeGroupName, id);
+		if (this.class1.isInstance(value)) {
+			negativeHits.incrementAndGet();
+			return this.class1.cast(value);
+		}
+		return null;
 	}
 
 	/**
@@ -68,20 +585,75 @@ public class StravaCacheImpl<T extends StravaCacheableEntity<U>, U> implements S
 	}
 
 	/**
-	 * Generate the group name to store the data in cache
-	 *
-	 * @return The group name, based on the token and the class being stored
+	 * @return The index of objects by parent id, or <code>null</code> if nothing has been indexed since the cache was created or last cleared
+	 * @throws UnsupportedOperationException
+	 *             If objects are not indexed by parent
 	 */
-	private String groupName() {
-		return this.class1.getName() + "::" + this.token.getToken(); //$NON-NLS-1$
+	private ParentIndex findIndexByParent() {
+		if (this.parent == null) {
+			throw new UnsupportedOperationException(this.class1.getSimpleName() + " cache is not indexed by parent"); //$NON-NLS-1$
+		}
+		return ParentIndex.find(this.backend, this.groupName);
+	}
+
+	/**
+	 * @return The index of objects by parent id, created if need be
+	 * @throws UnsupportedOperationException
+	 *             If objects are not indexed by parent
+	 */
+	private ParentIndex indexByParent() {
+		final ParentIndex index = findIndexByParent();
+		return (index == null ? ParentIndex.forPartition(this.backend, this.groupName, this.parent) : index);
+	}
+
+	@Override
+	public long importFrom(final InputStream input) throws IOException {
+		return CacheSnapshot.read(this.class1, input, this::put);
+	}
+
+	@Override
+	public T load(final Supplier<T> loader) {
+		final long start = System.nanoTime();
+		boolean success = false;
+		try {
+			final T object = loader.get();
+			success = true;
+			return object;
+		} finally {
+			stats().load(System.nanoTime() - start, success);
+		}
+	}
+
+	@Override
+	public boolean isNotFound(final U id) {
+		if ((id == null) || (NEGATIVE_TIME_TO_LIVE <= 0)) {
+			return false;
+		}
+		if (this.backend.get(this.negativeGroupName, id) == NOT_FOUND) {
+			negativeHits.incrementAndGet();
+			return true;
+		}
+		return false;
 	}
 
 	@Override
 	public List<T> list() {
-		final Set<StravaCacheKey<U, T>> keys = this.cache.getGroupKeys(groupName());
-		final List<T> list = new ArrayList<T>();
-		for (final StravaCacheKey<U, T> key : keys) {
-			list.add(this.cache.getFromGroup(key, groupName()));
+		final List<Object> values = this.backend.values(this.groupName);
+		final List<T> list = new ArrayList<T>(values.size());
+		for (final Object value : values) {
+			list.add(this.class1.cast(value));
+		}
+		if (this.sharedGroupName != null) {
+			final Set<U> ids = new HashSet<U>();
+			for (final T object : list) {
+				ids.add(object.getId());
+			}
+			for (final Object value : this.backend.values(this.sharedGroupName)) {
+				final T object = this.class1.cast(value);
+				if (!ids.contains(object.getId())) {
+					list.add(object);
+				}
+			}
 		}
 		return list;
 	}
@@ -93,10 +665,51 @@ public class StravaCacheImpl<T extends StravaCacheableEntity<U>, U> implements S
 			return;
 		}
 
-		// Only cache detailed objects
-		if (object.getResourceState() == StravaResourceState.DETAILED) {
-			final StravaCacheKey<U, T> key = new StravaCacheKey<U, T>(object.getId(), this.token, this.class1);
-			this.cache.putInGroup(key, groupName(), object);
+		// Only cache summary and detailed objects
+		final StravaResourceState state = object.getResourceState();
+		if (((state != StravaResourceState.DETAILED) && (state != StravaResourceState.SUMMARY)) || (object.getId() == null)) {
+			return;
+		}
+		// Registers the partitions again if they were dropped by removeAll, so that the object can be invalidated
+		stats();
+		final T shared = (this.sharedGroupName == null ? null : SharedCachePolicy.shareable(object, this.token));
+		boolean changed = false;
+		synchronized (storeLock(this.class1, object.getId())) {
+			// Never replace a detailed object with a summary; checked while holding the lock, so that a detailed object being stored at the same time is not replaced either
+			if (state == StravaResourceState.SUMMARY) {
+				final T cached = peek(object.getId());
+				if ((cached != null) && (cached.getResourceState() == StravaResourceState.DETAILED)) {
+					return;
+				}
+			}
+			// The object exists and is visible after all
+			if (NEGATIVE_TIME_TO_LIVE > 0) {
+				this.backend.remove(this.negativeGroupName, object.getId());
+			}
+			if (this.sharedGroupName != null) {
+				if (shared == null) {
+					// Not (or no longer) public
+					this.backend.remove(this.sharedGroupName, object.getId());
+				} else {
+					changed = !shared.equals(this.backend.get(this.sharedGroupName, object.getId()));
+					store(this.sharedGroupName, shared);
+				}
+			}
+			if (shared == object) {
+				// Nothing specific to this token, so the shared copy will do
+				this.backend.remove(this.groupName, object.getId());
+			} else {
+				store(this.groupName, object);
+				if (this.parent != null) {
+					final ParentIndex index = indexByParent();
+					index.add(index.parentOf(object), object.getId());
+				}
+			}
+		}
+		// Only worth sending if the other nodes might not have it already; an unchanged summary would tell them nothing
+		final StravaCacheCluster cluster = ((shared != null) && (changed || (state == StravaResourceState.DETAILED)) ? StravaCacheCluster.forBackend(this.backend) : null);
+		if (cluster != null) {
+			cluster.replicated(this.class1, object.getId(), shared);
 		}
 	}
 
@@ -110,20 +723,199 @@ public class StravaCacheImpl<T extends StravaCacheableEntity<U>, U> implements S
 		}
 	}
 
+	@Override
+	public void putAllByParent(final Object parentId, final List<T> list) {
+		final ParentIndex index = indexByParent();
+		if ((parentId == null) || (list == null)) {
+			return;
+		}
+		putAll(list);
+		final List<Object> keys = new ArrayList<Object>(list.size());
+		for (final T object : list) {
+			if (!parentId.equals(index.parentOf(object))) {
+				return;
+			}
+			keys.add(object.getId());
+		}
+		index.markComplete(parentId, keys, this.timeToLive);
+	}
+
+	/**
+	 * @param id
+	 *            Id of an object
+	 * @return The object in whichever form it is cached, without refreshing it if it is stale
+	 */
+	private T peek(final U id) {
+		final Object value = this.backend.get(this.groupName, id);
+		if ((value == null) && (this.sharedGroupName != null)) {
+			return this.class1.cast(this.backend.get(this.sharedGroupName, id));
+		}
+		return this.class1.cast(value);
+	}
+
+	/**
+	 * <p>
+	 * Fetches an object again in the background. If it has gone, or is no longer visible, it is removed; if the fetch fails, the object is left as it is and not tried again until the end of
+	 * another freshness period.
+	 * </p>
+	 *
+	 * @param partition
+	 *            Partition in which the object was found
+	 * @param id
+	 *            Id of the object
+	 */
+	private void refresh(final String partition, final U id) {
+		final Function<U, T> loader = this.refresher;
+		final Runnable markFresh = () -> this.backend.put(freshGroupName(partition), id, Boolean.TRUE, this.freshFor);
+		CacheRefresher.instance().refresh(partition, id, () -> {
+			final T object;
+			try {
+				object = load(() -> loader.apply(id));
+			} catch (final NotFoundException e) {
+				remove(id);
+				putNotFound(id);
+				return;
+			} catch (final UnauthorizedException e) {
+				// Only this token has lost sight of the object, so any public copy is left for the others
+				removeFromPartition(id);
+				return;
+			}
+			if (object == null) {
+				remove(id);
+				putNotFound(id);
+			} else if (object.getResourceState() == StravaResourceState.PRIVATE) {
+				remove(id);
+				putPrivate(object);
+			} else if ((object.getResourceState() == StravaResourceState.DETAILED) || (object.getResourceState() == StravaResourceState.SUMMARY)) {
+				put(object);
+			} else {
+				// Not a full representation (e.g. still being updated), so keep the one we have for now
+				markFresh.run();
+			}
+		}, markFresh);
+	}
+
+	@Override
+	public void putNotFound(final U id) {
+		if ((id == null) || (NEGATIVE_TIME_TO_LIVE <= 0)) {
+			return;
+		}
+		stats();
+		this.backend.put(this.negativeGroupName, id, NOT_FOUND, NEGATIVE_TIME_TO_LIVE);
+		negativePuts.incrementAndGet();
+	}
+
+	@Override
+	public void putPrivate(final T placeholder) {
+		if ((placeholder == null) || (placeholder.getId() == null) || (NEGATIVE_TIME_TO_LIVE <= 0)) {
+			return;
+		}
+		stats();
+		this.backend.put(this.negativeGroupName, placeholder.getId(), placeholder, NEGATIVE_TIME_TO_LIVE);
+		negativePuts.incrementAndGet();
+	}
+
 	@Override
 	public void remove(final U id) {
-		final StravaCacheKey<U, T> key = new StravaCacheKey<U, T>(id, this.token, this.class1);
-		this.cache.removeFromGroup(key, groupName());
+		if (id == null) {
+			return;
+		}
+		stats().removal();
+		removeFromPartition(id);
+		if (this.sharedGroupName != null) {
+			// The object has changed, or gone, for everyone
+			this.backend.remove(this.sharedGroupName, id);
+		}
+		final StravaCacheCluster cluster = StravaCacheCluster.forBackend(this.backend);
+		if (cluster != null) {
+			cluster.invalidated(this.class1, id);
+		}
+	}
 
+	/**
+	 * <p>
+	 * Removes an object from this token's partition, along with any marker saying it was not found, but not from the partition shared with other tokens
+	 * </p>
+	 *
+	 * @param id
+	 *            Id of the object
+	 */
+	private void removeFromPartition(final U id) {
+		final ParentIndex index = (this.parent == null ? null : findIndexByParent());
+		if (index != null) {
+			index.remove(index.parentOf(this.backend.get(this.groupName, id)), id);
+		}
+		this.backend.remove(this.groupName, id);
+		this.backend.remove(this.negativeGroupName, id);
 	}
 
+	/**
+	 * <p>
+	 * Removes all the objects in this token's partition. Public objects shared with other tokens are left alone; they are removed individually by {@link #remove(Object)}.
+	 * </p>
+	 *
+	 * @see javastrava.cache.StravaCache#removeAll()
+	 */
 	@Override
 	public void removeAll() {
-		this.cache.invalidateGroup(groupName());
+		// The statistics and names of the partitions are dropped too, so that they do not build up for tokens which are no longer in use; they are registered again if the cache is used again.
+		// Dropped first, so that anything stored meanwhile is either removed below or registered again.
+		CacheStatsCounter.drop(this.backend, this.groupName, this.class1);
+		final Set<String> names = partitionNames(this.backend, this.class1);
+		names.remove(this.groupName);
+		names.remove(this.negativeGroupName);
+		this.backend.removeAll(this.groupName);
+		this.backend.removeAll(freshGroupName(this.groupName));
+		this.backend.removeAll(this.negativeGroupName);
+		final ParentIndex index = (this.parent == null ? null : findIndexByParent());
+		if (index != null) {
+			// Dropped as well as cleared, so that indexes do not build up for tokens which are no longer in use
+			index.clear();
+			ParentIndex.drop(this.backend, this.groupName);
+		}
+	}
+
+	@Override
+	public void setRefresher(final Function<U, T> refresher) {
+		this.refresher = ((this.freshFor > 0) && (this.freshFor < this.timeToLive) ? refresher : null);
+	}
+
+	/**
+	 * <p>
+	 * Stores an object, and marks it as fresh if objects are refreshed in the background
+	 * </p>
+	 *
+	 * @param partition
+	 *            Partition to store the object in
+	 * @param object
+	 *            The object
+	 */
+	private void store(final String partition, final T object) {
+		this.backend.put(partition, object.getId(), object, this.timeToLive);
+		if (this.refresher != null) {
+			this.backend.put(freshGroupName(partition), object.getId(), Boolean.TRUE, this.freshFor);
+		}
+	}
+
+	@Override
+	public void removeByParent(final Object parentId) {
+		final ParentIndex index = findIndexByParent();
+		if (index != null) {
+			for (final Object key : index.removeParent(parentId)) {
+				this.backend.remove(this.groupName, key);
+			}
+		}
+		final StravaCacheCluster cluster = StravaCacheCluster.forBackend(this.backend);
+		if (cluster != null) {
+			cluster.invalidatedByParent(this.class1, parentId);
+		}
 	}
 
 	@Override
 	public int size() {
-		return this.cache.getGroupKeys(groupName()).size();
+		if (this.sharedGroupName != null) {
+			return list().size();
+		}
+		return this.backend.size(this.groupName);
 	}
 }
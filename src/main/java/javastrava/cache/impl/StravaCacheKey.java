@@ -16,15 +16,23 @@ public class StravaCacheKey<T, U> {
 	/**
 	 * The object's unique identifier
 	 */
-	private T id;
+	private final T id;
 	/**
 	 * The Strava access token in use (caching is per-token, as otherwise permission issues and cross-account issues would arise)
 	 */
-	private Token token;
+	private final Token token;
+	/**
+	 * The access token string; keys are compared on this rather than on the whole {@link Token}, whose hashCode() and equals() walk the athlete, scopes and services
+	 */
+	private final String accessToken;
 	/**
 	 * Class of the object being stored in cache (otherwise, different classes of object with the same identifier would be busy overwriting each other all day)
 	 */
-	private Class<U> class1;
+	private final Class<U> class1;
+	/**
+	 * Hash code, calculated once as the key is immutable
+	 */
+	private final int hashCode;
 	/**
 	 * @param id The objects unique identifier
 	 * @param token Strava access token in use
@@ -34,7 +42,14 @@ public class StravaCacheKey<T, U> {
 		super();
 		this.id = id;
 		this.token = token;
+		this.accessToken = (token == null ? null : token.getToken());
 		this.class1 = class1;
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + ((this.class1 == null) ? 0 : this.class1.getName().hashCode());
+		result = (prime * result) + ((this.id == null) ? 0 : this.id.hashCode());
+		result = (prime * result) + ((this.accessToken == null) ? 0 : this.accessToken.hashCode());
+		this.hashCode = result;
 	}
 
 
@@ -55,11 +70,10 @@ public class StravaCacheKey<T, U> {
 		@SuppressWarnings("unchecked")
 		final
 		StravaCacheKey<T, U> other = (StravaCacheKey<T, U>) obj;
-		if (this.class1 == null) {
-			if (other.class1 != null) {
-				return false;
-			}
-		} else if (!this.class1.equals(other.class1)) {
+		if (this.hashCode != other.hashCode) {
+			return false;
+		}
+		if (this.class1 != other.class1) {
 			return false;
 		}
 		if (this.id == null) {
@@ -69,11 +83,11 @@ public class StravaCacheKey<T, U> {
 		} else if (!this.id.equals(other.id)) {
 			return false;
 		}
-		if (this.token == null) {
-			if (other.token != null) {
+		if (this.accessToken == null) {
+			if (other.accessToken != null) {
 				return false;
 			}
-		} else if (!this.token.equals(other.token)) {
+		} else if (!this.accessToken.equals(other.accessToken)) {
 			return false;
 		}
 		return true;
@@ -101,30 +115,7 @@ public class StravaCacheKey<T, U> {
 	 */
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = (prime * result) + ((this.class1 == null) ? 0 : this.class1.getName().hashCode());
-		result = (prime * result) + ((this.id == null) ? 0 : this.id.hashCode());
-		result = (prime * result) + ((this.token == null) ? 0 : this.token.hashCode());
-		return result;
-	}
-	/**
-	 * @param class1 the class1 to set
-	 */
-	public void setClass1(final Class<U> class1) {
-		this.class1 = class1;
-	}
-	/**
-	 * @param id the id to set
-	 */
-	public void setId(final T id) {
-		this.id = id;
-	}
-	/**
-	 * @param token the token to set
-	 */
-	public void setToken(final Token token) {
-		this.token = token;
+		return this.hashCode;
 	}
 	/**
 	 * @see java.lang.Object#toString()
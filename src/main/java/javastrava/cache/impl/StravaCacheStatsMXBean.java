@@ -0,0 +1,75 @@
+package javastrava.cache.impl;
+
+import java.util.Map;
+
+import javastrava.cache.StravaCacheStats;
+
+/**
+ * <p>
+ * Statistics of the caches of one class of entity, totalled for all tokens, as published through JMX. See {@link StravaCacheStats} for what each attribute means.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public interface StravaCacheStatsMXBean {
+	/**
+	 * @return Average time (in milliseconds) spent on each load from Strava
+	 */
+	public double getAverageLoadMillis();
+
+	/**
+	 * @return Number of entries evicted by the backend, by cause
+	 */
+	public Map<String, Long> getEvictionCounts();
+
+	/**
+	 * @return Number of requests answered from the cache
+	 */
+	public long getHitCount();
+
+	/**
+	 * @return Proportion of requests answered from the cache
+	 */
+	public double getHitRate();
+
+	/**
+	 * @return Number of loads from Strava which threw an exception
+	 */
+	public long getLoadFailureCount();
+
+	/**
+	 * @return Number of loads in each latency bucket; the buckets are bounded above by {@link #getLoadLatencyBucketMillis()}, with a last bucket for anything slower
+	 */
+	public long[] getLoadLatencyHistogram();
+
+	/**
+	 * @return Upper bound (exclusive, in milliseconds) of each bucket of the load latency histogram
+	 */
+	public long[] getLoadLatencyBucketMillis();
+
+	/**
+	 * @return Number of loads from Strava which returned
+	 */
+	public long getLoadSuccessCount();
+
+	/**
+	 * @return Number of requests not answered from the cache
+	 */
+	public long getMissCount();
+
+	/**
+	 * @return Number of entries removed because they changed or were deleted
+	 */
+	public long getRemovalCount();
+
+	/**
+	 * @return Number of entries in the caches
+	 */
+	public long getSize();
+
+	/**
+	 * @return Estimated size of the entries in bytes; worked out from a sample of the entries each time it is read
+	 */
+	public long getWeight();
+}
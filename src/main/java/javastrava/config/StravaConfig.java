@@ -56,11 +56,235 @@ public class StravaConfig {
 	 */
 	public static final int WARN_AT_REQUEST_LIMIT_PERCENT = integer("strava.warn_at_request_limit_percent").intValue(); //$NON-NLS-1$
 
+	/**
+	 * Maximum time (in milliseconds) that a request will be held waiting for rate limit capacity before failing
+	 */
+	public static final long RATE_LIMIT_MAX_WAIT_MILLISECONDS = integer("strava.rate_limit_max_wait_ms").longValue(); //$NON-NLS-1$
+
 	/**
 	 * The number of parallel pages to request simultaneously when running a listAll method
 	 */
 	public static final int PAGING_LIST_ALL_PARALLELISM = integer("strava.paging_list_all_parallelism").intValue(); //$NON-NLS-1$
 
+	/**
+	 * The largest number of pages to request in the background at once, counting the next one to be read, when streaming all the data from a paged endpoint
+	 */
+	public static final int PAGING_STREAM_PREFETCH = integer("strava.paging.stream.prefetch").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of idle connections held in the HTTP connection pool shared by all API instances
+	 */
+	public static final int HTTP_MAX_IDLE_CONNECTIONS = integer("strava.http.max_idle_connections").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Time (in milliseconds) that an idle connection is kept alive in the shared HTTP connection pool
+	 */
+	public static final long HTTP_KEEP_ALIVE_MILLISECONDS = integer("strava.http.keep_alive_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Connection timeout (in milliseconds) for requests to the Strava API
+	 */
+	public static final int HTTP_CONNECT_TIMEOUT_MILLISECONDS = integer("strava.http.connect_timeout_ms").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Read timeout (in milliseconds) for requests to the Strava API
+	 */
+	public static final int HTTP_READ_TIMEOUT_MILLISECONDS = integer("strava.http.read_timeout_ms").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of attempts (including the first) that will be made to send a request which fails with a transient error
+	 */
+	public static final int RETRY_MAX_ATTEMPTS = integer("strava.retry.max_attempts").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Base delay (in milliseconds) for exponential backoff between retries
+	 */
+	public static final long RETRY_BASE_DELAY_MILLISECONDS = integer("strava.retry.base_delay_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum delay (in milliseconds) between retries, unless Strava asks for a longer one with a Retry-After header
+	 */
+	public static final long RETRY_MAX_DELAY_MILLISECONDS = integer("strava.retry.max_delay_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum total time (in milliseconds) that a single request may spend being retried
+	 */
+	public static final long RETRY_BUDGET_MILLISECONDS = integer("strava.retry.budget_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Number of recent calls to each endpoint recorded by its circuit breaker
+	 */
+	public static final int CIRCUIT_WINDOW_SIZE = integer("strava.circuit.window_size").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Minimum number of recorded calls before a circuit breaker can open
+	 */
+	public static final int CIRCUIT_MINIMUM_CALLS = integer("strava.circuit.minimum_calls").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Percentage of recorded calls which must fail for a circuit breaker to open
+	 */
+	public static final int CIRCUIT_FAILURE_RATE_PERCENT = integer("strava.circuit.failure_rate_percent").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Time (in milliseconds) that a circuit breaker stays open before letting probe calls through
+	 */
+	public static final long CIRCUIT_OPEN_MILLISECONDS = integer("strava.circuit.open_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Number of probe calls which must succeed for a half-open circuit breaker to close
+	 */
+	public static final int CIRCUIT_HALF_OPEN_PROBES = integer("strava.circuit.half_open_probes").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of requests to each endpoint in flight at once (0 for no limit)
+	 */
+	public static final int BULKHEAD_MAX_CONCURRENT = integer("strava.bulkhead.max_concurrent").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of responses kept for revalidation with If-None-Match / If-Modified-Since (0 to switch revalidation off)
+	 */
+	public static final int REVALIDATION_MAX_ENTRIES = integer("strava.revalidation.max_entries").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum size (in bytes) of a response body kept for revalidation
+	 */
+	public static final int REVALIDATION_MAX_BODY_BYTES = integer("strava.revalidation.max_body_bytes").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Number of threads in the default executor for asynchronous calls
+	 */
+	public static final int ASYNC_MAX_THREADS = integer("strava.async.max_threads").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of asynchronous calls queued or running at once
+	 */
+	public static final int ASYNC_MAX_IN_FLIGHT = integer("strava.async.max_in_flight").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum time (in milliseconds) that a thread making an asynchronous call will be blocked when the maximum number are already in flight
+	 */
+	public static final long ASYNC_SUBMIT_TIMEOUT_MILLISECONDS = integer("strava.async.submit_timeout_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Entity cache backend: "memory", "jcs", "offheap" or the name of a class implementing javastrava.cache.StravaCacheBackend
+	 */
+	public static final String CACHE_BACKEND = string("strava.cache.backend"); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of entries in the in-memory entity cache, across all tokens and classes
+	 */
+	public static final int CACHE_MAX_ENTRIES = integer("strava.cache.max_entries").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum estimated size (in megabytes) of the in-memory entity cache, across all tokens and classes; 0 for no limit
+	 */
+	public static final long CACHE_MAX_MEGABYTES = integer("strava.cache.max_mb").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum amount of direct memory (in megabytes) used by the off-heap entity cache
+	 */
+	public static final long CACHE_OFFHEAP_MAX_MEGABYTES = integer("strava.cache.offheap.max_mb").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Size (in megabytes) of each block of direct memory used by the off-heap entity cache; the oldest block is reclaimed when the cache is full
+	 */
+	public static final int CACHE_OFFHEAP_SLAB_MEGABYTES = integer("strava.cache.offheap.slab_mb").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Time (in seconds) that an entry lives in the entity cache, unless overridden for its class
+	 */
+	public static final int CACHE_TTL_SECONDS = integer("strava.cache.ttl_seconds").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Is <code>true</code> if public entities are cached once for all tokens, rather than once per token
+	 */
+	public static final boolean CACHE_SHARED = Boolean.parseBoolean(string("strava.cache.shared")); //$NON-NLS-1$
+
+	/**
+	 * Time (in seconds) after which an entry in the entity cache is refreshed in the background when it is next used, unless overridden for its class; 0 to not refresh
+	 */
+	public static final int CACHE_FRESH_SECONDS = integer("strava.cache.fresh_seconds").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Number of threads refreshing stale entity cache entries in the background
+	 */
+	public static final int CACHE_REFRESH_THREADS = integer("strava.cache.refresh.threads").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Maximum number of background refreshes of the entity cache waiting to run; further ones are dropped
+	 */
+	public static final int CACHE_REFRESH_QUEUE = integer("strava.cache.refresh.queue").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Time (in seconds) that the entity cache remembers that an entity does not exist or is not visible to the token; 0 to not remember
+	 */
+	public static final int CACHE_NEGATIVE_TTL_SECONDS = integer("strava.cache.negative_ttl_seconds").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Directory in which the entity cache is persisted, or blank to keep the cache in memory only
+	 */
+	public static final String CACHE_DISK_DIRECTORY = string("strava.cache.disk.directory").trim(); //$NON-NLS-1$
+
+	/**
+	 * Maximum size (in megabytes) of the persisted entity cache
+	 */
+	public static final long CACHE_DISK_MAX_MEGABYTES = integer("strava.cache.disk.max_mb").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Size (in megabytes) of each file of the persisted entity cache; the oldest file is deleted when the cache exceeds its maximum size
+	 */
+	public static final long CACHE_DISK_SEGMENT_MEGABYTES = integer("strava.cache.disk.segment_mb").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Transport used to keep the entity cache consistent with other nodes: blank for none, "loopback", "socket" or the name of a class implementing javastrava.cache.StravaCacheTransport
+	 */
+	public static final String CACHE_CLUSTER_TRANSPORT = string("strava.cache.cluster.transport").trim(); //$NON-NLS-1$
+
+	/**
+	 * UDP port on which the socket transport receives changes from other nodes
+	 */
+	public static final int CACHE_CLUSTER_PORT = integer("strava.cache.cluster.port").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Other nodes (comma-separated host:port) to which the socket transport sends changes
+	 */
+	public static final String CACHE_CLUSTER_PEERS = string("strava.cache.cluster.peers"); //$NON-NLS-1$
+
+	/**
+	 * Time (in milliseconds) that changes to the entity cache are held so that they can be sent to other nodes together
+	 */
+	public static final long CACHE_CLUSTER_BATCH_MILLISECONDS = integer("strava.cache.cluster.batch_ms").longValue(); //$NON-NLS-1$
+
+	/**
+	 * Number of changes to the entity cache which are sent to other nodes straight away, without waiting for more
+	 */
+	public static final int CACHE_CLUSTER_BATCH_SIZE = integer("strava.cache.cluster.batch_size").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Is <code>true</code> if public entities are sent to other nodes when they are cached, rather than just invalidated there when they change
+	 */
+	public static final boolean CACHE_CLUSTER_REPLICATE = Boolean.parseBoolean(string("strava.cache.cluster.replicate")); //$NON-NLS-1$
+
+	/**
+	 * Number of threads storing the entities read from an entity cache snapshot
+	 */
+	public static final int CACHE_SNAPSHOT_THREADS = integer("strava.cache.snapshot.threads").intValue(); //$NON-NLS-1$
+
+	/**
+	 * Is <code>true</code> if the entity cache statistics for each class of entity are published through JMX
+	 */
+	public static final boolean CACHE_STATS_JMX = Boolean.parseBoolean(string("strava.cache.stats.jmx")); //$NON-NLS-1$
+
+	/**
+	 * @param key
+	 *            The name of a property
+	 * @return <code>true</code> if the property is set in the resource bundle
+	 */
+	public static boolean containsKey(final String key) {
+		return RESOURCE_BUNDLE.containsKey(key);
+	}
+
 	/**
 	 * @param key
 	 *            The name of the property to return
@@ -3,6 +3,7 @@ package javastrava.service;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import javastrava.model.StravaActivity;
 import javastrava.model.StravaActivityUpdate;
@@ -14,6 +15,7 @@ import javastrava.model.StravaPhoto;
 import javastrava.service.exception.BadRequestException;
 import javastrava.service.exception.NotFoundException;
 import javastrava.util.Paging;
+import javastrava.util.StravaFlow;
 
 /**
  * StravaActivity related services
@@ -473,6 +475,38 @@ public interface ActivityService extends StravaService {
 	 */
 	public CompletableFuture<StravaActivity> getActivityAsync(final Long activityId, final Boolean includeAllEfforts);
 
+	/**
+	 * <p>
+	 * Returns the activity in whatever representation is to hand, for callers which only need the fields in the summary representation. If the activity is cached, for example because it was
+	 * returned in a list of activities, the cached representation is returned without asking Strava; otherwise this is the same as {@link #getActivity(Long)}.
+	 * </p>
+	 *
+	 * <p>
+	 * Returns <code>null</code> if the activity does not exist
+	 * </p>
+	 *
+	 * @param activityId
+	 *            The id of the {@link StravaActivity activity} to be returned
+	 * @return A summary or detailed representation of the {@link StravaActivity activity}
+	 */
+	public StravaActivity getActivitySummary(final Long activityId);
+
+	/**
+	 * <p>
+	 * Returns the activity in whatever representation is to hand, for callers which only need the fields in the summary representation. If the activity is cached, for example because it was
+	 * returned in a list of activities, the cached representation is returned without asking Strava; otherwise this is the same as {@link #getActivityAsync(Long)}.
+	 * </p>
+	 *
+	 * <p>
+	 * Returns <code>null</code> if the activity does not exist
+	 * </p>
+	 *
+	 * @param activityId
+	 *            The id of the {@link StravaActivity activity} to be returned
+	 * @return (A {@link CompletableFuture} which returns) A summary or detailed representation of the {@link StravaActivity activity}
+	 */
+	public CompletableFuture<StravaActivity> getActivitySummaryAsync(final Long activityId);
+
 	/**
 	 * <p>
 	 * Kudo an activity (kudo is given by the authenticated athlete). You can do this multiple times, but the activity only receives one kudos.
@@ -1749,6 +1783,130 @@ public interface ActivityService extends StravaService {
 	 */
 	public CompletableFuture<List<StravaActivity>> listRelatedActivitiesAsync(final Long activityId, final Paging pagingInstruction);
 
+	/**
+	 * <p>
+	 * Publishes all the {@link StravaComment comments} on an {@link StravaActivity activity}, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - ACTIVITIES WITH MANY COMMENTS WILL REQUIRE MANY CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/activities/:id/comments
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/comments/#list">http://strava.github.io/api/v3/comments/#list</a>
+	 *
+	 * @param activityId
+	 *            The id of the {@link StravaActivity} whose comments should be published
+	 * @return Publisher of {@link StravaComment comment} summary representations; if the activity does not exist, nothing is published
+	 */
+	public StravaFlow.Publisher<StravaComment> publishAllActivityComments(final Long activityId);
+
+	/**
+	 * <p>
+	 * Publishes all the {@link StravaAthlete athletes} who have given kudos to an {@link StravaActivity activity}, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - ACTIVITIES WITH MANY KUDOS WILL REQUIRE MANY CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/activities/:id/kudos
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/kudos/#list">http://strava.github.io/api/v3/kudos/#list</a>
+	 *
+	 * @param activityId
+	 *            The id of the {@link StravaActivity} whose kudoers should be published
+	 * @return Publisher of {@link StravaAthlete athlete} summary representations; if the activity does not exist, nothing is published
+	 */
+	public StravaFlow.Publisher<StravaAthlete> publishAllActivityKudoers(final Long activityId);
+
+	/**
+	 * <p>
+	 * Publishes all the {@link StravaActivity activities} for the authenticated {@link StravaAthlete}, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - ATHLETES WITH MANY ACTIVITIES WILL REQUIRE MANY CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/athlete/activities
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/activities/">http://strava.github.io/api/v3/activities/</a>
+	 *
+	 * @return Publisher of {@link StravaActivity} summary representations sorted newest first by default
+	 */
+	public StravaFlow.Publisher<StravaActivity> publishAllAuthenticatedAthleteActivities();
+
+	/**
+	 * <p>
+	 * Returns a lazy {@link Stream} of the {@link StravaActivity activities} for the authenticated {@link StravaAthlete}, getting pages from Strava only as they are needed.
+	 * </p>
+	 *
+	 * <p>
+	 * Activities can be read as soon as the page they are on has arrived, and the whole list is never held in memory; a caller which stops early (e.g. with {@link Stream#limit(long)}) does not get the
+	 * remaining pages. See {@link javastrava.util.PagingHandler#handleStreamAll(javastrava.util.PagingCallback)}. Close the stream to cancel pages still being fetched in the background.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION. A stream read to the end will make as many calls to the Strava API as {@link #listAllAuthenticatedAthleteActivities()}.
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/athlete/activities
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/activities/">http://strava.github.io/api/v3/activities/</a>
+	 *
+	 * @return Returns a stream of {@link StravaActivity} summary representations sorted newest first by default.
+	 */
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities();
+
+	/**
+	 * <p>
+	 * Returns a lazy {@link Stream} of the {@link StravaActivity activities} for the authenticated {@link StravaAthlete}, getting pages from Strava only as they are needed.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION. A stream read to the end will make as many calls to the Strava API as {@link #listAllAuthenticatedAthleteActivities(LocalDateTime, LocalDateTime)}.
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/athlete/activities
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/activities/">http://strava.github.io/api/v3/activities/</a>
+	 * @see #streamAllAuthenticatedAthleteActivities()
+	 *
+	 * @param before
+	 *            Return only rides started BEFORE this date/time
+	 * @param after
+	 *            Return only rides started AFTER this data/time
+	 * @return Returns a stream of {@link StravaActivity} summary representations sorted newest first by default.
+	 */
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after);
+
 	/**
 	 * <p>
 	 * Requires write permissions, as requested during the authorization process.
@@ -11,6 +11,7 @@ import javastrava.model.StravaClubEvent;
 import javastrava.model.StravaClubMembershipResponse;
 import javastrava.model.reference.StravaResourceState;
 import javastrava.util.Paging;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -728,4 +729,30 @@ public interface ClubService extends StravaService {
 	 * @return Returns an array of {@link StravaActivity activity} summary {@link StravaResourceState representations}.
 	 */
 	public CompletableFuture<List<StravaActivity>> listRecentClubActivitiesAsync(final Integer clubId, final Paging pagingInstruction);
+
+	/**
+	 * <p>
+	 * Publishes all the member {@link StravaAthlete athletes} of a {@link StravaClub club}, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - CLUBS WITH MANY MEMBERS WILL REQUIRE MANY CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/clubs/:id/members
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/clubs/#get-members">http://strava.github.io/api/v3/clubs/#get-members</a>
+	 *
+	 * @param clubId
+	 *            The id of the {@link StravaClub} whose member {@link StravaAthlete athletes} should be published
+	 * @return Publisher of {@link StravaAthlete athlete} summary representations; if the club does not exist or is private, nothing is published
+	 */
+	public StravaFlow.Publisher<StravaAthlete> publishAllClubMembers(final Integer clubId);
 }
@@ -21,6 +21,7 @@ import javastrava.model.reference.StravaSegmentExplorerActivityType;
 import javastrava.model.reference.StravaWeightClass;
 import javastrava.service.exception.UnauthorizedException;
 import javastrava.util.Paging;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -1136,6 +1137,58 @@ public interface SegmentService extends StravaService {
 	 */
 	public CompletableFuture<List<StravaSegment>> listStarredSegmentsAsync(final Integer athleteId, final Paging pagingInstruction);
 
+	/**
+	 * <p>
+	 * Publishes all the {@link StravaSegmentEffort efforts} on a {@link StravaSegment segment}, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - POPULAR SEGMENTS HAVE VERY MANY EFFORTS, WHICH WILL REQUIRE A VERY LARGE NUMBER OF CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/segments/:id/all_efforts
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/segments/#efforts">http://strava.github.io/api/v3/segments/#efforts</a>
+	 *
+	 * @param segmentId
+	 *            The id of the {@link StravaSegment} whose efforts should be published
+	 * @return Publisher of {@link StravaSegmentEffort segment effort} summary representations; if the segment does not exist, is private or is hazardous, nothing is published
+	 */
+	public StravaFlow.Publisher<StravaSegmentEffort> publishAllSegmentEfforts(final Integer segmentId);
+
+	/**
+	 * <p>
+	 * Publishes the entire {@link StravaSegmentLeaderboard leaderboard} of a {@link StravaSegment segment}, an {@link StravaSegmentLeaderboardEntry entry} at a time, with backpressure.
+	 * </p>
+	 *
+	 * <p>
+	 * Records are fetched from Strava only as the subscriber asks for them: a subscriber which asks for a few records at a time stops pages being requested until it asks for more, and one which
+	 * cancels is sent nothing more. See {@link javastrava.util.PagingPublisher}.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION - POPULAR SEGMENTS CAN HAVE TENS OF THOUSANDS OF ATHLETES ON THE LEADERBOARD, REQUIRING A VERY LARGE NUMBER OF CALLS TO THE STRAVA API IF THE SUBSCRIBER ASKS FOR THEM ALL
+	 * </p>
+	 *
+	 * <p>
+	 * URL GET https://www.strava.com/api/v3/segments/:id/leaderboard
+	 * </p>
+	 *
+	 * @see <a href="http://strava.github.io/api/v3/segments/#leaderboard">http://strava.github.io/api/v3/segments/#leaderboard</a>
+	 *
+	 * @param segmentId
+	 *            The id of the segment whose leaderboard should be published
+	 * @return Publisher of {@link StravaSegmentLeaderboardEntry leaderboard entries}, in rank order; as with {@link #getAllSegmentLeaderboard(Integer)}, each page includes the authenticated athlete's own entry and those around it. If the segment does not exist, nothing is published
+	 */
+	public StravaFlow.Publisher<StravaSegmentLeaderboardEntry> publishAllSegmentLeaderboardEntries(final Integer segmentId);
+
 	/**
 	 * <p>
 	 * This endpoint can be used to find popular segments within a given area (defined by the southwest and northeast corners of the area).
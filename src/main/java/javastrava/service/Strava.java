@@ -5,7 +5,10 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import javastrava.api.util.RateLimitScheduler;
+import javastrava.api.util.RequestLane;
 import javastrava.auth.TokenService;
 import javastrava.auth.model.Token;
 import javastrava.auth.model.TokenResponse;
@@ -34,6 +37,7 @@ import javastrava.model.StravaSegment;
 import javastrava.model.StravaSegmentEffort;
 import javastrava.model.StravaSegmentExplorerResponse;
 import javastrava.model.StravaSegmentLeaderboard;
+import javastrava.model.StravaSegmentLeaderboardEntry;
 import javastrava.model.StravaStatistics;
 import javastrava.model.StravaStream;
 import javastrava.model.StravaUploadResponse;
@@ -54,6 +58,7 @@ import javastrava.service.exception.NotFoundException;
 import javastrava.service.exception.UnauthorizedException;
 import javastrava.service.impl.StravaServiceImpl;
 import javastrava.util.Paging;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -67,22 +72,34 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 		SegmentService, StreamService, TokenService, UploadService, WebhookService {
 	/**
 	 * Daily request rate limit (default is 30,000)
+	 *
+	 * @deprecated Rate limits are tracked by {@link RateLimitScheduler}; this is a copy of {@link RateLimitScheduler#getRateLimitDaily()} kept for compatibility
 	 */
+	@Deprecated
 	public static int RATE_LIMIT_DAILY = StravaConfig.integer("strava.rate_limit_daily").intValue(); //$NON-NLS-1$
 
 	/**
 	 * Request rate limit every 15 minutes (default is 600)
+	 *
+	 * @deprecated Rate limits are tracked by {@link RateLimitScheduler}; this is a copy of {@link RateLimitScheduler#getRateLimit()} kept for compatibility
 	 */
+	@Deprecated
 	public static int RATE_LIMIT_CURRENT = StravaConfig.integer("strava.rate_limit").intValue(); //$NON-NLS-1$
 
 	/**
 	 * Current request rate over the last day
+	 *
+	 * @deprecated Request rates are tracked by {@link RateLimitScheduler}; this is a copy of {@link RateLimitScheduler#getRequestRateDaily()} kept for compatibility
 	 */
+	@Deprecated
 	public static int REQUEST_RATE_DAILY = 0;
 
 	/**
 	 * Current request rate over the last 15 minutes
+	 *
+	 * @deprecated Request rates are tracked by {@link RateLimitScheduler}; this is a copy of {@link RateLimitScheduler#getRequestRate()} kept for compatibility
 	 */
+	@Deprecated
 	public static int REQUEST_RATE_CURRENT = 0;
 
 	/**
@@ -91,13 +108,18 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 * @return Percentage used.
 	 */
 	public static float requestRateCurrentPercentage() {
-		final float percent = (RATE_LIMIT_CURRENT == 0 ? 0 : (100 * new Float(REQUEST_RATE_CURRENT).floatValue()) / new Float(RATE_LIMIT_CURRENT).floatValue());
+		final RateLimitScheduler scheduler = RateLimitScheduler.instance();
+		final int requestRate = scheduler.getRequestRate();
+		final int rateLimit = scheduler.getRateLimit();
+		REQUEST_RATE_CURRENT = requestRate;
+		RATE_LIMIT_CURRENT = rateLimit;
+		final float percent = (rateLimit == 0 ? 0 : (100 * (float) requestRate) / rateLimit);
 		if (percent > 100) {
-			StravaServiceImpl.log.error(String.format(Messages.string("StravaServiceImpl.exceededRateLimit"), Integer.valueOf(REQUEST_RATE_CURRENT), //$NON-NLS-1$
-					Integer.valueOf(RATE_LIMIT_CURRENT), Float.valueOf(percent)));
+			StravaServiceImpl.log.error(String.format(Messages.string("StravaServiceImpl.exceededRateLimit"), Integer.valueOf(requestRate), //$NON-NLS-1$
+					Integer.valueOf(rateLimit), Float.valueOf(percent)));
 		} else if (percent > StravaConfig.WARN_AT_REQUEST_LIMIT_PERCENT) {
-			StravaServiceImpl.log.warn(String.format(Messages.string("StravaServiceImpl.approachingRateLimit"), Integer.valueOf(REQUEST_RATE_CURRENT), //$NON-NLS-1$
-					Integer.valueOf(RATE_LIMIT_CURRENT), Float.valueOf(percent)));
+			StravaServiceImpl.log.warn(String.format(Messages.string("StravaServiceImpl.approachingRateLimit"), Integer.valueOf(requestRate), //$NON-NLS-1$
+					Integer.valueOf(rateLimit), Float.valueOf(percent)));
 		}
 		return percent;
 	}
@@ -108,135 +130,149 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 * @return Percentage used.
 	 */
 	public static float requestRateDailyPercentage() {
-		final float percent = (Strava.RATE_LIMIT_DAILY == 0 ? 0 : (100 * new Float(REQUEST_RATE_DAILY).floatValue()) / new Float(Strava.RATE_LIMIT_DAILY).floatValue());
+		final RateLimitScheduler scheduler = RateLimitScheduler.instance();
+		final int requestRate = scheduler.getRequestRateDaily();
+		final int rateLimit = scheduler.getRateLimitDaily();
+		REQUEST_RATE_DAILY = requestRate;
+		RATE_LIMIT_DAILY = rateLimit;
+		final float percent = (rateLimit == 0 ? 0 : (100 * (float) requestRate) / rateLimit);
 		if (percent > 100) {
-			StravaServiceImpl.log.error(String.format(Messages.string("StravaServiceImpl.exceededRateLimitDaily"), Integer.valueOf(REQUEST_RATE_DAILY), //$NON-NLS-1$
-					Integer.valueOf(Strava.RATE_LIMIT_DAILY), Float.valueOf(percent)));
+			StravaServiceImpl.log.error(String.format(Messages.string("StravaServiceImpl.exceededRateLimitDaily"), Integer.valueOf(requestRate), //$NON-NLS-1$
+					Integer.valueOf(rateLimit), Float.valueOf(percent)));
 		} else if (percent > StravaConfig.WARN_AT_REQUEST_LIMIT_PERCENT) {
-			StravaServiceImpl.log.warn(String.format(Messages.string("StravaServiceImpl.approachingRateLimitDaily"), Integer.valueOf(REQUEST_RATE_DAILY), //$NON-NLS-1$
-					Integer.valueOf(Strava.RATE_LIMIT_DAILY), Float.valueOf(percent)));
+			StravaServiceImpl.log.warn(String.format(Messages.string("StravaServiceImpl.approachingRateLimitDaily"), Integer.valueOf(requestRate), //$NON-NLS-1$
+					Integer.valueOf(rateLimit), Float.valueOf(percent)));
 		}
 		return percent;
 	}
 
 	/**
-	 * Instance used for access to activity data
+	 * the access token associated with this implementation of the Strava functionality
 	 */
-	private ActivityService activityService;
+	private final Token token;
 
 	/**
-	 * instance used for access to athlete data
+	 * Constructor requires a token
+	 *
+	 * @param token
+	 *            the access token to be used with calls to the Strava API
 	 */
-	private AthleteService athleteService;
+	public Strava(final Token token) {
+		this.token = token;
+	}
 
 	/**
-	 * instance used for access to challenge data
+	 * Constructor to use if you already have a known token with known auth scopes
+	 *
+	 * @param token
+	 *            Token value (see <a href="https://www.strava.com/settings/api">https://www.strava.com/settings/api</a>
+	 * @param scopes
+	 *            Authorisation scopes that the token has
 	 */
-	private ChallengeService challengeService;
+	public Strava(final String token, final AuthorisationScope... scopes) {
+		this.token = new Token();
+		this.token.setScopes(Arrays.asList(scopes));
+		this.token.setToken(token);
+		this.token.setTokenType(null);
+		this.token.setAthlete(athleteService().getAuthenticatedAthlete());
+	}
 
 	/**
-	 * instance used for access to club data
+	 * @return The {@link ActivityService} for this token, created on first use
 	 */
-	private ClubService clubService;
+	private ActivityService activityService() {
+		return this.token.getService(ActivityService.class);
+	}
 
 	/**
-	 * instance used for access to club group event data
+	 * @return The {@link AthleteService} for this token, created on first use
 	 */
-	private ClubGroupEventService clubGroupEventService;
+	private AthleteService athleteService() {
+		return this.token.getService(AthleteService.class);
+	}
 
 	/**
-	 * instance used for access to gear data
+	 * @return The {@link ChallengeService} for this token, created on first use
 	 */
-	private GearService gearService;
+	private ChallengeService challengeService() {
+		return this.token.getService(ChallengeService.class);
+	}
 
 	/**
-	 * instance used for access to route data
+	 * @return The {@link ClubService} for this token, created on first use
 	 */
-	private RouteService routeService;
+	private ClubService clubService() {
+		return this.token.getService(ClubService.class);
+	}
 
 	/**
-	 * Instance used for access to running race data
+	 * @return The {@link ClubGroupEventService} for this token, created on first use
 	 */
-	private RunningRaceService runningRaceService;
+	private ClubGroupEventService clubGroupEventService() {
+		return this.token.getService(ClubGroupEventService.class);
+	}
 
 	/**
-	 * instance used for access to segment effort data
+	 * @return The {@link GearService} for this token, created on first use
 	 */
-	private SegmentEffortService segmentEffortService;
+	private GearService gearService() {
+		return this.token.getService(GearService.class);
+	}
 
 	/**
-	 * instance used for access to segment data
+	 * @return The {@link RouteService} for this token, created on first use
 	 */
-	private SegmentService segmentService;
+	private RouteService routeService() {
+		return this.token.getService(RouteService.class);
+	}
 
 	/**
-	 * instance used for access to streams data
+	 * @return The {@link RunningRaceService} for this token, created on first use
 	 */
-	private StreamService streamService;
+	private RunningRaceService runningRaceService() {
+		return this.token.getService(RunningRaceService.class);
+	}
 
 	/**
-	 * instance used for token deauthorisation
+	 * @return The {@link SegmentService} for this token, created on first use
 	 */
-	private TokenService tokenService;
+	private SegmentService segmentService() {
+		return this.token.getService(SegmentService.class);
+	}
 
 	/**
-	 * instance used for activity upload functionality
+	 * @return The {@link SegmentEffortService} for this token, created on first use
 	 */
-	private UploadService uploadService;
+	private SegmentEffortService segmentEffortService() {
+		return this.token.getService(SegmentEffortService.class);
+	}
 
 	/**
-	 * instance used for management of webhook subscriptions
+	 * @return The {@link StreamService} for this token, created on first use
 	 */
-	private WebhookService webhookService;
+	private StreamService streamService() {
+		return this.token.getService(StreamService.class);
+	}
 
 	/**
-	 * the access token associated with this implementation of the Strava functionality
+	 * @return The {@link TokenService} for this token, created on first use
 	 */
-	private final Token token;
+	private TokenService tokenService() {
+		return this.token.getService(TokenService.class);
+	}
 
 	/**
-	 * Constructor requires a token
-	 *
-	 * @param token
-	 *            the access token to be used with calls to the Strava API
+	 * @return The {@link UploadService} for this token, created on first use
 	 */
-	public Strava(final Token token) {
-		this.token = token;
-		addServices();
-	}
-
-	private void addServices() {
-		this.activityService = this.token.getService(ActivityService.class);
-		this.athleteService = this.token.getService(AthleteService.class);
-		this.challengeService = this.token.getService(ChallengeService.class);
-		this.clubService = this.token.getService(ClubService.class);
-		this.clubGroupEventService = this.token.getService(ClubGroupEventService.class);
-		this.gearService = this.token.getService(GearService.class);
-		this.routeService = this.token.getService(RouteService.class);
-		this.runningRaceService = this.token.getService(RunningRaceService.class);
-		this.segmentEffortService = this.token.getService(SegmentEffortService.class);
-		this.segmentService = this.token.getService(SegmentService.class);
-		this.streamService = this.token.getService(StreamService.class);
-		this.tokenService = this.token.getService(TokenService.class);
-		this.uploadService = this.token.getService(UploadService.class);
-		this.webhookService = this.token.getService(WebhookService.class);
+	private UploadService uploadService() {
+		return this.token.getService(UploadService.class);
 	}
 
 	/**
-	 * Constructor to use if you already have a known token with known auth scopes
-	 *
-	 * @param token
-	 *            Token value (see <a href="https://www.strava.com/settings/api">https://www.strava.com/settings/api</a>
-	 * @param scopes
-	 *            Authorisation scopes that the token has
+	 * @return The {@link WebhookService} for this token, created on first use
 	 */
-	public Strava(final String token, final AuthorisationScope... scopes) {
-		this.token = new Token();
-		this.token.setScopes(Arrays.asList(scopes));
-		this.token.setToken(token);
-		this.token.setTokenType(null);
-		addServices();
-		this.token.setAthlete(this.athleteService.getAuthenticatedAthlete());
+	private WebhookService webhookService() {
+		return this.token.getService(WebhookService.class);
 	}
 
 	/**
@@ -247,7 +283,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaUploadResponse checkUploadStatus(final Long activityId) {
-		return this.uploadService.checkUploadStatus(activityId);
+		return uploadService().checkUploadStatus(activityId);
 	}
 
 	/**
@@ -258,7 +294,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaUploadResponse> checkUploadStatusAsync(final Long uploadId) {
-		return this.uploadService.checkUploadStatusAsync(uploadId);
+		return uploadService().checkUploadStatusAsync(uploadId);
 	}
 
 	/**
@@ -266,18 +302,10 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public void clearCache() {
-		// Clear all the component services' caches
-		this.activityService.clearCache();
-		this.athleteService.clearCache();
-		this.challengeService.clearCache();
-		this.clubService.clearCache();
-		this.gearService.clearCache();
-		this.routeService.clearCache();
-		this.runningRaceService.clearCache();
-		this.segmentEffortService.clearCache();
-		this.segmentService.clearCache();
-		this.streamService.clearCache();
-		this.uploadService.clearCache();
+		// Clear the caches of all the component services that have been used so far
+		for (final StravaService service : this.token.getServices().values()) {
+			service.clearCache();
+		}
 	}
 
 	/**
@@ -285,7 +313,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaComment createComment(final Long activityId, final String text) throws NotFoundException, BadRequestException {
-		return this.activityService.createComment(activityId, text);
+		return activityService().createComment(activityId, text);
 	}
 
 	/**
@@ -293,7 +321,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaComment createComment(final StravaComment comment) throws NotFoundException, BadRequestException {
-		return this.activityService.createComment(comment.getActivityId(), comment.getText());
+		return activityService().createComment(comment.getActivityId(), comment.getText());
 	}
 
 	/**
@@ -301,7 +329,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaComment> createCommentAsync(final Long activityId, final String text) throws NotFoundException, BadRequestException {
-		return this.activityService.createCommentAsync(activityId, text);
+		return activityService().createCommentAsync(activityId, text);
 	}
 
 	/**
@@ -309,7 +337,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity createManualActivity(final StravaActivity activity) {
-		return this.activityService.createManualActivity(activity);
+		return activityService().createManualActivity(activity);
 	}
 
 	/**
@@ -317,17 +345,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaActivity> createManualActivityAsync(final StravaActivity activity) {
-		return this.activityService.createManualActivityAsync(activity);
+		return activityService().createManualActivityAsync(activity);
 	}
 
 	@Override
 	public StravaEventSubscription createSubscription(Integer clientId, String clientSecret, final StravaEventSubscription subscription, final String verifyToken) {
-		return this.webhookService.createSubscription(clientId, clientSecret, subscription, verifyToken);
+		return webhookService().createSubscription(clientId, clientSecret, subscription, verifyToken);
 	}
 
 	@Override
 	public CompletableFuture<StravaEventSubscription> createSubscriptionAsync(Integer clientId, String clientSecret, final StravaEventSubscription subscription, final String verifyToken) {
-		return this.webhookService.createSubscriptionAsync(clientId, clientSecret, subscription, verifyToken);
+		return webhookService().createSubscriptionAsync(clientId, clientSecret, subscription, verifyToken);
 	}
 
 	/**
@@ -335,7 +363,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public TokenResponse deauthorise(final Token accessToken) {
-		return this.tokenService.deauthorise(accessToken);
+		return tokenService().deauthorise(accessToken);
 	}
 
 	/**
@@ -343,7 +371,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity deleteActivity(final Long activityId) throws NotFoundException {
-		return this.activityService.deleteActivity(activityId);
+		return activityService().deleteActivity(activityId);
 	}
 
 	/**
@@ -351,7 +379,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity deleteActivity(final StravaActivity activity) throws NotFoundException {
-		return this.activityService.deleteActivity(activity.getId());
+		return activityService().deleteActivity(activity.getId());
 	}
 
 	/**
@@ -359,7 +387,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaActivity> deleteActivityAsync(final Long activityId) throws NotFoundException {
-		return this.activityService.deleteActivityAsync(activityId);
+		return activityService().deleteActivityAsync(activityId);
 	}
 
 	/**
@@ -367,7 +395,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public void deleteComment(final Long activityId, final Integer commentId) throws NotFoundException {
-		this.activityService.deleteComment(activityId, commentId);
+		activityService().deleteComment(activityId, commentId);
 	}
 
 	/**
@@ -375,7 +403,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public void deleteComment(final StravaComment comment) throws NotFoundException {
-		this.activityService.deleteComment(comment);
+		activityService().deleteComment(comment);
 	}
 
 	/**
@@ -383,7 +411,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<Void> deleteCommentAsync(final Long activityId, final Integer commentId) throws NotFoundException {
-		return this.activityService.deleteCommentAsync(activityId, commentId);
+		return activityService().deleteCommentAsync(activityId, commentId);
 	}
 
 	/**
@@ -391,37 +419,37 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<Void> deleteCommentAsync(final StravaComment comment) throws NotFoundException {
-		return this.activityService.deleteCommentAsync(comment);
+		return activityService().deleteCommentAsync(comment);
 	}
 
 	@Override
 	public void deleteEvent(Integer id) throws NotFoundException, UnauthorizedException {
-		this.clubGroupEventService.deleteEvent(id);
+		clubGroupEventService().deleteEvent(id);
 	}
 
 	@Override
 	public void deleteEvent(StravaClubEvent event) throws NotFoundException, UnauthorizedException {
-		this.clubGroupEventService.deleteEvent(event);
+		clubGroupEventService().deleteEvent(event);
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteEventAsync(Integer id) throws NotFoundException, UnauthorizedException {
-		return this.clubGroupEventService.deleteEventAsync(id);
+		return clubGroupEventService().deleteEventAsync(id);
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteEventAsync(StravaClubEvent event) throws NotFoundException, UnauthorizedException {
-		return this.clubGroupEventService.deleteEventAsync(event);
+		return clubGroupEventService().deleteEventAsync(event);
 	}
 
 	@Override
 	public void deleteSubscription(final Integer clientId, final String clientSecret, final Integer id) {
-		this.webhookService.deleteSubscription(clientId, clientSecret, id);
+		webhookService().deleteSubscription(clientId, clientSecret, id);
 	}
 
 	@Override
 	public CompletableFuture<Void> deleteSubscriptionAsync(final Integer clientId, final String clientSecret, final Integer id) {
-		return this.webhookService.deleteSubscriptionAsync(clientId, clientSecret, id);
+		return webhookService().deleteSubscriptionAsync(clientId, clientSecret, id);
 	}
 
 	/**
@@ -429,7 +457,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity getActivity(final Long activityId) {
-		return this.activityService.getActivity(activityId);
+		return activityService().getActivity(activityId);
 	}
 
 	/**
@@ -437,7 +465,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity getActivity(final Long activityId, final Boolean includeAllEfforts) {
-		return this.activityService.getActivity(activityId, includeAllEfforts);
+		return activityService().getActivity(activityId, includeAllEfforts);
 	}
 
 	/**
@@ -445,7 +473,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaActivity> getActivityAsync(final Long activityId) {
-		return this.activityService.getActivityAsync(activityId);
+		return activityService().getActivityAsync(activityId);
 	}
 
 	/**
@@ -458,7 +486,23 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaActivity> getActivityAsync(final Long activityId, final Boolean includeAllEfforts) {
-		return this.activityService.getActivityAsync(activityId, includeAllEfforts);
+		return activityService().getActivityAsync(activityId, includeAllEfforts);
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#getActivitySummary(java.lang.Long)
+	 */
+	@Override
+	public StravaActivity getActivitySummary(final Long activityId) {
+		return activityService().getActivitySummary(activityId);
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#getActivitySummaryAsync(java.lang.Long)
+	 */
+	@Override
+	public CompletableFuture<StravaActivity> getActivitySummaryAsync(final Long activityId) {
+		return activityService().getActivitySummaryAsync(activityId);
 	}
 
 	/**
@@ -469,7 +513,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaStream> getActivityStreams(final Long activityId) {
-		return this.streamService.getActivityStreams(activityId);
+		return streamService().getActivityStreams(activityId);
 	}
 
 	/**
@@ -488,7 +532,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public List<StravaStream> getActivityStreams(final Long activityId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getActivityStreams(activityId, resolution, seriesType, types);
+		return streamService().getActivityStreams(activityId, resolution, seriesType, types);
 	}
 
 	/**
@@ -499,7 +543,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaStream>> getActivityStreamsAsync(final Long activityId) {
-		return this.streamService.getActivityStreamsAsync(activityId);
+		return streamService().getActivityStreamsAsync(activityId);
 	}
 
 	/**
@@ -518,7 +562,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<List<StravaStream>> getActivityStreamsAsync(final Long activityId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getActivityStreamsAsync(activityId, resolution, seriesType, types);
+		return streamService().getActivityStreamsAsync(activityId, resolution, seriesType, types);
 	}
 
 	/**
@@ -533,7 +577,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegmentLeaderboard getAllSegmentLeaderboard(final Integer segmentId) {
-		return this.segmentService.getAllSegmentLeaderboard(segmentId);
+		return segmentService().getAllSegmentLeaderboard(segmentId);
 	}
 
 	/**
@@ -562,7 +606,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public StravaSegmentLeaderboard getAllSegmentLeaderboard(final Integer segmentId, final StravaGender gender, final StravaAgeGroup ageGroup, final StravaWeightClass weightClass,
 			final Boolean following, final Integer clubId, final StravaLeaderboardDateRange dateRange) {
-		return this.segmentService.getAllSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange);
+		return segmentService().getAllSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange);
 	}
 
 	/**
@@ -577,7 +621,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegmentLeaderboard> getAllSegmentLeaderboardAsync(final Integer segmentId) {
-		return this.segmentService.getAllSegmentLeaderboardAsync(segmentId);
+		return segmentService().getAllSegmentLeaderboardAsync(segmentId);
 	}
 
 	/**
@@ -606,7 +650,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<StravaSegmentLeaderboard> getAllSegmentLeaderboardAsync(final Integer segmentId, final StravaGender gender, final StravaAgeGroup ageGroup,
 			final StravaWeightClass weightClass, final Boolean following, final Integer clubId, final StravaLeaderboardDateRange dateRange) {
-		return this.segmentService.getAllSegmentLeaderboardAsync(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange);
+		return segmentService().getAllSegmentLeaderboardAsync(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange);
 	}
 
 	/**
@@ -617,7 +661,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaAthlete getAthlete(final Integer athleteId) {
-		return this.athleteService.getAthlete(athleteId);
+		return athleteService().getAthlete(athleteId);
 	}
 
 	/**
@@ -628,7 +672,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaAthlete> getAthleteAsync(final Integer athleteId) {
-		return this.athleteService.getAthleteAsync(athleteId);
+		return athleteService().getAthleteAsync(athleteId);
 	}
 
 	/**
@@ -637,7 +681,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaAthlete getAuthenticatedAthlete() {
-		return this.athleteService.getAuthenticatedAthlete();
+		return athleteService().getAuthenticatedAthlete();
 	}
 
 	/**
@@ -646,7 +690,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaAthlete> getAuthenticatedAthleteAsync() {
-		return this.athleteService.getAuthenticatedAthleteAsync();
+		return athleteService().getAuthenticatedAthleteAsync();
 	}
 
 	/**
@@ -656,7 +700,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaAthleteZones getAuthenticatedAthleteZones() {
-		return this.athleteService.getAuthenticatedAthleteZones();
+		return athleteService().getAuthenticatedAthleteZones();
 	}
 
 	/**
@@ -666,17 +710,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaAthleteZones> getAuthenticatedAthleteZonesAsync() {
-		return this.athleteService.getAuthenticatedAthleteZonesAsync();
+		return athleteService().getAuthenticatedAthleteZonesAsync();
 	}
 
 	@Override
 	public StravaChallenge getChallenge(Integer id) {
-		return this.challengeService.getChallenge(id);
+		return challengeService().getChallenge(id);
 	}
 
 	@Override
 	public CompletableFuture<StravaChallenge> getChallengeAsync(Integer id) {
-		return this.challengeService.getChallengeAsync(id);
+		return challengeService().getChallengeAsync(id);
 	}
 
 	/**
@@ -687,7 +731,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaClub getClub(final Integer clubId) {
-		return this.clubService.getClub(clubId);
+		return clubService().getClub(clubId);
 	}
 
 	/**
@@ -698,7 +742,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaClub> getClubAsync(final Integer clubId) {
-		return this.clubService.getClubAsync(clubId);
+		return clubService().getClubAsync(clubId);
 	}
 
 	/**
@@ -709,7 +753,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaStream> getEffortStreams(final Long segmentEffortId) {
-		return this.streamService.getEffortStreams(segmentEffortId);
+		return streamService().getEffortStreams(segmentEffortId);
 	}
 
 	/**
@@ -728,7 +772,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public List<StravaStream> getEffortStreams(final Long segmentEffortId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getEffortStreams(segmentEffortId, resolution, seriesType, types);
+		return streamService().getEffortStreams(segmentEffortId, resolution, seriesType, types);
 	}
 
 	/**
@@ -739,7 +783,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaStream>> getEffortStreamsAsync(final Long effortId) {
-		return this.streamService.getEffortStreamsAsync(effortId);
+		return streamService().getEffortStreamsAsync(effortId);
 	}
 
 	/**
@@ -758,17 +802,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<List<StravaStream>> getEffortStreamsAsync(final Long effortId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getEffortStreamsAsync(effortId, resolution, seriesType, types);
+		return streamService().getEffortStreamsAsync(effortId, resolution, seriesType, types);
 	}
 
 	@Override
 	public StravaClubEvent getEvent(Integer id) {
-		return this.clubGroupEventService.getEvent(id);
+		return clubGroupEventService().getEvent(id);
 	}
 
 	@Override
 	public CompletableFuture<StravaClubEvent> getEventAsync(Integer id) {
-		return this.clubGroupEventService.getEventAsync(id);
+		return clubGroupEventService().getEventAsync(id);
 	}
 
 	/**
@@ -779,7 +823,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaGear getGear(final String gearId) {
-		return this.gearService.getGear(gearId);
+		return gearService().getGear(gearId);
 	}
 
 	/**
@@ -790,7 +834,14 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaGear> getGearAsync(final String gearId) {
-		return this.gearService.getGearAsync(gearId);
+		return gearService().getGearAsync(gearId);
+	}
+
+	/**
+	 * @return The default {@link RequestLane lane} for requests made through this instance, or <code>null</code> if none has been set
+	 */
+	public RequestLane getLane() {
+		return this.token.getLane();
 	}
 
 	/**
@@ -804,7 +855,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaRunningRace getRace(Integer id) {
-		return this.runningRaceService.getRace(id);
+		return runningRaceService().getRace(id);
 	}
 
 	/**
@@ -818,7 +869,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaRunningRace> getRaceAsync(Integer id) {
-		return this.runningRaceService.getRaceAsync(id);
+		return runningRaceService().getRaceAsync(id);
 	}
 
 	/**
@@ -833,7 +884,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaRoute getRoute(Integer routeId) {
-		return this.routeService.getRoute(routeId);
+		return routeService().getRoute(routeId);
 	}
 
 	/**
@@ -848,7 +899,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaRoute> getRouteAsync(Integer routeId) {
-		return this.routeService.getRouteAsync(routeId);
+		return routeService().getRouteAsync(routeId);
 	}
 
 	/**
@@ -859,7 +910,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegment getSegment(final Integer segmentId) {
-		return this.segmentService.getSegment(segmentId);
+		return segmentService().getSegment(segmentId);
 	}
 
 	/**
@@ -870,7 +921,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegment> getSegmentAsync(final Integer segmentId) {
-		return this.segmentService.getSegmentAsync(segmentId);
+		return segmentService().getSegmentAsync(segmentId);
 	}
 
 	/**
@@ -881,7 +932,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegmentEffort getSegmentEffort(final Long segmentEffortId) {
-		return this.segmentEffortService.getSegmentEffort(segmentEffortId);
+		return segmentEffortService().getSegmentEffort(segmentEffortId);
 	}
 
 	/**
@@ -892,7 +943,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegmentEffort> getSegmentEffortAsync(final Long segmentEffortId) {
-		return this.segmentEffortService.getSegmentEffortAsync(segmentEffortId);
+		return segmentEffortService().getSegmentEffortAsync(segmentEffortId);
 	}
 
 	/**
@@ -903,7 +954,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegmentLeaderboard getSegmentLeaderboard(final Integer segmentId) {
-		return this.segmentService.getSegmentLeaderboard(segmentId);
+		return segmentService().getSegmentLeaderboard(segmentId);
 	}
 
 	/**
@@ -916,7 +967,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegmentLeaderboard getSegmentLeaderboard(final Integer segmentId, final Paging pagingInstruction) {
-		return this.segmentService.getSegmentLeaderboard(segmentId, pagingInstruction);
+		return segmentService().getSegmentLeaderboard(segmentId, pagingInstruction);
 	}
 
 	/**
@@ -945,7 +996,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public StravaSegmentLeaderboard getSegmentLeaderboard(final Integer segmentId, final StravaGender gender, final StravaAgeGroup ageGroup, final StravaWeightClass weightClass,
 			final Boolean following, final Integer clubId, final StravaLeaderboardDateRange dateRange, final Paging pagingInstruction, final Integer contextEntries) {
-		return this.segmentService.getSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, pagingInstruction, contextEntries);
+		return segmentService().getSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, pagingInstruction, contextEntries);
 	}
 
 	/**
@@ -956,7 +1007,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegmentLeaderboard> getSegmentLeaderboardAsync(final Integer segmentId) {
-		return this.segmentService.getSegmentLeaderboardAsync(segmentId);
+		return segmentService().getSegmentLeaderboardAsync(segmentId);
 	}
 
 	/**
@@ -969,7 +1020,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegmentLeaderboard> getSegmentLeaderboardAsync(final Integer segmentId, final Paging pagingInstruction) {
-		return this.segmentService.getSegmentLeaderboardAsync(segmentId, pagingInstruction);
+		return segmentService().getSegmentLeaderboardAsync(segmentId, pagingInstruction);
 	}
 
 	/**
@@ -999,7 +1050,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	public CompletableFuture<StravaSegmentLeaderboard> getSegmentLeaderboardAsync(final Integer segmentId, final StravaGender gender, final StravaAgeGroup ageGroup,
 			final StravaWeightClass weightClass, final Boolean following, final Integer clubId, final StravaLeaderboardDateRange dateRange, final Paging pagingInstruction,
 			final Integer contextEntries) {
-		return this.segmentService.getSegmentLeaderboardAsync(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, pagingInstruction, contextEntries);
+		return segmentService().getSegmentLeaderboardAsync(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, pagingInstruction, contextEntries);
 	}
 
 	/**
@@ -1010,7 +1061,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaStream> getSegmentStreams(final Integer segmentId) {
-		return this.streamService.getSegmentStreams(segmentId);
+		return streamService().getSegmentStreams(segmentId);
 	}
 
 	/**
@@ -1029,7 +1080,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public List<StravaStream> getSegmentStreams(final Integer segmentId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getSegmentStreams(segmentId, resolution, seriesType, types);
+		return streamService().getSegmentStreams(segmentId, resolution, seriesType, types);
 	}
 
 	/**
@@ -1040,7 +1091,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaStream>> getSegmentStreamsAsync(final Integer segmentId) {
-		return this.streamService.getSegmentStreamsAsync(segmentId);
+		return streamService().getSegmentStreamsAsync(segmentId);
 	}
 
 	/**
@@ -1059,7 +1110,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<List<StravaStream>> getSegmentStreamsAsync(final Integer segmentId, final StravaStreamResolutionType resolution, final StravaStreamSeriesDownsamplingType seriesType,
 			final StravaStreamType... types) {
-		return this.streamService.getSegmentStreamsAsync(segmentId, resolution, seriesType, types);
+		return streamService().getSegmentStreamsAsync(segmentId, resolution, seriesType, types);
 	}
 
 	/**
@@ -1071,7 +1122,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public void giveKudos(final Long activityId) throws NotFoundException {
-		this.activityService.giveKudos(activityId);
+		activityService().giveKudos(activityId);
 	}
 
 	/**
@@ -1083,7 +1134,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<Void> giveKudosAsync(final Long activityId) throws NotFoundException {
-		return this.activityService.giveKudosAsync(activityId);
+		return activityService().giveKudosAsync(activityId);
 	}
 
 	/**
@@ -1125,12 +1176,12 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 
 	@Override
 	public void joinChallenge(Integer id) {
-		this.challengeService.joinChallenge(id);
+		challengeService().joinChallenge(id);
 	}
 
 	@Override
 	public CompletableFuture<Void> joinChallengeAsync(Integer id) {
-		return this.challengeService.joinChallengeAsync(id);
+		return challengeService().joinChallengeAsync(id);
 	}
 
 	/**
@@ -1141,7 +1192,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaClubMembershipResponse joinClub(final Integer clubId) {
-		return this.clubService.joinClub(clubId);
+		return clubService().joinClub(clubId);
 	}
 
 	/**
@@ -1152,28 +1203,28 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaClubMembershipResponse> joinClubAsync(final Integer clubId) {
-		return this.clubService.joinClubAsync(clubId);
+		return clubService().joinClubAsync(clubId);
 	}
 
 	@Override
 	public StravaClubEventJoinResponse joinEvent(Integer id) {
-		return this.clubGroupEventService.joinEvent(id);
+		return clubGroupEventService().joinEvent(id);
 	}
 
 	@Override
 	public CompletableFuture<StravaClubEventJoinResponse> joinEventAsync(Integer id) {
-		return this.clubGroupEventService.joinEventAsync(id);
+		return clubGroupEventService().joinEventAsync(id);
 	}
 
 	@Override
 	public void leaveChallenge(Integer id) {
-		this.challengeService.leaveChallenge(id);
+		challengeService().leaveChallenge(id);
 
 	}
 
 	@Override
 	public CompletableFuture<Void> leaveChallengeAsync(Integer id) {
-		return this.challengeService.leaveChallengeAsync(id);
+		return challengeService().leaveChallengeAsync(id);
 	}
 
 	/**
@@ -1184,7 +1235,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaClubMembershipResponse leaveClub(final Integer clubId) {
-		return this.clubService.leaveClub(clubId);
+		return clubService().leaveClub(clubId);
 	}
 
 	/**
@@ -1195,17 +1246,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaClubMembershipResponse> leaveClubAsync(final Integer clubId) {
-		return this.clubService.leaveClubAsync(clubId);
+		return clubService().leaveClubAsync(clubId);
 	}
 
 	@Override
 	public StravaClubEventJoinResponse leaveEvent(Integer id) {
-		return this.clubGroupEventService.leaveEvent(id);
+		return clubGroupEventService().leaveEvent(id);
 	}
 
 	@Override
 	public CompletableFuture<StravaClubEventJoinResponse> leaveEventAsync(Integer id) {
-		return this.clubGroupEventService.leaveEventAsync(id);
+		return clubGroupEventService().leaveEventAsync(id);
 	}
 
 	/**
@@ -1216,7 +1267,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaComment> listActivityComments(final Long activityId) {
-		return this.activityService.listActivityComments(activityId);
+		return activityService().listActivityComments(activityId);
 	}
 
 	/**
@@ -1229,7 +1280,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaComment> listActivityComments(final Long activityId, final Boolean markdown) {
-		return this.activityService.listActivityComments(activityId, markdown);
+		return activityService().listActivityComments(activityId, markdown);
 	}
 
 	/**
@@ -1244,7 +1295,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaComment> listActivityComments(final Long activityId, final Boolean markdown, final Paging pagingInstruction) {
-		return this.activityService.listActivityComments(activityId, markdown, pagingInstruction);
+		return activityService().listActivityComments(activityId, markdown, pagingInstruction);
 	}
 
 	/**
@@ -1257,7 +1308,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaComment> listActivityComments(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listActivityComments(activityId, pagingInstruction);
+		return activityService().listActivityComments(activityId, pagingInstruction);
 	}
 
 	/**
@@ -1268,7 +1319,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaComment>> listActivityCommentsAsync(final Long activityId) {
-		return this.activityService.listActivityCommentsAsync(activityId);
+		return activityService().listActivityCommentsAsync(activityId);
 	}
 
 	/**
@@ -1281,7 +1332,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaComment>> listActivityCommentsAsync(final Long activityId, final Boolean markdown) {
-		return this.activityService.listActivityCommentsAsync(activityId, markdown);
+		return activityService().listActivityCommentsAsync(activityId, markdown);
 	}
 
 	/**
@@ -1296,7 +1347,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaComment>> listActivityCommentsAsync(final Long activityId, final Boolean markdown, final Paging pagingInstruction) {
-		return this.activityService.listActivityCommentsAsync(activityId, markdown, pagingInstruction);
+		return activityService().listActivityCommentsAsync(activityId, markdown, pagingInstruction);
 	}
 
 	/**
@@ -1309,7 +1360,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaComment>> listActivityCommentsAsync(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listActivityCommentsAsync(activityId, pagingInstruction);
+		return activityService().listActivityCommentsAsync(activityId, pagingInstruction);
 	}
 
 	/**
@@ -1320,7 +1371,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listActivityKudoers(final Long activityId) {
-		return this.activityService.listActivityKudoers(activityId);
+		return activityService().listActivityKudoers(activityId);
 	}
 
 	/**
@@ -1333,7 +1384,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listActivityKudoers(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listActivityKudoers(activityId, pagingInstruction);
+		return activityService().listActivityKudoers(activityId, pagingInstruction);
 	}
 
 	/**
@@ -1344,7 +1395,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listActivityKudoersAsync(final Long activityId) {
-		return this.activityService.listActivityKudoersAsync(activityId);
+		return activityService().listActivityKudoersAsync(activityId);
 	}
 
 	/**
@@ -1357,7 +1408,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listActivityKudoersAsync(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listActivityKudoersAsync(activityId, pagingInstruction);
+		return activityService().listActivityKudoersAsync(activityId, pagingInstruction);
 	}
 
 	/**
@@ -1368,7 +1419,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaLap> listActivityLaps(final Long activityId) {
-		return this.activityService.listActivityLaps(activityId);
+		return activityService().listActivityLaps(activityId);
 	}
 
 	/**
@@ -1379,7 +1430,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaLap>> listActivityLapsAsync(final Long activityId) {
-		return this.activityService.listActivityLapsAsync(activityId);
+		return activityService().listActivityLapsAsync(activityId);
 	}
 
 	/**
@@ -1390,7 +1441,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaPhoto> listActivityPhotos(final Long activityId) {
-		return this.activityService.listActivityPhotos(activityId);
+		return activityService().listActivityPhotos(activityId);
 	}
 
 	/**
@@ -1401,7 +1452,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaPhoto>> listActivityPhotosAsync(final Long activityId) {
-		return this.activityService.listActivityPhotosAsync(activityId);
+		return activityService().listActivityPhotosAsync(activityId);
 	}
 
 	/**
@@ -1412,7 +1463,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivityZone> listActivityZones(final Long activityId) {
-		return this.activityService.listActivityZones(activityId);
+		return activityService().listActivityZones(activityId);
 	}
 
 	/**
@@ -1423,7 +1474,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivityZone>> listActivityZonesAsync(final Long activityId) {
-		return this.activityService.listActivityZonesAsync(activityId);
+		return activityService().listActivityZonesAsync(activityId);
 	}
 
 	/**
@@ -1438,7 +1489,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaComment> listAllActivityComments(final Long activityId) {
-		return this.activityService.listAllActivityComments(activityId);
+		return activityService().listAllActivityComments(activityId);
 	}
 
 	/**
@@ -1453,7 +1504,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaComment>> listAllActivityCommentsAsync(final Long activityId) {
-		return this.activityService.listAllActivityCommentsAsync(activityId);
+		return activityService().listAllActivityCommentsAsync(activityId);
 	}
 
 	/**
@@ -1468,7 +1519,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllActivityKudoers(final Long activityId) {
-		return this.activityService.listAllActivityKudoers(activityId);
+		return activityService().listAllActivityKudoers(activityId);
 	}
 
 	/**
@@ -1483,7 +1534,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllActivityKudoersAsync(final Long activityId) {
-		return this.activityService.listAllActivityKudoersAsync(activityId);
+		return activityService().listAllActivityKudoersAsync(activityId);
 	}
 
 	/**
@@ -1498,7 +1549,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllAthleteFriends(final Integer athleteId) {
-		return this.athleteService.listAllAthleteFriends(athleteId);
+		return athleteService().listAllAthleteFriends(athleteId);
 	}
 
 	/**
@@ -1513,7 +1564,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllAthleteFriendsAsync(final Integer athleteId) {
-		return this.athleteService.listAllAthleteFriendsAsync(athleteId);
+		return athleteService().listAllAthleteFriendsAsync(athleteId);
 	}
 
 	/**
@@ -1528,7 +1579,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listAllAthleteKOMs(final Integer athleteId) {
-		return this.athleteService.listAllAthleteKOMs(athleteId);
+		return athleteService().listAllAthleteKOMs(athleteId);
 	}
 
 	/**
@@ -1543,7 +1594,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listAllAthleteKOMsAsync(final Integer athleteId) {
-		return this.athleteService.listAllAthleteKOMsAsync(athleteId);
+		return athleteService().listAllAthleteKOMsAsync(athleteId);
 	}
 
 	/**
@@ -1558,7 +1609,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllAthletesBothFollowing(final Integer athleteId) {
-		return this.athleteService.listAllAthletesBothFollowing(athleteId);
+		return athleteService().listAllAthletesBothFollowing(athleteId);
 	}
 
 	/**
@@ -1573,7 +1624,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllAthletesBothFollowingAsync(final Integer athleteId) {
-		return this.athleteService.listAllAthletesBothFollowingAsync(athleteId);
+		return athleteService().listAllAthletesBothFollowingAsync(athleteId);
 	}
 
 	/**
@@ -1586,7 +1637,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAllAuthenticatedAthleteActivities() {
-		return this.activityService.listAllAuthenticatedAthleteActivities();
+		return activityService().listAllAuthenticatedAthleteActivities();
 	}
 
 	/**
@@ -1603,7 +1654,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAllAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after) {
-		return this.activityService.listAllAuthenticatedAthleteActivities(before, after);
+		return activityService().listAllAuthenticatedAthleteActivities(before, after);
 	}
 
 	/**
@@ -1616,7 +1667,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAllAuthenticatedAthleteActivitiesAsync() {
-		return this.activityService.listAllAuthenticatedAthleteActivitiesAsync();
+		return activityService().listAllAuthenticatedAthleteActivitiesAsync();
 	}
 
 	/**
@@ -1633,7 +1684,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAllAuthenticatedAthleteActivitiesAsync(final LocalDateTime before, final LocalDateTime after) {
-		return this.activityService.listAllAuthenticatedAthleteActivitiesAsync(before, after);
+		return activityService().listAllAuthenticatedAthleteActivitiesAsync(before, after);
 	}
 
 	/**
@@ -1646,7 +1697,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllAuthenticatedAthleteFriends() {
-		return this.athleteService.listAllAuthenticatedAthleteFriends();
+		return athleteService().listAllAuthenticatedAthleteFriends();
 	}
 
 	/**
@@ -1659,7 +1710,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllAuthenticatedAthleteFriendsAsync() {
-		return this.athleteService.listAllAuthenticatedAthleteFriendsAsync();
+		return athleteService().listAllAuthenticatedAthleteFriendsAsync();
 	}
 
 	/**
@@ -1668,7 +1719,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listAllAuthenticatedAthleteStarredSegments() {
-		return this.segmentService.listAllAuthenticatedAthleteStarredSegments();
+		return segmentService().listAllAuthenticatedAthleteStarredSegments();
 	}
 
 	/**
@@ -1677,7 +1728,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listAllAuthenticatedAthleteStarredSegmentsAsync() {
-		return this.segmentService.listAllAuthenticatedAthleteStarredSegmentsAsync();
+		return segmentService().listAllAuthenticatedAthleteStarredSegmentsAsync();
 	}
 
 	/**
@@ -1707,7 +1758,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllClubAdmins(final Integer clubId) {
-		return this.clubService.listAllClubAdmins(clubId);
+		return clubService().listAllClubAdmins(clubId);
 	}
 
 	/**
@@ -1737,7 +1788,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllClubAdminsAsync(final Integer clubId) {
-		return this.clubService.listAllClubAdminsAsync(clubId);
+		return clubService().listAllClubAdminsAsync(clubId);
 	}
 
 	/**
@@ -1752,7 +1803,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAllClubMembers(final Integer clubId) {
-		return this.clubService.listAllClubMembers(clubId);
+		return clubService().listAllClubMembers(clubId);
 	}
 
 	/**
@@ -1767,17 +1818,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllClubMembersAsync(final Integer clubId) {
-		return this.clubService.listAllClubMembersAsync(clubId);
+		return clubService().listAllClubMembersAsync(clubId);
 	}
 
 	@Override
 	public List<StravaAthlete> listAllEventJoinedAthletes(Integer eventId) {
-		return this.clubGroupEventService.listAllEventJoinedAthletes(eventId);
+		return clubGroupEventService().listAllEventJoinedAthletes(eventId);
 	}
 
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAllEventJoinedAthletesAsync(Integer eventId) {
-		return this.clubGroupEventService.listAllEventJoinedAthletesAsync(eventId);
+		return clubGroupEventService().listAllEventJoinedAthletesAsync(eventId);
 	}
 
 	/**
@@ -1790,7 +1841,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAllFriendsActivities() {
-		return this.activityService.listAllFriendsActivities();
+		return activityService().listAllFriendsActivities();
 	}
 
 	/**
@@ -1803,7 +1854,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAllFriendsActivitiesAsync() {
-		return this.activityService.listAllFriendsActivitiesAsync();
+		return activityService().listAllFriendsActivitiesAsync();
 	}
 
 	/**
@@ -1814,7 +1865,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAllRecentClubActivities(final Integer clubId) {
-		return this.clubService.listAllRecentClubActivities(clubId);
+		return clubService().listAllRecentClubActivities(clubId);
 	}
 
 	/**
@@ -1825,7 +1876,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAllRecentClubActivitiesAsync(final Integer clubId) {
-		return this.clubService.listAllRecentClubActivitiesAsync(clubId);
+		return clubService().listAllRecentClubActivitiesAsync(clubId);
 	}
 
 	/**
@@ -1840,7 +1891,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAllRelatedActivities(final Long activityId) {
-		return this.activityService.listAllRelatedActivities(activityId);
+		return activityService().listAllRelatedActivities(activityId);
 	}
 
 	/**
@@ -1855,7 +1906,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAllRelatedActivitiesAsync(final Long activityId) {
-		return this.activityService.listAllRelatedActivitiesAsync(activityId);
+		return activityService().listAllRelatedActivitiesAsync(activityId);
 	}
 
 	/**
@@ -1870,7 +1921,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listAllSegmentEfforts(final Integer segmentId) {
-		return this.segmentService.listAllSegmentEfforts(segmentId);
+		return segmentService().listAllSegmentEfforts(segmentId);
 	}
 
 	/**
@@ -1887,7 +1938,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listAllSegmentEfforts(final Integer segmentId, final Integer athleteId, final LocalDateTime startDate, final LocalDateTime endDate) {
-		return this.segmentService.listAllSegmentEfforts(segmentId, athleteId, startDate, endDate);
+		return segmentService().listAllSegmentEfforts(segmentId, athleteId, startDate, endDate);
 	}
 
 	/**
@@ -1902,7 +1953,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listAllSegmentEffortsAsync(final Integer segmentId) {
-		return this.segmentService.listAllSegmentEffortsAsync(segmentId);
+		return segmentService().listAllSegmentEffortsAsync(segmentId);
 	}
 
 	/**
@@ -1919,7 +1970,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listAllSegmentEffortsAsync(final Integer segmentId, final Integer athleteId, final LocalDateTime startDate, final LocalDateTime endDate) {
-		return this.segmentService.listAllSegmentEffortsAsync(segmentId, athleteId, startDate, endDate);
+		return segmentService().listAllSegmentEffortsAsync(segmentId, athleteId, startDate, endDate);
 	}
 
 	/**
@@ -1930,7 +1981,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listAllStarredSegments(final Integer athleteId) {
-		return this.segmentService.listAllStarredSegments(athleteId);
+		return segmentService().listAllStarredSegments(athleteId);
 	}
 
 	/**
@@ -1941,7 +1992,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listAllStarredSegmentsAsync(final Integer athleteId) {
-		return this.segmentService.listAllStarredSegmentsAsync(athleteId);
+		return segmentService().listAllStarredSegmentsAsync(athleteId);
 	}
 
 	/**
@@ -1952,7 +2003,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAthleteFriends(final Integer athleteId) {
-		return this.athleteService.listAthleteFriends(athleteId);
+		return athleteService().listAthleteFriends(athleteId);
 	}
 
 	/**
@@ -1965,7 +2016,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAthleteFriends(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthleteFriends(athleteId, pagingInstruction);
+		return athleteService().listAthleteFriends(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -1976,7 +2027,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAthleteFriendsAsync(final Integer athleteId) {
-		return this.athleteService.listAthleteFriendsAsync(athleteId);
+		return athleteService().listAthleteFriendsAsync(athleteId);
 	}
 
 	/**
@@ -1989,7 +2040,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAthleteFriendsAsync(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthleteFriendsAsync(athleteId, pagingInstruction);
+		return athleteService().listAthleteFriendsAsync(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2000,7 +2051,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listAthleteKOMs(final Integer athleteId) {
-		return this.athleteService.listAthleteKOMs(athleteId);
+		return athleteService().listAthleteKOMs(athleteId);
 	}
 
 	/**
@@ -2013,7 +2064,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listAthleteKOMs(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthleteKOMs(athleteId, pagingInstruction);
+		return athleteService().listAthleteKOMs(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2024,7 +2075,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listAthleteKOMsAsync(final Integer athleteId) {
-		return this.athleteService.listAthleteKOMsAsync(athleteId);
+		return athleteService().listAthleteKOMsAsync(athleteId);
 	}
 
 	/**
@@ -2037,7 +2088,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listAthleteKOMsAsync(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthleteKOMsAsync(athleteId, pagingInstruction);
+		return athleteService().listAthleteKOMsAsync(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2052,7 +2103,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaRoute> listAthleteRoutes(Integer id) {
-		return this.routeService.listAthleteRoutes(id);
+		return routeService().listAthleteRoutes(id);
 	}
 
 	/**
@@ -2067,7 +2118,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaRoute>> listAthleteRoutesAsync(Integer id) {
-		return this.routeService.listAthleteRoutesAsync(id);
+		return routeService().listAthleteRoutesAsync(id);
 	}
 
 	/**
@@ -2078,7 +2129,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAthletesBothFollowing(final Integer athleteId) {
-		return this.athleteService.listAthletesBothFollowing(athleteId);
+		return athleteService().listAthletesBothFollowing(athleteId);
 	}
 
 	/**
@@ -2092,7 +2143,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAthletesBothFollowing(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthletesBothFollowing(athleteId, pagingInstruction);
+		return athleteService().listAthletesBothFollowing(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2103,7 +2154,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAthletesBothFollowingAsync(final Integer athleteId) {
-		return this.athleteService.listAthletesBothFollowingAsync(athleteId);
+		return athleteService().listAthletesBothFollowingAsync(athleteId);
 	}
 
 	/**
@@ -2117,7 +2168,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAthletesBothFollowingAsync(final Integer athleteId, final Paging pagingInstruction) {
-		return this.athleteService.listAthletesBothFollowingAsync(athleteId, pagingInstruction);
+		return athleteService().listAthletesBothFollowingAsync(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2126,7 +2177,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAuthenticatedAthleteActivities() {
-		return this.activityService.listAuthenticatedAthleteActivities();
+		return activityService().listAuthenticatedAthleteActivities();
 	}
 
 	/**
@@ -2139,7 +2190,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after) {
-		return this.activityService.listAuthenticatedAthleteActivities(before, after);
+		return activityService().listAuthenticatedAthleteActivities(before, after);
 	}
 
 	/**
@@ -2154,7 +2205,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after, final Paging pagingInstruction) {
-		return this.activityService.listAuthenticatedAthleteActivities(before, after, pagingInstruction);
+		return activityService().listAuthenticatedAthleteActivities(before, after, pagingInstruction);
 	}
 
 	/**
@@ -2165,7 +2216,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listAuthenticatedAthleteActivities(final Paging pagingInstruction) {
-		return this.activityService.listAuthenticatedAthleteActivities(pagingInstruction);
+		return activityService().listAuthenticatedAthleteActivities(pagingInstruction);
 	}
 
 	/**
@@ -2174,7 +2225,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAuthenticatedAthleteActivitiesAsync() {
-		return this.activityService.listAuthenticatedAthleteActivitiesAsync();
+		return activityService().listAuthenticatedAthleteActivitiesAsync();
 	}
 
 	/**
@@ -2187,7 +2238,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAuthenticatedAthleteActivitiesAsync(final LocalDateTime before, final LocalDateTime after) {
-		return this.activityService.listAuthenticatedAthleteActivitiesAsync(before, after);
+		return activityService().listAuthenticatedAthleteActivitiesAsync(before, after);
 	}
 
 	/**
@@ -2202,7 +2253,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAuthenticatedAthleteActivitiesAsync(final LocalDateTime before, final LocalDateTime after, final Paging pagingInstruction) {
-		return this.activityService.listAuthenticatedAthleteActivitiesAsync(before, after, pagingInstruction);
+		return activityService().listAuthenticatedAthleteActivitiesAsync(before, after, pagingInstruction);
 	}
 
 	/**
@@ -2213,7 +2264,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listAuthenticatedAthleteActivitiesAsync(final Paging pagingInstruction) {
-		return this.activityService.listAuthenticatedAthleteActivitiesAsync(pagingInstruction);
+		return activityService().listAuthenticatedAthleteActivitiesAsync(pagingInstruction);
 	}
 
 	/**
@@ -2222,7 +2273,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaClub> listAuthenticatedAthleteClubs() {
-		return this.clubService.listAuthenticatedAthleteClubs();
+		return clubService().listAuthenticatedAthleteClubs();
 	}
 
 	/**
@@ -2231,7 +2282,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaClub>> listAuthenticatedAthleteClubsAsync() {
-		return this.clubService.listAuthenticatedAthleteClubsAsync();
+		return clubService().listAuthenticatedAthleteClubsAsync();
 	}
 
 	/**
@@ -2240,7 +2291,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAuthenticatedAthleteFriends() {
-		return this.athleteService.listAuthenticatedAthleteFriends();
+		return athleteService().listAuthenticatedAthleteFriends();
 	}
 
 	/**
@@ -2251,7 +2302,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listAuthenticatedAthleteFriends(final Paging pagingInstruction) {
-		return this.athleteService.listAuthenticatedAthleteFriends(pagingInstruction);
+		return athleteService().listAuthenticatedAthleteFriends(pagingInstruction);
 	}
 
 	/**
@@ -2260,7 +2311,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAuthenticatedAthleteFriendsAsync() {
-		return this.athleteService.listAuthenticatedAthleteFriendsAsync();
+		return athleteService().listAuthenticatedAthleteFriendsAsync();
 	}
 
 	/**
@@ -2271,7 +2322,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listAuthenticatedAthleteFriendsAsync(final Paging pagingInstruction) {
-		return this.athleteService.listAuthenticatedAthleteFriendsAsync(pagingInstruction);
+		return athleteService().listAuthenticatedAthleteFriendsAsync(pagingInstruction);
 	}
 
 	/**
@@ -2280,7 +2331,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listAuthenticatedAthleteStarredSegments() {
-		return this.segmentService.listAuthenticatedAthleteStarredSegments();
+		return segmentService().listAuthenticatedAthleteStarredSegments();
 	}
 
 	/**
@@ -2291,7 +2342,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listAuthenticatedAthleteStarredSegments(final Paging pagingInstruction) {
-		return this.segmentService.listAuthenticatedAthleteStarredSegments(pagingInstruction);
+		return segmentService().listAuthenticatedAthleteStarredSegments(pagingInstruction);
 	}
 
 	/**
@@ -2300,7 +2351,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listAuthenticatedAthleteStarredSegmentsAsync() {
-		return this.segmentService.listAuthenticatedAthleteStarredSegmentsAsync();
+		return segmentService().listAuthenticatedAthleteStarredSegmentsAsync();
 	}
 
 	/**
@@ -2311,7 +2362,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listAuthenticatedAthleteStarredSegmentsAsync(final Paging pagingInstruction) {
-		return this.segmentService.listAuthenticatedAthleteStarredSegmentsAsync(pagingInstruction);
+		return segmentService().listAuthenticatedAthleteStarredSegmentsAsync(pagingInstruction);
 	}
 
 	/**
@@ -2341,7 +2392,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listClubAdmins(final Integer clubId) {
-		return this.clubService.listClubAdmins(clubId);
+		return clubService().listClubAdmins(clubId);
 	}
 
 	/**
@@ -2373,7 +2424,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listClubAdmins(final Integer clubId, final Paging paging) {
-		return this.clubService.listClubAdmins(clubId, paging);
+		return clubService().listClubAdmins(clubId, paging);
 	}
 
 	/**
@@ -2403,7 +2454,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listClubAdminsAsync(final Integer clubId) {
-		return this.clubService.listClubAdminsAsync(clubId);
+		return clubService().listClubAdminsAsync(clubId);
 	}
 
 	/**
@@ -2435,7 +2486,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listClubAdminsAsync(final Integer clubId, final Paging paging) {
-		return this.clubService.listClubAdminsAsync(clubId, paging);
+		return clubService().listClubAdminsAsync(clubId, paging);
 	}
 
 	/**
@@ -2446,7 +2497,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaClubAnnouncement> listClubAnnouncements(final Integer clubId) {
-		return this.clubService.listClubAnnouncements(clubId);
+		return clubService().listClubAnnouncements(clubId);
 
 	}
 
@@ -2458,7 +2509,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaClubAnnouncement>> listClubAnnouncementsAsync(final Integer clubId) {
-		return this.clubService.listClubAnnouncementsAsync(clubId);
+		return clubService().listClubAnnouncementsAsync(clubId);
 	}
 
 	/**
@@ -2485,7 +2536,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaClubEvent> listClubGroupEvents(final Integer clubId) {
-		return this.clubService.listClubGroupEvents(clubId);
+		return clubService().listClubGroupEvents(clubId);
 	}
 
 	/**
@@ -2512,7 +2563,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaClubEvent>> listClubGroupEventsAsync(final Integer clubId) {
-		return this.clubService.listClubGroupEventsAsync(clubId);
+		return clubService().listClubGroupEventsAsync(clubId);
 	}
 
 	/**
@@ -2523,7 +2574,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listClubMembers(final Integer clubId) {
-		return this.clubService.listClubMembers(clubId);
+		return clubService().listClubMembers(clubId);
 	}
 
 	/**
@@ -2536,7 +2587,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaAthlete> listClubMembers(final Integer clubId, final Paging pagingInstruction) {
-		return this.clubService.listClubMembers(clubId, pagingInstruction);
+		return clubService().listClubMembers(clubId, pagingInstruction);
 	}
 
 	/**
@@ -2547,7 +2598,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listClubMembersAsync(final Integer clubId) {
-		return this.clubService.listClubMembersAsync(clubId);
+		return clubService().listClubMembersAsync(clubId);
 	}
 
 	/**
@@ -2560,17 +2611,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listClubMembersAsync(final Integer clubId, final Paging pagingInstruction) {
-		return this.clubService.listClubMembersAsync(clubId, pagingInstruction);
+		return clubService().listClubMembersAsync(clubId, pagingInstruction);
 	}
 
 	@Override
 	public List<StravaAthlete> listEventJoinedAthletes(Integer eventId, Paging pagingInstruction) {
-		return this.clubGroupEventService.listEventJoinedAthletes(eventId, pagingInstruction);
+		return clubGroupEventService().listEventJoinedAthletes(eventId, pagingInstruction);
 	}
 
 	@Override
 	public CompletableFuture<List<StravaAthlete>> listEventJoinedAthletesAsync(Integer eventId, Paging pagingInstruction) {
-		return this.clubGroupEventService.listEventJoinedAthletesAsync(eventId, pagingInstruction);
+		return clubGroupEventService().listEventJoinedAthletesAsync(eventId, pagingInstruction);
 	}
 
 	/**
@@ -2579,7 +2630,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listFriendsActivities() {
-		return this.activityService.listFriendsActivities();
+		return activityService().listFriendsActivities();
 	}
 
 	/**
@@ -2590,7 +2641,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listFriendsActivities(final Paging pagingInstruction) {
-		return this.activityService.listFriendsActivities(pagingInstruction);
+		return activityService().listFriendsActivities(pagingInstruction);
 	}
 
 	/**
@@ -2599,7 +2650,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listFriendsActivitiesAsync() {
-		return this.activityService.listFriendsActivitiesAsync();
+		return activityService().listFriendsActivitiesAsync();
 	}
 
 	/**
@@ -2610,17 +2661,17 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listFriendsActivitiesAsync(final Paging pagingInstruction) {
-		return this.activityService.listFriendsActivitiesAsync(pagingInstruction);
+		return activityService().listFriendsActivitiesAsync(pagingInstruction);
 	}
 
 	@Override
 	public List<StravaChallenge> listJoinedChallenges() {
-		return this.challengeService.listJoinedChallenges();
+		return challengeService().listJoinedChallenges();
 	}
 
 	@Override
 	public CompletableFuture<List<StravaChallenge>> listJoinedChallengesAsync() {
-		return this.challengeService.listJoinedChallengesAsync();
+		return challengeService().listJoinedChallengesAsync();
 	}
 
 	/**
@@ -2634,7 +2685,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaRunningRace> listRaces(Integer year) {
-		return this.runningRaceService.listRaces(year);
+		return runningRaceService().listRaces(year);
 	}
 
 	/**
@@ -2648,7 +2699,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaRunningRace>> listRacesAsync(Integer year) {
-		return this.runningRaceService.listRacesAsync(year);
+		return runningRaceService().listRacesAsync(year);
 	}
 
 	/**
@@ -2659,7 +2710,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listRecentClubActivities(final Integer clubId) {
-		return this.clubService.listRecentClubActivities(clubId);
+		return clubService().listRecentClubActivities(clubId);
 	}
 
 	/**
@@ -2673,7 +2724,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listRecentClubActivities(final Integer clubId, final Paging pagingInstruction) {
-		return this.clubService.listRecentClubActivities(clubId, pagingInstruction);
+		return clubService().listRecentClubActivities(clubId, pagingInstruction);
 	}
 
 	/**
@@ -2684,7 +2735,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listRecentClubActivitiesAsync(final Integer clubId) {
-		return this.clubService.listRecentClubActivitiesAsync(clubId);
+		return clubService().listRecentClubActivitiesAsync(clubId);
 	}
 
 	/**
@@ -2698,7 +2749,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listRecentClubActivitiesAsync(final Integer clubId, final Paging pagingInstruction) {
-		return this.clubService.listRecentClubActivitiesAsync(clubId, pagingInstruction);
+		return clubService().listRecentClubActivitiesAsync(clubId, pagingInstruction);
 	}
 
 	/**
@@ -2709,7 +2760,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listRelatedActivities(final Long activityId) {
-		return this.activityService.listRelatedActivities(activityId);
+		return activityService().listRelatedActivities(activityId);
 	}
 
 	/**
@@ -2722,7 +2773,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaActivity> listRelatedActivities(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listRelatedActivities(activityId, pagingInstruction);
+		return activityService().listRelatedActivities(activityId, pagingInstruction);
 	}
 
 	/**
@@ -2733,7 +2784,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listRelatedActivitiesAsync(final Long activityId) {
-		return this.activityService.listRelatedActivitiesAsync(activityId);
+		return activityService().listRelatedActivitiesAsync(activityId);
 	}
 
 	/**
@@ -2746,7 +2797,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaActivity>> listRelatedActivitiesAsync(final Long activityId, final Paging pagingInstruction) {
-		return this.activityService.listRelatedActivitiesAsync(activityId, pagingInstruction);
+		return activityService().listRelatedActivitiesAsync(activityId, pagingInstruction);
 	}
 
 	/**
@@ -2758,7 +2809,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listSegmentEfforts(final Integer segmentId) {
-		return this.segmentService.listSegmentEfforts(segmentId);
+		return segmentService().listSegmentEfforts(segmentId);
 	}
 
 	/**
@@ -2776,7 +2827,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listSegmentEfforts(final Integer segmentId, final Integer athleteId, final LocalDateTime startDateLocal, final LocalDateTime endDateLocal) {
-		return this.segmentService.listSegmentEfforts(segmentId, athleteId, startDateLocal, endDateLocal);
+		return segmentService().listSegmentEfforts(segmentId, athleteId, startDateLocal, endDateLocal);
 	}
 
 	/**
@@ -2797,7 +2848,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public List<StravaSegmentEffort> listSegmentEfforts(final Integer segmentId, final Integer athleteId, final LocalDateTime startDateLocal, final LocalDateTime endDateLocal,
 			final Paging pagingInstruction) {
-		return this.segmentService.listSegmentEfforts(segmentId, athleteId, startDateLocal, endDateLocal, pagingInstruction);
+		return segmentService().listSegmentEfforts(segmentId, athleteId, startDateLocal, endDateLocal, pagingInstruction);
 	}
 
 	/**
@@ -2811,7 +2862,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegmentEffort> listSegmentEfforts(final Integer segmentId, final Paging pagingInstruction) {
-		return this.segmentService.listSegmentEfforts(segmentId, pagingInstruction);
+		return segmentService().listSegmentEfforts(segmentId, pagingInstruction);
 	}
 
 	/**
@@ -2823,7 +2874,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listSegmentEffortsAsync(final Integer segmentId) {
-		return this.segmentService.listSegmentEffortsAsync(segmentId);
+		return segmentService().listSegmentEffortsAsync(segmentId);
 	}
 
 	/**
@@ -2842,7 +2893,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listSegmentEffortsAsync(final Integer segmentId, final Integer athleteId, final LocalDateTime startDateLocal,
 			final LocalDateTime endDateLocal) {
-		return this.segmentService.listSegmentEffortsAsync(segmentId, athleteId, startDateLocal, endDateLocal);
+		return segmentService().listSegmentEffortsAsync(segmentId, athleteId, startDateLocal, endDateLocal);
 	}
 
 	/**
@@ -2863,7 +2914,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listSegmentEffortsAsync(final Integer segmentId, final Integer athleteId, final LocalDateTime startDateLocal, final LocalDateTime endDateLocal,
 			final Paging pagingInstruction) {
-		return this.segmentService.listSegmentEffortsAsync(segmentId, athleteId, startDateLocal, endDateLocal, pagingInstruction);
+		return segmentService().listSegmentEffortsAsync(segmentId, athleteId, startDateLocal, endDateLocal, pagingInstruction);
 	}
 
 	/**
@@ -2877,7 +2928,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegmentEffort>> listSegmentEffortsAsync(final Integer segmentId, final Paging pagingInstruction) {
-		return this.segmentService.listSegmentEffortsAsync(segmentId, pagingInstruction);
+		return segmentService().listSegmentEffortsAsync(segmentId, pagingInstruction);
 	}
 
 	/**
@@ -2888,7 +2939,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listStarredSegments(final Integer athleteId) {
-		return this.segmentService.listStarredSegments(athleteId);
+		return segmentService().listStarredSegments(athleteId);
 	}
 
 	/**
@@ -2901,7 +2952,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public List<StravaSegment> listStarredSegments(final Integer athleteId, final Paging pagingInstruction) {
-		return this.segmentService.listStarredSegments(athleteId, pagingInstruction);
+		return segmentService().listStarredSegments(athleteId, pagingInstruction);
 	}
 
 	/**
@@ -2912,7 +2963,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listStarredSegmentsAsync(final Integer athleteId) {
-		return this.segmentService.listStarredSegmentsAsync(athleteId);
+		return segmentService().listStarredSegmentsAsync(athleteId);
 	}
 
 	/**
@@ -2925,17 +2976,81 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<List<StravaSegment>> listStarredSegmentsAsync(final Integer athleteId, final Paging pagingInstruction) {
-		return this.segmentService.listStarredSegmentsAsync(athleteId, pagingInstruction);
+		return segmentService().listStarredSegmentsAsync(athleteId, pagingInstruction);
 	}
 
 	@Override
 	public List<StravaEventSubscription> listSubscriptions(final Integer clientId, final String clientSecret) {
-		return this.webhookService.listSubscriptions(clientId, clientSecret);
+		return webhookService().listSubscriptions(clientId, clientSecret);
 	}
 
 	@Override
 	public CompletableFuture<List<StravaEventSubscription>> listSubscriptionsAsync(final Integer clientId, final String clientSecret) {
-		return this.webhookService.listSubscriptionsAsync(clientId, clientSecret);
+		return webhookService().listSubscriptionsAsync(clientId, clientSecret);
+	}
+
+	/**
+	 * @param activityId
+	 *            Activity identifier
+	 * @return Publisher of all the comments on the activity
+	 * @see javastrava.service.ActivityService#publishAllActivityComments(java.lang.Long)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaComment> publishAllActivityComments(final Long activityId) {
+		return activityService().publishAllActivityComments(activityId);
+	}
+
+	/**
+	 * @param activityId
+	 *            Activity identifier
+	 * @return Publisher of all the athletes who have given kudos to the activity
+	 * @see javastrava.service.ActivityService#publishAllActivityKudoers(java.lang.Long)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaAthlete> publishAllActivityKudoers(final Long activityId) {
+		return activityService().publishAllActivityKudoers(activityId);
+	}
+
+	/**
+	 * @return Publisher of all the authenticated athlete's activities
+	 * @see javastrava.service.ActivityService#publishAllAuthenticatedAthleteActivities()
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaActivity> publishAllAuthenticatedAthleteActivities() {
+		return activityService().publishAllAuthenticatedAthleteActivities();
+	}
+
+	/**
+	 * @param clubId
+	 *            Club identifier
+	 * @return Publisher of all the members of the club
+	 * @see javastrava.service.ClubService#publishAllClubMembers(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaAthlete> publishAllClubMembers(final Integer clubId) {
+		return clubService().publishAllClubMembers(clubId);
+	}
+
+	/**
+	 * @param segmentId
+	 *            Segment identifier
+	 * @return Publisher of all the efforts on the segment
+	 * @see javastrava.service.SegmentService#publishAllSegmentEfforts(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaSegmentEffort> publishAllSegmentEfforts(final Integer segmentId) {
+		return segmentService().publishAllSegmentEfforts(segmentId);
+	}
+
+	/**
+	 * @param segmentId
+	 *            Segment identifier
+	 * @return Publisher of all the entries on the segment's leaderboard
+	 * @see javastrava.service.SegmentService#publishAllSegmentLeaderboardEntries(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaSegmentLeaderboardEntry> publishAllSegmentLeaderboardEntries(final Integer segmentId) {
+		return segmentService().publishAllSegmentLeaderboardEntries(segmentId);
 	}
 
 	/**
@@ -2956,7 +3071,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public StravaSegmentExplorerResponse segmentExplore(final StravaMapPoint southwestCorner, final StravaMapPoint northeastCorner, final StravaSegmentExplorerActivityType activityType,
 			final StravaClimbCategory minCat, final StravaClimbCategory maxCat) {
-		return this.segmentService.segmentExplore(southwestCorner, northeastCorner, activityType, minCat, maxCat);
+		return segmentService().segmentExplore(southwestCorner, northeastCorner, activityType, minCat, maxCat);
 	}
 
 	/**
@@ -2977,7 +3092,19 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<StravaSegmentExplorerResponse> segmentExploreAsync(final StravaMapPoint southwestCorner, final StravaMapPoint northeastCorner,
 			final StravaSegmentExplorerActivityType activityType, final StravaClimbCategory minCat, final StravaClimbCategory maxCat) {
-		return this.segmentService.segmentExploreAsync(southwestCorner, northeastCorner, activityType, minCat, maxCat);
+		return segmentService().segmentExploreAsync(southwestCorner, northeastCorner, activityType, minCat, maxCat);
+	}
+
+	/**
+	 * <p>
+	 * Sets the default {@link RequestLane lane} for requests made through this instance. Individual calls can be placed in a different lane using {@link RequestLane#call(RequestLane, java.util.function.Supplier)}.
+	 * </p>
+	 *
+	 * @param lane
+	 *            The lane, or <code>null</code> to use the {@link RequestLane#NORMAL normal} lane
+	 */
+	public void setLane(final RequestLane lane) {
+		this.token.setLane(lane);
 	}
 
 	/**
@@ -2993,7 +3120,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaSegment starSegment(Integer segmentId, Boolean starred) {
-		return this.segmentService.starSegment(segmentId, starred);
+		return segmentService().starSegment(segmentId, starred);
 	}
 
 	/**
@@ -3009,7 +3136,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaSegment> starSegmentAsync(Integer segmentId, Boolean starred) {
-		return this.segmentService.starSegmentAsync(segmentId, starred);
+		return segmentService().starSegmentAsync(segmentId, starred);
 	}
 
 	/**
@@ -3020,7 +3147,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaStatistics statistics(final Integer athleteId) {
-		return this.athleteService.statistics(athleteId);
+		return athleteService().statistics(athleteId);
 	}
 
 	/**
@@ -3031,7 +3158,37 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaStatistics> statisticsAsync(final Integer athleteId) {
-		return this.athleteService.statisticsAsync(athleteId);
+		return athleteService().statisticsAsync(athleteId);
+	}
+
+	/**
+	 * <p>
+	 * USE WITH CAUTION - READING THE STREAM TO THE END WILL REQUIRE MANY CALLS TO THE STRAVA API FOR ATHLETES WITH MANY ACTIVITIES
+	 * </p>
+	 *
+	 * @return Lazy stream of all the authenticated athlete's activities
+	 * @see javastrava.service.ActivityService#streamAllAuthenticatedAthleteActivities()
+	 */
+	@Override
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities() {
+		return activityService().streamAllAuthenticatedAthleteActivities();
+	}
+
+	/**
+	 * <p>
+	 * USE WITH CAUTION - READING THE STREAM TO THE END WILL REQUIRE MANY CALLS TO THE STRAVA API FOR ATHLETES WITH MANY ACTIVITIES
+	 * </p>
+	 *
+	 * @param before
+	 *            Only return activities before this date/time
+	 * @param after
+	 *            Only return activities after this date/time
+	 * @return Lazy stream of all the authenticated athlete's activities, filtered by dates
+	 * @see javastrava.service.ActivityService#streamAllAuthenticatedAthleteActivities(LocalDateTime, LocalDateTime)
+	 */
+	@Override
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after) {
+		return activityService().streamAllAuthenticatedAthleteActivities(before, after);
 	}
 
 	/**
@@ -3046,7 +3203,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaActivity updateActivity(final Long activityId, final StravaActivityUpdate activity) throws NotFoundException {
-		return this.activityService.updateActivity(activityId, activity);
+		return activityService().updateActivity(activityId, activity);
 	}
 
 	/**
@@ -3061,7 +3218,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaActivity> updateActivityAsync(final Long activityId, final StravaActivityUpdate activity) throws NotFoundException {
-		return this.activityService.updateActivityAsync(activityId, activity);
+		return activityService().updateActivityAsync(activityId, activity);
 	}
 
 	/**
@@ -3080,7 +3237,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public StravaAthlete updateAuthenticatedAthlete(final String city, final String state, final String country, final StravaGender sex, final Float weight) {
-		return this.athleteService.updateAuthenticatedAthlete(city, state, country, sex, weight);
+		return athleteService().updateAuthenticatedAthlete(city, state, country, sex, weight);
 	}
 
 	/**
@@ -3099,7 +3256,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	 */
 	@Override
 	public CompletableFuture<StravaAthlete> updateAuthenticatedAthleteAsync(final String city, final String state, final String country, final StravaGender sex, final Float weight) {
-		return this.athleteService.updateAuthenticatedAthleteAsync(city, state, country, sex, weight);
+		return athleteService().updateAuthenticatedAthleteAsync(city, state, country, sex, weight);
 	}
 
 	/**
@@ -3128,7 +3285,7 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public StravaUploadResponse upload(final StravaActivityType activityType, final String name, final String description, final Boolean _private, final Boolean trainer, final Boolean commute,
 			final String dataType, final String externalId, final File file) {
-		return this.uploadService.upload(activityType, name, description, _private, trainer, commute, dataType, externalId, file);
+		return uploadService().upload(activityType, name, description, _private, trainer, commute, dataType, externalId, file);
 	}
 
 	/**
@@ -3157,6 +3314,6 @@ public class Strava implements ActivityService, AthleteService, ChallengeService
 	@Override
 	public CompletableFuture<StravaUploadResponse> uploadAsync(final StravaActivityType activityType, final String name, final String description, final Boolean _private, final Boolean trainer,
 			final Boolean commute, final String dataType, final String externalId, final File file) {
-		return this.uploadService.uploadAsync(activityType, name, description, _private, trainer, commute, dataType, externalId, file);
+		return uploadService().uploadAsync(activityType, name, description, _private, trainer, commute, dataType, externalId, file);
 	}
 }
@@ -0,0 +1,63 @@
+package javastrava.service.exception;
+
+import javastrava.model.StravaResponse;
+
+/**
+ * <p>
+ * Thrown without calling the Strava API when an endpoint's circuit breaker is open because recent calls to it have been failing, or when the endpoint already has as many calls in flight as its
+ * bulkhead allows
+ * </p>
+ *
+ * @author Dan Shannon
+ */
+public class StravaAPIEndpointUnavailableException extends RuntimeException implements StravaAPIException {
+
+	/**
+	 * Default
+	 */
+	private static final long	serialVersionUID	= 1L;
+
+	/**
+	 * Response from Strava API containing error details
+	 */
+	private StravaResponse		response;
+
+	/**
+	 * The endpoint (API interface and method) which was unavailable
+	 */
+	private final String		endpoint;
+
+	/**
+	 * @param status Status string
+	 * @param endpoint The endpoint (API interface and method) which was unavailable
+	 * @param cause Underlying cause of the exception
+	 */
+	public StravaAPIEndpointUnavailableException(final String status, final String endpoint, final Throwable cause) {
+		super(status + " : " + endpoint, cause); //$NON-NLS-1$
+		this.endpoint = endpoint;
+	}
+
+	/**
+	 * @return The endpoint (API interface and method) which was unavailable
+	 */
+	public String getEndpoint() {
+		return this.endpoint;
+	}
+
+	/**
+	 * @see javastrava.service.exception.StravaAPIException#getResponse()
+	 */
+	@Override
+	public StravaResponse getResponse() {
+		return this.response;
+	}
+
+	/**
+	 * @see javastrava.service.exception.StravaAPIException#setResponse(javastrava.model.StravaResponse)
+	 */
+	@Override
+	public void setResponse(final StravaResponse response) {
+		this.response = response;
+	}
+
+}
@@ -0,0 +1,61 @@
+package javastrava.service.exception;
+
+import javastrava.model.StravaResponse;
+
+/**
+ * <p>
+ * Thrown when an asynchronous call to the Strava API does not complete before the deadline set for it
+ * </p>
+ *
+ * @author Dan Shannon
+ */
+public class StravaAPITimeoutException extends RuntimeException implements StravaAPIException {
+
+	/**
+	 * Default
+	 */
+	private static final long	serialVersionUID	= 1L;
+
+	/**
+	 * Response from Strava API containing error details
+	 */
+	private StravaResponse		response;
+
+	/**
+	 * The deadline which was missed, in milliseconds
+	 */
+	private final long			timeout;
+
+	/**
+	 * @param status Status string
+	 * @param timeout The deadline which was missed, in milliseconds
+	 */
+	public StravaAPITimeoutException(final String status, final long timeout) {
+		super(status + " : " + timeout + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		this.timeout = timeout;
+	}
+
+	/**
+	 * @see javastrava.service.exception.StravaAPIException#getResponse()
+	 */
+	@Override
+	public StravaResponse getResponse() {
+		return this.response;
+	}
+
+	/**
+	 * @return The deadline which was missed, in milliseconds
+	 */
+	public long getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * @see javastrava.service.exception.StravaAPIException#setResponse(javastrava.model.StravaResponse)
+	 */
+	@Override
+	public void setResponse(final StravaResponse response) {
+		this.response = response;
+	}
+
+}
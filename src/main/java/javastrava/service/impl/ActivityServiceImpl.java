@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 import javastrava.auth.model.Token;
 import javastrava.cache.StravaCache;
@@ -18,6 +19,7 @@ import javastrava.model.StravaAthlete;
 import javastrava.model.StravaComment;
 import javastrava.model.StravaLap;
 import javastrava.model.StravaPhoto;
+import javastrava.model.StravaSegmentEffort;
 import javastrava.model.reference.StravaResourceState;
 import javastrava.service.ActivityService;
 import javastrava.service.exception.BadRequestException;
@@ -28,6 +30,7 @@ import javastrava.util.Paging;
 import javastrava.util.PagingHandler;
 import javastrava.util.PrivacyUtils;
 import javastrava.util.StravaDateUtils;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -52,15 +55,8 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 	 * @return An instance of the activity services
 	 */
 	public static ActivityService instance(final Token token) {
-		// Get the service from the token's cache
-		ActivityService service = token.getService(ActivityService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new ActivityServiceImpl(token);
-			token.addService(ActivityService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(ActivityService.class, ActivityServiceImpl::new);
 	}
 
 	/**
@@ -94,9 +90,10 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 	private ActivityServiceImpl(final Token token) {
 		super(token);
 		this.activityCache = new StravaCacheImpl<>(StravaActivity.class, token);
-		this.commentCache = new StravaCacheImpl<>(StravaComment.class, token);
-		this.lapCache = new StravaCacheImpl<>(StravaLap.class, token);
-		this.photoCache = new StravaCacheImpl<>(StravaPhoto.class, token);
+		this.activityCache.setRefresher(id -> this.api.getActivity(id, Boolean.FALSE));
+		this.commentCache = new StravaCacheImpl<>(StravaComment.class, token, StravaComment::getActivityId);
+		this.lapCache = new StravaCacheImpl<>(StravaLap.class, token, lap -> (lap.getActivity() == null ? null : lap.getActivity().getId()));
+		this.photoCache = new StravaCacheImpl<>(StravaPhoto.class, token, StravaPhoto::getActivityId);
 	}
 
 	/**
@@ -243,8 +240,13 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return null;
 		}
 
-		// If the delete worked, also remove it from the cache
+		// If the delete worked, also remove it and its comments, laps, photos and segment efforts from the cache
 		this.activityCache.remove(id);
+		this.commentCache.removeByParent(id);
+		this.lapCache.removeByParent(id);
+		this.photoCache.removeByParent(id);
+		// Segment efforts are cached by the athlete and segment effort services, so are removed for every token
+		StravaCacheImpl.invalidateByParent(StravaSegmentEffort.class, id);
 
 		// And finally, return it
 		return activity;
@@ -369,30 +371,45 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return null;
 		}
 
-		// Attempt to get the activity from cache
-		final StravaActivity cachedActivity = this.activityCache.get(activityId);
-		if (cachedActivity != null) {
-			return cachedActivity;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaActivity.class, Arrays.asList(activityId, includeAllEfforts), () -> {
+			// Attempt to get the activity from cache; Strava only returns a summary of other athletes' activities, so a cached summary will do for those
+			final StravaActivity cachedActivity = this.activityCache.getSummary(activityId);
+			if ((cachedActivity != null) && ((cachedActivity.getResourceState() == StravaResourceState.DETAILED) || !isAuthenticatedAthletes(cachedActivity))) {
+				return cachedActivity;
+			}
 
-		// If it wasn't in cache, then get it from the API
-		final StravaActivity stravaResponse;
-		try {
-			stravaResponse = this.api.getActivity(activityId, includeAllEfforts);
-		} catch (final NotFoundException e) {
-			// Activity doesn't exist - return null
-			return null;
-		} catch (final UnauthorizedException e) {
-			return PrivacyUtils.privateActivity(activityId);
-		}
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.activityCache.isNotFound(activityId)) {
+				return null;
+			}
+			final StravaActivity placeholder = this.activityCache.getPrivate(activityId);
+			if (placeholder != null) {
+				return placeholder;
+			}
 
-		// Put the activity in cache unless it's UPDATING
-		if (stravaResponse.getResourceState() != StravaResourceState.UPDATING) {
-			this.activityCache.put(stravaResponse);
-		}
+			// If it wasn't in cache, then get it from the API
+			final StravaActivity stravaResponse;
+			try {
+				stravaResponse = this.activityCache.load(() -> this.api.getActivity(activityId, includeAllEfforts));
+			} catch (final NotFoundException e) {
+				// Activity doesn't exist - return null
+				this.activityCache.putNotFound(activityId);
+				return null;
+			} catch (final UnauthorizedException e) {
+				final StravaActivity privateActivity = PrivacyUtils.privateActivity(activityId);
+				this.activityCache.putPrivate(privateActivity);
+				return privateActivity;
+			}
 
-		// And return it
-		return stravaResponse;
+			// Put the activity in cache unless it's UPDATING
+			if (stravaResponse.getResourceState() != StravaResourceState.UPDATING) {
+				this.activityCache.put(stravaResponse);
+			}
+
+			// And return it
+			return stravaResponse;
+		});
 	}
 
 	/**
@@ -415,6 +432,44 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 		});
 	}
 
+	/**
+	 * @see javastrava.service.ActivityService#getActivitySummary(java.lang.Long)
+	 */
+	@Override
+	public StravaActivity getActivitySummary(final Long activityId) {
+		if (activityId == null) {
+			return null;
+		}
+
+		// Any cached representation will do, e.g. from a page of activities already listed
+		final StravaActivity cachedActivity = this.activityCache.getSummary(activityId);
+		if (cachedActivity != null) {
+			return cachedActivity;
+		}
+		return getActivity(activityId);
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#getActivitySummaryAsync(java.lang.Long)
+	 */
+	@Override
+	public CompletableFuture<StravaActivity> getActivitySummaryAsync(final Long activityId) {
+		return StravaServiceImpl.future(() -> {
+			return getActivitySummary(activityId);
+		});
+	}
+
+	/**
+	 * @param activity
+	 *            An activity
+	 * @return <code>true</code> if the activity belongs to the authenticated athlete, or if that cannot be told
+	 */
+	private boolean isAuthenticatedAthletes(final StravaActivity activity) {
+		final StravaAthlete owner = activity.getAthlete();
+		final StravaAthlete authenticated = getToken().getAthlete();
+		return ((owner == null) || (owner.getId() == null) || (authenticated == null) || owner.getId().equals(authenticated.getId()));
+	}
+
 	/**
 	 * @see javastrava.service.ActivityService#giveKudos(java.lang.Long)
 	 */
@@ -613,15 +668,9 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return new ArrayList<StravaLap>();
 		}
 
-		// Try to get the laps from cache
-		final List<StravaLap> cachedLaps = this.lapCache.list();
-		List<StravaLap> laps = new ArrayList<StravaLap>();
-		for (final StravaLap lap : cachedLaps) {
-			if (lap.getActivity().getId().equals(id)) {
-				laps.add(lap);
-			}
-		}
-		if (!laps.isEmpty()) {
+		// Try to get the laps from cache, if they have all been cached
+		List<StravaLap> laps = this.lapCache.getByParent(id);
+		if (laps != null) {
 			return laps;
 		}
 
@@ -632,8 +681,8 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return null;
 		}
 
-		// Put them all in the cache
-		this.lapCache.putAll(laps);
+		// Put them all in the cache, as the complete list for the activity
+		this.lapCache.putAllByParent(id, laps);
 
 		// Finally, return the laps
 		return laps;
@@ -666,13 +715,10 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return new ArrayList<StravaPhoto>();
 		}
 
-		// Try to get the photos from cache
-		final List<StravaPhoto> cachedPhotos = this.photoCache.list();
-		List<StravaPhoto> photos = new ArrayList<StravaPhoto>();
-		for (final StravaPhoto photo : cachedPhotos) {
-			if (photo.getActivityId().equals(id)) {
-				photos.add(photo);
-			}
+		// Try to get the photos from cache, if they have all been cached
+		List<StravaPhoto> photos = this.photoCache.getByParent(id);
+		if (photos != null) {
+			return photos;
 		}
 
 		// Attempt to get the photos from Strava
@@ -685,8 +731,8 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 			return null;
 		}
 
-		// Put all the photos in cache
-		this.photoCache.putAll(photos);
+		// Put all the photos in cache, as the complete list for the activity
+		this.photoCache.putAllByParent(id, photos);
 
 		// Return the photos
 		return photos;
@@ -1025,6 +1071,46 @@ public class ActivityServiceImpl extends StravaServiceImpl implements ActivitySe
 		});
 	}
 
+	/**
+	 * @see javastrava.service.ActivityService#publishAllActivityComments(java.lang.Long)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaComment> publishAllActivityComments(final Long activityId) {
+		return PagingHandler.handlePublishAll(thisPage -> listActivityComments(activityId, thisPage));
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#publishAllActivityKudoers(java.lang.Long)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaAthlete> publishAllActivityKudoers(final Long activityId) {
+		return PagingHandler.handlePublishAll(thisPage -> listActivityKudoers(activityId, thisPage));
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#publishAllAuthenticatedAthleteActivities()
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaActivity> publishAllAuthenticatedAthleteActivities() {
+		return PagingHandler.handlePublishAll(thisPage -> listAuthenticatedAthleteActivities(thisPage));
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#streamAllAuthenticatedAthleteActivities()
+	 */
+	@Override
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities() {
+		return PagingHandler.handleStreamAll(thisPage -> listAuthenticatedAthleteActivities(thisPage));
+	}
+
+	/**
+	 * @see javastrava.service.ActivityService#streamAllAuthenticatedAthleteActivities(LocalDateTime, LocalDateTime)
+	 */
+	@Override
+	public Stream<StravaActivity> streamAllAuthenticatedAthleteActivities(final LocalDateTime before, final LocalDateTime after) {
+		return PagingHandler.handleStreamAll(thisPage -> listAuthenticatedAthleteActivities(before, after, thisPage));
+	}
+
 	/**
 	 * @see javastrava.service.ActivityService#updateActivity(Long,javastrava.model.StravaActivityUpdate)
 	 */
@@ -29,6 +29,11 @@ import javastrava.util.PagingHandler;
  *
  */
 public class AthleteServiceImpl extends StravaServiceImpl implements AthleteService {
+	/**
+	 * Key under which reads of the authenticated athlete are coalesced
+	 */
+	private static final String AUTHENTICATED_ATHLETE = "authenticated"; //$NON-NLS-1$
+
 	/**
 	 * <p>
 	 * Returns an instance of {@link AthleteService athlete services}
@@ -43,15 +48,8 @@ public class AthleteServiceImpl extends StravaServiceImpl implements AthleteServ
 	 * @return An instance of the athlete services
 	 */
 	public static AthleteService instance(final Token token) {
-		// Get the service from the token's cache
-		AthleteService service = token.getService(AthleteService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new AthleteServiceImpl(token);
-			token.addService(AthleteService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(AthleteService.class, AthleteServiceImpl::new);
 	}
 
 	/**
@@ -75,7 +73,8 @@ public class AthleteServiceImpl extends StravaServiceImpl implements AthleteServ
 	private AthleteServiceImpl(final Token token) {
 		super(token);
 		this.athleteCache = new StravaCacheImpl<>(StravaAthlete.class, token);
-		this.effortCache = new StravaCacheImpl<>(StravaSegmentEffort.class, token);
+		this.athleteCache.setRefresher(this.api::getAthlete);
+		this.effortCache = new StravaCacheImpl<>(StravaSegmentEffort.class, token, effort -> (effort.getActivity() == null ? null : effort.getActivity().getId()));
 	}
 
 	/**
@@ -94,29 +93,53 @@ public class AthleteServiceImpl extends StravaServiceImpl implements AthleteServ
 			return null;
 		}
 
-		// Attempt to get the athlete from the cache
-		StravaAthlete athlete = this.athleteCache.get(id);
-		if ((athlete != null) && (athlete.getResourceState() != StravaResourceState.META)) {
-			return athlete;
-		}
-
-		// Attempt to get the athlete from the API if it's not in cache
-		try {
-			athlete = this.api.getAthlete(id);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			if (accessTokenIsValid()) {
-				athlete = new StravaAthlete();
-				athlete.setId(id);
+		// Share the result with any identical read already in progress
+		return coalesce(StravaAthlete.class, id, () -> {
+			// Attempt to get the athlete from the cache; Strava only returns a summary of other athletes, so a cached summary will do for those
+			StravaAthlete athlete = this.athleteCache.getSummary(id);
+			if ((athlete != null) && ((athlete.getResourceState() == StravaResourceState.DETAILED) || !isAuthenticatedAthlete(id))) {
 				return athlete;
 			}
-			throw e;
-		}
 
-		// Put the athlete in the cache
-		this.athleteCache.put(athlete);
-		return athlete;
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.athleteCache.isNotFound(id)) {
+				return null;
+			}
+			final StravaAthlete placeholder = this.athleteCache.getPrivate(id);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// Attempt to get the athlete from the API if it's not in cache
+			try {
+				athlete = this.athleteCache.load(() -> this.api.getAthlete(id));
+			} catch (final NotFoundException e) {
+				this.athleteCache.putNotFound(id);
+				return null;
+			} catch (final UnauthorizedException e) {
+				if (accessTokenIsValid()) {
+					athlete = new StravaAthlete();
+					athlete.setId(id);
+					this.athleteCache.putPrivate(athlete);
+					return athlete;
+				}
+				throw e;
+			}
+
+			// Put the athlete in the cache
+			this.athleteCache.put(athlete);
+			return athlete;
+		});
+	}
+
+	/**
+	 * @param id
+	 *            Id of an athlete
+	 * @return <code>true</code> if the athlete is the authenticated athlete, or if that cannot be told
+	 */
+	private boolean isAuthenticatedAthlete(final Integer id) {
+		final StravaAthlete authenticated = getToken().getAthlete();
+		return ((authenticated == null) || (authenticated.getId() == null) || authenticated.getId().equals(id));
 	}
 
 	/**
@@ -132,18 +155,21 @@ public class AthleteServiceImpl extends StravaServiceImpl implements AthleteServ
 	 */
 	@Override
 	public StravaAthlete getAuthenticatedAthlete() {
-		// Try to get it from the cache
-		StravaAthlete athlete = this.athleteCache.get(this.getToken().getAthlete().getId());
-		if (athlete != null) {
-			return athlete;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaAthlete.class, AUTHENTICATED_ATHLETE, () -> {
+			// Try to get it from the cache
+			StravaAthlete athlete = this.athleteCache.get(this.getToken().getAthlete().getId());
+			if (athlete != null) {
+				return athlete;
+			}
 
-		// Now get it via the API
-		athlete = this.api.getAuthenticatedAthlete();
+			// Now get it via the API
+			athlete = this.athleteCache.load(() -> this.api.getAuthenticatedAthlete());
 
-		// Put it in the cache and return
-		this.athleteCache.put(athlete);
-		return athlete;
+			// Put it in the cache and return
+			this.athleteCache.put(athlete);
+			return athlete;
+		});
 	}
 
 	/**
@@ -161,7 +187,10 @@ public class AthleteServiceImpl extends StravaServiceImpl implements AthleteServ
 	 */
 	@Override
 	public StravaAthleteZones getAuthenticatedAthleteZones() {
-		return this.api.getAuthenticatedAthleteZones();
+		// Share the result with any identical read already in progress
+		return coalesce(StravaAthleteZones.class, null, () -> {
+			return this.api.getAuthenticatedAthleteZones();
+		});
 	}
 
 	/**
@@ -39,15 +39,8 @@ public class ChallengeServiceImpl extends StravaServiceImpl implements Challenge
 	 *             If the token used to create the service is invalid
 	 */
 	public static ChallengeService instance(final Token token) {
-		// Get the service from the token's cache
-		ChallengeService service = token.getService(ChallengeService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new ChallengeServiceImpl(token);
-			token.addService(ChallengeService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(ChallengeService.class, ChallengeServiceImpl::new);
 	}
 
 	private final StravaCache<StravaChallenge, Integer> cache;
@@ -75,22 +68,37 @@ public class ChallengeServiceImpl extends StravaServiceImpl implements Challenge
 			return null;
 		}
 
-		// Attempt to get the challenge from the cache
-		StravaChallenge challenge = this.cache.get(id);
-		if (challenge != null) {
-			return challenge;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaChallenge.class, id, () -> {
+			// Attempt to get the challenge from the cache
+			StravaChallenge challenge = this.cache.get(id);
+			if (challenge != null) {
+				return challenge;
+			}
+
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.cache.isNotFound(id)) {
+				return null;
+			}
+			final StravaChallenge placeholder = this.cache.getPrivate(id);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// If it wasn't in the cache, then get it from Strava
+			try {
+				challenge = this.cache.load(() -> this.api.getChallenge(id));
+			} catch (final NotFoundException e) {
+				this.cache.putNotFound(id);
+				return null;
+			} catch (final UnauthorizedException e) {
+				challenge = PrivacyUtils.privateChallenge(id);
+				this.cache.putPrivate(challenge);
+				return challenge;
+			}
 
-		// If it wasn't in the cache, then get it from Strava
-		try {
-			challenge = this.api.getChallenge(id);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			return PrivacyUtils.privateChallenge(id);
-		}
-
-		return challenge;
+			return challenge;
+		});
 	}
 
 	@Override
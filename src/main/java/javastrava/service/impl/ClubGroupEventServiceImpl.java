@@ -38,15 +38,8 @@ public class ClubGroupEventServiceImpl extends StravaServiceImpl implements Club
 	 * @return The service instance
 	 */
 	public static ClubGroupEventService instance(Token token) {
-		// Get the service from the token's cache
-		ClubGroupEventService service = token.getService(ClubGroupEventService.class);
-
-		// If it's not already there, create a new one and put it in the token's cache
-		if (service == null) {
-			service = new ClubGroupEventServiceImpl(token);
-			token.addService(ClubGroupEventService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(ClubGroupEventService.class, ClubGroupEventServiceImpl::new);
 	}
 
 	private final StravaCache<StravaClubEvent, Integer> clubEventCache;
@@ -54,6 +47,7 @@ public class ClubGroupEventServiceImpl extends StravaServiceImpl implements Club
 	private ClubGroupEventServiceImpl(Token token) {
 		super(token);
 		this.clubEventCache = new StravaCacheImpl<StravaClubEvent, Integer>(StravaClubEvent.class, token);
+		this.clubEventCache.setRefresher(this.api::getEvent);
 	}
 
 	@Override
@@ -91,30 +85,44 @@ public class ClubGroupEventServiceImpl extends StravaServiceImpl implements Club
 			return null;
 		}
 
-		// Attempt to get the event from the cache
-		final StravaClubEvent cachedEvent = this.clubEventCache.get(id);
-		if (cachedEvent != null) {
-			return cachedEvent;
-		}
-
-		// If it wasn't in cache, get it from the API
-		StravaClubEvent event;
-		try {
-			event = this.api.getEvent(id);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			event = new StravaClubEvent();
-			event.setId(id);
-			event.setResourceState(StravaResourceState.PRIVATE);
+		// Share the result with any identical read already in progress
+		return coalesce(StravaClubEvent.class, id, () -> {
+			// Attempt to get the event from the cache
+			final StravaClubEvent cachedEvent = this.clubEventCache.get(id);
+			if (cachedEvent != null) {
+				return cachedEvent;
+			}
+
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.clubEventCache.isNotFound(id)) {
+				return null;
+			}
+			final StravaClubEvent placeholder = this.clubEventCache.getPrivate(id);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// If it wasn't in cache, get it from the API
+			StravaClubEvent event;
+			try {
+				event = this.clubEventCache.load(() -> this.api.getEvent(id));
+			} catch (final NotFoundException e) {
+				this.clubEventCache.putNotFound(id);
+				return null;
+			} catch (final UnauthorizedException e) {
+				event = new StravaClubEvent();
+				event.setId(id);
+				event.setResourceState(StravaResourceState.PRIVATE);
+				this.clubEventCache.putPrivate(event);
+				return event;
+			}
+
+			// Put the event in the cache
+			this.clubEventCache.put(event);
+
+			// Return it
 			return event;
-		}
-
-		// Put the event in the cache
-		this.clubEventCache.put(event);
-
-		// Return it
-		return event;
+		});
 	}
 
 	@Override
@@ -21,6 +21,7 @@ import javastrava.service.exception.UnauthorizedException;
 import javastrava.util.Paging;
 import javastrava.util.PagingHandler;
 import javastrava.util.PrivacyUtils;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -59,15 +60,8 @@ public class ClubServiceImpl extends StravaServiceImpl implements ClubService {
 	 *             If the token used to create the service is invalid
 	 */
 	public static ClubService instance(final Token token) {
-		// Get the service from the token's cache
-		ClubService service = token.getService(ClubService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new ClubServiceImpl(token);
-			token.addService(ClubService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(ClubService.class, ClubServiceImpl::new);
 	}
 
 	/**
@@ -84,6 +78,7 @@ public class ClubServiceImpl extends StravaServiceImpl implements ClubService {
 	private ClubServiceImpl(final Token token) {
 		super(token);
 		this.clubCache = new StravaCacheImpl<StravaClub, Integer>(StravaClub.class, token);
+		this.clubCache.setRefresher(this.api::getClub);
 	}
 
 	/**
@@ -104,24 +99,39 @@ public class ClubServiceImpl extends StravaServiceImpl implements ClubService {
 			return null;
 		}
 
-		// Attempt to get the club from the cache
-		StravaClub club = this.clubCache.get(id);
-		if ((club != null) && (club.getResourceState() != StravaResourceState.META)) {
-			return club;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaClub.class, id, () -> {
+			// Attempt to get the club from the cache
+			StravaClub club = this.clubCache.get(id);
+			if ((club != null) && (club.getResourceState() != StravaResourceState.META)) {
+				return club;
+			}
 
-		// If it wasn't in cache, get it from Strava
-		try {
-			club = this.api.getClub(id);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			club = PrivacyUtils.privateClubRepresentation(id);
-		}
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.clubCache.isNotFound(id)) {
+				return null;
+			}
+			final StravaClub placeholder = this.clubCache.getPrivate(id);
+			if (placeholder != null) {
+				return placeholder;
+			}
 
-		// Put it in the cache and return it
-		this.clubCache.put(club);
-		return club;
+			// If it wasn't in cache, get it from Strava
+			try {
+				club = this.clubCache.load(() -> this.api.getClub(id));
+			} catch (final NotFoundException e) {
+				this.clubCache.putNotFound(id);
+				return null;
+			} catch (final UnauthorizedException e) {
+				club = PrivacyUtils.privateClubRepresentation(id);
+				this.clubCache.putPrivate(club);
+				return club;
+			}
+
+			// Put it in the cache and return it
+			this.clubCache.put(club);
+			return club;
+		});
 	}
 
 	/**
@@ -463,4 +473,11 @@ public class ClubServiceImpl extends StravaServiceImpl implements ClubService {
 		});
 	}
 
+	/**
+	 * @see javastrava.service.ClubService#publishAllClubMembers(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaAthlete> publishAllClubMembers(final Integer clubId) {
+		return PagingHandler.handlePublishAll(thisPage -> listClubMembers(clubId, thisPage));
+	}
 }
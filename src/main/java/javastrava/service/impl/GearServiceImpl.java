@@ -38,15 +38,8 @@ public class GearServiceImpl extends StravaServiceImpl implements GearService {
 	 *             If the token used to create the service is invalid
 	 */
 	public static GearService instance(final Token token) {
-		// Get the service from the token's cache
-		GearService service = token.getService(GearService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new GearServiceImpl(token);
-			token.addService(GearService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(GearService.class, GearServiceImpl::new);
 	}
 
 	/**
@@ -65,6 +58,7 @@ public class GearServiceImpl extends StravaServiceImpl implements GearService {
 	private GearServiceImpl(final Token token) {
 		super(token);
 		this.gearCache = new StravaCacheImpl<StravaGear, String>(StravaGear.class, token);
+		this.gearCache.setRefresher(this.api::getGear);
 	}
 
 	/**
@@ -85,24 +79,39 @@ public class GearServiceImpl extends StravaServiceImpl implements GearService {
 			return null;
 		}
 
-		// Attempt to get the gear from cache
-		StravaGear gear = this.gearCache.get(gearId);
-		if ((gear != null) && (gear.getResourceState() != StravaResourceState.META)) {
-			return gear;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaGear.class, gearId, () -> {
+			// Attempt to get the gear from cache
+			StravaGear gear = this.gearCache.get(gearId);
+			if ((gear != null) && (gear.getResourceState() != StravaResourceState.META)) {
+				return gear;
+			}
 
-		// If it wasn't in cache, try to get it from the API
-		try {
-			gear = this.api.getGear(gearId);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			gear = PrivacyUtils.privateGear(gearId);
-		}
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.gearCache.isNotFound(gearId)) {
+				return null;
+			}
+			final StravaGear placeholder = this.gearCache.getPrivate(gearId);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// If it wasn't in cache, try to get it from the API
+			try {
+				gear = this.gearCache.load(() -> this.api.getGear(gearId));
+			} catch (final NotFoundException e) {
+				this.gearCache.putNotFound(gearId);
+				return null;
+			} catch (final UnauthorizedException e) {
+				gear = PrivacyUtils.privateGear(gearId);
+				this.gearCache.putPrivate(gear);
+				return gear;
+			}
 
-		// Put the gear in cache and return it
-		this.gearCache.put(gear);
-		return gear;
+			// Put the gear in cache and return it
+			this.gearCache.put(gear);
+			return gear;
+		});
 	}
 
 	/**
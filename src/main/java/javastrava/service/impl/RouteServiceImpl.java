@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import javastrava.auth.model.Token;
+import javastrava.cache.impl.StravaCacheImpl;
 import javastrava.model.StravaRoute;
 import javastrava.service.RouteService;
 import javastrava.service.exception.NotFoundException;
@@ -35,17 +36,15 @@ public class RouteServiceImpl extends StravaServiceImpl implements RouteService
 	 * @return An instance of the stream services
 	 */
 	public static RouteService instance(final Token token) {
-		// Get the service from the token's cache
-		RouteService service = token.getService(RouteService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new RouteServiceImpl(token);
-			token.addService(RouteService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(RouteService.class, RouteServiceImpl::new);
 	}
 
+	/**
+	 * Cache of routes
+	 */
+	private final StravaCacheImpl<StravaRoute, Integer> routeCache;
+
 	/**
 	 * <p>
 	 * Private constructor prevents anyone from getting an instance without a valid access token
@@ -56,12 +55,13 @@ public class RouteServiceImpl extends StravaServiceImpl implements RouteService
 	 */
 	private RouteServiceImpl(final Token token) {
 		super(token);
+		this.routeCache = new StravaCacheImpl<StravaRoute, Integer>(StravaRoute.class, token);
+		this.routeCache.setRefresher(this.api::getRoute);
 	}
 
 	@Override
 	public void clearCache() {
-		// Nothing to do - not cached
-
+		this.routeCache.removeAll();
 	}
 
 	@Override
@@ -70,11 +70,35 @@ public class RouteServiceImpl extends StravaServiceImpl implements RouteService
 			return null;
 		}
 
-		try {
-			return this.api.getRoute(routeId);
-		} catch (final NotFoundException e) {
-			return null;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaRoute.class, routeId, () -> {
+			// Attempt to get the route from the cache
+			StravaRoute route = this.routeCache.get(routeId);
+			if (route != null) {
+				return route;
+			}
+
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.routeCache.isNotFound(routeId)) {
+				return null;
+			}
+			final StravaRoute placeholder = this.routeCache.getPrivate(routeId);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// If it wasn't in cache, get it from Strava
+			try {
+				route = this.routeCache.load(() -> this.api.getRoute(routeId));
+			} catch (final NotFoundException e) {
+				this.routeCache.putNotFound(routeId);
+				return null;
+			}
+
+			// Put it in the cache and return it
+			this.routeCache.put(route);
+			return route;
+		});
 	}
 
 	@Override
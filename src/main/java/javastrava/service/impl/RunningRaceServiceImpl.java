@@ -35,15 +35,8 @@ public class RunningRaceServiceImpl extends StravaServiceImpl implements Running
 	 * @return An instance of the activity services
 	 */
 	public static RunningRaceService instance(final Token token) {
-		// Get the service from the token's cache
-		RunningRaceService service = token.getService(RunningRaceService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new RunningRaceServiceImpl(token);
-			token.addService(RunningRaceService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(RunningRaceService.class, RunningRaceServiceImpl::new);
 	}
 
 	private final StravaCacheImpl<StravaRunningRace, Integer> runningRaceCache;
@@ -59,6 +52,7 @@ public class RunningRaceServiceImpl extends StravaServiceImpl implements Running
 	private RunningRaceServiceImpl(final Token token) {
 		super(token);
 		this.runningRaceCache = new StravaCacheImpl<StravaRunningRace, Integer>(StravaRunningRace.class, token);
+		this.runningRaceCache.setRefresher(this.api::getRace);
 	}
 
 	@Override
@@ -73,11 +67,35 @@ public class RunningRaceServiceImpl extends StravaServiceImpl implements Running
 			return null;
 		}
 
-		try {
-			return this.api.getRace(id);
-		} catch (final NotFoundException e) {
-			return null;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaRunningRace.class, id, () -> {
+			// Attempt to get the race from the cache
+			StravaRunningRace race = this.runningRaceCache.get(id);
+			if (race != null) {
+				return race;
+			}
+
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.runningRaceCache.isNotFound(id)) {
+				return null;
+			}
+			final StravaRunningRace placeholder = this.runningRaceCache.getPrivate(id);
+			if (placeholder != null) {
+				return placeholder;
+			}
+
+			// If it wasn't in cache, get it from Strava
+			try {
+				race = this.runningRaceCache.load(() -> this.api.getRace(id));
+			} catch (final NotFoundException e) {
+				this.runningRaceCache.putNotFound(id);
+				return null;
+			}
+
+			// Put it in the cache and return it
+			this.runningRaceCache.put(race);
+			return race;
+		});
 	}
 
 	@Override
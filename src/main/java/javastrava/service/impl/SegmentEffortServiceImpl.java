@@ -33,15 +33,8 @@ public class SegmentEffortServiceImpl extends StravaServiceImpl implements Segme
 	 * @return An instance of the segment effort services
 	 */
 	public static SegmentEffortService instance(final Token token) {
-		// Get the service from the token's cache
-		SegmentEffortService service = token.getService(SegmentEffortService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new SegmentEffortServiceImpl(token);
-			token.addService(SegmentEffortService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(SegmentEffortService.class, SegmentEffortServiceImpl::new);
 	}
 
 	/**
@@ -59,7 +52,7 @@ public class SegmentEffortServiceImpl extends StravaServiceImpl implements Segme
 	 */
 	private SegmentEffortServiceImpl(final Token token) {
 		super(token);
-		this.effortCache = new StravaCacheImpl<StravaSegmentEffort, Long>(StravaSegmentEffort.class, token);
+		this.effortCache = new StravaCacheImpl<StravaSegmentEffort, Long>(StravaSegmentEffort.class, token, effort -> (effort.getActivity() == null ? null : effort.getActivity().getId()));
 	}
 
 	/**
@@ -80,35 +73,52 @@ public class SegmentEffortServiceImpl extends StravaServiceImpl implements Segme
 			return null;
 		}
 
-		// Try to get the effort from cache
-		StravaSegmentEffort effort = this.effortCache.get(segmentEffortId);
-		if ((effort != null) && (effort.getResourceState() != StravaResourceState.META)) {
-			return effort;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaSegmentEffort.class, segmentEffortId, () -> {
+			// Try to get the effort from cache
+			StravaSegmentEffort effort = this.effortCache.get(segmentEffortId);
+			if ((effort != null) && (effort.getResourceState() != StravaResourceState.META)) {
+				return effort;
+			}
 
-		// If it wasn't in cache, get it from the API
-		try {
-			effort = this.api.getSegmentEffort(segmentEffortId);
-		} catch (final NotFoundException e) {
-			// Segment effort doesn't exist
-			return null;
-		} catch (final UnauthorizedException e) {
-			effort = PrivacyUtils.privateSegmentEffort(segmentEffortId);
-		}
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.effortCache.isNotFound(segmentEffortId)) {
+				return null;
+			}
+			final StravaSegmentEffort placeholder = this.effortCache.getPrivate(segmentEffortId);
+			if (placeholder != null) {
+				return placeholder;
+			}
 
-		// TODO This is a workaround for issue javastrava-api #78
-		// See https://github.com/danshannon/javastravav3api/issues/78
-		if (effort.getResourceState() == StravaResourceState.DETAILED) {
-			final StravaSegment segment = this.getToken().getService(SegmentService.class).getSegment(effort.getSegment().getId());
-			if (segment.getResourceState() == StravaResourceState.PRIVATE) {
+			// If it wasn't in cache, get it from the API
+			try {
+				effort = this.effortCache.load(() -> this.api.getSegmentEffort(segmentEffortId));
+			} catch (final NotFoundException e) {
+				// Segment effort doesn't exist
+				this.effortCache.putNotFound(segmentEffortId);
+				return null;
+			} catch (final UnauthorizedException e) {
 				effort = PrivacyUtils.privateSegmentEffort(segmentEffortId);
 			}
-		}
-		// End of workaround
 
-		// Put the effort into cache and return it
-		this.effortCache.put(effort);
-		return effort;
+			// TODO This is a workaround for issue javastrava-api #78
+			// See https://github.com/danshannon/javastravav3api/issues/78
+			if (effort.getResourceState() == StravaResourceState.DETAILED) {
+				final StravaSegment segment = this.getToken().getService(SegmentService.class).getSegment(effort.getSegment().getId());
+				if (segment.getResourceState() == StravaResourceState.PRIVATE) {
+					effort = PrivacyUtils.privateSegmentEffort(segmentEffortId);
+				}
+			}
+			// End of workaround
+
+			// Put the effort into cache and return it
+			if (effort.getResourceState() == StravaResourceState.PRIVATE) {
+				this.effortCache.putPrivate(effort);
+			} else {
+				this.effortCache.put(effort);
+			}
+			return effort;
+		});
 	}
 
 	/**
@@ -34,6 +34,7 @@ import javastrava.util.Paging;
 import javastrava.util.PagingHandler;
 import javastrava.util.PagingUtils;
 import javastrava.util.PrivacyUtils;
+import javastrava.util.StravaFlow;
 
 /**
  * <p>
@@ -61,16 +62,8 @@ public class SegmentServiceImpl extends StravaServiceImpl implements SegmentServ
 		if (token == null) {
 			throw new IllegalArgumentException(Messages.string("SegmentServiceImpl.cannotInstantiateWithNullToken")); //$NON-NLS-1$
 		}
-		final Class<SegmentService> class1 = SegmentService.class;
-		// Get the service from the token's cache
-		SegmentService service = token.getService(class1);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new SegmentServiceImpl(token);
-			token.addService(class1, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(SegmentService.class, SegmentServiceImpl::new);
 	}
 
 	/**
@@ -89,6 +82,14 @@ public class SegmentServiceImpl extends StravaServiceImpl implements SegmentServ
 	private SegmentServiceImpl(final Token token) {
 		super(token);
 		this.segmentCache = new StravaCacheImpl<StravaSegment, Integer>(StravaSegment.class, token);
+		this.segmentCache.setRefresher(id -> {
+			final StravaSegment segment = this.api.getSegment(id);
+			// Same workaround for javastrava-api #70 as getSegment
+			if ((segment.getResourceState() != StravaResourceState.PRIVATE) && Boolean.TRUE.equals(segment.getPrivateSegment()) && !getToken().hasViewPrivate()) {
+				return PrivacyUtils.privateSegment(id);
+			}
+			return segment;
+		});
 	}
 
 	/**
@@ -173,33 +174,35 @@ public class SegmentServiceImpl extends StravaServiceImpl implements SegmentServ
 	@Override
 	public StravaSegmentLeaderboard getAllSegmentLeaderboard(final Integer segmentId, final StravaGender gender, final StravaAgeGroup ageGroup, final StravaWeightClass weightClass,
 			final Boolean following, final Integer clubId, final StravaLeaderboardDateRange dateRange) {
-		boolean loop = true;
-		StravaSegmentLeaderboard leaderboard = new StravaSegmentLeaderboard();
-
-		int page = 0;
-		while (loop) {
-			page++;
-			StravaSegmentLeaderboard currentPage;
-			try {
-				currentPage = getSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, new Paging(Integer.valueOf(page), StravaConfig.MAX_PAGE_SIZE),
-						Integer.valueOf(2));
-			} catch (final UnauthorizedException e) {
-				return new StravaSegmentLeaderboard();
-			}
-			if (currentPage == null) {
-				return null; // Activity doesn't exist
-			}
-			if ((currentPage.getEntries() == null) || (currentPage.getEntries().size() < StravaConfig.MAX_PAGE_SIZE.intValue())) {
-				loop = false;
-			}
-			if (page == 1) {
-				leaderboard = currentPage;
-			} else {
-				leaderboard.getEntries().addAll(currentPage.getEntries());
+		// Share the result with any identical read already in progress
+		return coalesce(StravaSegmentLeaderboard.class, Arrays.asList(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange), () -> {
+			boolean loop = true;
+			StravaSegmentLeaderboard leaderboard = new StravaSegmentLeaderboard();
+
+			int page = 0;
+			while (loop) {
+				page++;
+				StravaSegmentLeaderboard currentPage;
+				try {
+					currentPage = getSegmentLeaderboard(segmentId, gender, ageGroup, weightClass, following, clubId, dateRange, new Paging(Integer.valueOf(page), StravaConfig.MAX_PAGE_SIZE),
+							Integer.valueOf(2));
+				} catch (final UnauthorizedException e) {
+					return new StravaSegmentLeaderboard();
+				}
+				if (currentPage == null) {
+					return null; // Activity doesn't exist
+				}
+				if ((currentPage.getEntries() == null) || (currentPage.getEntries().size() < StravaConfig.MAX_PAGE_SIZE.intValue())) {
+					loop = false;
+				}
+				if (page == 1) {
+					leaderboard = currentPage;
+				} else {
+					leaderboard.getEntries().addAll(currentPage.getEntries());
+				}
 			}
-		}
-		return leaderboard;
-
+			return leaderboard;
+		});
 	}
 
 	/**
@@ -234,32 +237,48 @@ public class SegmentServiceImpl extends StravaServiceImpl implements SegmentServ
 			return null;
 		}
 
-		// Try to get the segment from cache
-		StravaSegment segment = this.segmentCache.get(segmentId);
-		if ((segment != null) && (segment.getResourceState() != StravaResourceState.META)) {
-			return segment;
-		}
+		// Share the result with any identical read already in progress
+		return coalesce(StravaSegment.class, segmentId, () -> {
+			// Try to get the segment from cache
+			StravaSegment segment = this.segmentCache.get(segmentId);
+			if ((segment != null) && (segment.getResourceState() != StravaResourceState.META)) {
+				return segment;
+			}
 
-		try {
-			segment = this.api.getSegment(segmentId);
-		} catch (final NotFoundException e) {
-			return null;
-		} catch (final UnauthorizedException e) {
-			segment = PrivacyUtils.privateSegment(segmentId);
-		}
+			// Don't ask Strava again about an id it has recently said doesn't exist, or isn't visible
+			if (this.segmentCache.isNotFound(segmentId)) {
+				return null;
+			}
+			final StravaSegment placeholder = this.segmentCache.getPrivate(segmentId);
+			if (placeholder != null) {
+				return placeholder;
+			}
 
-		// TODO Workaround for javastrava-api #70
-		// If the segment is private and the token doesn't have view_private
-		// scope, then return an empty segment
-		if ((segment.getResourceState() != StravaResourceState.PRIVATE) && segment.getPrivateSegment().equals(Boolean.TRUE) && !getToken().hasViewPrivate()) {
-			segment = PrivacyUtils.privateSegment(segmentId);
-		}
-		// End of workaround
+			try {
+				segment = this.segmentCache.load(() -> this.api.getSegment(segmentId));
+			} catch (final NotFoundException e) {
+				this.segmentCache.putNotFound(segmentId);
+				return null;
+			} catch (final UnauthorizedException e) {
+				segment = PrivacyUtils.privateSegment(segmentId);
+			}
 
-		// Put the segment in cache and return it
-		this.segmentCache.put(segment);
-		return segment;
+			// TODO Workaround for javastrava-api #70
+			// If the segment is private and the token doesn't have view_private
+			// scope, then return an empty segment
+			if ((segment.getResourceState() != StravaResourceState.PRIVATE) && segment.getPrivateSegment().equals(Boolean.TRUE) && !getToken().hasViewPrivate()) {
+				segment = PrivacyUtils.privateSegment(segmentId);
+			}
+			// End of workaround
 
+			// Put the segment in cache and return it
+			if (segment.getResourceState() == StravaResourceState.PRIVATE) {
+				this.segmentCache.putPrivate(segment);
+			} else {
+				this.segmentCache.put(segment);
+			}
+			return segment;
+		});
 	}
 
 	/**
@@ -728,6 +747,25 @@ public class SegmentServiceImpl extends StravaServiceImpl implements SegmentServ
 		});
 	}
 
+	/**
+	 * @see javastrava.service.SegmentService#publishAllSegmentEfforts(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaSegmentEffort> publishAllSegmentEfforts(final Integer segmentId) {
+		return PagingHandler.handlePublishAll(thisPage -> listSegmentEfforts(segmentId, null, null, null, thisPage));
+	}
+
+	/**
+	 * @see javastrava.service.SegmentService#publishAllSegmentLeaderboardEntries(java.lang.Integer)
+	 */
+	@Override
+	public StravaFlow.Publisher<StravaSegmentLeaderboardEntry> publishAllSegmentLeaderboardEntries(final Integer segmentId) {
+		return PagingHandler.handlePublishAll(thisPage -> {
+			final StravaSegmentLeaderboard leaderboard = getSegmentLeaderboard(segmentId, null, null, null, null, null, null, thisPage, Integer.valueOf(2));
+			return (leaderboard == null ? null : leaderboard.getEntries());
+		});
+	}
+
 	/**
 	 * @see javastrava.service.SegmentService#segmentExplore(StravaMapPoint, StravaMapPoint, StravaSegmentExplorerActivityType, StravaClimbCategory, StravaClimbCategory)
 	 */
@@ -1,11 +1,16 @@
 package javastrava.service.impl;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 import javastrava.api.API;
+import javastrava.api.util.RequestLane;
+import javastrava.api.util.TransportRegistry;
 import javastrava.auth.model.Token;
 import javastrava.service.async.AsyncCallback;
 import javastrava.service.exception.UnauthorizedException;
+import javastrava.util.SingleFlight;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -25,13 +30,24 @@ public abstract class StravaServiceImpl {
 	public static Logger log = LogManager.getLogger();
 
 	/**
+	 * <p>
+	 * Runs the callback on the shared asynchronous executor (see {@link TransportRegistry#getAsyncExecutor()}), rather than the common fork/join pool
+	 * </p>
+	 *
 	 * @param <T> Type which will be returned by the future
 	 * @param callback Callback with code to be executed
-	 * @return A {@link CompletableFuture}
+	 * @return A {@link CompletableFuture}, which completes exceptionally with a {@link RejectedExecutionException} if too many asynchronous calls are already in flight
 	 */
 	protected static <T> CompletableFuture<T> future(final AsyncCallback<T> callback) {
-		final CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> callback.run());
-		return future;
+		// Run the callback in the caller's lane, whichever thread it ends up on
+		final RequestLane lane = RequestLane.current();
+		try {
+			return CompletableFuture.supplyAsync(() -> RequestLane.call(lane, () -> callback.run()), TransportRegistry.instance().getAsyncExecutor());
+		} catch (final RejectedExecutionException e) {
+			final CompletableFuture<T> future = new CompletableFuture<T>();
+			future.completeExceptionally(e);
+			return future;
+		}
 	}
 
 	/**
@@ -58,6 +74,25 @@ public abstract class StravaServiceImpl {
 		this.api = new API(token);
 	}
 
+	/**
+	 * <p>
+	 * Runs the loader, unless an identical read with the same token is already in progress on another thread, in which case shares its result. See {@link SingleFlight}.
+	 * </p>
+	 *
+	 * @param <T>
+	 *            Type of value being read
+	 * @param class1
+	 *            Class of entity being read
+	 * @param key
+	 *            Identity of the entity (and any parameters which change the response)
+	 * @param loader
+	 *            Reads the value from the cache or the API
+	 * @return The value
+	 */
+	protected <T> T coalesce(final Class<?> class1, final Object key, final Supplier<T> loader) {
+		return SingleFlight.instance().execute((this.token == null ? null : this.token.getToken()), class1, key, loader);
+	}
+
 	/**
 	 * <p>
 	 * Work out if the access token is valid (i.e. has not been revoked)
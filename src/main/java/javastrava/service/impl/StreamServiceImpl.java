@@ -56,15 +56,8 @@ public class StreamServiceImpl extends StravaServiceImpl implements StreamServic
 	 * @return An instance of the stream services
 	 */
 	public static StreamService instance(final Token token) {
-		// Get the service from the token's cache
-		StreamService service = token.getService(StreamService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new StreamServiceImpl(token);
-			token.addService(StreamService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(StreamService.class, StreamServiceImpl::new);
 	}
 
 	/**
@@ -169,7 +162,9 @@ public class StreamServiceImpl extends StravaServiceImpl implements StreamServic
 
 		List<StravaStream> streams;
 		try {
-			streams = Arrays.asList(this.api.getActivityStreams(activityId, typeString(typesToGet), resolution, seriesType));
+			final String typeString = typeString(typesToGet);
+			streams = coalesce(StravaStream.class, Arrays.asList(StravaActivity.class, activityId, typeString, resolution, seriesType),
+					() -> Arrays.asList(this.api.getActivityStreams(activityId, typeString, resolution, seriesType)));
 		} catch (final NotFoundException e) {
 			return null;
 		} catch (final BadRequestException e) {
@@ -241,7 +236,9 @@ public class StreamServiceImpl extends StravaServiceImpl implements StreamServic
 		}
 
 		try {
-			return Arrays.asList(this.api.getEffortStreams(effortId, typeString(typesToGet), resolution, seriesType));
+			final String typeString = typeString(typesToGet);
+			return coalesce(StravaStream.class, Arrays.asList(StravaSegmentEffort.class, effortId, typeString, resolution, seriesType),
+					() -> Arrays.asList(this.api.getEffortStreams(effortId, typeString, resolution, seriesType)));
 		} catch (final NotFoundException e) {
 			return null;
 		} catch (final BadRequestException e) {
@@ -304,7 +301,9 @@ public class StreamServiceImpl extends StravaServiceImpl implements StreamServic
 		}
 
 		try {
-			return Arrays.asList(this.api.getSegmentStreams(segmentId, typeString(typesToGet), resolution, seriesType));
+			final String typeString = typeString(typesToGet);
+			return coalesce(StravaStream.class, Arrays.asList(StravaSegment.class, segmentId, typeString, resolution, seriesType),
+					() -> Arrays.asList(this.api.getSegmentStreams(segmentId, typeString, resolution, seriesType)));
 		} catch (final NotFoundException e) {
 			return null;
 		} catch (final BadRequestException e) {
@@ -36,15 +36,8 @@ public class UploadServiceImpl extends StravaServiceImpl implements UploadServic
 	 * @return An instance of the upload services
 	 */
 	public static UploadService instance(final Token token) {
-		// Get the service from the token's cache
-		UploadService service = token.getService(UploadService.class);
-
-		// If it's not already there, create a new one and put it in the token
-		if (service == null) {
-			service = new UploadServiceImpl(token);
-			token.addService(UploadService.class, service);
-		}
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(UploadService.class, UploadServiceImpl::new);
 	}
 
 	/**
@@ -19,14 +19,8 @@ public class WebhookServiceImpl extends StravaServiceImpl implements WebhookServ
 	 * @return An instance of the service
 	 */
 	public static WebhookService instance(final Token token) {
-		WebhookService service = token.getService(WebhookService.class);
-
-		if (service == null) {
-			service = new WebhookServiceImpl(token);
-			token.addService(WebhookService.class, service);
-		}
-
-		return service;
+		// Get the service from the token's cache, creating it if it's not already there
+		return token.getService(WebhookService.class, WebhookServiceImpl::new);
 	}
 
 	/**
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.RecursiveTask;
 
+import javastrava.api.util.RequestLane;
 import javastrava.service.exception.BadRequestException;
 import javastrava.service.exception.NotFoundException;
 
@@ -26,14 +27,28 @@ public class PagingForkJoinTask<T> extends RecursiveTask<List<T>> {
 	 * List of pages to get from the Strava API
 	 */
 	private final List<Paging> pages;
+	/**
+	 * Lane of the thread which created the task; pages are requested in the same lane whichever pool thread gets them
+	 */
+	private final RequestLane lane;
 
 	/**
 	 * @param callback The callback which will be used to get a page of data from the Strava API
 	 * @param pages The list of paging instructions
 	 */
 	public PagingForkJoinTask(final PagingCallback<T> callback, final List<Paging> pages) {
+		this(callback, pages, RequestLane.current());
+	}
+
+	/**
+	 * @param callback The callback which will be used to get a page of data from the Strava API
+	 * @param pages The list of paging instructions
+	 * @param lane The lane in which to request the pages
+	 */
+	private PagingForkJoinTask(final PagingCallback<T> callback, final List<Paging> pages, final RequestLane lane) {
 		this.callback = callback;
 		this.pages = pages;
+		this.lane = lane;
 	}
 
 	/**
@@ -47,7 +62,7 @@ public class PagingForkJoinTask<T> extends RecursiveTask<List<T>> {
 		if (this.pages.size() == 1) {
 			try {
 				final Paging pagingInstruction = this.pages.get(0);
-				List<T> pageOfData = this.callback.getPageOfData(pagingInstruction);
+				List<T> pageOfData = RequestLane.call(this.lane, () -> this.callback.getPageOfData(pagingInstruction));
 				pageOfData = PagingUtils.ignoreLastN(pageOfData, pagingInstruction.getIgnoreLastN());
 				pageOfData = PagingUtils.ignoreFirstN(pageOfData, pagingInstruction.getIgnoreFirstN());
 				return pageOfData;
@@ -60,11 +75,11 @@ public class PagingForkJoinTask<T> extends RecursiveTask<List<T>> {
 
 		final int middle = this.pages.size() / 2;
 		final List<Paging> leftPages = this.pages.subList(0, middle);
-		final PagingForkJoinTask<T> leftTask = new PagingForkJoinTask<T>(this.callback, leftPages);
+		final PagingForkJoinTask<T> leftTask = new PagingForkJoinTask<T>(this.callback, leftPages, this.lane);
 		leftTask.fork();
 
 		final List<Paging> rightPages = this.pages.subList(middle, this.pages.size());
-		final PagingForkJoinTask<T> rightTask = new PagingForkJoinTask<T>(this.callback, rightPages);
+		final PagingForkJoinTask<T> rightTask = new PagingForkJoinTask<T>(this.callback, rightPages, this.lane);
 		final List<T> rightResult = rightTask.compute();
 
 		final List<T> leftResult = leftTask.join();
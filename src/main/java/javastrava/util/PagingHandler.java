@@ -2,7 +2,11 @@ package javastrava.util;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javastrava.config.StravaConfig;
 import javastrava.service.exception.BadRequestException;
@@ -100,6 +104,76 @@ public class PagingHandler {
 
 	}
 
+	/**
+	 * <p>
+	 * Returns ALL the data from a Strava service that would normally only return a page of data, as a {@link StravaFlow.Publisher} which gets pages 1..n only as subscribers ask for the records on
+	 * them
+	 * </p>
+	 *
+	 * <p>
+	 * The demand signalled by each subscriber controls how many pages are in flight: no page is requested until the records already on their way fall short of what the subscriber has asked for,
+	 * and no more than strava.paging_list_all_parallelism pages are requested at once. If the parent object does not exist, or the token cannot see it, the subscriber is completed without being
+	 * sent anything.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION! A SUBSCRIBER THAT ASKS FOR EVERYTHING WILL VERY RAPIDLY EAT THROUGH YOUR STRAVA QUOTA!
+	 * </p>
+	 *
+	 * @param callback The callback function that returns one page of data
+	 * @param <T> the parameterised type of publisher to be returned
+	 * @return Publisher of all the records
+	 * @see PagingPublisher
+	 */
+	public static <T> StravaFlow.Publisher<T> handlePublishAll(final PagingCallback<T> callback) {
+		return new PagingPublisher<T>(callback);
+	}
+
+	/**
+	 * <p>
+	 * Returns ALL the data from a Strava service that would normally only return a page of data, as a lazy {@link Stream} which gets pages 1..n only as they are needed
+	 * </p>
+	 *
+	 * <p>
+	 * Unlike {@link #handleListAll(PagingCallback)}, records are available as soon as the page they are on has arrived, and the whole list is never held in memory. Up to
+	 * strava.paging.stream.prefetch pages, counting the next one to be read, are requested in the background while the current one is read; a caller that stops early (e.g. with
+	 * {@link Stream#limit(long)} or {@link Stream#findFirst()}) requests no more than that. If the parent object does not exist, or the token cannot see it, the stream is empty. Close the stream (or
+	 * use it in a try-with-resources block) so that prefetched pages which have not been requested yet are not requested; requests already on their way to Strava are not interrupted.
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION! A STREAM THAT IS READ TO THE END WILL VERY RAPIDLY EAT THROUGH YOUR STRAVA QUOTA!
+	 * </p>
+	 *
+	 * @param callback The callback function that returns one page of data
+	 * @param <T> the parameterised type of stream to be returned
+	 * @return Stream of all the records
+	 * @see PagingIterator
+	 */
+	public static <T> Stream<T> handleStreamAll(final PagingCallback<T> callback) {
+		return handleStreamAll(callback, StravaConfig.PAGING_STREAM_PREFETCH);
+	}
+
+	/**
+	 * <p>
+	 * Returns ALL the data from a Strava service that would normally only return a page of data, as a lazy {@link Stream} which gets pages 1..n only as they are needed
+	 * </p>
+	 *
+	 * <p>
+	 * USE WITH CAUTION! A STREAM THAT IS READ TO THE END WILL VERY RAPIDLY EAT THROUGH YOUR STRAVA QUOTA!
+	 * </p>
+	 *
+	 * @param callback The callback function that returns one page of data
+	 * @param <T> the parameterised type of stream to be returned
+	 * @param prefetch Largest number of pages to request in the background at once, counting the next one to be read; 0 to request each page only when it is needed
+	 * @return Stream of all the records
+	 * @see #handleStreamAll(PagingCallback)
+	 */
+	public static <T> Stream<T> handleStreamAll(final PagingCallback<T> callback, final int prefetch) {
+		final PagingIterator<T> iterator = new PagingIterator<T>(callback, prefetch);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+	}
+
 	/**
 	 * <p>
 	 * Validates paging instructions and converts them to Strava-compatible paging instructions, then gets the whole lot for you
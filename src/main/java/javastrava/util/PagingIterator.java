@@ -0,0 +1,202 @@
+package javastrava.util;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import javastrava.api.util.RequestLane;
+import javastrava.api.util.TransportRegistry;
+import javastrava.config.StravaConfig;
+import javastrava.service.exception.BadRequestException;
+import javastrava.service.exception.NotFoundException;
+import javastrava.service.exception.UnauthorizedException;
+
+/**
+ * <p>
+ * Iterates over ALL the data from a Strava service that would normally only return a page of data, getting pages 1..n only as they are needed, instead of collecting every record into a list
+ * before returning any of them (as {@link PagingHandler#handleListAll(PagingCallback)} does).
+ * </p>
+ *
+ * <p>
+ * While the caller works through one page, the following pages are requested in the background on the shared asynchronous executor, in the same {@link RequestLane} as the thread which
+ * created the iterator. No more than strava.paging.stream.prefetch pages are requested at once, counting the next page to be read, so a caller that stops early never requests more than that many
+ * pages it does not use. {@link #close()} stops prefetched pages which have not been requested yet from being requested, and discards the rest; a request already on its way to Strava is not
+ * interrupted, but finishes in the background and its page is thrown away.
+ * </p>
+ *
+ * <p>
+ * As with {@link PagingHandler#handleListAll(PagingCallback)}, a {@link NotFoundException}, {@link UnauthorizedException} or {@link BadRequestException} while getting a page ends the iteration;
+ * any other exception is thrown by {@link #hasNext()} or {@link #next()}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ * @param <T>
+ *            Class of the objects returned
+ */
+public class PagingIterator<T> implements Iterator<T>, AutoCloseable {
+	/**
+	 * Callback which returns a page of data from the Strava API
+	 */
+	private final PagingCallback<T> callback;
+
+	/**
+	 * Largest number of pages requested in the background at once, counting the next page to be read
+	 */
+	private final int prefetch;
+
+	/**
+	 * Lane of the thread which created the iterator; prefetched pages are requested in the same lane
+	 */
+	private final RequestLane lane;
+
+	/**
+	 * Number of records in each page
+	 */
+	private final int pageSize;
+
+	/**
+	 * Pages requested but not yet read, in page order
+	 */
+	private final ArrayDeque<CompletableFuture<List<T>>> pending = new ArrayDeque<CompletableFuture<List<T>>>();
+
+	/**
+	 * Last page number requested
+	 */
+	private int lastRequested = 0;
+
+	/**
+	 * <code>true</code> once a short (or empty) page has been read, or the iterator has been closed
+	 */
+	private boolean finished = false;
+
+	/**
+	 * Records of the current page not yet returned
+	 */
+	private Iterator<T> current = Collections.<T> emptyList().iterator();
+
+	/**
+	 * @param callback
+	 *            The callback which returns one page of data
+	 */
+	public PagingIterator(final PagingCallback<T> callback) {
+		this(callback, StravaConfig.PAGING_STREAM_PREFETCH);
+	}
+
+	/**
+	 * @param callback
+	 *            The callback which returns one page of data
+	 * @param prefetch
+	 *            Largest number of pages to request in the background at once, counting the next page to be read; 0 requests each page on the calling thread only when it is needed
+	 */
+	public PagingIterator(final PagingCallback<T> callback, final int prefetch) {
+		this.callback = callback;
+		this.prefetch = Math.max(0, prefetch);
+		this.lane = RequestLane.current();
+		this.pageSize = StravaConfig.MAX_PAGE_SIZE.intValue();
+	}
+
+	/**
+	 * <p>
+	 * Ends the iteration, and stops prefetched pages which have not been requested yet from being requested; requests already on their way to Strava finish in the background, and their
+	 * pages are thrown away
+	 * </p>
+	 *
+	 * @see java.lang.AutoCloseable#close()
+	 */
+	@Override
+	public synchronized void close() {
+		this.finished = true;
+		this.current = Collections.<T> emptyList().iterator();
+		for (final CompletableFuture<List<T>> page : this.pending) {
+			page.cancel(false);
+		}
+		this.pending.clear();
+	}
+
+	/**
+	 * <p>
+	 * Gets one page of data, treating the parent object not existing (or not being visible) as there being no more data
+	 * </p>
+	 *
+	 * @param callback
+	 *            The callback which returns one page of data
+	 * @param lane
+	 *            The lane in which to request the page
+	 * @param page
+	 *            Page number
+	 * @param pageSize
+	 *            Number of records in each page
+	 * @param <T>
+	 *            Class of the objects returned
+	 * @return The page of data, or an empty list if there is no more data to be had
+	 */
+	static <T> List<T> getPage(final PagingCallback<T> callback, final RequestLane lane, final int page, final int pageSize) {
+		List<T> records;
+		try {
+			records = RequestLane.call(lane, () -> PagingHandler.handlePaging(new Paging(Integer.valueOf(page), Integer.valueOf(pageSize)), callback));
+		} catch (final NotFoundException | UnauthorizedException | BadRequestException e) {
+			records = null;
+		}
+		return (records == null ? Collections.<T> emptyList() : records);
+	}
+
+	/**
+	 * @see java.util.Iterator#hasNext()
+	 */
+	@Override
+	public synchronized boolean hasNext() {
+		while (!this.current.hasNext()) {
+			if (this.finished) {
+				return false;
+			}
+			final List<T> page = nextPage();
+			if (page.size() < this.pageSize) {
+				close();
+			}
+			this.current = page.iterator();
+		}
+		return true;
+	}
+
+	/**
+	 * @see java.util.Iterator#next()
+	 */
+	@Override
+	public synchronized T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return this.current.next();
+	}
+
+	/**
+	 * <p>
+	 * Gets the next page, topping up the pages being prefetched first (to no more than the prefetch limit, counting this one) so that they are fetched while this one is waited for
+	 * </p>
+	 *
+	 * @return The next page of data
+	 */
+	private List<T> nextPage() {
+		if (this.prefetch == 0) {
+			return getPage(this.callback, this.lane, ++this.lastRequested, this.pageSize);
+		}
+		while (this.pending.size() < this.prefetch) {
+			final int page = ++this.lastRequested;
+			this.pending.add(CompletableFuture.supplyAsync(() -> getPage(this.callback, this.lane, page, this.pageSize), TransportRegistry.instance().getAsyncExecutor()));
+		}
+		try {
+			return this.pending.remove().join();
+		} catch (final CompletionException e) {
+			close();
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
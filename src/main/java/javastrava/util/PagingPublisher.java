@@ -0,0 +1,351 @@
+package javastrava.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javastrava.api.util.RequestLane;
+import javastrava.api.util.TransportRegistry;
+import javastrava.config.StravaConfig;
+import javastrava.service.exception.BadRequestException;
+import javastrava.service.exception.NotFoundException;
+import javastrava.service.exception.UnauthorizedException;
+
+/**
+ * <p>
+ * Publishes ALL the data from a Strava service that would normally only return a page of data, getting pages 1..n only as subscribers ask for the records on them.
+ * </p>
+ *
+ * <p>
+ * Each subscriber gets its own subscription, which requests pages from Strava (on the shared asynchronous executor, in the {@link RequestLane} of the thread which subscribed) only to cover the
+ * records the subscriber has asked for and not yet been sent; a slow subscriber therefore stops pages being requested, rather than having records buffered for it. No more than a fixed number of
+ * pages (strava.paging_list_all_parallelism, by default) are requested at once, even if the subscriber asks for everything. Pages may arrive in any order, but records are always sent in page order.
+ * </p>
+ *
+ * <p>
+ * As with {@link PagingHandler#handleListAll(PagingCallback)}, a {@link NotFoundException}, {@link UnauthorizedException} or {@link BadRequestException} while getting a page is treated as there
+ * being no more data, and the subscriber is completed; any other exception is sent to {@link StravaFlow.Subscriber#onError(Throwable)}.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ * @param <T>
+ *            Class of the objects published
+ */
+public class PagingPublisher<T> implements StravaFlow.Publisher<T> {
+	/**
+	 * <p>
+	 * The subscription of one subscriber. Its state is guarded by the subscription itself; records are sent to the subscriber by whichever thread runs {@link #drain()}, and never by two threads at
+	 * once, but never while holding the lock.
+	 * </p>
+	 */
+	private class PagingSubscription implements StravaFlow.Subscription {
+		/**
+		 * The subscriber
+		 */
+		private final StravaFlow.Subscriber<? super T> subscriber;
+
+		/**
+		 * Lane of the thread which subscribed; pages are requested in the same lane
+		 */
+		private final RequestLane lane;
+
+		/**
+		 * Number of times {@link #drain()} has been asked to run since it last finished; only the caller which raises it from 0 runs the loop
+		 */
+		private final AtomicInteger wip = new AtomicInteger();
+
+		/**
+		 * Number of records asked for but not yet sent
+		 */
+		private long demand = 0;
+
+		/**
+		 * Records of pages already in order, waiting to be sent
+		 */
+		private final ArrayDeque<T> buffer = new ArrayDeque<T>();
+
+		/**
+		 * Pages which have arrived before an earlier page, by page number
+		 */
+		private final TreeMap<Integer, List<T>> arrived = new TreeMap<Integer, List<T>>();
+
+		/**
+		 * Pages requested and not yet arrived, by page number
+		 */
+		private final TreeMap<Integer, CompletableFuture<List<T>>> inFlight = new TreeMap<Integer, CompletableFuture<List<T>>>();
+
+		/**
+		 * Next page to request
+		 */
+		private int nextToRequest = 1;
+
+		/**
+		 * Next page to move from {@link #arrived} to {@link #buffer}
+		 */
+		private int nextToBuffer = 1;
+
+		/**
+		 * Last page there is, once a short (or empty) page has arrived
+		 */
+		private int lastPage = Integer.MAX_VALUE;
+
+		/**
+		 * Failure to send to the subscriber
+		 */
+		private Throwable error;
+
+		/**
+		 * <code>true</code> once the subscription has been cancelled, or the subscriber has been completed or sent an error
+		 */
+		private boolean done = false;
+
+		/**
+		 * @param subscriber
+		 *            The subscriber
+		 */
+		PagingSubscription(final StravaFlow.Subscriber<? super T> subscriber) {
+			this.subscriber = subscriber;
+			this.lane = RequestLane.current();
+		}
+
+		/**
+		 * @see javastrava.util.StravaFlow.Subscription#cancel()
+		 */
+		@Override
+		public void cancel() {
+			synchronized (this) {
+				this.done = true;
+				this.buffer.clear();
+				this.arrived.clear();
+				for (final CompletableFuture<List<T>> page : this.inFlight.values()) {
+					page.cancel(false);
+				}
+				this.inFlight.clear();
+			}
+		}
+
+		/**
+		 * <p>
+		 * Sends as many records as have been asked for and have arrived, then completes the subscriber or sends it an error if it is time to, and otherwise requests whatever pages are needed
+		 * to meet the remaining demand
+		 * </p>
+		 */
+		void drain() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			while (true) {
+				List<Integer> pages = new ArrayList<Integer>();
+				while (true) {
+					T record = null;
+					Throwable failure = null;
+					boolean complete = false;
+					synchronized (this) {
+						if (this.done) {
+							return;
+						}
+						while (this.arrived.containsKey(Integer.valueOf(this.nextToBuffer))) {
+							this.buffer.addAll(this.arrived.remove(Integer.valueOf(this.nextToBuffer)));
+							this.nextToBuffer++;
+						}
+						if (this.error != null) {
+							failure = this.error;
+						} else if ((this.demand > 0) && !this.buffer.isEmpty()) {
+							record = this.buffer.remove();
+							this.demand--;
+						} else if (this.buffer.isEmpty() && (this.nextToBuffer > this.lastPage)) {
+							complete = true;
+						} else {
+							pages = pagesToRequest();
+							break;
+						}
+						if ((failure != null) || complete) {
+							cancel();
+						}
+					}
+					if (failure != null) {
+						this.subscriber.onError(failure);
+						return;
+					} else if (complete) {
+						this.subscriber.onComplete();
+						return;
+					}
+					this.subscriber.onNext(record);
+				}
+				for (final Integer page : pages) {
+					requestPage(page.intValue());
+				}
+				missed = this.wip.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @param page
+		 *            Page number
+		 * @param records
+		 *            The page of data, or <code>null</code> if it could not be got
+		 * @param throwable
+		 *            Why the page could not be got, or <code>null</code> if it was
+		 */
+		private void pageArrived(final int page, final List<T> records, final Throwable throwable) {
+			synchronized (this) {
+				if (this.done || (this.inFlight.remove(Integer.valueOf(page)) == null)) {
+					return;
+				}
+				if (throwable != null) {
+					final Throwable cause = ((throwable instanceof CompletionException) && (throwable.getCause() != null) ? throwable.getCause() : throwable);
+					if (!(cause instanceof CancellationException) && (this.error == null)) {
+						this.error = cause;
+					}
+				} else if (page <= this.lastPage) {
+					this.arrived.put(Integer.valueOf(page), records);
+					if (records.size() < PagingPublisher.this.pageSize) {
+						// This is the last page, so anything after it is not needed
+						this.lastPage = page;
+						final Map<Integer, CompletableFuture<List<T>>> later = this.inFlight.tailMap(Integer.valueOf(page), false);
+						final List<CompletableFuture<List<T>>> unneeded = new ArrayList<CompletableFuture<List<T>>>(later.values());
+						later.clear();
+						for (final CompletableFuture<List<T>> unneededPage : unneeded) {
+							unneededPage.cancel(false);
+						}
+						this.arrived.tailMap(Integer.valueOf(page), false).clear();
+					}
+				}
+			}
+			drain();
+		}
+
+		/**
+		 * <p>
+		 * Works out which pages to request so that the records buffered, arrived and on their way cover the demand, without exceeding the limit on pages in flight. The pages are reserved, but
+		 * are requested by the caller after releasing the lock, since the executor may block.
+		 * </p>
+		 *
+		 * @return Numbers of the pages to request
+		 */
+		private List<Integer> pagesToRequest() {
+			final List<Integer> pages = new ArrayList<Integer>();
+			long covered = this.buffer.size();
+			for (final List<T> page : this.arrived.values()) {
+				covered += page.size();
+			}
+			covered += (long) this.inFlight.size() * PagingPublisher.this.pageSize;
+			while ((covered < this.demand) && (this.inFlight.size() < PagingPublisher.this.maxPagesInFlight) && (this.nextToRequest <= this.lastPage)) {
+				final int page = this.nextToRequest++;
+				this.inFlight.put(Integer.valueOf(page), new CompletableFuture<List<T>>());
+				pages.add(Integer.valueOf(page));
+				covered += PagingPublisher.this.pageSize;
+			}
+			return pages;
+		}
+
+		/**
+		 * @see javastrava.util.StravaFlow.Subscription#request(long)
+		 */
+		@Override
+		public void request(final long n) {
+			synchronized (this) {
+				if (n <= 0) {
+					if (this.error == null) {
+						this.error = new IllegalArgumentException("Number of records requested must be positive, but was " + n); //$NON-NLS-1$
+					}
+				} else {
+					this.demand = ((this.demand + n) < 0 ? Long.MAX_VALUE : this.demand + n);
+				}
+			}
+			drain();
+		}
+
+		/**
+		 * <p>
+		 * Requests a page reserved by {@link #pagesToRequest()}
+		 * </p>
+		 *
+		 * @param page
+		 *            Page number
+		 */
+		private void requestPage(final int page) {
+			final CompletableFuture<List<T>> reserved;
+			synchronized (this) {
+				reserved = this.inFlight.get(Integer.valueOf(page));
+			}
+			if (reserved == null) {
+				return;
+			}
+			reserved.whenComplete((records, throwable) -> pageArrived(page, records, throwable));
+			try {
+				TransportRegistry.instance().getAsyncExecutor().execute(() -> {
+					if (reserved.isDone()) {
+						return;
+					}
+					try {
+						reserved.complete(PagingIterator.getPage(PagingPublisher.this.callback, this.lane, page, PagingPublisher.this.pageSize));
+					} catch (final RuntimeException e) {
+						reserved.completeExceptionally(e);
+					}
+				});
+			} catch (final RuntimeException e) {
+				reserved.completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Callback which returns a page of data from the Strava API
+	 */
+	private final PagingCallback<T> callback;
+
+	/**
+	 * Largest number of pages requested at once for each subscriber
+	 */
+	private final int maxPagesInFlight;
+
+	/**
+	 * Number of records in each page
+	 */
+	private final int pageSize;
+
+	/**
+	 * @param callback
+	 *            The callback which returns one page of data
+	 */
+	public PagingPublisher(final PagingCallback<T> callback) {
+		this(callback, StravaConfig.PAGING_LIST_ALL_PARALLELISM);
+	}
+
+	/**
+	 * @param callback
+	 *            The callback which returns one page of data
+	 * @param maxPagesInFlight
+	 *            Largest number of pages requested at once for each subscriber
+	 */
+	public PagingPublisher(final PagingCallback<T> callback, final int maxPagesInFlight) {
+		this.callback = callback;
+		this.maxPagesInFlight = Math.max(1, maxPagesInFlight);
+		this.pageSize = StravaConfig.MAX_PAGE_SIZE.intValue();
+	}
+
+	/**
+	 * @see javastrava.util.StravaFlow.Publisher#subscribe(javastrava.util.StravaFlow.Subscriber)
+	 */
+	@Override
+	public void subscribe(final StravaFlow.Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber must not be null"); //$NON-NLS-1$
+		}
+		final PagingSubscription subscription = new PagingSubscription(subscriber);
+		subscriber.onSubscribe(subscription);
+		subscription.drain();
+	}
+}
@@ -8,6 +8,7 @@ import javastrava.model.StravaActivity;
 import javastrava.model.StravaChallenge;
 import javastrava.model.StravaClub;
 import javastrava.model.StravaGear;
+import javastrava.model.StravaRoute;
 import javastrava.model.StravaSegment;
 import javastrava.model.StravaSegmentEffort;
 import javastrava.model.StravaSegmentLeaderboard;
@@ -48,6 +49,19 @@ public class PrivacyUtils {
 		return ((activity.getPrivateActivity() != null) && activity.getPrivateActivity().equals(Boolean.TRUE));
 	}
 
+	/**
+	 * <p>
+	 * Checks if a club is private
+	 * </p>
+	 * 
+	 * @param club
+	 *            The club to check
+	 * @return <code>true</code> if and only if the privateClub flag is set to Boolean.TRUE
+	 */
+	public static boolean clubIsPrivate(final StravaClub club) {
+		return ((club.getPrivateClub() != null) && club.getPrivateClub().equals(Boolean.TRUE));
+	}
+
 	/**
 	 * <p>
 	 * Removes private activities from the list (by changing private ones to activities with resourceState=PRIVATE)
@@ -290,6 +304,19 @@ public class PrivacyUtils {
 
 	}
 
+	/**
+	 * <p>
+	 * Checks if a route is flagged as private
+	 * </p>
+	 * 
+	 * @param route
+	 *            the route to check
+	 * @return <code>true</code> if the route is flagged as private, <code>false</code> otherwise
+	 */
+	public static boolean routeIsPrivate(final StravaRoute route) {
+		return ((route.getIsPrivate() != null) && route.getIsPrivate().equals(Boolean.TRUE));
+	}
+
 	/**
 	 * <p>
 	 * Checks if a segment is flagged as private
@@ -299,7 +326,7 @@ public class PrivacyUtils {
 	 *            the segment to check
 	 * @return <code>true</code> if the segment is flagged as private, <code>false</code> otherwise
 	 */
-	private static boolean segmentIsPrivate(final StravaSegment segment) {
+	public static boolean segmentIsPrivate(final StravaSegment segment) {
 		return ((segment.getPrivateSegment() != null) && segment.getPrivateSegment().equals(Boolean.TRUE));
 	}
 
@@ -0,0 +1,196 @@
+package javastrava.util;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * Coalesces identical concurrent reads. While one thread is loading a value, other threads asking for the same value wait for it and share its result (or its exception), rather than each issuing
+ * their own request to the Strava API.
+ * </p>
+ *
+ * <p>
+ * Reads are identified by the access token they are made with, the class of entity being read and a key (usually the id of the entity, plus any parameters which change the response). Once the
+ * load completes, the next read with the same identity starts a new load; it is up to the caller to consult its cache first.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public class SingleFlight {
+	/**
+	 * <p>
+	 * Identity of a read
+	 * </p>
+	 */
+	private static final class Key {
+		/**
+		 * Access token the read is made with
+		 */
+		private final String token;
+
+		/**
+		 * Class of entity being read
+		 */
+		private final Class<?> class1;
+
+		/**
+		 * Key of the entity within its class
+		 */
+		private final Object id;
+
+		/**
+		 * Hash code, calculated once
+		 */
+		private final int hashCode;
+
+		/**
+		 * @param token
+		 *            Access token the read is made with
+		 * @param class1
+		 *            Class of entity being read
+		 * @param id
+		 *            Key of the entity within its class
+		 */
+		Key(final String token, final Class<?> class1, final Object id) {
+			this.token = token;
+			this.class1 = class1;
+			this.id = id;
+			this.hashCode = Objects.hash(token, class1, id);
+		}
+
+		/**
+		 * @see java.lang.Object#equals(java.lang.Object)
+		 */
+		@Override
+		public boolean equals(final Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return (this.class1 == other.class1) && Objects.equals(this.token, other.token) && Objects.equals(this.id, other.id);
+		}
+
+		/**
+		 * @see java.lang.Object#hashCode()
+		 */
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+	}
+
+	/**
+	 * The singleton instance
+	 */
+	private static SingleFlight instance = new SingleFlight();
+
+	/**
+	 * @return The singleton instance
+	 */
+	public static SingleFlight instance() {
+		return instance;
+	}
+
+	/**
+	 * Loads currently in progress
+	 */
+	private final ConcurrentHashMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<Key, CompletableFuture<Object>>();
+
+	/**
+	 * Total number of loads started
+	 */
+	private final AtomicLong loads = new AtomicLong();
+
+	/**
+	 * Total number of reads which shared the result of a load started by another thread
+	 */
+	private final AtomicLong coalesced = new AtomicLong();
+
+	/**
+	 * <p>
+	 * Private constructor allows only for instantiation as a singleton via {@link #instance()}
+	 * </p>
+	 */
+	private SingleFlight() {
+		super();
+	}
+
+	/**
+	 * <p>
+	 * Runs the loader, unless an identical read is already in progress, in which case waits for that read to complete and returns its result
+	 * </p>
+	 *
+	 * @param <T>
+	 *            Type of value being read
+	 * @param token
+	 *            Access token the read is made with
+	 * @param class1
+	 *            Class of entity being read
+	 * @param id
+	 *            Key of the entity within its class; must implement equals() and hashCode()
+	 * @param loader
+	 *            Loads the value
+	 * @return The value
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T execute(final String token, final Class<?> class1, final Object id, final Supplier<T> loader) {
+		final Key key = new Key(token, class1, id);
+		final CompletableFuture<Object> mine = new CompletableFuture<Object>();
+		final CompletableFuture<Object> existing = this.inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			this.coalesced.incrementAndGet();
+			try {
+				return (T) existing.join();
+			} catch (final CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException) e.getCause();
+				}
+				if (e.getCause() instanceof Error) {
+					throw (Error) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		this.loads.incrementAndGet();
+		try {
+			final T value = loader.get();
+			mine.complete(value);
+			return value;
+		} catch (final RuntimeException | Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.inFlight.remove(key, mine);
+		}
+	}
+
+	/**
+	 * @return Total number of reads which shared the result of a load started by another thread
+	 */
+	public long getCoalescedCount() {
+		return this.coalesced.get();
+	}
+
+	/**
+	 * @return Number of loads currently in progress
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+	/**
+	 * @return Total number of loads started
+	 */
+	public long getLoadCount() {
+		return this.loads.get();
+	}
+}
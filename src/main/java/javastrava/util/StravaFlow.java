@@ -0,0 +1,120 @@
+package javastrava.util;
+
+/**
+ * <p>
+ * Interfaces for publishing data reactively with backpressure, where the subscriber says how many items it is ready for and the publisher sends no more than that.
+ * </p>
+ *
+ * <p>
+ * These have the same methods, and the same rules, as java.util.concurrent.Flow (and the Reactive Streams interfaces), which are not available on all the versions of Java that javastrava runs
+ * on. On Java 9 or later, a {@link Publisher} can be adapted to a java.util.concurrent.Flow.Publisher by passing each method of the subscriber (and of the subscription) straight through.
+ * </p>
+ *
+ * @author Dan Shannon
+ *
+ */
+public final class StravaFlow {
+	/**
+	 * <p>
+	 * A producer of items, which are sent to each {@link Subscriber} as it asks for them
+	 * </p>
+	 *
+	 * @param <T>
+	 *            Class of the items published
+	 */
+	@FunctionalInterface
+	public static interface Publisher<T> {
+		/**
+		 * <p>
+		 * Adds a subscriber, which is first sent a {@link Subscription} through {@link Subscriber#onSubscribe(Subscription)}, and is then sent items as it asks for them
+		 * </p>
+		 *
+		 * @param subscriber
+		 *            The subscriber
+		 * @throws NullPointerException
+		 *             If the subscriber is <code>null</code>
+		 */
+		public void subscribe(Subscriber<? super T> subscriber);
+	}
+
+	/**
+	 * <p>
+	 * A receiver of items. Its methods are never called at the same time as each other for the same subscription.
+	 * </p>
+	 *
+	 * @param <T>
+	 *            Class of the items received
+	 */
+	public static interface Subscriber<T> {
+		/**
+		 * <p>
+		 * Called when there are no more items; nothing more is sent after this
+		 * </p>
+		 */
+		public void onComplete();
+
+		/**
+		 * <p>
+		 * Called when the publisher fails; nothing more is sent after this
+		 * </p>
+		 *
+		 * @param throwable
+		 *            The failure
+		 */
+		public void onError(Throwable throwable);
+
+		/**
+		 * <p>
+		 * Called with the next item; never called more often than has been asked for with {@link Subscription#request(long)}
+		 * </p>
+		 *
+		 * @param item
+		 *            The item
+		 */
+		public void onNext(T item);
+
+		/**
+		 * <p>
+		 * Called before anything else, with the subscription through which the subscriber asks for items
+		 * </p>
+		 *
+		 * @param subscription
+		 *            The subscription
+		 */
+		public void onSubscribe(Subscription subscription);
+	}
+
+	/**
+	 * <p>
+	 * Link between a {@link Publisher} and one {@link Subscriber}
+	 * </p>
+	 */
+	public static interface Subscription {
+		/**
+		 * <p>
+		 * Stops sending items to the subscriber; items already asked for may still arrive
+		 * </p>
+		 */
+		public void cancel();
+
+		/**
+		 * <p>
+		 * Asks for up to <code>n</code> more items. Requests add up; {@link Long#MAX_VALUE} means no limit. If <code>n</code> is not positive the subscriber is sent an
+		 * {@link IllegalArgumentException} through {@link Subscriber#onError(Throwable)}.
+		 * </p>
+		 *
+		 * @param n
+		 *            Number of items
+		 */
+		public void request(long n);
+	}
+
+	/**
+	 * <p>
+	 * Private constructor, as this only holds interfaces
+	 * </p>
+	 */
+	private StravaFlow() {
+		super();
+	}
+}